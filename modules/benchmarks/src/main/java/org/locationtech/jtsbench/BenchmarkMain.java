@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jtsbench;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs the JMH benchmarks, writing the results in machine-readable form.
+ * <p>
+ * All arguments are passed to the JMH command line runner
+ * (use <code>-h</code> to list them).
+ * Unless a result format or file is specified,
+ * results are written as JSON to <code>jmh-result.json</code>,
+ * which can be compared across builds and forks
+ * (e.g. with a JMH result visualizer).
+ */
+public class BenchmarkMain {
+
+  static final String DEFAULT_RESULT_FORMAT = "json";
+  static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+  public static void main(String[] args) throws Exception {
+    org.openjdk.jmh.Main.main(withResultDefaults(args));
+  }
+
+  static String[] withResultDefaults(String[] args) {
+    List<String> argList = new ArrayList<String>(Arrays.asList(args));
+    if (! argList.contains("-rf")) {
+      argList.add("-rf");
+      argList.add(DEFAULT_RESULT_FORMAT);
+    }
+    if (! argList.contains("-rff")) {
+      argList.add("-rff");
+      argList.add(DEFAULT_RESULT_FILE);
+    }
+    return argList.toArray(new String[0]);
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jtsbench;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequenceFactory;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.impl.CoordinateArraySequenceFactory;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequenceFactory;
+import org.locationtech.jts.geom.impl.XYCoordinateSequence;
+
+/**
+ * The {@link CoordinateSequence} implementations which benchmark input
+ * geometries can be created with.
+ * Used as a JMH <code>@Param</code> to compare sequence implementations.
+ */
+public enum SequenceType {
+  /**
+   * {@link org.locationtech.jts.geom.impl.CoordinateArraySequence}
+   */
+  ARRAY(CoordinateArraySequenceFactory.instance()),
+  /**
+   * {@link org.locationtech.jts.geom.impl.PackedCoordinateSequence.Double}
+   */
+  PACKED(PackedCoordinateSequenceFactory.DOUBLE_FACTORY),
+  /**
+   * {@link XYCoordinateSequence.DoubleXY}
+   */
+  XY(new DoubleXYFactory());
+
+  private final GeometryFactory geomFactory;
+
+  SequenceType(CoordinateSequenceFactory csFactory) {
+    geomFactory = new GeometryFactory(csFactory);
+  }
+
+  /**
+   * Gets a geometry factory which creates geometries
+   * using this sequence type.
+   *
+   * @return a geometry factory
+   */
+  public GeometryFactory getGeometryFactory() {
+    return geomFactory;
+  }
+
+  /**
+   * Creates a copy of a geometry using this sequence type.
+   *
+   * @param geom the geometry to copy
+   * @return a copy of the geometry using this sequence type
+   */
+  public Geometry convert(Geometry geom) {
+    return geomFactory.createGeometry(geom);
+  }
+
+  private static class DoubleXYFactory implements CoordinateSequenceFactory {
+    public CoordinateSequence create(Coordinate[] coordinates) {
+      return new XYCoordinateSequence.DoubleXY(coordinates);
+    }
+
+    public CoordinateSequence create(CoordinateSequence coordSeq) {
+      int size = coordSeq.size();
+      double[] xy = new double[2 * size];
+      for (int i = 0; i < size; i++) {
+        xy[2 * i] = coordSeq.getX(i);
+        xy[2 * i + 1] = coordSeq.getY(i);
+      }
+      return new XYCoordinateSequence.DoubleXY(xy);
+    }
+
+    public CoordinateSequence create(int size, int dimension) {
+      return new XYCoordinateSequence.DoubleXY(size);
+    }
+  }
+}
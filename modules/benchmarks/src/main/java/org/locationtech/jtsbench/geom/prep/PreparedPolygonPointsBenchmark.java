@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jtsbench.geom.prep;
+
+import java.util.concurrent.TimeUnit;
+
+import org.locationtech.jts.algorithm.locate.IndexedPointInAreaLocator;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.geom.util.SineStarFactory;
+import org.locationtech.jtsbench.SequenceType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks testing a grid of points against a sine star polygon,
+ * using the polygon directly, a {@link PreparedGeometry}
+ * and an {@link IndexedPointInAreaLocator}.
+ * <p>
+ * Port of <code>test.jts.perf.geom.prep.PreparedPolygonPointsPerfTest</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PreparedPolygonPointsBenchmark {
+
+  static final int NUM_PTS = 2000;
+
+  @Param({ "1000", "10000", "100000" })
+  public int npts;
+
+  @Param({ "ARRAY", "PACKED", "XY" })
+  public SequenceType sequenceType;
+
+  private Geometry sinePoly;
+  private PreparedGeometry prepGeom;
+  private IndexedPointInAreaLocator locator;
+  private Point[] testPoints;
+
+  @Setup
+  public void setUp() {
+    sinePoly = sequenceType.convert(createSineStar(new Coordinate(0, 0), 100, npts));
+    prepGeom = PreparedGeometryFactory.prepare(sinePoly);
+    locator = new IndexedPointInAreaLocator(sinePoly);
+    testPoints = createPoints(sinePoly.getEnvelopeInternal(), NUM_PTS, sequenceType.getGeometryFactory());
+  }
+
+  static Geometry createSineStar(Coordinate origin, double size, int nPts) {
+    SineStarFactory gsf = new SineStarFactory();
+    gsf.setCentre(origin);
+    gsf.setSize(size);
+    gsf.setNumPoints(nPts);
+    gsf.setArmLengthRatio(0.1);
+    gsf.setNumArms(50);
+    return gsf.createSineStar();
+  }
+
+  static Point[] createPoints(Envelope env, int nPts, GeometryFactory fact) {
+    int nCells = (int) Math.sqrt(nPts);
+    Point[] pts = new Point[nCells * nCells];
+    //-- Envelope.getWidth is in metres for geographic factories, so use the ordinate extent
+    double xInc = (env.getMaxX() - env.getMinX()) / nCells;
+    double yInc = (env.getMaxY() - env.getMinY()) / nCells;
+    int n = 0;
+    for (int i = 0; i < nCells; i++) {
+      for (int j = 0; j < nCells; j++) {
+        Coordinate base = new Coordinate(
+            env.getMinX() + i * xInc,
+            env.getMinY() + j * yInc);
+        pts[n++] = fact.createPoint(base);
+      }
+    }
+    return pts;
+  }
+
+  @Benchmark
+  public void coversNonPrep(Blackhole bh) {
+    for (Point pt : testPoints) {
+      bh.consume(sinePoly.covers(pt));
+    }
+  }
+
+  @Benchmark
+  public void coversPrepared(Blackhole bh) {
+    for (Point pt : testPoints) {
+      bh.consume(prepGeom.covers(pt));
+    }
+  }
+
+  @Benchmark
+  public void intersectsNonPrep(Blackhole bh) {
+    for (Point pt : testPoints) {
+      bh.consume(sinePoly.intersects(pt));
+    }
+  }
+
+  @Benchmark
+  public void intersectsPrepared(Blackhole bh) {
+    for (Point pt : testPoints) {
+      bh.consume(prepGeom.intersects(pt));
+    }
+  }
+
+  @Benchmark
+  public void indexedPointInAreaLocator(Blackhole bh) {
+    for (Point pt : testPoints) {
+      bh.consume(locator.locate(pt.getCoordinate()));
+    }
+  }
+
+  @Benchmark
+  public PreparedGeometry prepare() {
+    PreparedGeometry pg = PreparedGeometryFactory.prepare(sinePoly);
+    //-- force the lazily-built index to be created
+    pg.covers(testPoints[0]);
+    return pg;
+  }
+}
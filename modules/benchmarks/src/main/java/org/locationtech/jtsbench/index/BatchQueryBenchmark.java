@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jtsbench.index;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.ProbeItemVisitor;
+import org.locationtech.jts.index.SpatialIndex;
+import org.locationtech.jts.index.hprtree.HPRtree;
+import org.locationtech.jts.index.quadtree.Quadtree;
+import org.locationtech.jts.index.strtree.STRtree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares querying a spatial index with many probe envelopes
+ * one at a time using {@link SpatialIndex#query(Envelope)}
+ * and as a batch using {@link SpatialIndex#query(Envelope[], ProbeItemVisitor)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchQueryBenchmark {
+
+  @Param({ "100000", "1000000" })
+  public int size;
+
+  @Param({ "STRTREE", "HPRTREE", "QUADTREE" })
+  public String indexType;
+
+  private Envelope[] probes;
+  private SpatialIndex index;
+
+  @Setup
+  public void setUp() {
+    Random rnd = new Random(21);
+    index = createIndex(indexType);
+    for (Envelope env : randomEnvelopes(rnd, size, 1000, 1)) {
+      index.insert(env, env);
+    }
+    probes = randomEnvelopes(rnd, size, 1000, 2);
+    // build the index
+    index.query(new Envelope(0, 0, 0, 0));
+  }
+
+  static Envelope[] randomEnvelopes(Random rnd, int n, double extent, double maxSize) {
+    Envelope[] envs = new Envelope[n];
+    for (int i = 0; i < n; i++) {
+      double x = extent * rnd.nextDouble();
+      double y = extent * rnd.nextDouble();
+      envs[i] = new Envelope(x, x + maxSize * rnd.nextDouble(), y, y + maxSize * rnd.nextDouble());
+    }
+    return envs;
+  }
+
+  private static SpatialIndex createIndex(String indexType) {
+    if (indexType.equals("HPRTREE")) return new HPRtree();
+    if (indexType.equals("QUADTREE")) return new Quadtree();
+    return new STRtree();
+  }
+
+  @Benchmark
+  public void singleQueries(Blackhole bh) {
+    for (Envelope probe : probes) {
+      bh.consume(index.query(probe));
+    }
+  }
+
+  @Benchmark
+  public void batchQuery(final Blackhole bh) {
+    index.query(probes, new ProbeItemVisitor() {
+      public void visitItem(int probeIndex, Object item) {
+        bh.consume(probeIndex);
+        bh.consume(item);
+      }
+    });
+  }
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jtsbench.index;
+
+import org.locationtech.jts.index.ItemVisitor;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * An {@link ItemVisitor} which consumes the visited items,
+ * so that index queries are not optimized away.
+ */
+class BlackholeItemVisitor implements ItemVisitor {
+  private final Blackhole bh;
+
+  BlackholeItemVisitor(Blackhole bh) {
+    this.bh = bh;
+  }
+
+  public void visitItem(Object item) {
+    bh.consume(item);
+  }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jtsbench.index;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.ItemVisitor;
+import org.locationtech.jts.index.SpatialIndex;
+import org.locationtech.jts.index.quadtree.ConcurrentQuadtree;
+import org.locationtech.jts.index.quadtree.Quadtree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the throughput of a spatial index of moving point items
+ * (such as vehicle positions) which is queried and updated 
+ * by many threads at once.
+ * 90% of the operations are window queries and 10% are updates,
+ * which move an item by removing it and inserting it at a new position.
+ * <p>
+ * A {@link ConcurrentQuadtree} is compared with 
+ * a {@link Quadtree} guarded by a read-write lock.
+ * The number of threads can be changed with the JMH <code>-t</code> option.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@Threads(8)
+public class ConcurrentIndexBenchmark {
+
+  private static final double MIN_X = 116;
+  private static final double MIN_Y = 39.5;
+  private static final double EXTENT = 1;
+  private static final double QUERY_SIZE = 0.01;
+  /**
+   * The size of the position envelopes (about 1 m). 
+   * {@link Quadtree} handles point envelopes poorly,
+   * since it pads them to the smallest non-zero extent seen so far.
+   */
+  private static final double POSITION_SIZE = 1e-5;
+
+  public enum IndexType { CONCURRENT_QUADTREE, LOCKED_QUADTREE }
+
+  @Param({ "100000" })
+  public int size;
+
+  @Param({ "CONCURRENT_QUADTREE", "LOCKED_QUADTREE" })
+  public IndexType indexType;
+
+  private SpatialIndex index;
+  private Envelope[] positions;
+  private final AtomicInteger nextVehicle = new AtomicInteger();
+
+  @Setup
+  public void setUp() {
+    index = indexType == IndexType.CONCURRENT_QUADTREE 
+        ? new ConcurrentQuadtree() 
+        : new LockedIndex(new Quadtree());
+    Random rnd = new Random(13);
+    positions = new Envelope[size];
+    for (int i = 0; i < size; i++) {
+      positions[i] = randomPosition(rnd);
+      index.insert(positions[i], Integer.valueOf(i));
+    }
+  }
+
+  /**
+   * The vehicles moved by a thread.
+   * Each thread moves a disjoint set of vehicles, 
+   * so the index is always consistent with the positions array.
+   */
+  @State(Scope.Thread)
+  public static class Mover {
+    final Random rnd = new Random(Thread.currentThread().getId());
+    final ArrayDeque<Integer> vehicles = new ArrayDeque<Integer>();
+  }
+
+  @Benchmark
+  public void queryOrUpdate(Mover mover, final Blackhole bh) {
+    Random rnd = mover.rnd;
+    if (rnd.nextInt(10) > 0) {
+      double x = MIN_X + EXTENT * rnd.nextDouble();
+      double y = MIN_Y + EXTENT * rnd.nextDouble();
+      index.query(new Envelope(x, x + QUERY_SIZE, y, y + QUERY_SIZE), new ItemVisitor() {
+        public void visitItem(Object item) {
+          bh.consume(item);
+        }
+      });
+      return;
+    }
+    Integer vehicle = mover.vehicles.poll();
+    if (vehicle == null) {
+      vehicle = Integer.valueOf(claimVehicles(mover));
+    }
+    int i = vehicle.intValue();
+    index.remove(positions[i], vehicle);
+    positions[i] = randomPosition(rnd);
+    index.insert(positions[i], vehicle);
+    mover.vehicles.add(vehicle);
+  }
+
+  /**
+   * Assigns a block of vehicles to a thread the first time it updates.
+   */
+  private int claimVehicles(Mover mover) {
+    int block = size / 64;
+    int start = block * (nextVehicle.getAndIncrement() % 64);
+    for (int i = start + 1; i < start + block; i++) {
+      mover.vehicles.add(Integer.valueOf(i));
+    }
+    return start;
+  }
+
+  private static Envelope randomPosition(Random rnd) {
+    double x = MIN_X + EXTENT * rnd.nextDouble();
+    double y = MIN_Y + EXTENT * rnd.nextDouble();
+    return new Envelope(x, x + POSITION_SIZE, y, y + POSITION_SIZE);
+  }
+
+  /**
+   * A {@link SpatialIndex} guarded by a read-write lock,
+   * allowing concurrent queries but exclusive updates.
+   */
+  private static class LockedIndex implements SpatialIndex {
+    private final SpatialIndex index;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    LockedIndex(SpatialIndex index) {
+      this.index = index;
+    }
+
+    public void insert(Envelope itemEnv, Object item) {
+      lock.writeLock().lock();
+      try {
+        index.insert(itemEnv, item);
+      }
+      finally {
+        lock.writeLock().unlock();
+      }
+    }
+
+    public boolean remove(Envelope itemEnv, Object item) {
+      lock.writeLock().lock();
+      try {
+        return index.remove(itemEnv, item);
+      }
+      finally {
+        lock.writeLock().unlock();
+      }
+    }
+
+    public List query(Envelope searchEnv) {
+      lock.readLock().lock();
+      try {
+        return index.query(searchEnv);
+      }
+      finally {
+        lock.readLock().unlock();
+      }
+    }
+
+    public void query(Envelope searchEnv, ItemVisitor visitor) {
+      lock.readLock().lock();
+      try {
+        index.query(searchEnv, visitor);
+      }
+      finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jtsbench.index;
+
+import java.util.concurrent.TimeUnit;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.IntItemVisitor;
+import org.locationtech.jts.index.hprtree.FlatHPRtree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks building and querying a {@link FlatHPRtree}
+ * containing a grid of overlapping envelopes,
+ * using the same data as {@link HPRtreeBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlatHPRtreeBenchmark {
+
+  @Param({ "100", "10000", "100000" })
+  public int size;
+
+  private Envelope[] itemEnvs;
+  private Envelope[] queryEnvs;
+  private FlatHPRtree index;
+
+  @Setup
+  public void setUp() {
+    int side = (int) Math.sqrt(size);
+    itemEnvs = STRtreeBenchmark.gridEnvelopes(side, HPRtreeBenchmark.ITEM_ENV_SIZE);
+    queryEnvs = STRtreeBenchmark.gridEnvelopes(side, HPRtreeBenchmark.QUERY_ENV_SIZE);
+    index = build(itemEnvs);
+  }
+
+  private static FlatHPRtree build(Envelope[] envs) {
+    FlatHPRtree tree = new FlatHPRtree(HPRtreeBenchmark.NODE_SIZE, envs.length);
+    for (int i = 0; i < envs.length; i++) {
+      tree.insert(envs[i], i);
+    }
+    tree.build();
+    return tree;
+  }
+
+  @Benchmark
+  public FlatHPRtree build() {
+    return build(itemEnvs);
+  }
+
+  @Benchmark
+  public void query(Blackhole bh) {
+    IntItemVisitor visitor = new BlackholeIntItemVisitor(bh);
+    for (Envelope env : queryEnvs) {
+      index.query(env, visitor);
+    }
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jtsbench.index;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.IntItemVisitor;
+import org.locationtech.jts.index.hprtree.FlatHPRtree;
+import org.locationtech.jts.index.hprtree.FlatHPRtreeWriter;
+import org.locationtech.jts.index.hprtree.MappedHPRtree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the startup cost of opening a {@link MappedHPRtree} file
+ * with rebuilding the equivalent {@link FlatHPRtree},
+ * and the query performance of the two indexes,
+ * using the same data as {@link HPRtreeBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappedHPRtreeBenchmark {
+
+  @Param({ "10000", "1000000" })
+  public int size;
+
+  private Envelope[] itemEnvs;
+  private Envelope[] queryEnvs;
+  private File file;
+  private FlatHPRtree tree;
+  private MappedHPRtree mapped;
+
+  @Setup
+  public void setUp() throws IOException {
+    int side = (int) Math.sqrt(size);
+    itemEnvs = STRtreeBenchmark.gridEnvelopes(side, HPRtreeBenchmark.ITEM_ENV_SIZE);
+    queryEnvs = STRtreeBenchmark.gridEnvelopes(side, HPRtreeBenchmark.QUERY_ENV_SIZE);
+    tree = build();
+    file = File.createTempFile("hprtree", ".idx");
+    FlatHPRtreeWriter.write(tree, file);
+    mapped = MappedHPRtree.open(file);
+  }
+
+  @TearDown
+  public void tearDown() {
+    file.delete();
+  }
+
+  @Benchmark
+  public FlatHPRtree build() {
+    FlatHPRtree t = new FlatHPRtree(HPRtreeBenchmark.NODE_SIZE, itemEnvs.length);
+    for (int i = 0; i < itemEnvs.length; i++) {
+      t.insert(itemEnvs[i], i);
+    }
+    t.build();
+    return t;
+  }
+
+  @Benchmark
+  public MappedHPRtree open() throws IOException {
+    return MappedHPRtree.open(file);
+  }
+
+  @Benchmark
+  public void queryFlat(Blackhole bh) {
+    IntItemVisitor visitor = new BlackholeIntItemVisitor(bh);
+    for (Envelope env : queryEnvs) {
+      tree.query(env, visitor);
+    }
+  }
+
+  @Benchmark
+  public void queryMapped(Blackhole bh) {
+    IntItemVisitor visitor = new BlackholeIntItemVisitor(bh);
+    for (Envelope env : queryEnvs) {
+      mapped.queryIds(env, visitor);
+    }
+  }
+}
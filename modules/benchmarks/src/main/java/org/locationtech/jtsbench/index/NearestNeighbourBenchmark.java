@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jtsbench.index;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.hprtree.HPRtree;
+import org.locationtech.jts.index.strtree.ItemBoundable;
+import org.locationtech.jts.index.strtree.ItemDistance;
+import org.locationtech.jts.index.strtree.STRtree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares k-nearest-neighbour queries using
+ * {@link HPRtree#nearestNeighbour(Envelope, Object, ItemDistance, int)}
+ * and {@link STRtree#nearestNeighbour(Envelope, Object, ItemDistance, int)}
+ * over random points in geographic coordinates.
+ * Each invocation runs {@link #NUM_QUERIES} queries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx8g" })
+public class NearestNeighbourBenchmark {
+
+  static final int NUM_QUERIES = 1000;
+
+  @Param({ "1000000", "10000000" })
+  public int size;
+
+  @Param({ "1", "10" })
+  public int k;
+
+  private Coordinate[] queryPts;
+  private STRtree strTree;
+  private HPRtree hprTree;
+  private final ItemDistance itemDist = new CoordinateItemDistance();
+
+  @Setup
+  public void setUp() {
+    Random rnd = new Random(17);
+    strTree = new STRtree();
+    hprTree = new HPRtree();
+    for (int i = 0; i < size; i++) {
+      Coordinate p = randomPoint(rnd);
+      Envelope env = new Envelope(p);
+      strTree.insert(env, p);
+      hprTree.insert(env, p);
+    }
+    strTree.build();
+    hprTree.build();
+    queryPts = new Coordinate[NUM_QUERIES];
+    for (int i = 0; i < NUM_QUERIES; i++) {
+      queryPts[i] = randomPoint(rnd);
+    }
+  }
+
+  private static Coordinate randomPoint(Random rnd) {
+    return new Coordinate(73 + 62 * rnd.nextDouble(), 18 + 36 * rnd.nextDouble());
+  }
+
+  @Benchmark
+  public void strtree(Blackhole bh) {
+    for (Coordinate q : queryPts) {
+      bh.consume(strTree.nearestNeighbour(new Envelope(q), q, itemDist, k));
+    }
+  }
+
+  @Benchmark
+  public void hprtree(Blackhole bh) {
+    for (Coordinate q : queryPts) {
+      bh.consume(hprTree.nearestNeighbour(new Envelope(q), q, itemDist, k));
+    }
+  }
+
+  /**
+   * The distance between {@link Coordinate} items.
+   */
+  static class CoordinateItemDistance implements ItemDistance {
+    public double distance(ItemBoundable item1, ItemBoundable item2) {
+      return ((Coordinate) item1.getItem()).distance((Coordinate) item2.getItem());
+    }
+  }
+}
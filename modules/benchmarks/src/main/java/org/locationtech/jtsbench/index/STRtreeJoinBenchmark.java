@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jtsbench.index;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.ItemPairVisitor;
+import org.locationtech.jts.index.ItemVisitor;
+import org.locationtech.jts.index.strtree.STRtree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares finding the intersecting pairs of items in two {@link STRtree}s
+ * using {@link STRtree#join(STRtree, ItemPairVisitor)}
+ * with querying one tree for each item of the other.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class STRtreeJoinBenchmark {
+
+  @Param({ "100000", "1000000" })
+  public int size;
+
+  private Envelope[] envs1;
+  private STRtree tree1;
+  private STRtree tree2;
+
+  @Setup
+  public void setUp() {
+    Random rnd = new Random(23);
+    envs1 = BatchQueryBenchmark.randomEnvelopes(rnd, size, 1000, 1);
+    Envelope[] envs2 = BatchQueryBenchmark.randomEnvelopes(rnd, size, 1000, 1);
+    tree1 = new STRtree();
+    for (Envelope env : envs1) {
+      tree1.insert(env, env);
+    }
+    tree2 = new STRtree();
+    for (Envelope env : envs2) {
+      tree2.insert(env, env);
+    }
+    tree1.build();
+    tree2.build();
+  }
+
+  @Benchmark
+  public void join(final Blackhole bh) {
+    tree1.join(tree2, new ItemPairVisitor() {
+      public void visitItems(Object item1, Object item2) {
+        bh.consume(item1);
+        bh.consume(item2);
+      }
+    });
+  }
+
+  @Benchmark
+  public void nestedQueries(final Blackhole bh) {
+    for (final Envelope env : envs1) {
+      tree2.query(env, new ItemVisitor() {
+        public void visitItem(Object item) {
+          bh.consume(env);
+          bh.consume(item);
+        }
+      });
+    }
+  }
+}
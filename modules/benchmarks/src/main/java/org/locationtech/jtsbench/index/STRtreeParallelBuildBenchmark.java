@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jtsbench.index;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.strtree.STRtree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks building an {@link STRtree} over random envelopes
+ * sequentially and with {@link STRtree#setParallelBuild(ForkJoinPool)}
+ * using pools of increasing parallelism,
+ * to show how the build scales with the number of cores.
+ * A parallelism of 0 builds sequentially.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx8g" })
+public class STRtreeParallelBuildBenchmark {
+
+  @Param({ "1000000", "5000000" })
+  public int size;
+
+  @Param({ "0", "1", "2", "4", "8", "16" })
+  public int parallelism;
+
+  private Envelope[] itemEnvs;
+  private ForkJoinPool pool;
+
+  @Setup
+  public void setUp() {
+    Random rnd = new Random(13);
+    itemEnvs = new Envelope[size];
+    for (int i = 0; i < size; i++) {
+      double x = 360 * rnd.nextDouble() - 180;
+      double y = 180 * rnd.nextDouble() - 90;
+      itemEnvs[i] = new Envelope(x, x + 0.01 * rnd.nextDouble(), y, y + 0.01 * rnd.nextDouble());
+    }
+    if (parallelism > 0) {
+      pool = new ForkJoinPool(parallelism);
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    if (pool != null) {
+      pool.shutdown();
+    }
+  }
+
+  @Benchmark
+  public STRtree build() {
+    STRtree tree = new STRtree();
+    tree.setParallelBuild(pool);
+    for (int i = 0; i < itemEnvs.length; i++) {
+      tree.insert(itemEnvs[i], itemEnvs[i]);
+    }
+    tree.build();
+    return tree;
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jtsbench.noding;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.locationtech.jts.algorithm.RobustLineIntersector;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.noding.IntersectionAdder;
+import org.locationtech.jts.noding.MCIndexNoder;
+import org.locationtech.jts.noding.NodedSegmentString;
+import org.locationtech.jts.noding.PackedSegmentNodeList;
+import org.locationtech.jts.noding.snapround.SnapRoundingNoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks noding a dense network of crossing lines
+ * with {@link MCIndexNoder} and {@link SnapRoundingNoder},
+ * with the nodes stored in the default node list
+ * and in a {@link PackedSegmentNodeList}.
+ * <p>
+ * Run with <code>-prof gc</code> to compare the memory allocated.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g" })
+public class SegmentNodeListBenchmark {
+
+  private static final double SIZE = 1000;
+
+  @Param({ "200", "500" })
+  public int numLines;
+
+  @Param({ "false", "true" })
+  public boolean isPacked;
+
+  private List<Coordinate[]> lines;
+
+  @Setup
+  public void setUp() {
+    Random rnd = new Random(13);
+    lines = new ArrayList<Coordinate[]>();
+    // roughly horizontal and vertical roads, each crossing most of the others
+    for (int i = 0; i < numLines; i++) {
+      double offset = SIZE * (i + rnd.nextDouble()) / numLines;
+      lines.add(road(rnd, offset, true));
+      lines.add(road(rnd, offset, false));
+    }
+  }
+
+  private static Coordinate[] road(Random rnd, double offset, boolean isHorizontal) {
+    int numPts = 50;
+    Coordinate[] pts = new Coordinate[numPts];
+    for (int i = 0; i < numPts; i++) {
+      double along = SIZE * i / (numPts - 1);
+      double across = offset + 2 * rnd.nextDouble() - 1;
+      pts[i] = isHorizontal ? new Coordinate(along, across) : new Coordinate(across, along);
+    }
+    return pts;
+  }
+
+  private List<NodedSegmentString> segmentStrings() {
+    List<NodedSegmentString> segStrings = new ArrayList<NodedSegmentString>();
+    for (Coordinate[] pts : lines) {
+      segStrings.add(new NodedSegmentString(pts, null, isPacked));
+    }
+    return segStrings;
+  }
+
+  @Benchmark
+  public Collection mcIndexNoder() {
+    MCIndexNoder noder = new MCIndexNoder(new IntersectionAdder(new RobustLineIntersector()));
+    noder.computeNodes(segmentStrings());
+    return noder.getNodedSubstrings();
+  }
+
+  @Benchmark
+  public Collection snapRoundingNoder() {
+    SnapRoundingNoder noder = new SnapRoundingNoder(new PrecisionModel(100));
+    noder.setPackedNodeList(isPacked);
+    noder.computeNodes(segmentStrings());
+    return noder.getNodedSubstrings();
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jtsbench.operation.buffer;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.io.WKTFileReader;
+import org.locationtech.jts.io.WKTReader;
+import org.locationtech.jtsbench.SequenceType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks buffering the geometries in a test data file.
+ * <p>
+ * Port of <code>test.jts.perf.operation.buffer.FileBufferPerfTest</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileBufferBenchmark {
+
+  @Param({ "africa.wkt" })
+  public String file;
+
+  @Param({ "0.01", "0.1", "1.0", "10.0", "100.0", "1000.0" })
+  public double distance;
+
+  @Param({ "ARRAY", "PACKED", "XY" })
+  public SequenceType sequenceType;
+
+  private List<Geometry> geoms;
+
+  @Setup
+  public void setUp() throws Exception {
+    geoms = readTestData(file, sequenceType);
+  }
+
+  /**
+   * Reads a WKT file from the JTS test data
+   * (on the classpath in the <code>jts-core</code> test jar).
+   *
+   * @param file the name of the test data file
+   * @param sequenceType the sequence type to create geometries with
+   * @return the geometries in the file
+   */
+  public static List<Geometry> readTestData(String file, SequenceType sequenceType)
+      throws Exception
+  {
+    String resource = "testdata/" + file;
+    InputStream is = FileBufferBenchmark.class.getClassLoader().getResourceAsStream(resource);
+    if (is == null)
+      throw new IllegalArgumentException("Test data not found: " + resource);
+    Reader rdr = new InputStreamReader(is, StandardCharsets.UTF_8);
+    try {
+      WKTFileReader fileRdr = new WKTFileReader(rdr, new WKTReader(sequenceType.getGeometryFactory()));
+      return fileRdr.read();
+    }
+    finally {
+      rdr.close();
+    }
+  }
+
+  @Benchmark
+  public void buffer(Blackhole bh) {
+    for (Geometry g : geoms) {
+      bh.consume(g.buffer(distance));
+    }
+  }
+}
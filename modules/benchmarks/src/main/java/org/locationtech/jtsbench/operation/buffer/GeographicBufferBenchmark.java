@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jtsbench.operation.buffer;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.util.SineStarFactory;
+import org.locationtech.jts.operation.buffer.BufferOp;
+import org.locationtech.jts.operation.buffer.BufferParameters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks buffering lon/lat geometries by a distance in metres,
+ * using the maximum-latitude distance conversion (the default)
+ * or a local projection
+ * (see {@link BufferParameters#setLocalProjection(boolean)}).
+ * <p>
+ * The accuracy of the modes is reported by
+ * <code>test.jts.perf.operation.buffer.GeographicBufferPerfTest</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeographicBufferBenchmark {
+
+  @Param({ "0", "40", "70" })
+  public double latitude;
+
+  @Param({ "false", "true" })
+  public boolean isLocalProjection;
+
+  private Geometry[] lines;
+  private Geometry polygon;
+  private BufferParameters bufParams;
+
+  @Setup
+  public void setUp() {
+    //-- shape factories use planar envelope dimensions
+    GeometryFactory.setDefaultFactory(new GeometryFactory());
+    polygon = SineStarFactory.create(new Coordinate(116, latitude), 0.5, 10000, 20, 0.3);
+    //-- geometries are buffered as lon/lat in the default factory
+    GeometryFactory.initDefaultFactory();
+    GeometryFactory fact = GeometryFactory.getDefault();
+    Random rnd = new Random(13);
+    lines = new Geometry[1000];
+    for (int i = 0; i < lines.length; i++) {
+      Coordinate[] pts = new Coordinate[20];
+      double x = 116 + 0.5 * rnd.nextDouble();
+      double y = latitude + 0.5 * rnd.nextDouble();
+      for (int j = 0; j < pts.length; j++) {
+        pts[j] = new Coordinate(x, y);
+        x += 0.002 * rnd.nextDouble() - 0.001;
+        y += 0.002 * rnd.nextDouble() - 0.001;
+      }
+      lines[i] = fact.createLineString(pts);
+    }
+
+    bufParams = new BufferParameters();
+    bufParams.setLocalProjection(isLocalProjection);
+  }
+
+  @TearDown
+  public void tearDown() {
+    GeometryFactory.initDefaultFactory();
+  }
+
+  @Benchmark
+  public void bufferLines(Blackhole bh) {
+    for (Geometry line : lines) {
+      bh.consume(BufferOp.bufferOp(line, 50, bufParams));
+    }
+  }
+
+  @Benchmark
+  public Geometry bufferPolygon() {
+    return BufferOp.bufferOp(polygon, 1000, bufParams);
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jtsbench.operation.join;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.geom.util.SineStarFactory;
+import org.locationtech.jts.index.ItemPairVisitor;
+import org.locationtech.jts.index.ItemVisitor;
+import org.locationtech.jts.index.strtree.STRtree;
+import org.locationtech.jts.operation.join.SpatialJoin;
+import org.locationtech.jts.shape.random.RandomPointsBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks joining random lines to the sine star polygons they intersect
+ * using {@link SpatialJoin}, with pools of increasing parallelism,
+ * and using an {@link STRtree} of {@link PreparedGeometry}s queried for each line.
+ * A parallelism of 0 evaluates the join sequentially.
+ * The polygons are prepared in each invocation,
+ * since a join is usually run once for a given set of polygons.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g" })
+public class SpatialJoinBenchmark {
+
+  private static final double EXTENT_SIZE = 10000;
+  private static final double POLYGON_SIZE = 100;
+  private static final int POLYGON_NUM_POINTS = 200;
+  private static final int LINE_NUM_POINTS = 20;
+  private static final double LINE_STEP = 5;
+
+  @Param({ "1000", "10000" })
+  public int numPolygons;
+
+  @Param({ "100000", "1000000" })
+  public int numLines;
+
+  @Param({ "0", "1", "2", "4", "8" })
+  public int parallelism;
+
+  private List<Geometry> polygons;
+  private List<Geometry> lines;
+  private ForkJoinPool pool;
+
+  @Setup
+  public void setUp() {
+    //-- shape factories create geometry with the default factory
+    GeometryFactory geomFact = new GeometryFactory();
+    GeometryFactory.setDefaultFactory(geomFact);
+    Envelope extent = new Envelope(0, EXTENT_SIZE, 0, EXTENT_SIZE);
+    Random rnd = new Random(19);
+
+    polygons = new ArrayList<Geometry>();
+    for (Coordinate centre : randomPoints(geomFact, extent, numPolygons)) {
+      polygons.add(SineStarFactory.create(centre, POLYGON_SIZE, POLYGON_NUM_POINTS,
+          3 + rnd.nextInt(8), 0.3));
+    }
+
+    lines = new ArrayList<Geometry>();
+    for (Coordinate start : randomPoints(geomFact, extent, numLines)) {
+      lines.add(geomFact.createLineString(randomWalk(rnd, start)));
+    }
+
+    if (parallelism > 0) {
+      pool = new ForkJoinPool(parallelism);
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    if (pool != null) {
+      pool.shutdown();
+    }
+    GeometryFactory.initDefaultFactory();
+  }
+
+  private static Coordinate[] randomPoints(GeometryFactory geomFact, Envelope extent, int numPoints) {
+    RandomPointsBuilder builder = new RandomPointsBuilder(geomFact);
+    builder.setExtent(extent);
+    builder.setNumPoints(numPoints);
+    return builder.getGeometry().getCoordinates();
+  }
+
+  private static Coordinate[] randomWalk(Random rnd, Coordinate start) {
+    Coordinate[] pts = new Coordinate[LINE_NUM_POINTS];
+    double x = start.x;
+    double y = start.y;
+    for (int i = 0; i < LINE_NUM_POINTS; i++) {
+      pts[i] = new Coordinate(x, y);
+      x += LINE_STEP * (2 * rnd.nextDouble() - 1);
+      y += LINE_STEP * (2 * rnd.nextDouble() - 1);
+    }
+    return pts;
+  }
+
+  @Benchmark
+  public void spatialJoin(final Blackhole bh) {
+    SpatialJoin.join(lines, polygons, SpatialJoin.INTERSECTS, new ItemPairVisitor() {
+      public void visitItems(Object item1, Object item2) {
+        bh.consume(item1);
+        bh.consume(item2);
+      }
+    }, pool);
+  }
+
+  @Benchmark
+  public void preparedSTRtreeQuery(final Blackhole bh) {
+    STRtree tree = new STRtree();
+    for (Geometry poly : polygons) {
+      tree.insert(poly.getEnvelopeInternal(), PreparedGeometryFactory.prepare(poly));
+    }
+    for (final Geometry line : lines) {
+      tree.query(line.getEnvelopeInternal(), new ItemVisitor() {
+        public void visitItem(Object item) {
+          PreparedGeometry prep = (PreparedGeometry) item;
+          if (prep.intersects(line)) {
+            bh.consume(line);
+            bh.consume(prep.getGeometry());
+          }
+        }
+      });
+    }
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jtsbench.operation.overlayng;
+
+import java.util.concurrent.TimeUnit;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.geom.util.SineStarFactory;
+import org.locationtech.jts.operation.overlayng.OverlayNG;
+import org.locationtech.jtsbench.SequenceType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks intersection of a large sine star polygon
+ * with a grid of small sine stars,
+ * using {@link OverlayNG} and the original overlay.
+ * <p>
+ * Port of <code>test.jts.perf.operation.overlayng.OverlayNGPerfTest</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OverlayNGBenchmark {
+
+  private static final int PREC_SCALE_FACTOR = 1000000;
+
+  static final double ORG_X = 100;
+  static final double ORG_Y = ORG_X;
+  static final double SIZE = 2 * ORG_X;
+  static final int N_ARMS = 6;
+  static final double ARM_RATIO = 0.3;
+
+  static final int GRID_SIZE = 20;
+  static final double GRID_CELL_SIZE = SIZE / GRID_SIZE;
+  static final int NUM_CASES = GRID_SIZE * GRID_SIZE;
+
+  @Param({ "1000", "10000", "100000" })
+  public int npts;
+
+  @Param({ "ARRAY", "PACKED", "XY" })
+  public SequenceType sequenceType;
+
+  private Geometry geomA;
+  private Geometry[] geomB;
+  private PrecisionModel precisionModel;
+
+  @Setup
+  public void setUp() {
+    precisionModel = new PrecisionModel(PREC_SCALE_FACTOR);
+    geomA = sequenceType.convert(
+        SineStarFactory.create(new Coordinate(ORG_X, ORG_Y), SIZE, npts, N_ARMS, ARM_RATIO));
+
+    int nptsB = npts / NUM_CASES;
+    if (nptsB < 10) nptsB = 10;
+    geomB = createTestGeoms(nptsB);
+  }
+
+  private Geometry[] createTestGeoms(int npts) {
+    Geometry[] geoms = new Geometry[NUM_CASES];
+    int index = 0;
+    for (int i = 0; i < GRID_SIZE; i++) {
+      for (int j = 0; j < GRID_SIZE; j++) {
+        double x = GRID_CELL_SIZE / 2 + i * GRID_CELL_SIZE;
+        double y = GRID_CELL_SIZE / 2 + j * GRID_CELL_SIZE;
+        Geometry geom = SineStarFactory.create(new Coordinate(x, y), GRID_CELL_SIZE, npts, N_ARMS, ARM_RATIO);
+        geoms[index++] = sequenceType.convert(geom);
+      }
+    }
+    return geoms;
+  }
+
+  @Benchmark
+  public void intersectionNG(Blackhole bh) {
+    for (Geometry b : geomB) {
+      bh.consume(OverlayNG.overlay(geomA, b, OverlayNG.INTERSECTION, precisionModel));
+    }
+  }
+
+  @Benchmark
+  public void intersectionNGFloating(Blackhole bh) {
+    for (Geometry b : geomB) {
+      OverlayNG overlay = new OverlayNG(geomA, b, OverlayNG.INTERSECTION);
+      overlay.setOptimized(false);
+      bh.consume(overlay.getResult());
+    }
+  }
+
+  @Benchmark
+  public void unionNG(Blackhole bh) {
+    for (Geometry b : geomB) {
+      bh.consume(OverlayNG.overlay(geomA, b, OverlayNG.UNION, precisionModel));
+    }
+  }
+
+  @Benchmark
+  public void intersectionOld(Blackhole bh) {
+    for (Geometry b : geomB) {
+      bh.consume(geomA.intersection(b));
+    }
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jtsbench.operation.overlayng;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.util.SineStarFactory;
+import org.locationtech.jts.noding.ParallelMCIndexNoder;
+import org.locationtech.jts.operation.buffer.BufferOp;
+import org.locationtech.jts.operation.buffer.BufferParameters;
+import org.locationtech.jts.operation.overlayng.OverlayNG;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks overlay and buffer of large sine stars
+ * with the noding computed by a {@link ParallelMCIndexNoder}
+ * using pools of increasing parallelism.
+ * A parallelism of 0 uses the default sequential noder.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g" })
+public class ParallelNodingBenchmark {
+
+  @Param({ "10000", "100000" })
+  public int npts;
+
+  @Param({ "0", "1", "2", "4", "8" })
+  public int parallelism;
+
+  private Geometry geomA;
+  private Geometry geomB;
+  private ForkJoinPool pool;
+
+  @Setup
+  public void setUp() {
+    //-- shape factories create geometry with the default factory
+    GeometryFactory.setDefaultFactory(new GeometryFactory());
+    geomA = SineStarFactory.create(new Coordinate(0, 0), 100, npts, 50, 0.3);
+    geomB = SineStarFactory.create(new Coordinate(10, 5), 90, npts, 31, 0.5);
+    if (parallelism > 0) {
+      pool = new ForkJoinPool(parallelism);
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    if (pool != null) {
+      pool.shutdown();
+    }
+    GeometryFactory.initDefaultFactory();
+  }
+
+  @Benchmark
+  public Geometry overlayUnion() {
+    if (pool == null)
+      return OverlayNG.overlay(geomA, geomB, OverlayNG.UNION);
+    return OverlayNG.overlay(geomA, geomB, OverlayNG.UNION, new ParallelMCIndexNoder(pool));
+  }
+
+  @Benchmark
+  public Geometry buffer() {
+    BufferParameters params = new BufferParameters();
+    params.setParallelNoding(pool);
+    return BufferOp.bufferOp(geomA, 5.0, params);
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jtsbench.operation.overlayng;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.util.SineStarFactory;
+import org.locationtech.jts.operation.overlayng.OverlayNG;
+import org.locationtech.jts.operation.overlayng.PreparedOverlayNG;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks clipping many small features to a single large sine star polygon
+ * using {@link OverlayNG} and {@link PreparedOverlayNG}.
+ * The prepared benchmark includes the cost of preparing the clip polygon.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PreparedOverlayNGBenchmark {
+
+  private static final int NUM_FEATURES = 1000;
+
+  @Param({ "10000", "100000", "1000000" })
+  public int npts;
+
+  private Geometry clip;
+  private Geometry[] features;
+
+  @Setup
+  public void setUp() {
+    //-- shape factories create geometry with the default factory
+    GeometryFactory.setDefaultFactory(new GeometryFactory());
+    clip = SineStarFactory.create(new Coordinate(100, 100), 200, npts, 11, 0.4);
+    Random rand = new Random(1);
+    features = new Geometry[NUM_FEATURES];
+    for (int i = 0; i < NUM_FEATURES; i++) {
+      Coordinate centre = new Coordinate(200 * rand.nextDouble(), 200 * rand.nextDouble());
+      features[i] = SineStarFactory.create(centre, 2 + 5 * rand.nextDouble(), 50, 3, 0.3);
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    GeometryFactory.initDefaultFactory();
+  }
+
+  @Benchmark
+  public void intersectionNG(Blackhole bh) {
+    for (Geometry feature : features) {
+      bh.consume(OverlayNG.overlay(feature, clip, OverlayNG.INTERSECTION));
+    }
+  }
+
+  @Benchmark
+  public void intersectionPrepared(Blackhole bh) {
+    PreparedOverlayNG prep = new PreparedOverlayNG(clip);
+    for (Geometry feature : features) {
+      bh.consume(prep.intersection(feature));
+    }
+  }
+}
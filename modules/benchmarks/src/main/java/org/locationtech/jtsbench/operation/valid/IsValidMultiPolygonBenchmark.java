@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jtsbench.operation.valid;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.util.SineStarFactory;
+import org.locationtech.jts.operation.valid.IsValidOp;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks validating a MultiPolygon made of a grid of sine stars,
+ * sequentially and with the elements validated in parallel
+ * using pools of increasing parallelism.
+ * A parallelism of 0 validates sequentially.
+ * The invalid MultiPolygon has a self-intersecting element
+ * in the middle of the grid.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g" })
+public class IsValidMultiPolygonBenchmark {
+
+  private static final double STAR_SIZE = 100;
+
+  @Param({ "100", "1000" })
+  public int numPolygons;
+
+  @Param({ "5000" })
+  public int npts;
+
+  @Param({ "0", "1", "2", "4", "8" })
+  public int parallelism;
+
+  private MultiPolygon validGeom;
+  private MultiPolygon invalidGeom;
+  private ForkJoinPool pool;
+
+  @Setup
+  public void setUp() {
+    //-- shape factories create geometry with the default factory
+    GeometryFactory geomFact = new GeometryFactory();
+    GeometryFactory.setDefaultFactory(geomFact);
+    int gridSize = (int) Math.ceil(Math.sqrt(numPolygons));
+    Polygon[] polys = new Polygon[numPolygons];
+    for (int i = 0; i < numPolygons; i++) {
+      Coordinate centre = new Coordinate(1.1 * STAR_SIZE * (i % gridSize), 1.1 * STAR_SIZE * (i / gridSize));
+      polys[i] = (Polygon) SineStarFactory.create(centre, STAR_SIZE, npts, 10, 0.3);
+    }
+    validGeom = geomFact.createMultiPolygon(polys);
+
+    Polygon[] invalidPolys = polys.clone();
+    int mid = numPolygons / 2;
+    Coordinate[] pts = invalidPolys[mid].getExteriorRing().getCoordinates().clone();
+    // swap two vertices to make the ring self-intersect
+    Coordinate temp = pts[1];
+    pts[1] = pts[2];
+    pts[2] = temp;
+    invalidPolys[mid] = geomFact.createPolygon(pts);
+    invalidGeom = geomFact.createMultiPolygon(invalidPolys);
+
+    if (parallelism > 0) {
+      pool = new ForkJoinPool(parallelism);
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    if (pool != null) {
+      pool.shutdown();
+    }
+    GeometryFactory.initDefaultFactory();
+  }
+
+  @Benchmark
+  public boolean isValid() {
+    return isValid(validGeom, false);
+  }
+
+  @Benchmark
+  public boolean isValidInvalid() {
+    return isValid(invalidGeom, false);
+  }
+
+  @Benchmark
+  public boolean isValidInvalidFastFail() {
+    return isValid(invalidGeom, true);
+  }
+
+  private boolean isValid(MultiPolygon geom, boolean isFastFail) {
+    IsValidOp op = new IsValidOp(geom);
+    op.setParallelValidation(pool);
+    op.setFastFail(isFastFail);
+    return op.isValid();
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jtsbench.operation.valid;
+
+import java.util.concurrent.TimeUnit;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.operation.valid.IsValidOp;
+import org.locationtech.jtsbench.SequenceType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import test.jts.geom.TestShapeFactory;
+
+/**
+ * Benchmarks validating a large sine star polygon.
+ * <p>
+ * Port of <code>test.jts.perf.operation.valid.IsValidPolygonPerfTest</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IsValidPolygonBenchmark {
+
+  @Param({ "1000", "10000", "100000", "1000000" })
+  public int npts;
+
+  @Param({ "ARRAY", "PACKED", "XY" })
+  public SequenceType sequenceType;
+
+  private Geometry geom;
+
+  @Setup
+  public void setUp() {
+    geom = sequenceType.convert(
+        TestShapeFactory.createSineStar(new Coordinate(0, 0), 100, npts));
+  }
+
+  @Benchmark
+  public boolean isValid() {
+    return new IsValidOp(geom).isValid();
+  }
+}
@@ -0,0 +1,474 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.algorithm.locate;
+
+import java.util.List;
+
+import org.locationtech.jts.algorithm.CGAlgorithmsDD;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Location;
+import org.locationtech.jts.geom.Polygonal;
+import org.locationtech.jts.geom.util.LinearComponentExtracter;
+
+/**
+ * Determines the {@link Location} of {@link Coordinate}s relative to
+ * an areal geometry, using a uniform grid of cells for speed.
+ * This algorithm is suitable for use in cases where
+ * a very large number of points will be tested against a given area.
+ * <p>
+ * Each cell of the grid is classified when the grid is built.
+ * A cell which is not touched by the geometry boundary
+ * lies wholly in the interior or the exterior,
+ * so points in it are located with a single array lookup.
+ * A cell which is touched by the boundary holds the segments which touch it,
+ * and the location of its centre point.
+ * A point in such a cell is located by counting the crossings
+ * of the line from the point to the cell centre with the cell segments.
+ * <p>
+ * The resolution of the grid controls the trade-off between memory and speed.
+ * A finer grid has more cells, but fewer points fall in boundary cells,
+ * and boundary cells hold fewer segments.
+ * By default the number of cells is a small multiple of the number of segments.
+ * <p>
+ * The Location is computed precisely, in that points
+ * located on the geometry boundary or segments will
+ * return {@link Location#BOUNDARY}.
+ * The results are the same as those of {@link IndexedPointInAreaLocator}.
+ * <p>
+ * {@link Polygonal} and {@link LinearRing} geometries
+ * are supported.
+ * <p>
+ * The grid is lazy-loaded, which allows
+ * creating instances even if they are not used.
+ * <p>
+ * Thread-safe and immutable.
+ *
+ * @see IndexedPointInAreaLocator
+ */
+public class GridPointInAreaLocator
+  implements PointOnGeometryLocator
+{
+  /**
+   * The maximum number of cells along each side of a default grid.
+   */
+  public static final int MAX_DEFAULT_GRID_SIZE = 2048;
+
+  /**
+   * Computes a default grid size for a geometry.
+   * The grid has about four cells for each segment of the geometry boundary.
+   *
+   * @param geom an areal geometry
+   * @return the default grid size
+   */
+  public static int defaultGridSize(Geometry geom)
+  {
+    int size = 2 * (int) Math.ceil(Math.sqrt(geom.getNumPoints()));
+    return Math.max(1, Math.min(size, MAX_DEFAULT_GRID_SIZE));
+  }
+
+  private Geometry geom;
+  private final int gridSize;
+  private volatile Grid grid = null;
+
+  /**
+   * Creates a new locator for a given {@link Geometry},
+   * using a grid of the default size.
+   *
+   * @param g the Geometry to locate in
+   */
+  public GridPointInAreaLocator(Geometry g)
+  {
+    this(g, defaultGridSize(g));
+  }
+
+  /**
+   * Creates a new locator for a given {@link Geometry},
+   * using a grid with a given number of cells along the longer side
+   * of the geometry envelope.
+   * The cells are square, unless the envelope has zero width or height.
+   *
+   * @param g the Geometry to locate in
+   * @param gridSize the number of grid cells along the longer side of the geometry
+   */
+  public GridPointInAreaLocator(Geometry g, int gridSize)
+  {
+    if (gridSize <= 0)
+      throw new IllegalArgumentException("Grid size must be positive");
+    geom = g;
+    this.gridSize = gridSize;
+  }
+
+  /**
+   * Determines the {@link Location} of a point in an areal {@link Geometry}.
+   *
+   * @param p the point to test
+   * @return the location of the point in the geometry
+   */
+  public int locate(Coordinate p)
+  {
+    // avoid calling synchronized method improves performance
+    if (grid == null) createGrid();
+    return grid.locate(p.x, p.y);
+  }
+
+  /**
+   * Creates the grid, if it has not been created already.
+   */
+  private synchronized void createGrid() {
+    if (grid == null) {
+      grid = new Grid(geom, gridSize);
+      // no need to hold onto geom
+      geom = null;
+    }
+  }
+
+  /**
+   * The state of a boundary cell whose centre is in the interior.
+   */
+  private static final byte CELL_CENTRE_INTERIOR = 3;
+  /**
+   * The state of a boundary cell whose centre is in the exterior.
+   */
+  private static final byte CELL_CENTRE_EXTERIOR = 4;
+  /**
+   * The state of a boundary cell whose centre lies on the boundary.
+   * Points in these cells are located using an {@link IndexedPointInAreaLocator}.
+   */
+  private static final byte CELL_CENTRE_BOUNDARY = 5;
+
+  /**
+   * The fraction of a cell by which segments are expanded
+   * when determining the cells they touch,
+   * to ensure that round-off does not omit any cells.
+   */
+  private static final double CELL_TOLERANCE = 1.0e-3;
+
+  private static class Grid
+  {
+    private final boolean isEmpty;
+    private double minX;
+    private double minY;
+    private double maxX;
+    private double maxY;
+    private int numX;
+    private int numY;
+    private double cellWidth;
+    private double cellHeight;
+    private double invCellWidth;
+    private double invCellHeight;
+
+    private byte[] cellState;
+    // segments of each cell are cellSeg[cellSegStart[i]] to cellSeg[cellSegStart[i+1]-1]
+    private int[] cellSegStart;
+    private int[] cellSeg;
+
+    private int numSegs = 0;
+    private double[] segX0;
+    private double[] segY0;
+    private double[] segX1;
+    private double[] segY1;
+
+    private PointOnGeometryLocator boundaryLocator = null;
+
+    Grid(Geometry geom, int gridSize)
+    {
+      extractSegments(geom);
+      isEmpty = numSegs == 0;
+      if (isEmpty) return;
+      initGrid(gridSize);
+      indexSegments();
+      classifyCells(geom);
+    }
+
+    private void extractSegments(Geometry geom)
+    {
+      @SuppressWarnings("unchecked")
+      List<LineString> lines = LinearComponentExtracter.getLines(geom);
+      int n = 0;
+      for (LineString line : lines) {
+        //-- only include rings of Polygons or LinearRings
+        if (line.isClosed() && ! line.isEmpty()) n += line.getNumPoints() - 1;
+      }
+      segX0 = new double[n];
+      segY0 = new double[n];
+      segX1 = new double[n];
+      segY1 = new double[n];
+      for (LineString line : lines) {
+        if (! line.isClosed())
+          continue;
+        Coordinate[] pts = line.getCoordinates();
+        for (int i = 1; i < pts.length; i++) {
+          segX0[numSegs] = pts[i - 1].x;
+          segY0[numSegs] = pts[i - 1].y;
+          segX1[numSegs] = pts[i].x;
+          segY1[numSegs] = pts[i].y;
+          numSegs++;
+        }
+      }
+    }
+
+    private void initGrid(int gridSize)
+    {
+      minX = Double.POSITIVE_INFINITY;
+      minY = Double.POSITIVE_INFINITY;
+      maxX = Double.NEGATIVE_INFINITY;
+      maxY = Double.NEGATIVE_INFINITY;
+      for (int i = 0; i < numSegs; i++) {
+        minX = Math.min(minX, segX0[i]);
+        minY = Math.min(minY, segY0[i]);
+        maxX = Math.max(maxX, segX0[i]);
+        maxY = Math.max(maxY, segY0[i]);
+      }
+      double width = maxX - minX;
+      double height = maxY - minY;
+      double cellSize = Math.max(width, height) / gridSize;
+      numX = cellCount(width, cellSize, gridSize);
+      numY = cellCount(height, cellSize, gridSize);
+      if ((long) numX * numY >= Integer.MAX_VALUE)
+        throw new IllegalArgumentException("Grid size is too large: " + gridSize);
+      cellWidth = width / numX;
+      cellHeight = height / numY;
+      invCellWidth = width > 0 ? numX / width : 0;
+      invCellHeight = height > 0 ? numY / height : 0;
+    }
+
+    private static int cellCount(double size, double cellSize, int gridSize)
+    {
+      if (size <= 0 || cellSize <= 0) return 1;
+      return Math.max(1, Math.min(gridSize, (int) Math.ceil(size / cellSize)));
+    }
+
+    private int cellX(double x)
+    {
+      int ix = (int) ((x - minX) * invCellWidth);
+      if (ix < 0) return 0;
+      if (ix >= numX) return numX - 1;
+      return ix;
+    }
+
+    private int cellY(double y)
+    {
+      int iy = (int) ((y - minY) * invCellHeight);
+      if (iy < 0) return 0;
+      if (iy >= numY) return numY - 1;
+      return iy;
+    }
+
+    private void indexSegments()
+    {
+      int numCells = numX * numY;
+      cellSegStart = new int[numCells + 1];
+      //-- count the segments in each cell, then fill them in
+      int[] cellCount = new int[numCells];
+      for (int i = 0; i < numSegs; i++) {
+        addSegment(i, cellCount, null);
+      }
+      for (int i = 0; i < numCells; i++) {
+        cellSegStart[i + 1] = cellSegStart[i] + cellCount[i];
+      }
+      cellSeg = new int[cellSegStart[numCells]];
+      int[] cellFill = cellCount;
+      System.arraycopy(cellSegStart, 0, cellFill, 0, numCells);
+      for (int i = 0; i < numSegs; i++) {
+        addSegment(i, cellFill, cellSeg);
+      }
+    }
+
+    /**
+     * Adds a segment to the cells it touches.
+     * If the cell segment array is null the cell counts are incremented,
+     * otherwise the segment is added at the cell fill positions.
+     * For each row the segment spans, the cells it touches
+     * are those spanned by the part of the segment in the row.
+     * This is expanded by a tolerance to avoid round-off omitting cells.
+     */
+    private void addSegment(int i, int[] cellPos, int[] segs)
+    {
+      double x0 = segX0[i];
+      double y0 = segY0[i];
+      double x1 = segX1[i];
+      double y1 = segY1[i];
+      double tolX = CELL_TOLERANCE * cellWidth;
+      double tolY = CELL_TOLERANCE * cellHeight;
+      double segMinY = Math.min(y0, y1);
+      double segMaxY = Math.max(y0, y1);
+      int row0 = cellY(segMinY - tolY);
+      int row1 = cellY(segMaxY + tolY);
+      for (int row = row0; row <= row1; row++) {
+        double rowMinY = minY + row * cellHeight - tolY;
+        double rowMaxY = minY + (row + 1) * cellHeight + tolY;
+        double segRowMinY = Math.max(segMinY, rowMinY);
+        double segRowMaxY = Math.min(segMaxY, rowMaxY);
+        double xa;
+        double xb;
+        if (y0 == y1) {
+          xa = x0;
+          xb = x1;
+        }
+        else {
+          xa = x0 + (segRowMinY - y0) * (x1 - x0) / (y1 - y0);
+          xb = x0 + (segRowMaxY - y0) * (x1 - x0) / (y1 - y0);
+        }
+        int col0 = cellX(Math.min(xa, xb) - tolX);
+        int col1 = cellX(Math.max(xa, xb) + tolX);
+        for (int col = col0; col <= col1; col++) {
+          int cell = row * numX + col;
+          if (segs == null)
+            cellPos[cell]++;
+          else
+            segs[cellPos[cell]++] = i;
+        }
+      }
+    }
+
+    private boolean isBoundaryCell(int cell)
+    {
+      return cellSegStart[cell] < cellSegStart[cell + 1];
+    }
+
+    private double centreX(int col) { return minX + (col + 0.5) * cellWidth; }
+    private double centreY(int row) { return minY + (row + 0.5) * cellHeight; }
+
+    /**
+     * Classifies the cells by locating the centres of the boundary cells,
+     * and of the first cell of each run of cells in a row
+     * which are not touched by the boundary.
+     * Adjacent cells not touched by the boundary have the same location.
+     */
+    private void classifyCells(Geometry geom)
+    {
+      int numCells = numX * numY;
+      cellState = new byte[numCells];
+      int numRef = 0;
+      for (int cell = 0; cell < numCells; cell++) {
+        if (isReferenceCell(cell)) numRef++;
+      }
+      double[] refXY = new double[2 * numRef];
+      int n = 0;
+      for (int row = 0; row < numY; row++) {
+        for (int col = 0; col < numX; col++) {
+          if (isReferenceCell(row * numX + col)) {
+            refXY[n++] = centreX(col);
+            refXY[n++] = centreY(row);
+          }
+        }
+      }
+      IndexedPointInAreaLocator locator = new IndexedPointInAreaLocator(geom);
+      int[] refLoc = new int[numRef];
+      locator.locate(refXY, refLoc);
+
+      int iref = 0;
+      int runLoc = Location.EXTERIOR;
+      for (int cell = 0; cell < numCells; cell++) {
+        if (! isReferenceCell(cell)) {
+          cellState[cell] = (byte) runLoc;
+          continue;
+        }
+        int loc = refLoc[iref++];
+        if (isBoundaryCell(cell)) {
+          cellState[cell] = boundaryCellState(loc);
+          if (loc == Location.BOUNDARY)
+            boundaryLocator = locator;
+        }
+        else {
+          cellState[cell] = (byte) loc;
+          runLoc = loc;
+        }
+      }
+    }
+
+    private boolean isReferenceCell(int cell)
+    {
+      if (isBoundaryCell(cell)) return true;
+      //-- start of a run of cells in a row
+      if (cell % numX == 0) return true;
+      return isBoundaryCell(cell - 1);
+    }
+
+    private static byte boundaryCellState(int centreLoc)
+    {
+      switch (centreLoc) {
+      case Location.INTERIOR: return CELL_CENTRE_INTERIOR;
+      case Location.EXTERIOR: return CELL_CENTRE_EXTERIOR;
+      }
+      return CELL_CENTRE_BOUNDARY;
+    }
+
+    int locate(double x, double y)
+    {
+      if (isEmpty)
+        return Location.EXTERIOR;
+      // also handles NaN ordinates
+      if (! (x >= minX && x <= maxX && y >= minY && y <= maxY))
+        return Location.EXTERIOR;
+
+      int col = cellX(x);
+      int row = cellY(y);
+      int cell = row * numX + col;
+      int state = cellState[cell];
+      if (state == Location.INTERIOR || state == Location.EXTERIOR)
+        return state;
+      if (state == CELL_CENTRE_BOUNDARY)
+        return boundaryLocator.locate(new Coordinate(x, y));
+
+      int centreLoc = state == CELL_CENTRE_INTERIOR ? Location.INTERIOR : Location.EXTERIOR;
+      return locateInCell(cell, x, y, centreX(col), centreY(row), centreLoc);
+    }
+
+    /**
+     * Locates a point in a boundary cell, using the parity of the number
+     * of crossings of the line from the point to the cell centre
+     * with the segments in the cell.
+     * The cell centre does not lie on the boundary.
+     * Segment vertices lying on the line are treated as lying
+     * to the right of it, to avoid double-counting crossings at vertices.
+     */
+    private int locateInCell(int cell, double x, double y,
+        double cx, double cy, int centreLoc)
+    {
+      boolean isFlipped = false;
+      for (int k = cellSegStart[cell]; k < cellSegStart[cell + 1]; k++) {
+        int i = cellSeg[k];
+        double ax = segX0[i];
+        double ay = segY0[i];
+        double bx = segX1[i];
+        double by = segY1[i];
+
+        int orientPt = CGAlgorithmsDD.orientationIndex(ax, ay, bx, by, x, y);
+        if (orientPt == 0
+            && x >= Math.min(ax, bx) && x <= Math.max(ax, bx)
+            && y >= Math.min(ay, by) && y <= Math.max(ay, by))
+          return Location.BOUNDARY;
+
+        boolean isALeft = CGAlgorithmsDD.orientationIndex(x, y, cx, cy, ax, ay) > 0;
+        boolean isBLeft = CGAlgorithmsDD.orientationIndex(x, y, cx, cy, bx, by) > 0;
+        if (isALeft == isBLeft)
+          continue;
+        /**
+         * The segment crosses the line through the point and the centre.
+         * It crosses between them if they are on opposite sides of the segment.
+         * Neither lies on the segment, since the point has been checked
+         * and the centre does not lie on the boundary.
+         */
+        int orientCentre = CGAlgorithmsDD.orientationIndex(ax, ay, bx, by, cx, cy);
+        if (orientPt != 0 && orientPt != orientCentre)
+          isFlipped = ! isFlipped;
+      }
+      if (! isFlipped)
+        return centreLoc;
+      return centreLoc == Location.INTERIOR ? Location.EXTERIOR : Location.INTERIOR;
+    }
+  }
+}
@@ -12,11 +12,14 @@
 package org.locationtech.jts.algorithm.locate;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Iterator;
 import java.util.List;
 
+import org.locationtech.jts.algorithm.CGAlgorithmsDD;
 import org.locationtech.jts.algorithm.RayCrossingCounter;
 import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.LineSegment;
 import org.locationtech.jts.geom.LineString;
@@ -45,6 +48,13 @@ import org.locationtech.jts.index.intervalrtree.SortedPackedIntervalRTree;
  * The index is lazy-loaded, which allows
  * creating instances even if they are not used.
  * <p>
+ * Large batches of points can be located using 
+ * {@link #locate(double[], int[])} and the related methods.
+ * These sort the points by Y and sweep a horizontal line through them,
+ * so that the segments crossing the line are found incrementally
+ * rather than by querying the index for each point.
+ * No objects are created for each point.
+ * <p>
  * Thread-safe and immutable.
  *
  * @author Martin Davis
@@ -56,6 +66,7 @@ public class IndexedPointInAreaLocator
   
   private Geometry geom;
   private volatile IntervalIndexedGeometry index = null;
+  private volatile SegmentSweep sweep = null;
   
   /**
    * Creates a new locator for a given {@link Geometry}.
@@ -94,6 +105,86 @@ public class IndexedPointInAreaLocator
     return rcc.getLocation();
   }
 
+  /**
+   * Determines the {@link Location}s of a batch of points 
+   * in an areal {@link Geometry}.
+   * The points are given as an array of interleaved X and Y ordinates.
+   * 
+   * @param xy the X and Y ordinates of the points 
+   * @param locations the array to fill with the location of each point
+   * 
+   * @throws IllegalArgumentException if the locations array is too short
+   */
+  public void locate(double[] xy, int[] locations)
+  {
+    int n = xy.length / 2;
+    checkSize(n, locations.length);
+    getSweep().locate(new ArrayPoints(xy), n, locations, null);
+  }
+
+  /**
+   * Determines the {@link Location}s of the points in a {@link CoordinateSequence}
+   * relative to an areal {@link Geometry}.
+   * 
+   * @param seq the points to locate
+   * @param locations the array to fill with the location of each point
+   * 
+   * @throws IllegalArgumentException if the locations array is too short
+   */
+  public void locate(CoordinateSequence seq, int[] locations)
+  {
+    int n = seq.size();
+    checkSize(n, locations.length);
+    getSweep().locate(new SequencePoints(seq), n, locations, null);
+  }
+
+  /**
+   * Determines which of a batch of points lie in the interior
+   * or on the boundary of an areal {@link Geometry}.
+   * The points are given as an array of interleaved X and Y ordinates.
+   * The bit for each point which is not in the {@link Location#EXTERIOR}
+   * is set, and the bits of the other points are cleared.
+   * 
+   * @param xy the X and Y ordinates of the points 
+   * @param isCovered the set of points to update
+   */
+  public void covers(double[] xy, BitSet isCovered)
+  {
+    getSweep().locate(new ArrayPoints(xy), xy.length / 2, null, isCovered);
+  }
+
+  /**
+   * Determines which of the points in a {@link CoordinateSequence} lie in the interior
+   * or on the boundary of an areal {@link Geometry}.
+   * The bit for each point which is not in the {@link Location#EXTERIOR}
+   * is set, and the bits of the other points are cleared.
+   * 
+   * @param seq the points to locate
+   * @param isCovered the set of points to update
+   */
+  public void covers(CoordinateSequence seq, BitSet isCovered)
+  {
+    getSweep().locate(new SequencePoints(seq), seq.size(), null, isCovered);
+  }
+
+  private static void checkSize(int numPts, int numLocations) {
+    if (numLocations < numPts)
+      throw new IllegalArgumentException("Locations array is too short: " 
+          + numLocations + " for " + numPts + " points");
+  }
+
+  private SegmentSweep getSweep() {
+    if (sweep == null) createSweep();
+    return sweep;
+  }
+
+  private synchronized void createSweep() {
+    if (sweep == null) {
+      if (index == null) createIndex();
+      sweep = new SegmentSweep(index.getSegments());
+    }
+  }
+
   /**
    * Creates the indexed geometry, creating it if necessary.
    */
@@ -122,10 +213,328 @@ public class IndexedPointInAreaLocator
     }
   }
   
+  /**
+   * Provides the ordinates of a batch of points.
+   */
+  private interface PointSource
+  {
+    double getX(int i);
+    double getY(int i);
+  }
+  
+  private static class ArrayPoints implements PointSource
+  {
+    private final double[] xy;
+
+    ArrayPoints(double[] xy) { this.xy = xy; }
+
+    public double getX(int i) { return xy[2 * i]; }
+    public double getY(int i) { return xy[2 * i + 1]; }
+  }
+  
+  private static class SequencePoints implements PointSource
+  {
+    private final CoordinateSequence seq;
+
+    SequencePoints(CoordinateSequence seq) { this.seq = seq; }
+
+    public double getX(int i) { return seq.getX(i); }
+    public double getY(int i) { return seq.getY(i); }
+  }
+  
+  /**
+   * The segments of the geometry in flat arrays, sorted by minimum Y.
+   * Points are grouped into narrow horizontal bands by a counting sort,
+   * and the bands are processed in order of Y
+   * while maintaining the set of segments which overlap the current band.
+   * Each point is tested against the active segments whose Y extent contains it,
+   * which is the same set of segments as is found by an index query.
+   * The crossing test is the same as in {@link RayCrossingCounter}.
+   */
+  private static class SegmentSweep
+  {
+    /**
+     * The average number of points in a band.
+     * Small bands keep the active segment set close to the set of
+     * segments crossing each point.
+     */
+    private static final int POINTS_PER_BAND = 4;
+
+    private final int numSegs;
+    private final double[] x0;
+    private final double[] y0;
+    private final double[] x1;
+    private final double[] y1;
+    private final double[] minY;
+    private final double[] maxY;
+
+    SegmentSweep(List<LineSegment> segs)
+    {
+      numSegs = segs.size();
+      double[] segMinY = new double[numSegs];
+      for (int i = 0; i < numSegs; i++) {
+        LineSegment seg = segs.get(i);
+        segMinY[i] = Math.min(seg.p0.y, seg.p1.y);
+      }
+      int[] order = sortedOrder(segMinY, numSegs);
+      x0 = new double[numSegs];
+      y0 = new double[numSegs];
+      x1 = new double[numSegs];
+      y1 = new double[numSegs];
+      minY = new double[numSegs];
+      maxY = new double[numSegs];
+      for (int i = 0; i < numSegs; i++) {
+        LineSegment seg = segs.get(order[i]);
+        x0[i] = seg.p0.x;
+        y0[i] = seg.p0.y;
+        x1[i] = seg.p1.x;
+        y1[i] = seg.p1.y;
+        minY[i] = Math.min(y0[i], y1[i]);
+        maxY[i] = Math.max(y0[i], y1[i]);
+      }
+    }
+
+    /**
+     * Locates a batch of points, 
+     * setting either the location or the covered flag of each point.
+     */
+    void locate(PointSource pts, int n, int[] locations, BitSet isCovered)
+    {
+      double[] ptX = new double[n];
+      double[] ptY = new double[n];
+      double ptMinY = Double.POSITIVE_INFINITY;
+      double ptMaxY = Double.NEGATIVE_INFINITY;
+      for (int i = 0; i < n; i++) {
+        ptX[i] = pts.getX(i);
+        double y = pts.getY(i);
+        ptY[i] = y;
+        if (y < ptMinY) ptMinY = y;
+        if (y > ptMaxY) ptMaxY = y;
+      }
+      
+      //-- counting sort of the points into bands of Y
+      int numBands = Math.max(1, n / POINTS_PER_BAND);
+      double bandScale = ptMaxY > ptMinY ? numBands / (ptMaxY - ptMinY) : 0;
+      if (Double.isInfinite(bandScale)) bandScale = 0;
+      int[] bandStart = new int[numBands + 2];
+      int[] order = new int[n];
+      double[] sortedX = new double[n];
+      double[] sortedY = new double[n];
+      sortIntoBands(ptX, ptY, ptMinY, bandScale, numBands, 
+          bandStart, order, sortedX, sortedY);
+      
+      int[] active = new int[numSegs];
+      int numActive = 0;
+      int nextSeg = 0;
+      for (int b = 0; b <= numBands; b++) {
+        int start = bandStart[b];
+        int end = bandStart[b + 1];
+        if (start == end) continue;
+        
+        //-- the last band holds points with no Y value, which lie outside the area
+        if (b == numBands) {
+          for (int k = start; k < end; k++) {
+            setLocation(order[k], Location.EXTERIOR, locations, isCovered);
+          }
+          continue;
+        }
+        
+        double bandMinY = Double.POSITIVE_INFINITY;
+        double bandMaxY = Double.NEGATIVE_INFINITY;
+        for (int k = start; k < end; k++) {
+          double y = sortedY[k];
+          if (y < bandMinY) bandMinY = y;
+          if (y > bandMaxY) bandMaxY = y;
+        }
+        // add segments which start at or below the band
+        while (nextSeg < numSegs && minY[nextSeg] <= bandMaxY) {
+          active[numActive++] = nextSeg++;
+        }
+        // remove segments which end below the band
+        for (int j = 0; j < numActive; j++) {
+          if (maxY[active[j]] < bandMinY) {
+            active[j--] = active[--numActive];
+          }
+        }
+        for (int k = start; k < end; k++) {
+          int loc = locate(sortedX[k], sortedY[k], active, numActive);
+          setLocation(order[k], loc, locations, isCovered);
+        }
+      }
+    }
+
+    /**
+     * Sorts points into bands of Y, with points with NaN Y in a final band.
+     * The point indexes and ordinates are copied in order of band,
+     * so that the bands can be scanned sequentially.
+     */
+    private static void sortIntoBands(double[] ptX, double[] ptY, 
+        double minY, double bandScale, int numBands, 
+        int[] bandStart, int[] order, double[] sortedX, double[] sortedY)
+    {
+      int n = ptY.length;
+      for (int i = 0; i < n; i++) {
+        bandStart[band(ptY[i], minY, bandScale, numBands) + 1]++;
+      }
+      for (int b = 0; b <= numBands; b++) {
+        bandStart[b + 1] += bandStart[b];
+      }
+      for (int i = 0; i < n; i++) {
+        int pos = bandStart[band(ptY[i], minY, bandScale, numBands)]++;
+        order[pos] = i;
+        sortedX[pos] = ptX[i];
+        sortedY[pos] = ptY[i];
+      }
+      // restore the band start positions, which were advanced by the fill
+      for (int b = numBands; b > 0; b--) {
+        bandStart[b] = bandStart[b - 1];
+      }
+      bandStart[0] = 0;
+    }
+    
+    private static int band(double y, double minY, double bandScale, int numBands)
+    {
+      if (Double.isNaN(y)) return numBands;
+      int band = (int) ((y - minY) * bandScale);
+      return Math.min(band, numBands - 1);
+    }
+    
+    private static void setLocation(int i, int loc, int[] locations, BitSet isCovered)
+    {
+      if (locations != null) 
+        locations[i] = loc;
+      if (isCovered != null) 
+        isCovered.set(i, loc != Location.EXTERIOR);
+    }
+
+    private int locate(double x, double y, int[] active, int numActive)
+    {
+      int crossingCount = 0;
+      for (int j = 0; j < numActive; j++) {
+        int iseg = active[j];
+        if (minY[iseg] > y || maxY[iseg] < y) continue;
+        int count = countSegment(x, y, x0[iseg], y0[iseg], x1[iseg], y1[iseg]);
+        if (count < 0) 
+          return Location.BOUNDARY;
+        crossingCount += count;
+      }
+      if (crossingCount % 2 == 1)
+        return Location.INTERIOR;
+      return Location.EXTERIOR;
+    }
+
+    /**
+     * Counts whether a segment crosses the horizontal ray to the right
+     * of a point.
+     * 
+     * @return 1 if the segment crosses the ray, 0 if not, 
+     *   or -1 if the point lies on the segment
+     */
+    private static int countSegment(double px, double py,
+        double p1x, double p1y, double p2x, double p2y)
+    {
+      if (p1x < px && p2x < px)
+        return 0;
+      if (px == p2x && py == p2y)
+        return -1;
+      if (p1y == py && p2y == py) {
+        double minx = Math.min(p1x, p2x);
+        double maxx = Math.max(p1x, p2x);
+        if (px >= minx && px <= maxx)
+          return -1;
+        return 0;
+      }
+      if (((p1y > py) && (p2y <= py)) 
+          || ((p2y > py) && (p1y <= py))) {
+        int orient = CGAlgorithmsDD.orientationIndex(p1x, p1y, p2x, p2y, px, py);
+        if (orient == 0)
+          return -1;
+        if (p2y < p1y) 
+          orient = -orient;
+        if (orient > 0)
+          return 1;
+      }
+      return 0;
+    }
+  }
+  
+  /**
+   * Computes the order of the first n values of an array,
+   * with NaN values last.
+   */
+  private static int[] sortedOrder(double[] val, int n)
+  {
+    int[] order = new int[n];
+    for (int i = 0; i < n; i++) {
+      order[i] = i;
+    }
+    sort(order, 0, n - 1, val);
+    return order;
+  }
+  
+  private static final int INSERTION_SORT_SIZE = 16;
+  
+  /**
+   * Sorts a range of indexes by value, using quicksort with
+   * median-of-three pivots and insertion sort for small ranges.
+   * The smaller partition is sorted recursively, which bounds the stack depth.
+   */
+  private static void sort(int[] order, int lo, int hi, double[] val)
+  {
+    while (hi - lo >= INSERTION_SORT_SIZE) {
+      int mid = (lo + hi) >>> 1;
+      if (compare(order[mid], order[lo], val) < 0) swap(order, mid, lo);
+      if (compare(order[hi], order[lo], val) < 0) swap(order, hi, lo);
+      if (compare(order[hi], order[mid], val) < 0) swap(order, hi, mid);
+      int pivot = order[mid];
+      int i = lo;
+      int j = hi;
+      while (i <= j) {
+        while (compare(order[i], pivot, val) < 0) i++;
+        while (compare(order[j], pivot, val) > 0) j--;
+        if (i <= j) {
+          swap(order, i, j);
+          i++;
+          j--;
+        }
+      }
+      if (j - lo < hi - i) {
+        sort(order, lo, j, val);
+        lo = i;
+      }
+      else {
+        sort(order, i, hi, val);
+        hi = j;
+      }
+    }
+    for (int i = lo + 1; i <= hi; i++) {
+      int v = order[i];
+      int j = i - 1;
+      while (j >= lo && compare(order[j], v, val) > 0) {
+        order[j + 1] = order[j];
+        j--;
+      }
+      order[j + 1] = v;
+    }
+  }
+  
+  private static int compare(int i, int j, double[] val)
+  {
+    return Double.compare(val[i], val[j]);
+  }
+  
+  private static void swap(int[] order, int i, int j)
+  {
+    int tmp = order[i];
+    order[i] = order[j];
+    order[j] = tmp;
+  }
+  
   private static class IntervalIndexedGeometry
   {
     private final boolean isEmpty;
     private final SortedPackedIntervalRTree index= new SortedPackedIntervalRTree();
+    private final List<LineSegment> segments = new ArrayList<LineSegment>();
 
     public IntervalIndexedGeometry(Geometry geom)
     {
@@ -158,9 +567,20 @@ public class IndexedPointInAreaLocator
         double min = Math.min(seg.p0.y, seg.p1.y);
         double max = Math.max(seg.p0.y, seg.p1.y);
         index.insert(min, max, seg);
+        segments.add(seg);
       }
     }
     
+    /**
+     * Gets the indexed segments.
+     * 
+     * @return the list of segments
+     */
+    public List<LineSegment> getSegments()
+    {
+      return segments;
+    }
+    
     public List query(double min, double max)
     {
      if (isEmpty) 
@@ -139,7 +139,7 @@ public class CoverageValidator {
   public Geometry[] validate() {
     STRtree index = new STRtree();
     for (Geometry geom : coverage) {
-      index.insert(geom.getEnvelopeInternal(), geom);
+      index.insert(geom.getEnvelopeReadOnly(), geom);
     }
     Geometry[] invalidLines = new Geometry[coverage.length];
     for (int i = 0; i < coverage.length; i++) {
@@ -794,7 +794,7 @@ public class Envelope
         envLat = env.miny;
       }else if (miny > env.maxy) {
         curLat = miny;
-        envLat = maxy;
+        envLat = env.maxy;
       }
       if(curLon==0){
         curLon = envLon  = minx;
@@ -18,6 +18,7 @@ import java.util.Iterator;
 import org.locationtech.jts.algorithm.Centroid;
 import org.locationtech.jts.algorithm.ConvexHull;
 import org.locationtech.jts.algorithm.InteriorPoint;
+import org.locationtech.jts.geom.impl.XYCoordinateReferEvelope;
 import org.locationtech.jts.io.WKTWriter;
 import org.locationtech.jts.operation.buffer.BufferOp;
 import org.locationtech.jts.operation.buffer.BufferParameters;
@@ -178,9 +179,14 @@ public abstract class Geometry
   };
 
   /**
-   *  The bounding box of this <code>Geometry</code>.
+   *  The bounding box of this <code>Geometry</code>, or null if it has not been computed.
+   *  This is a {@link ReadOnlyEnvelope}, so it can be shared
+   *  (see {@link #getEnvelopeReadOnly()}),
+   *  or an {@link XYCoordinateReferEvelope} referring to the coordinate sequences
+   *  of this geometry if the factory uses index-referencing envelopes
+   *  (see {@link GeometryFactory#isIndexReferencingEnvelope()}).
    */
-  protected Envelope envelope;
+  protected Object envelope;
 
   /**
    * The {@link GeometryFactory} used to create this Geometry
@@ -618,7 +624,7 @@ public abstract class Geometry
    * @see GeometryFactory#toGeometry(Envelope)
    */
   public Geometry getEnvelope() {
-    return getFactory().toGeometry(getEnvelopeInternal());
+    return getFactory().toGeometry(getEnvelopeReadOnly());
   }
 
   /**
@@ -630,16 +636,65 @@ public abstract class Geometry
    * The returned object is a copy of the one maintained internally,
    * to avoid aliasing issues.
    * For best performance, clients which access this
-   * envelope frequently should cache the return value.
+   * envelope frequently should cache the return value,
+   * or use {@link #getEnvelopeReadOnly()} if they do not modify it.
    *
    *@return the envelope of this <code>Geometry</code>.
    *@return an empty Envelope if this Geometry is empty
    */
   public Envelope getEnvelopeInternal() {
+    return new Envelope(getEnvelopeReadOnly());
+  }
+
+  /**
+   * Gets the {@link Envelope} maintained internally by this <code>Geometry</code>,
+   * as a {@link ReadOnlyEnvelope}.
+   * Unlike {@link #getEnvelopeInternal()} this does not allocate
+   * once the envelope has been computed,
+   * so it is preferable for clients which only read the envelope
+   * (such as envelope tests and spatial index insertion).
+   * Attempting to modify the returned envelope throws an {@link UnsupportedOperationException}.
+   * If the geometry is empty, an empty envelope is returned.
+   * <p>
+   * If the geometry caches an index-referencing envelope
+   * (see {@link GeometryFactory#isIndexReferencingEnvelope()})
+   * a new read-only envelope is created from it on each call.
+   *
+   *@return the envelope of this <code>Geometry</code>
+   */
+  public ReadOnlyEnvelope getEnvelopeReadOnly() {
     if (envelope == null) {
-      envelope = computeEnvelopeInternal();
+      envelope = createCachedEnvelope();
+    }
+    if (envelope instanceof XYCoordinateReferEvelope) {
+      return ((XYCoordinateReferEvelope) envelope).toEnvelope();
+    }
+    return (ReadOnlyEnvelope) envelope;
+  }
+
+  /**
+   * Creates the envelope to cache for this geometry.
+   * This is an index-referencing envelope if the factory uses them
+   * and the geometry is backed by {@link org.locationtech.jts.geom.impl.XYCoordinateSequence}s,
+   * or otherwise a {@link ReadOnlyEnvelope}.
+   */
+  private Object createCachedEnvelope() {
+    if (getFactory().isIndexReferencingEnvelope()) {
+      XYCoordinateReferEvelope referEnv = XYCoordinateReferEvelope.create(this);
+      if (referEnv != null) return referEnv;
     }
-    return new Envelope(envelope);
+    return ReadOnlyEnvelope.of(computeEnvelopeInternal());
+  }
+
+  /**
+   * Gets the cached envelope if it can be shared with a geometry
+   * which has the same coordinates but different coordinate sequences.
+   * An index-referencing envelope refers to the sequences of this geometry,
+   * so it is not shared.
+   */
+  private Object getShareableEnvelope() {
+    if (envelope instanceof XYCoordinateReferEvelope) return null;
+    return envelope;
   }
 
   /**
@@ -713,7 +768,7 @@ public abstract class Geometry
    */
   public boolean touches(Geometry g) {
     // short-circuit test
-    if (! getEnvelopeInternal().intersects(g.getEnvelopeInternal()))
+    if (! getEnvelopeReadOnly().intersects(g.getEnvelopeReadOnly()))
       return false;
     return relate(g).isTouches(getDimension(), g.getDimension());
   }
@@ -744,7 +799,7 @@ public abstract class Geometry
   public boolean intersects(Geometry g) {
 
     // short-circuit envelope test
-    if (! getEnvelopeInternal().intersects(g.getEnvelopeInternal()))
+    if (! getEnvelopeReadOnly().intersects(g.getEnvelopeReadOnly()))
       return false;
 
     /**
@@ -810,7 +865,7 @@ public abstract class Geometry
    */
   public boolean crosses(Geometry g) {
     // short-circuit test
-    if (! getEnvelopeInternal().intersects(g.getEnvelopeInternal()))
+    if (! getEnvelopeReadOnly().intersects(g.getEnvelopeReadOnly()))
       return false;
     return relate(g).isCrosses(getDimension(), g.getDimension());
   }
@@ -886,7 +941,7 @@ public abstract class Geometry
       return false;
     }
     // optimization - envelope test
-    if (! getEnvelopeInternal().contains(g.getEnvelopeInternal()))
+    if (! getEnvelopeReadOnly().contains(g.getEnvelopeReadOnly()))
       return false;
     // optimization for rectangle arguments
     if (isRectangle()) {
@@ -919,7 +974,7 @@ public abstract class Geometry
    */
   public boolean overlaps(Geometry g) {
     // short-circuit test
-    if (! getEnvelopeInternal().intersects(g.getEnvelopeInternal()))
+    if (! getEnvelopeReadOnly().intersects(g.getEnvelopeReadOnly()))
       return false;
     return relate(g).isOverlaps(getDimension(), g.getDimension());
   }
@@ -969,7 +1024,7 @@ public abstract class Geometry
       return false;
     }
     // optimization - envelope test
-    if (! getEnvelopeInternal().covers(g.getEnvelopeInternal()))
+    if (! getEnvelopeReadOnly().covers(g.getEnvelopeReadOnly()))
       return false;
     // optimization for rectangle arguments
     if (isRectangle()) {
@@ -1101,7 +1156,7 @@ public abstract class Geometry
   public boolean equalsTopo(Geometry g)
   {
     // short-circuit test
-    if (! getEnvelopeInternal().equals(g.getEnvelopeInternal()))
+    if (! getEnvelopeReadOnly().equals(g.getEnvelopeReadOnly()))
       return false;
     return relate(g).isEquals(getDimension(), g.getDimension());
   }
@@ -1149,7 +1204,7 @@ public abstract class Geometry
    */
   public int hashCode()
   {
-    return getEnvelopeInternal().hashCode();
+    return getEnvelopeReadOnly().hashCode();
   }
 
   public String toString() {
@@ -1312,8 +1367,8 @@ public abstract class Geometry
   public Geometry reverse() {
 
     Geometry res = reverseInternal();
-    if (this.envelope != null)
-      res.envelope = this.envelope.copy();
+    // the envelope is read-only, so can be shared
+    res.envelope = getShareableEnvelope();
     //res.setSRID(getSRID());
 
     return res;
@@ -1598,7 +1653,6 @@ public abstract class Geometry
   public Object clone() {
     try {
       Geometry clone = (Geometry) super.clone();
-      if (clone.envelope != null) { clone.envelope = new Envelope(clone.envelope); }
       return clone;
     }
     catch (CloneNotSupportedException e) {
@@ -1621,7 +1675,7 @@ public abstract class Geometry
    */
   public Geometry copy() {
     Geometry copy = copyInternal();
-    copy.envelope = envelope == null ? null : envelope.copy();
+    copy.envelope = getShareableEnvelope();
     //copy.SRID = this.SRID;
     //copy.userData = this.userData;
     return copy;
@@ -16,6 +16,7 @@ import java.util.Collection;
 import java.util.Iterator;
 
 import org.locationtech.jts.geom.impl.CoordinateArraySequenceFactory;
+import org.locationtech.jts.geom.impl.XYCoordinateReferEvelope;
 import org.locationtech.jts.geom.util.GeometryEditor;
 import org.locationtech.jts.util.Assert;
 
@@ -700,10 +701,41 @@ public class GeometryFactory
     return geoCoordSys;
   }
 
+  /**
+   * Tests whether geometries cache index-referencing envelopes.
+   * 
+   * @return true if index-referencing envelopes are used
+   * @see #setIndexReferencingEnvelope(boolean)
+   */
+  public boolean isIndexReferencingEnvelope() {
+    return indexReferencingEnvelope;
+  }
+
+  /**
+   * Sets whether geometries backed by {@link org.locationtech.jts.geom.impl.XYCoordinateSequence}s
+   * cache their envelope as an {@link XYCoordinateReferEvelope},
+   * which refers to the vertices holding the extremal ordinates
+   * rather than storing the ordinate values.
+   * This reduces the memory used by large numbers of geometries
+   * with cached envelopes,
+   * but {@link Geometry#getEnvelopeReadOnly()} then creates 
+   * a new envelope on each call.
+   * Geometries obtain their factory from {@link #getDefault()},
+   * so this should be set on the default factory.
+   * The default is false.
+   * 
+   * @param isIndexReferencingEnvelope true if index-referencing envelopes are to be used
+   */
+  public void setIndexReferencingEnvelope(boolean isIndexReferencingEnvelope) {
+    this.indexReferencingEnvelope = isIndexReferencingEnvelope;
+  }
+
   private int SRID;
 
   private boolean geoCoordSys = false;
 
+  private boolean indexReferencingEnvelope = false;
+
   public CoordinateSequenceFactory getCoordinateSequenceFactory() {
     return coordinateSequenceFactory;
   }
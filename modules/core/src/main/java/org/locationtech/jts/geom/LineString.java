@@ -12,8 +12,6 @@
 package org.locationtech.jts.geom;
 
 import org.locationtech.jts.algorithm.Length;
-import org.locationtech.jts.geom.impl.XYCoordinateReferEvelope;
-import org.locationtech.jts.geom.impl.XYCoordinateSequence;
 import org.locationtech.jts.operation.BoundaryOp;
 
 /**
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.geom;
+
+/**
+ * An {@link Envelope} whose extent cannot be changed after construction.
+ * All methods which would modify the envelope
+ * throw an {@link UnsupportedOperationException}.
+ * <p>
+ * This is the type of the envelope cached by a {@link Geometry}
+ * and returned by {@link Geometry#getEnvelopeReadOnly()}.
+ * Since it cannot be modified it can be shared without copying.
+ * A modifiable envelope can be obtained with {@link #copy()}
+ * (or from {@link Geometry#getEnvelopeInternal()}).
+ */
+public class ReadOnlyEnvelope
+    extends Envelope
+{
+  private static final long serialVersionUID = -3296624311094638213L;
+
+  /**
+   * Creates a read-only envelope with the extent of a given envelope.
+   *
+   * @param env the Envelope to copy the extent from
+   * @return a read-only envelope
+   */
+  public static ReadOnlyEnvelope of(Envelope env) {
+    if (env instanceof ReadOnlyEnvelope)
+      return (ReadOnlyEnvelope) env;
+    return new ReadOnlyEnvelope(env);
+  }
+
+  /**
+   * Set once construction has finished,
+   * since the superclass constructors initialize the extent
+   * using the (overridden) init methods.
+   */
+  private final boolean isFrozen;
+
+  /**
+   * Creates a read-only envelope with the extent of a given envelope.
+   *
+   * @param env the Envelope to copy the extent from
+   */
+  public ReadOnlyEnvelope(Envelope env) {
+    super(env);
+    isFrozen = true;
+  }
+
+  /**
+   * Creates a read-only envelope for a region defined by maximum and minimum values.
+   *
+   * @param x1 the first x-value
+   * @param x2 the second x-value
+   * @param y1 the first y-value
+   * @param y2 the second y-value
+   */
+  public ReadOnlyEnvelope(double x1, double x2, double y1, double y2) {
+    super(x1, x2, y1, y2);
+    isFrozen = true;
+  }
+
+  private void checkModifiable() {
+    if (isFrozen)
+      throw new UnsupportedOperationException("Envelope is read-only");
+  }
+
+  public void init() {
+    checkModifiable();
+    super.init();
+  }
+
+  public void init(double x1, double x2, double y1, double y2) {
+    checkModifiable();
+    super.init(x1, x2, y1, y2);
+  }
+
+  public void init(Coordinate p1, Coordinate p2) {
+    checkModifiable();
+    super.init(p1, p2);
+  }
+
+  public void init(Coordinate p) {
+    checkModifiable();
+    super.init(p);
+  }
+
+  public void init(Envelope env) {
+    checkModifiable();
+    super.init(env);
+  }
+
+  public void setToNull() {
+    checkModifiable();
+    super.setToNull();
+  }
+
+  public void expandToInclude(Coordinate p) {
+    checkModifiable();
+    super.expandToInclude(p);
+  }
+
+  public void expandToInclude(double x, double y) {
+    checkModifiable();
+    super.expandToInclude(x, y);
+  }
+
+  public void expandToInclude(Envelope other) {
+    checkModifiable();
+    super.expandToInclude(other);
+  }
+
+  public void expandBy(double distance) {
+    checkModifiable();
+    super.expandBy(distance);
+  }
+
+  public void expandBy(double deltaX, double deltaY) {
+    checkModifiable();
+    super.expandBy(deltaX, deltaY);
+  }
+
+  public void translate(double transX, double transY) {
+    checkModifiable();
+    super.translate(transX, transY);
+  }
+}
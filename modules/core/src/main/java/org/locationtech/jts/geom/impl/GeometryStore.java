@@ -0,0 +1,485 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.geom.impl;
+
+import java.util.Arrays;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateXY;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Polygon;
+
+/**
+ * A columnar store for large collections of XY {@link LineString}s and {@link Polygon}s.
+ * <p>
+ * All coordinates are held in a single packed <code>double</code> array,
+ * with an offset index recording where each part (line or ring) starts
+ * and which parts belong to each geometry.
+ * No per-geometry objects are retained.
+ * Instead, lightweight geometry views are created on demand by
+ * {@link #getGeometry(int)}.
+ * The views are ordinary {@link LineString} and {@link Polygon} objects whose
+ * {@link CoordinateSequence}s read directly from the shared buffer,
+ * so they can be used with any JTS algorithm.
+ * <p>
+ * Views are intended to be short-lived.
+ * Callers which need to retain a geometry should either keep its store index
+ * or {@link Geometry#copy()} the view.
+ * Modifying a view's coordinates writes through to the store.
+ * <p>
+ * Only the X and Y ordinates of the input are stored.
+ * <p>
+ * This class is not thread-safe for writing.
+ * Once fully loaded, views may be created concurrently.
+ *
+ * @version 1.20
+ */
+public class GeometryStore
+{
+  private static final byte TYPE_LINESTRING = 0;
+  private static final byte TYPE_POLYGON = 1;
+
+  private static final int DEFAULT_GEOM_CAPACITY = 16;
+  private static final int DEFAULT_COORD_CAPACITY = 64;
+
+  private final GeometryFactory geomFactory;
+
+  /**
+   * The packed XY values of all coordinates in the store
+   */
+  private double[] coords;
+  private int numCoords = 0;
+
+  /**
+   * The index of the first coordinate of each part.
+   * A sentinel entry holds the total number of coordinates.
+   */
+  private int[] partStart;
+  private int numParts = 0;
+
+  /**
+   * The index of the first part of each geometry.
+   * A sentinel entry holds the total number of parts.
+   */
+  private int[] geomStart;
+  private byte[] geomType;
+  private int numGeoms = 0;
+
+  /**
+   * Creates a new empty store which creates views
+   * using the given factory.
+   *
+   * @param geomFactory the factory to use for geometry views
+   */
+  public GeometryStore(GeometryFactory geomFactory)
+  {
+    this(geomFactory, DEFAULT_GEOM_CAPACITY, DEFAULT_COORD_CAPACITY);
+  }
+
+  /**
+   * Creates a new empty store with an initial capacity.
+   * Setting the capacity close to the final store size
+   * avoids reallocating the buffers during loading.
+   *
+   * @param geomFactory the factory to use for geometry views
+   * @param geomCapacity the expected number of geometries
+   * @param coordCapacity the expected total number of coordinates
+   */
+  public GeometryStore(GeometryFactory geomFactory, int geomCapacity, int coordCapacity)
+  {
+    this.geomFactory = geomFactory;
+    int geomCap = Math.max(1, geomCapacity);
+    coords = new double[2 * Math.max(1, coordCapacity)];
+    partStart = new int[geomCap + 1];
+    geomStart = new int[geomCap + 1];
+    geomType = new byte[geomCap];
+  }
+
+  /**
+   * Gets the factory used to create geometry views.
+   *
+   * @return the geometry factory
+   */
+  public GeometryFactory getFactory()
+  {
+    return geomFactory;
+  }
+
+  /**
+   * Gets the number of geometries in the store.
+   *
+   * @return the number of geometries
+   */
+  public int size()
+  {
+    return numGeoms;
+  }
+
+  /**
+   * Gets the total number of coordinates held in the store.
+   *
+   * @return the number of coordinates
+   */
+  public int getNumCoordinates()
+  {
+    return numCoords;
+  }
+
+  /**
+   * Adds a geometry to the store.
+   * Only {@link LineString}s (including {@link LinearRing}s)
+   * and {@link Polygon}s are supported.
+   *
+   * @param geom the geometry to add
+   * @return the index of the geometry in the store
+   * @throws IllegalArgumentException if the geometry type is not supported
+   */
+  public int add(Geometry geom)
+  {
+    if (geom instanceof LineString)
+      return addLineString(((LineString) geom).getCoordinateSequence());
+    if (geom instanceof Polygon)
+      return addPolygon((Polygon) geom);
+    throw new IllegalArgumentException("Unsupported geometry type: " + geom.getGeometryType());
+  }
+
+  /**
+   * Adds a linestring with the given packed XY ordinates.
+   *
+   * @param xy the packed XY ordinates of the line
+   * @return the index of the geometry in the store
+   */
+  public int addLineString(double[] xy)
+  {
+    checkPacked(xy);
+    startGeometry(TYPE_LINESTRING);
+    addPart(xy);
+    return endGeometry();
+  }
+
+  /**
+   * Adds a linestring with the given coordinates.
+   *
+   * @param seq the coordinates of the line
+   * @return the index of the geometry in the store
+   */
+  public int addLineString(CoordinateSequence seq)
+  {
+    startGeometry(TYPE_LINESTRING);
+    addPart(seq);
+    return endGeometry();
+  }
+
+  /**
+   * Adds a polygon with the given packed XY ring ordinates.
+   * The rings must be closed.
+   *
+   * @param shell the packed XY ordinates of the shell
+   * @param holes the packed XY ordinates of the holes, or null
+   * @return the index of the geometry in the store
+   */
+  public int addPolygon(double[] shell, double[][] holes)
+  {
+    checkPacked(shell);
+    if (holes != null) {
+      for (int i = 0; i < holes.length; i++) {
+        checkPacked(holes[i]);
+      }
+    }
+    startGeometry(TYPE_POLYGON);
+    addPart(shell);
+    if (holes != null) {
+      for (int i = 0; i < holes.length; i++) {
+        addPart(holes[i]);
+      }
+    }
+    return endGeometry();
+  }
+
+  /**
+   * Adds a polygon to the store.
+   *
+   * @param poly the polygon to add
+   * @return the index of the geometry in the store
+   */
+  public int addPolygon(Polygon poly)
+  {
+    startGeometry(TYPE_POLYGON);
+    addPart(poly.getExteriorRing().getCoordinateSequence());
+    for (int i = 0; i < poly.getNumInteriorRing(); i++) {
+      addPart(poly.getInteriorRingN(i).getCoordinateSequence());
+    }
+    return endGeometry();
+  }
+
+  /**
+   * Gets the number of points in a stored geometry.
+   *
+   * @param index the index of the geometry
+   * @return the number of points
+   */
+  public int getNumPoints(int index)
+  {
+    return partStart[geomStart[index + 1]] - partStart[geomStart[index]];
+  }
+
+  /**
+   * Computes the envelope of a stored geometry
+   * directly from the coordinate buffer, without creating a view.
+   *
+   * @param index the index of the geometry
+   * @return the envelope of the geometry
+   */
+  public Envelope getEnvelope(int index)
+  {
+    Envelope env = new Envelope();
+    //-- the shell (or line) determines the envelope
+    int part = geomStart[index];
+    int end = 2 * partStart[part + 1];
+    for (int i = 2 * partStart[part]; i < end; i += 2) {
+      env.expandToInclude(coords[i], coords[i + 1]);
+    }
+    return env;
+  }
+
+  /**
+   * Creates a view of a stored geometry.
+   *
+   * @param index the index of the geometry
+   * @return a {@link LineString} or {@link Polygon} view
+   */
+  public Geometry getGeometry(int index)
+  {
+    if (geomType[index] == TYPE_POLYGON)
+      return getPolygon(index);
+    return getLineString(index);
+  }
+
+  /**
+   * Creates a view of a stored linestring.
+   *
+   * @param index the index of the geometry
+   * @return a linestring view
+   * @throws IllegalArgumentException if the geometry is not a linestring
+   */
+  public LineString getLineString(int index)
+  {
+    checkType(index, TYPE_LINESTRING);
+    return geomFactory.createLineString(createPartSequence(geomStart[index]));
+  }
+
+  /**
+   * Creates a view of a stored polygon.
+   *
+   * @param index the index of the geometry
+   * @return a polygon view
+   * @throws IllegalArgumentException if the geometry is not a polygon
+   */
+  public Polygon getPolygon(int index)
+  {
+    checkType(index, TYPE_POLYGON);
+    int part = geomStart[index];
+    int numHoles = geomStart[index + 1] - part - 1;
+    LinearRing shell = geomFactory.createLinearRing(createPartSequence(part));
+    LinearRing[] holes = new LinearRing[numHoles];
+    for (int i = 0; i < numHoles; i++) {
+      holes[i] = geomFactory.createLinearRing(createPartSequence(part + 1 + i));
+    }
+    return geomFactory.createPolygon(shell, holes);
+  }
+
+  /**
+   * Trims the internal buffers to the current contents,
+   * releasing any unused capacity.
+   */
+  public void trimToSize()
+  {
+    coords = Arrays.copyOf(coords, Math.max(2, 2 * numCoords));
+    partStart = Arrays.copyOf(partStart, numParts + 1);
+    geomStart = Arrays.copyOf(geomStart, numGeoms + 1);
+    geomType = Arrays.copyOf(geomType, Math.max(1, numGeoms));
+  }
+
+  /**
+   * Computes the number of bytes used by the internal buffers of this store
+   * (excluding object headers).
+   *
+   * @return the size of the store buffers in bytes
+   */
+  public long getBufferSize()
+  {
+    return 8L * coords.length
+        + 4L * partStart.length
+        + 4L * geomStart.length
+        + geomType.length;
+  }
+
+  private XYCoordinateSequence createPartSequence(int part)
+  {
+    int start = partStart[part];
+    return new StoreSequence(this, start, partStart[part + 1] - start);
+  }
+
+  private void checkType(int index, byte type)
+  {
+    if (geomType[index] != type)
+      throw new IllegalArgumentException("Geometry " + index + " has a different type");
+  }
+
+  private static void checkPacked(double[] xy)
+  {
+    if (xy.length % 2 != 0) {
+      throw new IllegalArgumentException("Packed array does not contain "
+          + "an integral number of coordinates");
+    }
+  }
+
+  private void startGeometry(byte type)
+  {
+    if (numGeoms + 1 >= geomStart.length) {
+      int newCap = 2 * geomStart.length;
+      geomStart = Arrays.copyOf(geomStart, newCap);
+      geomType = Arrays.copyOf(geomType, newCap);
+    }
+    geomType[numGeoms] = type;
+    geomStart[numGeoms] = numParts;
+  }
+
+  private int endGeometry()
+  {
+    int index = numGeoms++;
+    geomStart[numGeoms] = numParts;
+    return index;
+  }
+
+  private void addPart(double[] xy)
+  {
+    int size = xy.length / 2;
+    ensurePartCapacity(size);
+    System.arraycopy(xy, 0, coords, 2 * numCoords, xy.length);
+    numCoords += size;
+    endPart();
+  }
+
+  private void addPart(CoordinateSequence seq)
+  {
+    int size = seq.size();
+    ensurePartCapacity(size);
+    int offset = 2 * numCoords;
+    for (int i = 0; i < size; i++) {
+      coords[offset++] = seq.getX(i);
+      coords[offset++] = seq.getY(i);
+    }
+    numCoords += size;
+    endPart();
+  }
+
+  private void ensurePartCapacity(int size)
+  {
+    if (numParts + 1 >= partStart.length) {
+      partStart = Arrays.copyOf(partStart, 2 * partStart.length);
+    }
+    partStart[numParts] = numCoords;
+    int required = 2 * (numCoords + size);
+    if (required > coords.length) {
+      coords = Arrays.copyOf(coords, Math.max(required, 2 * coords.length));
+    }
+  }
+
+  private void endPart()
+  {
+    numParts++;
+    partStart[numParts] = numCoords;
+  }
+
+  /**
+   * A coordinate sequence which is a view of a range
+   * of the coordinate buffer of a {@link GeometryStore}.
+   * The buffer is accessed through the store,
+   * so the view remains valid if the buffer is reallocated.
+   */
+  static class StoreSequence extends XYCoordinateSequence
+  {
+    private static final long serialVersionUID = -4127384619470231785L;
+
+    private final GeometryStore store;
+    private final int offset;
+    private final int size;
+
+    StoreSequence(GeometryStore store, int start, int size)
+    {
+      this.store = store;
+      this.offset = 2 * start;
+      this.size = size;
+    }
+
+    public int size() {
+      return size;
+    }
+
+    public double getOrdinate(int index, int ordinate) {
+      return store.coords[offset + index * dimension + ordinate];
+    }
+
+    public double getX(int index) {
+      return store.coords[offset + index * dimension];
+    }
+
+    public double getY(int index) {
+      return store.coords[offset + index * dimension + 1];
+    }
+
+    public void setOrdinate(int index, int ordinate, double value) {
+      coordRef = null;
+      store.coords[offset + index * dimension + ordinate] = value;
+    }
+
+    public double getRowXY(int idx) {
+      return store.coords[offset + idx];
+    }
+
+    protected Coordinate getCoordinateInternal(int index) {
+      return new CoordinateXY(getX(index), getY(index));
+    }
+
+    public Envelope expandEnvelope(Envelope env)
+    {
+      double[] buf = store.coords;
+      int end = offset + dimension * size;
+      for (int i = offset; i < end; i += dimension) {
+        env.expandToInclude(buf[i], buf[i + 1]);
+      }
+      return env;
+    }
+
+    /**
+     * @see java.lang.Object#clone()
+     * @deprecated
+     */
+    public Object clone() {
+      return copy();
+    }
+
+    /**
+     * Copies the viewed range into a standalone sequence.
+     */
+    public XYCoordinateSequence copy() {
+      double[] xy = Arrays.copyOfRange(store.coords, offset, offset + dimension * size);
+      return new DoubleXY(xy);
+    }
+  }
+}
@@ -14,14 +14,106 @@ package org.locationtech.jts.geom.impl;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.CoordinateSequence;
 import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.ReadOnlyEnvelope;
 
 import java.io.Serializable;
-
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An envelope which refers to the vertices of one or more {@link XYCoordinateSequence}s
+ * holding the extremal ordinates, rather than storing the ordinate values.
+ * This makes it smaller than an {@link Envelope} for a single sequence.
+ * <p>
+ * Envelopes for geometries of any type backed by <code>XYCoordinateSequence</code>s
+ * can be created with {@link #create(Geometry)}.
+ * A {@link Geometry} caches one of these as its envelope
+ * if its factory has index-referencing envelopes enabled
+ * (see {@link GeometryFactory#setIndexReferencingEnvelope(boolean)}).
+ * <p>
+ * The referenced sequences are not copied.
+ * If they are modified, {@link #init()} must be called to recompute the extremal vertices.
+ */
 public class XYCoordinateReferEvelope implements Comparable, Serializable
 {
     private static final long serialVersionUID = 5873954885273109835L;
+
+    private static final int MIN_X = 0;
+    private static final int MIN_Y = 1;
+    private static final int MAX_X = 2;
+    private static final int MAX_Y = 3;
+
+    /**
+     * Creates an index-referencing envelope for a geometry
+     * whose envelope is determined by {@link XYCoordinateSequence}s.
+     * This applies to every geometry type:
+     * the envelope of a {@link Point} or {@link LineString} is determined by its sequence,
+     * that of a {@link Polygon} by its shell,
+     * and that of a collection by the sequences of its components.
+     *
+     * @param geom the geometry to create the envelope for
+     * @return the envelope of the geometry,
+     *   or null if the geometry does not use <code>XYCoordinateSequence</code>s
+     */
+    public static XYCoordinateReferEvelope create(Geometry geom) {
+        List<XYCoordinateSequence> seqs = new ArrayList<XYCoordinateSequence>();
+        if (! addEnvelopeSequences(geom, seqs)) return null;
+        if (seqs.size() == 1) {
+            return new XYCoordinateReferEvelope(seqs.get(0));
+        }
+        return new XYCoordinateReferEvelope(seqs.toArray(new XYCoordinateSequence[0]));
+    }
+
+    /**
+     * Adds the sequences which determine the envelope of a geometry to a list.
+     *
+     * @return false if a sequence is not an <code>XYCoordinateSequence</code>
+     */
+    private static boolean addEnvelopeSequences(Geometry geom, List<XYCoordinateSequence> seqs) {
+        if (geom instanceof Point) {
+            return addSequence(((Point) geom).getCoordinateSequence(), seqs);
+        }
+        if (geom instanceof LineString) {
+            return addSequence(((LineString) geom).getCoordinateSequence(), seqs);
+        }
+        if (geom instanceof Polygon) {
+            return addEnvelopeSequences(((Polygon) geom).getExteriorRing(), seqs);
+        }
+        for (int i = 0; i < geom.getNumGeometries(); i++) {
+            if (! addEnvelopeSequences(geom.getGeometryN(i), seqs)) return false;
+        }
+        return true;
+    }
+
+    private static boolean addSequence(CoordinateSequence seq, List<XYCoordinateSequence> seqs) {
+        if (! (seq instanceof XYCoordinateSequence)) return false;
+        seqs.add((XYCoordinateSequence) seq);
+        return true;
+    }
+
+    /**
+     * The sequence referred to, for a single-sequence envelope
+     */
     private final XYCoordinateSequence coordSeq;
 
+    /**
+     * The sequences referred to, for a multiple-sequence envelope
+     * (otherwise null)
+     */
+    private final XYCoordinateSequence[] coordSeqs;
+
+    /**
+     * The indices in {@link #coordSeqs} of the sequences containing
+     * the min x, min y, max x and max y vertices
+     * (null for a single-sequence envelope)
+     */
+    private int[] extremeSeqIndex;
+
     public int hashCode() {
         //Algorithm from Effective Java by Joshua Bloch [Jon Aquino]
         int result = 17;
@@ -96,56 +188,108 @@ public class XYCoordinateReferEvelope implements Comparable, Serializable
 
 
     /**
-     *  Creates an <code>Envelope</code> for a region defined by a single Coordinate.
+     *  Creates an envelope referring to the vertices of a sequence.
      *
+     *@param  coordSeq the sequence to refer to
      */
     public XYCoordinateReferEvelope(XYCoordinateSequence coordSeq)
     {
         this.coordSeq = coordSeq;
+        this.coordSeqs = null;
         init();
     }
 
+    /**
+     *  Creates an envelope referring to the vertices of several sequences.
+     *
+     *@param  coordSeqs the sequences to refer to
+     */
+    public XYCoordinateReferEvelope(XYCoordinateSequence[] coordSeqs)
+    {
+        this.coordSeq = null;
+        this.coordSeqs = coordSeqs;
+        this.extremeSeqIndex = new int[4];
+        init();
+    }
 
     /**
      *  Initialize a  <code>Envelope</code>.
+     *  This must be called if the referenced sequences are modified.
      */
     public void init()
     {
-        if(this.coordSeq==null|| this.coordSeq.size()==0) {
-            setToNull();
-        }else{
-            double minX = Double.MAX_VALUE;
-            double minY = Double.MAX_VALUE;
-            double maxX = Double.MIN_VALUE;
-            double maxY = Double.MIN_VALUE;
-            int xySize = this.coordSeq.size()*2;
-            for(int i=0;i<xySize;){
-                if(coordSeq.getRowXY(i) < minX){
-                    minXIdx = i;
-                    minX = coordSeq.getRowXY(i);
-                }
-                if(coordSeq.getRowXY(i) > maxX){
-                    maxXIdx = i;
-                    maxX = coordSeq.getRowXY(i);
-                }
-                int nextIdx = i+1;
-                if(coordSeq.getRowXY(nextIdx) < minY){
-                    minYIdx = nextIdx;
-                    minY = coordSeq.getRowXY(nextIdx);
-                }
-                if(coordSeq.getRowXY(nextIdx) > maxY){
-                    maxYIdx = nextIdx;
-                    maxY = coordSeq.getRowXY(nextIdx);
-                }
-                i += 2;
+        setToNull();
+        if (coordSeqs == null) {
+            if (coordSeq != null) {
+                expandToInclude(coordSeq, 0);
             }
+            return;
+        }
+        for (int i = 0; i < coordSeqs.length; i++) {
+            expandToInclude(coordSeqs[i], i);
+        }
+    }
 
-
+    /**
+     * Updates the extremal vertex references to include the vertices of a sequence.
+     *
+     * @param seq the sequence to include
+     * @param seqIndex the index of the sequence in {@link #coordSeqs}
+     */
+    private void expandToInclude(XYCoordinateSequence seq, int seqIndex)
+    {
+        int xySize = seq.size() * 2;
+        for (int i = 0; i < xySize; i += 2) {
+            double x = seq.getRowXY(i);
+            double y = seq.getRowXY(i + 1);
+            if (isNull()) {
+                setExtreme(MIN_X, seqIndex, i);
+                setExtreme(MIN_Y, seqIndex, i + 1);
+                setExtreme(MAX_X, seqIndex, i);
+                setExtreme(MAX_Y, seqIndex, i + 1);
+                continue;
+            }
+            if (x < getMinX()) setExtreme(MIN_X, seqIndex, i);
+            if (y < getMinY()) setExtreme(MIN_Y, seqIndex, i + 1);
+            if (x > getMaxX()) setExtreme(MAX_X, seqIndex, i);
+            if (y > getMaxY()) setExtreme(MAX_Y, seqIndex, i + 1);
         }
     }
 
+    private void setExtreme(int extreme, int seqIndex, int rowIndex)
+    {
+        if (extremeSeqIndex != null) {
+            extremeSeqIndex[extreme] = seqIndex;
+        }
+        switch (extreme) {
+        case MIN_X: minXIdx = rowIndex; break;
+        case MIN_Y: minYIdx = rowIndex; break;
+        case MAX_X: maxXIdx = rowIndex; break;
+        case MAX_Y: maxYIdx = rowIndex; break;
+        }
+    }
 
+    private double getRowXY(int extreme, int rowIndex)
+    {
+        if (coordSeqs == null) {
+            return coordSeq.getRowXY(rowIndex);
+        }
+        return coordSeqs[extremeSeqIndex[extreme]].getRowXY(rowIndex);
+    }
 
+    /**
+     * Creates an {@link Envelope} with the extent of this envelope.
+     * The result is read-only, and does not refer to the sequences.
+     *
+     * @return a read-only envelope with the same extent
+     */
+    public ReadOnlyEnvelope toEnvelope()
+    {
+        if (isNull()) {
+            return ReadOnlyEnvelope.of(new Envelope());
+        }
+        return new ReadOnlyEnvelope(getMinX(), getMaxX(), getMinY(), getMaxY());
+    }
 
     /**
      *  Makes this <code>Envelope</code> a "null" envelope, that is, the envelope
@@ -201,7 +345,8 @@ public class XYCoordinateReferEvelope implements Comparable, Serializable
      *@return    the minimum x-coordinate
      */
     public double getMinX() {
-        return this.coordSeq.getRowXY(minXIdx);
+        if (isNull()) return 0;
+        return getRowXY(MIN_X, minXIdx);
     }
 
     /**
@@ -211,7 +356,8 @@ public class XYCoordinateReferEvelope implements Comparable, Serializable
      *@return    the maximum x-coordinate
      */
     public double getMaxX() {
-        return this.coordSeq.getRowXY(maxXIdx);
+        if (isNull()) return -1;
+        return getRowXY(MAX_X, maxXIdx);
     }
 
     /**
@@ -221,7 +367,8 @@ public class XYCoordinateReferEvelope implements Comparable, Serializable
      *@return    the minimum y-coordinate
      */
     public double getMinY() {
-        return this.coordSeq.getRowXY(minYIdx);
+        if (isNull()) return 0;
+        return getRowXY(MIN_Y, minYIdx);
     }
 
     /**
@@ -231,7 +378,8 @@ public class XYCoordinateReferEvelope implements Comparable, Serializable
      *@return    the maximum y-coordinate
      */
     public double getMaxY() {
-        return this.coordSeq.getRowXY(maxYIdx);
+        if (isNull()) return -1;
+        return getRowXY(MAX_Y, maxYIdx);
     }
 
     /**
@@ -281,15 +281,12 @@ public abstract class XYCoordinateSequence implements CoordinateSequence, Serial
             if (coordinates == null)
                 coordinates = new Coordinate[0];
 
-            coords = new double[coordinates.length * this.dimension];
+            // only the XY ordinates are stored
+            coords = new double[coordinates.length * XYCoordinateSequence.dimension];
             for (int i = 0; i < coordinates.length; i++) {
-                int offset = i * dimension;
+                int offset = i * XYCoordinateSequence.dimension;
                 coords[offset] = coordinates[i].x;
                 coords[offset + 1] = coordinates[i].y;
-                if (dimension >= 3)
-                    coords[offset + 2] = coordinates[i].getOrdinate(2); // Z or M
-                if (dimension >= 4)
-                    coords[offset + 3] = coordinates[i].getOrdinate(3); // M
             }
         }
         /**
@@ -457,18 +454,24 @@ public abstract class XYCoordinateSequence implements CoordinateSequence, Serial
             if (coordinates == null)
                 coordinates = new Coordinate[0];
 
-            coords = new float[coordinates.length * dimension];
+            // only the XY ordinates are stored
+            coords = new float[coordinates.length * XYCoordinateSequence.dimension];
             for (int i = 0; i < coordinates.length; i++) {
-                int offset = i * dimension;
+                int offset = i * XYCoordinateSequence.dimension;
                 coords[offset] = (float) coordinates[i].x;
                 coords[offset + 1] = (float) coordinates[i].y;
-                if (dimension >= 3)
-                    coords[offset + 2] = (float) coordinates[i].getOrdinate(2); // Z or M
-                if (dimension >= 4)
-                    coords[offset + 3] = (float) coordinates[i].getOrdinate(3); // M
             }
         }
 
+        /**
+         * Constructs a packed coordinate sequence out of a coordinate array
+         *
+         * @param coordinates an array of {@link Coordinate}s
+         */
+        public FloatXY(Coordinate[] coordinates) {
+            this(coordinates, 2, 0);
+        }
+
         /**
          * Constructs an empty packed coordinate sequence of a given size and dimension
          *
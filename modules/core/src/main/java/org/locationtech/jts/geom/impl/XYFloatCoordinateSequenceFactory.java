@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.geom.impl;
+
+import java.io.Serializable;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequenceFactory;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.PrecisionModel;
+
+/**
+ * Creates {@link XYCoordinateSequence.FloatXY} sequences,
+ * which store X and Y ordinates as <code>float</code> values.
+ * Any Z or M ordinates are discarded.
+ * <p>
+ * A {@link GeometryFactory} using this factory causes the WKT and WKB readers
+ * and all operations which construct geometry through the factory
+ * (such as overlay, buffer and simplification)
+ * to produce single-precision XY output.
+ * Since constructive operations use the factory returned by {@link org.locationtech.jts.geom.Geometry#getFactory()},
+ * which is the {@link GeometryFactory#getDefault() default factory},
+ * the factory should be installed with {@link GeometryFactory#setDefaultFactory(GeometryFactory)}.
+ * The computation itself is carried out in double precision,
+ * and the result ordinates are rounded when the output sequences are created.
+ * Operations which honour the geometry {@link PrecisionModel}
+ * should be given a {@link PrecisionModel#FLOATING_SINGLE} model,
+ * as provided by {@link #createGeometryFactory(int)}.
+ * <p>
+ * <b>Round-off error:</b>
+ * a <code>float</code> has a 24-bit significand,
+ * so storing an ordinate <code>v</code> changes it by at most
+ * half an ulp, i.e. <code>2<sup>e-25</sup></code> where
+ * <code>2<sup>e-1</sup> &lt;= |v| &lt; 2<sup>e</sup></code>.
+ * For longitude/latitude values (WGS84 or GCJ02, |v| &lt;= 180)
+ * this bounds the error of each ordinate by {@link #MAX_LONLAT_ROUNDOFF}
+ * = 2<sup>-17</sup> degrees (about 7.6e-6 degrees, or 0.85 m on the ground).
+ * Latitudes (|v| &lt; 128) and longitudes with |v| &lt; 128 have
+ * half that error bound or less.
+ * Values which are already representable as <code>float</code>
+ * round-trip exactly.
+ *
+ * @version 1.20
+ */
+public final class XYFloatCoordinateSequenceFactory
+    implements CoordinateSequenceFactory, Serializable
+{
+  private static final long serialVersionUID = 7145922783437581291L;
+
+  /**
+   * The maximum error (in degrees) introduced in a longitude or latitude ordinate
+   * when it is stored by a sequence created by this factory.
+   */
+  public static final double MAX_LONLAT_ROUNDOFF = 0x1.0p-17;
+
+  private static final XYFloatCoordinateSequenceFactory instanceObject = new XYFloatCoordinateSequenceFactory();
+
+  private XYFloatCoordinateSequenceFactory() {
+  }
+
+  private Object readResolve() {
+    return XYFloatCoordinateSequenceFactory.instance();
+  }
+
+  /**
+   * Returns the singleton instance of {@link XYFloatCoordinateSequenceFactory}
+   */
+  public static XYFloatCoordinateSequenceFactory instance() {
+    return instanceObject;
+  }
+
+  /**
+   * Creates a {@link GeometryFactory} which produces single-precision XY geometry
+   * with the given SRID.
+   * The factory uses a {@link PrecisionModel#FLOATING_SINGLE} precision model.
+   * As for any {@link GeometryFactory}, the SRID determines the coordinate system:
+   * {@link org.locationtech.jts.geom.SRID#GCJ02} or {@link org.locationtech.jts.geom.SRID#WGS84}
+   * give a geographic factory (like the default factory),
+   * and other values a planar one.
+   *
+   * @param srid the SRID for the geometry factory
+   * @return a geometry factory using this sequence factory
+   */
+  public static GeometryFactory createGeometryFactory(int srid) {
+    return new GeometryFactory(new PrecisionModel(PrecisionModel.FLOATING_SINGLE), srid, instance());
+  }
+
+  /**
+   * @see org.locationtech.jts.geom.CoordinateSequenceFactory#create(org.locationtech.jts.geom.Coordinate[])
+   */
+  public CoordinateSequence create(Coordinate[] coordinates) {
+    return new XYCoordinateSequence.FloatXY(coordinates);
+  }
+
+  /**
+   * @see org.locationtech.jts.geom.CoordinateSequenceFactory#create(org.locationtech.jts.geom.CoordinateSequence)
+   */
+  public CoordinateSequence create(CoordinateSequence coordSeq) {
+    int size = coordSeq.size();
+    float[] xy = new float[2 * size];
+    for (int i = 0; i < size; i++) {
+      xy[2 * i] = (float) coordSeq.getX(i);
+      xy[2 * i + 1] = (float) coordSeq.getY(i);
+    }
+    return new XYCoordinateSequence.FloatXY(xy);
+  }
+
+  /**
+   * Creates a sequence of the given size.
+   * The created sequence always has dimension 2,
+   * whatever dimension is requested.
+   *
+   * @see org.locationtech.jts.geom.CoordinateSequenceFactory#create(int, int)
+   */
+  public CoordinateSequence create(int size, int dimension) {
+    return new XYCoordinateSequence.FloatXY(size);
+  }
+
+  /**
+   * Creates a sequence of the given size.
+   * The created sequence always has dimension 2 and no measures,
+   * whatever dimension is requested.
+   *
+   * @see org.locationtech.jts.geom.CoordinateSequenceFactory#create(int, int, int)
+   */
+  public CoordinateSequence create(int size, int dimension, int measures) {
+    return new XYCoordinateSequence.FloatXY(size);
+  }
+}
@@ -19,6 +19,7 @@ import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryCollection;
 import org.locationtech.jts.geom.util.ComponentCoordinateExtracter;
+import org.locationtech.jts.operation.distance.IndexedFacetDistance;
 
 
 /**
@@ -36,6 +37,8 @@ class BasicPreparedGeometry
 {
   private final Geometry baseGeom;
   private final List representativePts;  // List<Coordinate>
+  // created lazily, since it is only needed for distance queries
+  private volatile IndexedFacetDistance facetDistance = null;
 
   public BasicPreparedGeometry(Geometry geom) 
   {
@@ -88,7 +91,7 @@ class BasicPreparedGeometry
    */
   protected boolean envelopesIntersect(Geometry g)
   {
-    if (! baseGeom.getEnvelopeInternal().intersects(g.getEnvelopeInternal()))
+    if (! baseGeom.getEnvelopeReadOnly().intersects(g.getEnvelopeReadOnly()))
       return false;
     return true;
   }
@@ -103,7 +106,7 @@ class BasicPreparedGeometry
    */
   protected boolean envelopeCovers(Geometry g)
   {
-    if (! baseGeom.getEnvelopeInternal().covers(g.getEnvelopeInternal()))
+    if (! baseGeom.getEnvelopeReadOnly().covers(g.getEnvelopeReadOnly()))
       return false;
     return true;
   }
@@ -124,7 +127,7 @@ class BasicPreparedGeometry
   	// since raw relate is used, provide some optimizations
   	
     // short-circuit test
-    if (! baseGeom.getEnvelopeInternal().contains(g.getEnvelopeInternal()))
+    if (! baseGeom.getEnvelopeReadOnly().contains(g.getEnvelopeReadOnly()))
       return false;
   	
     // otherwise, compute using relate mask
@@ -172,6 +175,55 @@ class BasicPreparedGeometry
     return baseGeom.intersects(g);
   }
   
+  /**
+   * Gets the indexed facet distance for this geometry.
+   * The index is created on the first call,
+   * and returned without locking after that.
+   * 
+   * @return the indexed facet distance
+   */
+  protected IndexedFacetDistance getFacetDistance()
+  {
+    IndexedFacetDistance dist = facetDistance;
+    if (dist != null) return dist;
+    synchronized (this) {
+      if (facetDistance == null)
+        facetDistance = new IndexedFacetDistance(baseGeom);
+      return facetDistance;
+    }
+  }
+  
+  /**
+   * Standard implementation for all geometries.
+   * Intersecting geometries have distance 0.
+   * Otherwise the distance is the distance between the facets 
+   * (segments and points) of the geometries,
+   * which is computed using a cached index of the base geometry facets.
+   */
+  public double distance(Geometry g)
+  {
+    if (baseGeom.isEmpty() || g.isEmpty())
+      return 0.0;
+    if (intersects(g))
+      return 0.0;
+    return getFacetDistance().distance(g);
+  }
+  
+  /**
+   * Standard implementation for all geometries.
+   */
+  public boolean isWithinDistance(Geometry g, double distance)
+  {
+    if (baseGeom.isEmpty() || g.isEmpty())
+      return baseGeom.isWithinDistance(g, distance);
+    // short-circuit test
+    if (baseGeom.getEnvelopeReadOnly().distance(g.getEnvelopeReadOnly()) > distance)
+      return false;
+    if (intersects(g))
+      return true;
+    return getFacetDistance().isWithinDistance(g, distance);
+  }
+  
   /**
    * Default implementation.
    */
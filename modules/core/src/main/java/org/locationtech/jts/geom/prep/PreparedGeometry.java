@@ -128,6 +128,37 @@ public interface PreparedGeometry
 	 */
 	boolean disjoint(Geometry geom);
 
+	/**
+	 * Computes the distance between the base {@link Geometry} and a given geometry.
+	 * The distance is 0 if the geometries intersect, or if either is empty.
+	 * <p>
+	 * The default implementation computes the distance from the base geometry.
+	 * 
+	 * @param geom the Geometry to compute the distance to
+	 * @return the distance between the geometries
+	 * 
+	 * @see Geometry#distance(Geometry)
+	 */
+	default double distance(Geometry geom) {
+		return getGeometry().distance(geom);
+	}
+	
+	/**
+	 * Tests whether the base {@link Geometry} lies within 
+	 * a given distance of a given geometry.
+	 * <p>
+	 * The default implementation tests the base geometry.
+	 * 
+	 * @param geom the Geometry to test
+	 * @param distance the distance to test
+	 * @return true if the geometries are within the given distance
+	 * 
+	 * @see Geometry#isWithinDistance(Geometry, double)
+	 */
+	default boolean isWithinDistance(Geometry geom, double distance) {
+		return getGeometry().isWithinDistance(geom, distance);
+	}
+
 	/**
 	 * Tests whether the base {@link Geometry} intersects a given geometry.
 	 * This method supports {@link GeometryCollection}s as input
@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.geom.prep;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * A bounded cache of {@link PreparedGeometry}s, keyed by the
+ * identity of the geometry which is prepared.
+ * This allows a large set of geometries to be evaluated repeatedly
+ * without keeping all of them prepared at once,
+ * since the indexes of a prepared geometry may use
+ * considerably more memory than the geometry itself.
+ * <p>
+ * The cache is bounded by the number of entries,
+ * and optionally by the estimated number of bytes used by the
+ * indexes of the prepared geometries (see {@link #estimateBytes(Geometry)}).
+ * When a bound is exceeded the least-recently-used entries are evicted.
+ * Frequently used geometries thus stay prepared,
+ * while a geometry which has been evicted is prepared again
+ * the next time it is requested.
+ * Callers which want to avoid preparing rarely used geometries
+ * can use {@link #getIfPresent(Geometry)}, and evaluate
+ * the {@link Geometry} predicates directly when it returns null.
+ * <p>
+ * Geometries are keyed by identity, so a geometry must not be modified
+ * while it is in the cache (or it must be removed with {@link #remove(Geometry)}).
+ * <p>
+ * Instances of this class are thread-safe.
+ * Access to the cache is synchronized,
+ * but geometries are prepared outside the lock.
+ *
+ * @see PreparedGeometryFactory
+ */
+public class PreparedGeometryCache
+{
+  /**
+   * The estimated number of bytes used by the indexes of a prepared geometry
+   * for each vertex.
+   */
+  public static final int BYTES_PER_VERTEX = 120;
+
+  private static final int BYTES_PER_ENTRY = 200;
+
+  /**
+   * Estimates the number of bytes used by the cached state
+   * of a prepared geometry, once its indexes have been created.
+   * The memory used by the geometry itself is not included.
+   *
+   * @param geom a geometry
+   * @return the estimated size of the prepared state of the geometry
+   */
+  public static long estimateBytes(Geometry geom)
+  {
+    return BYTES_PER_ENTRY + (long) BYTES_PER_VERTEX * geom.getNumPoints();
+  }
+
+  private final int maxEntries;
+  private final long maxBytes;
+  private final PreparedGeometryFactory factory = new PreparedGeometryFactory();
+  // access-ordered, so the eldest entry is the least-recently-used
+  private final LinkedHashMap<IdentityKey, Entry> map = new LinkedHashMap<IdentityKey, Entry>(16, 0.75f, true);
+  private long totalBytes = 0;
+  private long hitCount = 0;
+  private long missCount = 0;
+  private long evictionCount = 0;
+
+  /**
+   * Creates a cache holding at most a given number of prepared geometries.
+   *
+   * @param maxEntries the maximum number of entries
+   */
+  public PreparedGeometryCache(int maxEntries)
+  {
+    this(maxEntries, Long.MAX_VALUE);
+  }
+
+  /**
+   * Creates a cache holding at most a given number of prepared geometries,
+   * with at most a given estimated size.
+   *
+   * @param maxEntries the maximum number of entries
+   * @param maxBytes the maximum estimated size of the cached prepared geometries
+   */
+  public PreparedGeometryCache(int maxEntries, long maxBytes)
+  {
+    if (maxEntries <= 0)
+      throw new IllegalArgumentException("Maximum number of entries must be positive");
+    if (maxBytes <= 0)
+      throw new IllegalArgumentException("Maximum size must be positive");
+    this.maxEntries = maxEntries;
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * Gets the prepared geometry for a geometry,
+   * preparing and caching it if it is not already in the cache.
+   * A geometry whose estimated size exceeds the size bound of the cache
+   * is prepared but not cached.
+   *
+   * @param geom the geometry to prepare
+   * @return the prepared geometry
+   */
+  public PreparedGeometry get(Geometry geom)
+  {
+    IdentityKey key = new IdentityKey(geom);
+    synchronized (this) {
+      Entry entry = map.get(key);
+      if (entry != null) {
+        hitCount++;
+        return entry.prepGeom;
+      }
+      missCount++;
+    }
+    // preparing is cheap, since the indexes are created lazily.
+    // It is done outside the lock in case that changes
+    Entry newEntry = new Entry(factory.create(geom), estimateBytes(geom));
+    if (newEntry.bytes > maxBytes)
+      return newEntry.prepGeom;
+    synchronized (this) {
+      // another thread may have cached the geometry in the meantime
+      Entry entry = map.get(key);
+      if (entry != null)
+        return entry.prepGeom;
+      map.put(key, newEntry);
+      totalBytes += newEntry.bytes;
+      evict();
+    }
+    return newEntry.prepGeom;
+  }
+
+  /**
+   * Gets the prepared geometry for a geometry if it is in the cache.
+   * A lookup which finds an entry counts as a hit,
+   * and otherwise counts as a miss.
+   *
+   * @param geom a geometry
+   * @return the cached prepared geometry, or null if the geometry is not in the cache
+   */
+  public synchronized PreparedGeometry getIfPresent(Geometry geom)
+  {
+    Entry entry = map.get(new IdentityKey(geom));
+    if (entry == null) {
+      missCount++;
+      return null;
+    }
+    hitCount++;
+    return entry.prepGeom;
+  }
+
+  /**
+   * Removes the prepared geometry for a geometry from the cache, if present.
+   * Removals are not counted as evictions.
+   *
+   * @param geom a geometry
+   * @return true if the geometry was in the cache
+   */
+  public synchronized boolean remove(Geometry geom)
+  {
+    Entry entry = map.remove(new IdentityKey(geom));
+    if (entry == null) return false;
+    totalBytes -= entry.bytes;
+    return true;
+  }
+
+  /**
+   * Removes all entries from the cache.
+   * The counters are not reset.
+   */
+  public synchronized void clear()
+  {
+    map.clear();
+    totalBytes = 0;
+  }
+
+  /**
+   * Gets the number of prepared geometries in the cache.
+   *
+   * @return the number of entries
+   */
+  public synchronized int size() { return map.size(); }
+
+  /**
+   * Gets the estimated size of the prepared geometries in the cache.
+   *
+   * @return the estimated size in bytes
+   */
+  public synchronized long getEstimatedBytes() { return totalBytes; }
+
+  /**
+   * Gets the number of lookups which found a cached prepared geometry.
+   *
+   * @return the hit count
+   */
+  public synchronized long getHitCount() { return hitCount; }
+
+  /**
+   * Gets the number of lookups which did not find a cached prepared geometry.
+   *
+   * @return the miss count
+   */
+  public synchronized long getMissCount() { return missCount; }
+
+  /**
+   * Gets the number of entries which have been evicted
+   * because a bound of the cache was exceeded.
+   *
+   * @return the eviction count
+   */
+  public synchronized long getEvictionCount() { return evictionCount; }
+
+  /**
+   * Evicts the least-recently-used entries until the cache is within its bounds.
+   * Must be called while holding the lock.
+   */
+  private void evict()
+  {
+    Iterator<Map.Entry<IdentityKey, Entry>> it = map.entrySet().iterator();
+    while (it.hasNext() && (map.size() > maxEntries || totalBytes > maxBytes)) {
+      Entry entry = it.next().getValue();
+      it.remove();
+      totalBytes -= entry.bytes;
+      evictionCount++;
+    }
+  }
+
+  private static class Entry
+  {
+    final PreparedGeometry prepGeom;
+    final long bytes;
+
+    Entry(PreparedGeometry prepGeom, long bytes)
+    {
+      this.prepGeom = prepGeom;
+      this.bytes = bytes;
+    }
+  }
+
+  /**
+   * A map key which compares geometries by identity.
+   */
+  private static class IdentityKey
+  {
+    private final Geometry geom;
+
+    IdentityKey(Geometry geom)
+    {
+      this.geom = geom;
+    }
+
+    public int hashCode()
+    {
+      return System.identityHashCode(geom);
+    }
+
+    public boolean equals(Object o)
+    {
+      if (! (o instanceof IdentityKey)) return false;
+      return geom == ((IdentityKey) o).geom;
+    }
+  }
+}
@@ -27,23 +27,35 @@ import org.locationtech.jts.noding.SegmentStringUtil;
 public class PreparedLineString
   extends BasicPreparedGeometry
 {
-  private FastSegmentSetIntersectionFinder segIntFinder = null;
+  // volatile so it can be read without locking once created
+  private volatile FastSegmentSetIntersectionFinder segIntFinder = null;
 
   public PreparedLineString(Lineal line) {
     super((Geometry) line);
   }
 
-  public synchronized FastSegmentSetIntersectionFinder getIntersectionFinder()
+  /**
+   * Gets the indexed intersection finder for this geometry.
+   * The finder is created on the first call,
+   * and returned without locking after that.
+   * 
+   * @return the intersection finder
+   */
+  public FastSegmentSetIntersectionFinder getIntersectionFinder()
   {
-  	/**
-  	 * MD - Another option would be to use a simple scan for 
-  	 * segment testing for small geometries.  
-  	 * However, testing indicates that there is no particular advantage 
-  	 * to this approach.
-  	 */
-  	if (segIntFinder == null)
-  		segIntFinder = new FastSegmentSetIntersectionFinder(SegmentStringUtil.extractSegmentStrings(getGeometry()));
-    return segIntFinder;
+    FastSegmentSetIntersectionFinder finder = segIntFinder;
+    if (finder != null) return finder;
+    synchronized (this) {
+      /**
+       * MD - Another option would be to use a simple scan for 
+       * segment testing for small geometries.  
+       * However, testing indicates that there is no particular advantage 
+       * to this approach.
+       */
+      if (segIntFinder == null)
+        segIntFinder = new FastSegmentSetIntersectionFinder(SegmentStringUtil.extractSegmentStrings(getGeometry()));
+      return segIntFinder;
+    }
   }
   
   public boolean intersects(Geometry g)
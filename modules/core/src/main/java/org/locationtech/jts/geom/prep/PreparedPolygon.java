@@ -39,9 +39,10 @@ public class PreparedPolygon
   extends BasicPreparedGeometry
 {
 	private final boolean isRectangle;
-	// create these lazily, since they are expensive
-	private FastSegmentSetIntersectionFinder segIntFinder = null;
-	private PointOnGeometryLocator pia = null;
+	// create these lazily, since they are expensive.
+	// They are volatile so they can be read without locking once created
+	private volatile FastSegmentSetIntersectionFinder segIntFinder = null;
+	private volatile PointOnGeometryLocator pia = null;
 
   public PreparedPolygon(Polygonal poly) {
     super((Geometry) poly);
@@ -50,28 +51,45 @@ public class PreparedPolygon
 
   /**
    * Gets the indexed intersection finder for this geometry.
+   * The finder is created on the first call.
+   * Once created it is returned without locking,
+   * so concurrent callers do not contend for it.
    * 
    * @return the intersection finder
    */
-  public synchronized FastSegmentSetIntersectionFinder getIntersectionFinder()
+  public FastSegmentSetIntersectionFinder getIntersectionFinder()
   {
-  	/**
-  	 * MD - Another option would be to use a simple scan for 
-  	 * segment testing for small geometries.  
-  	 * However, testing indicates that there is no particular advantage 
-  	 * to this approach.
-  	 */
-  	if (segIntFinder == null)
-  		segIntFinder = new FastSegmentSetIntersectionFinder(SegmentStringUtil.extractSegmentStrings(getGeometry()));
-  	return segIntFinder;
+    FastSegmentSetIntersectionFinder finder = segIntFinder;
+    if (finder != null) return finder;
+    synchronized (this) {
+      /**
+       * MD - Another option would be to use a simple scan for 
+       * segment testing for small geometries.  
+       * However, testing indicates that there is no particular advantage 
+       * to this approach.
+       */
+      if (segIntFinder == null)
+        segIntFinder = new FastSegmentSetIntersectionFinder(SegmentStringUtil.extractSegmentStrings(getGeometry()));
+      return segIntFinder;
+    }
   }
   
-  public synchronized PointOnGeometryLocator getPointLocator()
+  /**
+   * Gets the indexed point locator for this geometry.
+   * The locator is created on the first call,
+   * and returned without locking after that.
+   * 
+   * @return the point locator
+   */
+  public PointOnGeometryLocator getPointLocator()
   {
-  	if (pia == null)
-      pia = new IndexedPointInAreaLocator(getGeometry());
- 		
-    return pia;
+    PointOnGeometryLocator locator = pia;
+    if (locator != null) return locator;
+    synchronized (this) {
+      if (pia == null)
+        pia = new IndexedPointInAreaLocator(getGeometry());
+      return pia;
+    }
   }
   
   public boolean intersects(Geometry g)
@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+
+package org.locationtech.jts.index;
+
+/**
+ * A visitor for pairs of items from two spatial indexes.
+ *
+ * @version 1.20
+ */
+
+public interface ItemPairVisitor
+{
+  /**
+   * Visits a pair of items.
+   * 
+   * @param item1 an item from the first index
+   * @param item2 an item from the second index
+   */
+  void visitItems(Object item1, Object item2);
+}
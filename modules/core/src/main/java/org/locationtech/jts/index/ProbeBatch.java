@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+
+package org.locationtech.jts.index;
+
+import java.util.Arrays;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.hprtree.HilbertEncoder;
+
+/**
+ * Supports querying a tree index with many search envelopes (probes) 
+ * in a single traversal.
+ * <p>
+ * The probes are ordered along a Hilbert curve
+ * and partitioned into batches of spatially adjacent probes.
+ * Each batch is queried by a single traversal of the tree.
+ * At each tree node the probes which intersect the node 
+ * are filtered into a buffer for the next tree level,
+ * and the traversal descends only into nodes which intersect 
+ * at least one probe.
+ * So the upper levels of the tree are visited once per batch
+ * rather than once per probe, 
+ * and no objects are allocated during the traversal.
+ * <p>
+ * A tree traversal uses this class as follows:
+ * <pre>
+ * ProbeBatch batch = new ProbeBatch(probes);
+ * while (batch.next()) {
+ *   // at the root (depth 0) all probes in the batch are active
+ *   visit(root, 0, batch.size());
+ * }
+ * 
+ * void visit(node, depth, count) {
+ *   for (child : node.children) {
+ *     int n = batch.filter(depth, count, child.bounds);
+ *     if (n == 0) continue;
+ *     if (child is item)
+ *       for (i &lt; n) visitor.visitItem(batch.probeIndex(depth + 1, i), child.item);
+ *     else 
+ *       visit(child, depth + 1, n);
+ *   }
+ * }
+ * </pre>
+ * 
+ * @see SpatialIndex#query(Envelope[], ProbeItemVisitor)
+ * 
+ * @version 1.20
+ */
+public class ProbeBatch 
+{
+  /**
+   * The default number of probes in a batch.
+   */
+  public static final int DEFAULT_BATCH_SIZE = 64;
+  
+  private static final int HILBERT_LEVEL = 12;
+  
+  private Envelope[] probes;
+  private int[] order;
+  private int batchSize;
+  private int nextOrderIndex = 0;
+  private int[][] buffers = new int[16][];
+  private int size = 0;
+  
+  /**
+   * Creates a new batcher for an array of probes,
+   * with the default batch size.
+   * 
+   * @param probes the search envelopes
+   */
+  public ProbeBatch(Envelope[] probes) {
+    this(probes, DEFAULT_BATCH_SIZE);
+  }
+  
+  /**
+   * Creates a new batcher for an array of probes.
+   * 
+   * @param probes the search envelopes
+   * @param batchSize the maximum number of probes in a batch
+   */
+  public ProbeBatch(Envelope[] probes, int batchSize) {
+    this.probes = probes;
+    this.batchSize = batchSize;
+    order = hilbertOrder(probes);
+  }
+  
+  /**
+   * Computes the indexes of the non-null envelopes in an array, 
+   * sorted by the Hilbert code of the envelope midpoints.
+   * 
+   * @param envs an array of envelopes
+   * @return the indexes of the non-null envelopes in Hilbert order
+   */
+  public static int[] hilbertOrder(Envelope[] envs) {
+    Envelope extent = new Envelope();
+    int count = 0;
+    for (Envelope env : envs) {
+      if (env == null || env.isNull()) continue;
+      extent.expandToInclude(env);
+      count++;
+    }
+    HilbertEncoder encoder = new HilbertEncoder(HILBERT_LEVEL, 
+        extent.getMinX(), extent.getMinY(), extent.getMaxX(), extent.getMaxY());
+    long[] keys = new long[count];
+    int k = 0;
+    for (int i = 0; i < envs.length; i++) {
+      Envelope env = envs[i];
+      if (env == null || env.isNull()) continue;
+      keys[k++] = ((long) encoder.encode(env) << 32) | i;
+    }
+    Arrays.sort(keys);
+    int[] order = new int[count];
+    for (int i = 0; i < count; i++) {
+      order[i] = (int) keys[i];
+    }
+    return order;
+  }
+
+  /**
+   * Loads the next batch of probes as the active probes at depth 0.
+   * 
+   * @return true if there is a batch to query, false if all probes have been processed
+   */
+  public boolean next() {
+    int n = Math.min(batchSize, order.length - nextOrderIndex);
+    if (n <= 0) return false;
+    System.arraycopy(order, nextOrderIndex, buffer(0), 0, n);
+    nextOrderIndex += n;
+    size = n;
+    return true;
+  }
+  
+  /**
+   * Gets the number of probes in the current batch.
+   * 
+   * @return the batch size
+   */
+  public int size() {
+    return size;
+  }
+  
+  /**
+   * Gets the index of an active probe at a given depth.
+   * 
+   * @param depth the traversal depth
+   * @param i the position of the probe in the active probes
+   * @return the index of the probe in the probe array
+   */
+  public int probeIndex(int depth, int i) {
+    return buffers[depth][i];
+  }
+  
+  /**
+   * Finds the active probes at a depth which intersect an envelope,
+   * and makes them the active probes at the next depth.
+   * 
+   * @param depth the traversal depth
+   * @param count the number of active probes at the depth
+   * @param env the envelope to test
+   * @return the number of active probes at the next depth
+   */
+  public int filter(int depth, int count, Envelope env) {
+    return filter(depth, count, env.getMinX(), env.getMinY(), env.getMaxX(), env.getMaxY());
+  }
+  
+  /**
+   * Finds the active probes at a depth which intersect a rectangle,
+   * and makes them the active probes at the next depth.
+   * 
+   * @param depth the traversal depth
+   * @param count the number of active probes at the depth
+   * @param minX the minimum X ordinate of the rectangle
+   * @param minY the minimum Y ordinate of the rectangle
+   * @param maxX the maximum X ordinate of the rectangle
+   * @param maxY the maximum Y ordinate of the rectangle
+   * @return the number of active probes at the next depth
+   */
+  public int filter(int depth, int count, double minX, double minY, double maxX, double maxY) {
+    int[] in = buffers[depth];
+    int[] out = buffer(depth + 1);
+    int n = 0;
+    for (int i = 0; i < count; i++) {
+      Envelope probe = probes[in[i]];
+      if (probe.getMinX() > maxX || probe.getMaxX() < minX
+          || probe.getMinY() > maxY || probe.getMaxY() < minY) 
+        continue;
+      out[n++] = in[i];
+    }
+    return n;
+  }
+  
+  private int[] buffer(int depth) {
+    if (depth >= buffers.length) {
+      buffers = Arrays.copyOf(buffers, 2 * depth);
+    }
+    if (buffers[depth] == null) {
+      buffers[depth] = new int[batchSize];
+    }
+    return buffers[depth];
+  }
+}
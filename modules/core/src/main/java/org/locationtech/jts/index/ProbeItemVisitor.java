@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+
+package org.locationtech.jts.index;
+
+/**
+ * A visitor for the items found by a batch query
+ * of a {@link SpatialIndex} with several search envelopes (probes).
+ *
+ * @see SpatialIndex#query(org.locationtech.jts.geom.Envelope[], ProbeItemVisitor)
+ * 
+ * @version 1.20
+ */
+
+public interface ProbeItemVisitor
+{
+  /**
+   * Visits an item found by a probe.
+   * 
+   * @param probeIndex the index of the probe in the array of search envelopes
+   * @param item the index item found by the probe
+   */
+  void visitItem(int probeIndex, Object item);
+}
@@ -54,6 +54,34 @@ public interface SpatialIndex
    */
   void query(Envelope searchEnv, ItemVisitor visitor);
 
+  /**
+   * Queries the index with each of an array of search {@link Envelope}s (probes),
+   * and applies a {@link ProbeItemVisitor} to the items found 
+   * along with the index of the probe which found them.
+   * The items found by each probe are the same as for {@link #query(Envelope, ItemVisitor)}.
+   * Null probes find no items.
+   * <p>
+   * The default implementation queries the index with each probe in turn.
+   * Indexes may provide implementations which process 
+   * spatially-coherent groups of probes in a single traversal
+   * (see {@link ProbeBatch}).
+   * In that case the probes are not necessarily processed in the order given.
+   *
+   * @param searchEnvs the envelopes to query for
+   * @param visitor a visitor object to apply to the items found
+   */
+  default void query(Envelope[] searchEnvs, final ProbeItemVisitor visitor) {
+    for (int i = 0; i < searchEnvs.length; i++) {
+      if (searchEnvs[i] == null) continue;
+      final int probeIndex = i;
+      query(searchEnvs[i], new ItemVisitor() {
+        public void visitItem(Object item) {
+          visitor.visitItem(probeIndex, item);
+        }
+      });
+    }
+  }
+
   /**
    * Removes a single item from the tree.
    *
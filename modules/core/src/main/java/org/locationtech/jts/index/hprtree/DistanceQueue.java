@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.index.hprtree;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of <code>int</code> values 
+ * ordered by <code>double</code> priorities,
+ * stored in parallel primitive arrays.
+ * Used for nearest-neighbour searches 
+ * without allocating objects for queue entries.
+ * A max-heap can be obtained by negating the priorities.
+ */
+class DistanceQueue {
+  
+  private double[] priority;
+  private int[] value;
+  private int size = 0;
+  
+  DistanceQueue() {
+    this(64);
+  }
+  
+  DistanceQueue(int capacity) {
+    priority = new double[capacity];
+    value = new int[capacity];
+  }
+  
+  int size() {
+    return size;
+  }
+  
+  boolean isEmpty() {
+    return size == 0;
+  }
+  
+  /**
+   * Adds a value to the queue.
+   * 
+   * @param p the priority of the value
+   * @param v the value
+   */
+  void add(double p, int v) {
+    if (size == priority.length) {
+      priority = Arrays.copyOf(priority, 2 * size);
+      value = Arrays.copyOf(value, 2 * size);
+    }
+    // sift up
+    int i = size++;
+    while (i > 0) {
+      int parent = (i - 1) >> 1;
+      if (priority[parent] <= p) break;
+      priority[i] = priority[parent];
+      value[i] = value[parent];
+      i = parent;
+    }
+    priority[i] = p;
+    value[i] = v;
+  }
+  
+  /**
+   * Gets the priority of the head of the queue.
+   * 
+   * @return the minimum priority
+   */
+  double peekPriority() {
+    return priority[0];
+  }
+  
+  /**
+   * Gets the value at the head of the queue.
+   * 
+   * @return the value with the minimum priority
+   */
+  int peekValue() {
+    return value[0];
+  }
+  
+  /**
+   * Removes the head of the queue.
+   */
+  void remove() {
+    size--;
+    if (size == 0) return;
+    double p = priority[size];
+    int v = value[size];
+    // sift down
+    int i = 0;
+    int half = size >> 1;
+    while (i < half) {
+      int child = 2 * i + 1;
+      int right = child + 1;
+      if (right < size && priority[right] < priority[child]) {
+        child = right;
+      }
+      if (p <= priority[child]) break;
+      priority[i] = priority[child];
+      value[i] = value[child];
+      i = child;
+    }
+    priority[i] = p;
+    value[i] = v;
+  }
+}
@@ -0,0 +1,499 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.index.hprtree;
+
+import java.util.Arrays;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.IntItemVisitor;
+import org.locationtech.jts.util.IntArrayList;
+
+/**
+ * A Hilbert-Packed R-tree whose items are <code>int</code> ids,
+ * stored entirely in primitive arrays.
+ * <p>
+ * This is a variant of {@link HPRtree} for indexing very large
+ * numbers of items (e.g. 100 million road segments).
+ * The item ids would typically be indexes into 
+ * an array or other external store of the indexed objects.
+ * The tree contains no per-item or per-node objects:
+ * item bounds, item ids and node bounds 
+ * are held in a few primitive arrays.
+ * <p>
+ * Bounds are stored as <code>float</code> values,
+ * so each item occupies 20 bytes
+ * (16 for the bounds and 4 for the id),
+ * plus around 1/<code>nodeCapacity</code> of that for the internal nodes.
+ * By comparison an {@link HPRtree} item 
+ * (an {@link Item} with an {@link Envelope}) occupies around 88 bytes.
+ * <p>
+ * Item bounds are rounded <i>outwards</i> to the nearest <code>float</code> values,
+ * so an item is always found by a query which intersects its exact envelope.
+ * However, a query may also return items whose exact envelope 
+ * lies within a <code>float</code> round-off distance of the query envelope
+ * (for geographic coordinates, less than 2 metres).
+ * As with any spatial index, the query results should be treated
+ * as candidates to be tested against the exact geometry. 
+ * <p>
+ * As with {@link HPRtree} the tree is built once 
+ * (either explicitly by {@link #build()} or on the first query),
+ * after which no further items may be inserted.
+ * 
+ * @see HPRtree
+ */
+public class FlatHPRtree {
+  
+  private static final int ENV_SIZE = 4;
+
+  private static final int HILBERT_LEVEL = 12;
+
+  private static final int DEFAULT_NODE_CAPACITY = 16;
+  
+  private static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+  private int nodeCapacity = DEFAULT_NODE_CAPACITY;
+
+  private int size = 0;
+  
+  private float[] itemBounds;
+  
+  private int[] itemIds;
+
+  private double totalMinX = Double.MAX_VALUE;
+  private double totalMinY = Double.MAX_VALUE;
+  private double totalMaxX = -Double.MAX_VALUE;
+  private double totalMaxY = -Double.MAX_VALUE;
+
+  private int[] layerStartIndex;
+
+  private float[] nodeBounds;
+
+  // volatile so that a built tree can be detected without locking
+  private volatile boolean isBuilt = false;
+
+  /**
+   * Creates a new index with the default node capacity.
+   */
+  public FlatHPRtree() {
+    this(DEFAULT_NODE_CAPACITY);
+  }
+  
+  /**
+   * Creates a new index with the given node capacity.
+   * 
+   * @param nodeCapacity the node capacity to use
+   */
+  public FlatHPRtree(int nodeCapacity) {
+    this(nodeCapacity, DEFAULT_INITIAL_CAPACITY);
+  }
+  
+  /**
+   * Creates a new index with the given node capacity, 
+   * with storage pre-allocated for a given number of items.
+   * Providing the number of items avoids growing the storage arrays
+   * during insertion, which is significant for very large trees.
+   * 
+   * @param nodeCapacity the node capacity to use
+   * @param initialCapacity the number of items to allocate storage for
+   */
+  public FlatHPRtree(int nodeCapacity, int initialCapacity) {
+    this.nodeCapacity = nodeCapacity;
+    itemBounds = new float[ENV_SIZE * initialCapacity];
+    itemIds = new int[initialCapacity];
+  }
+  
+  /**
+   * Gets the number of items in the index.
+   * 
+   * @return the number of items
+   */
+  public int size() {
+    return size;
+  }
+  
+  /**
+   * Inserts an item with a given envelope.
+   * Items with a null envelope are not inserted.
+   * 
+   * @param itemEnv the envelope of the item
+   * @param itemId the item id
+   */
+  public void insert(Envelope itemEnv, int itemId) {
+    if (itemEnv.isNull()) 
+      return;
+    insert(itemEnv.getMinX(), itemEnv.getMinY(), itemEnv.getMaxX(), itemEnv.getMaxY(), itemId);
+  }
+  
+  /**
+   * Inserts an item with the envelope given by its minimum and maximum ordinates.
+   * 
+   * @param minX the minimum X ordinate of the item envelope
+   * @param minY the minimum Y ordinate of the item envelope
+   * @param maxX the maximum X ordinate of the item envelope
+   * @param maxY the maximum Y ordinate of the item envelope
+   * @param itemId the item id
+   */
+  public void insert(double minX, double minY, double maxX, double maxY, int itemId) {
+    if (isBuilt) {
+      throw new IllegalStateException("Cannot insert items after tree is built.");
+    }
+    ensureCapacity(size + 1);
+    int index = ENV_SIZE * size;
+    float fMinX = roundDown(minX);
+    float fMinY = roundDown(minY);
+    float fMaxX = roundUp(maxX);
+    float fMaxY = roundUp(maxY);
+    itemBounds[index] = fMinX;
+    itemBounds[index+1] = fMinY;
+    itemBounds[index+2] = fMaxX;
+    itemBounds[index+3] = fMaxY;
+    itemIds[size] = itemId;
+    size++;
+    
+    if (fMinX < totalMinX) totalMinX = fMinX;
+    if (fMinY < totalMinY) totalMinY = fMinY;
+    if (fMaxX > totalMaxX) totalMaxX = fMaxX;
+    if (fMaxY > totalMaxY) totalMaxY = fMaxY;
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity <= itemIds.length) 
+      return;
+    int newCapacity = Math.max(capacity, itemIds.length + (itemIds.length >> 1));
+    itemIds = Arrays.copyOf(itemIds, newCapacity);
+    itemBounds = Arrays.copyOf(itemBounds, ENV_SIZE * newCapacity);
+  }
+  
+  /**
+   * Rounds a value to the largest float less than or equal to it.
+   */
+  private static float roundDown(double v) {
+    float f = (float) v;
+    if (f > v) return Math.nextDown(f);
+    return f;
+  }
+  
+  /**
+   * Rounds a value to the smallest float greater than or equal to it.
+   */
+  private static float roundUp(double v) {
+    float f = (float) v;
+    if (f < v) return Math.nextUp(f);
+    return f;
+  }
+
+  /**
+   * Queries the index for the ids of all items 
+   * whose (rounded) envelopes intersect the given search envelope.
+   * 
+   * @param searchEnv the envelope to query for
+   * @return an array of the ids of the items found
+   */
+  public int[] query(Envelope searchEnv) {
+    final IntArrayList ids = new IntArrayList();
+    query(searchEnv, new IntItemVisitor() {
+      public void visitItem(int itemId) {
+        ids.add(itemId);
+      }
+    });
+    return ids.toArray();
+  }
+
+  /**
+   * Queries the index for all items 
+   * whose (rounded) envelopes intersect the given search envelope,
+   * and applies a visitor to their ids.
+   * 
+   * @param searchEnv the envelope to query for
+   * @param visitor a visitor to apply to the ids of the items found
+   */
+  public void query(Envelope searchEnv, IntItemVisitor visitor) {
+    build();
+    if (searchEnv.isNull())
+      return;
+    query(searchEnv.getMinX(), searchEnv.getMinY(), searchEnv.getMaxX(), searchEnv.getMaxY(), visitor);
+  }
+  
+  /**
+   * Queries the index for all items 
+   * whose (rounded) envelopes intersect the given search rectangle,
+   * and applies a visitor to their ids.
+   * 
+   * @param minX the minimum X ordinate of the search rectangle
+   * @param minY the minimum Y ordinate of the search rectangle
+   * @param maxX the maximum X ordinate of the search rectangle
+   * @param maxY the maximum Y ordinate of the search rectangle
+   * @param visitor a visitor to apply to the ids of the items found
+   */
+  public void query(double minX, double minY, double maxX, double maxY, IntItemVisitor visitor) {
+    build();
+    if (size == 0)
+      return;
+    if (maxX < totalMinX || maxY < totalMinY || minX > totalMaxX || minY > totalMaxY)
+      return;
+    if (layerStartIndex == null) {
+      queryItems(0, minX, minY, maxX, maxY, visitor);
+    }
+    else {
+      queryTopLayer(minX, minY, maxX, maxY, visitor);
+    }
+  }
+
+  private void queryTopLayer(double minX, double minY, double maxX, double maxY, IntItemVisitor visitor) {
+    int layerIndex = layerStartIndex.length - 2;
+    int layerSize = layerSize(layerIndex);
+    // query each node in layer
+    for (int i = 0; i < layerSize; i += ENV_SIZE) {
+      queryNode(layerIndex, i, minX, minY, maxX, maxY, visitor);
+    }
+  }
+
+  private void queryNode(int layerIndex, int nodeOffset, 
+      double minX, double minY, double maxX, double maxY, IntItemVisitor visitor) {
+    int nodeIndex = layerStartIndex[layerIndex] + nodeOffset;
+    if (! intersects(nodeBounds, nodeIndex, minX, minY, maxX, maxY)) return;
+    if (layerIndex == 0) {
+      int childNodesOffset = nodeOffset / ENV_SIZE * nodeCapacity;
+      queryItems(childNodesOffset, minX, minY, maxX, maxY, visitor);
+    }
+    else {
+      int childNodesOffset = nodeOffset * nodeCapacity;
+      queryNodeChildren(layerIndex - 1, childNodesOffset, minX, minY, maxX, maxY, visitor);
+    }
+  }
+
+  private void queryNodeChildren(int layerIndex, int blockOffset, 
+      double minX, double minY, double maxX, double maxY, IntItemVisitor visitor) {
+    int layerStart = layerStartIndex[layerIndex];
+    int layerEnd = layerStartIndex[layerIndex + 1];
+    for (int i = 0; i < nodeCapacity; i++) {
+      int nodeOffset = blockOffset + ENV_SIZE * i; 
+      // don't query past layer end
+      if (layerStart + nodeOffset >= layerEnd) break;
+      
+      queryNode(layerIndex, nodeOffset, minX, minY, maxX, maxY, visitor);
+    }
+  }
+
+  private void queryItems(int blockStart, 
+      double minX, double minY, double maxX, double maxY, IntItemVisitor visitor) {
+    int blockEnd = Math.min(blockStart + nodeCapacity, size);
+    for (int itemIndex = blockStart; itemIndex < blockEnd; itemIndex++) {
+      if (intersects(itemBounds, ENV_SIZE * itemIndex, minX, minY, maxX, maxY)) {
+        visitor.visitItem(itemIds[itemIndex]);
+      }
+    }    
+  }
+
+  private static boolean intersects(float[] bounds, int index, 
+      double minX, double minY, double maxX, double maxY) {
+    boolean isBeyond = (maxX < bounds[index]) 
+    || (maxY < bounds[index+1]) 
+    || (minX > bounds[index+2]) 
+    || (minY > bounds[index+3]);
+    return ! isBeyond;
+  }
+  
+  private int layerSize(int layerIndex) {
+    int layerStart = layerStartIndex[layerIndex];
+    int layerEnd = layerStartIndex[layerIndex + 1];
+    return layerEnd - layerStart;
+  }
+
+  /**
+   * Builds the index, if not already built.
+   */
+  public void build() {
+    // avoid locking once the tree is built, since every query calls this
+    if (isBuilt) return;
+    synchronized (this) {
+      if (isBuilt) return;
+      buildTree();
+      // set only once the tree is complete, so unlocked readers see a built tree
+      isBuilt = true;
+    }
+  }
+
+  private void buildTree() {
+    trimToSize();
+    // don't need to build an empty or very small tree
+    if (size <= nodeCapacity) return;
+
+    sortItems();
+    
+    layerStartIndex = HPRtree.computeLayerIndices(size, nodeCapacity);
+    // allocate storage
+    int nodeCount = layerStartIndex[ layerStartIndex.length - 1 ] / ENV_SIZE;
+    nodeBounds = createBoundsArray(nodeCount);
+    
+    // compute tree nodes
+    computeLeafNodes(layerStartIndex[1]);
+    for (int i = 1; i < layerStartIndex.length - 1; i++) {
+      computeLayerNodes(i);
+    }
+  }
+
+  private void trimToSize() {
+    if (itemIds.length == size) 
+      return;
+    itemIds = Arrays.copyOf(itemIds, size);
+    itemBounds = Arrays.copyOf(itemBounds, ENV_SIZE * size);
+  }
+  
+  /**
+   * Sorts the items by the Hilbert code of their midpoint.
+   * The sort keys contain the Hilbert code in the upper 32 bits
+   * and the item index in the lower 32 bits,
+   * so the sort is stable.
+   * The items are then permuted into sorted order in place,
+   * to avoid allocating a second copy of the item arrays.
+   */
+  private void sortItems() {
+    HilbertEncoder encoder = new HilbertEncoder(HILBERT_LEVEL, 
+        totalMinX, totalMinY, totalMaxX, totalMaxY);
+    long[] keys = new long[size];
+    for (int i = 0; i < size; i++) {
+      int index = ENV_SIZE * i;
+      int hcode = encoder.encode(itemBounds[index], itemBounds[index+1], 
+          itemBounds[index+2], itemBounds[index+3]);
+      keys[i] = ((long) hcode << 32) | i;
+    }
+    Arrays.sort(keys);
+    permute(keys);
+  }
+
+  /**
+   * Moves each item to the position of its sort key,
+   * by following the cycles of the permutation.
+   * Visited keys are marked by setting them to -1 
+   * (valid keys are non-negative).
+   * 
+   * @param keys the sorted keys
+   */
+  private void permute(long[] keys) {
+    for (int start = 0; start < size; start++) {
+      if (keys[start] < 0) continue;
+      
+      int startId = itemIds[start];
+      int startIndex = ENV_SIZE * start;
+      float minX = itemBounds[startIndex];
+      float minY = itemBounds[startIndex+1];
+      float maxX = itemBounds[startIndex+2];
+      float maxY = itemBounds[startIndex+3];
+      
+      int dest = start;
+      while (true) {
+        int src = (int) keys[dest];
+        keys[dest] = -1;
+        if (src == start) break;
+        moveItem(src, dest);
+        dest = src;
+      }
+      itemIds[dest] = startId;
+      int destIndex = ENV_SIZE * dest;
+      itemBounds[destIndex] = minX;
+      itemBounds[destIndex+1] = minY;
+      itemBounds[destIndex+2] = maxX;
+      itemBounds[destIndex+3] = maxY;
+    }
+  }
+  
+  private void moveItem(int src, int dest) {
+    itemIds[dest] = itemIds[src];
+    System.arraycopy(itemBounds, ENV_SIZE * src, itemBounds, ENV_SIZE * dest, ENV_SIZE);
+  }
+  
+  private static float[] createBoundsArray(int size) {
+    float[] a = new float[ENV_SIZE * size];
+    for (int i = 0; i < size; i++) {
+      int index = ENV_SIZE * i;
+      a[index] = Float.MAX_VALUE;
+      a[index+1] = Float.MAX_VALUE;
+      a[index+2] = -Float.MAX_VALUE;
+      a[index+3] = -Float.MAX_VALUE;
+    }
+    return a;
+  }
+
+  private void computeLeafNodes(int layerSize) {
+    for (int i = 0; i < layerSize; i += ENV_SIZE) {
+      int blockStart = nodeCapacity * i / ENV_SIZE;
+      int blockEnd = Math.min(blockStart + nodeCapacity, size);
+      for (int itemIndex = blockStart; itemIndex < blockEnd; itemIndex++) {
+        updateNodeBounds(i, itemBounds, ENV_SIZE * itemIndex);
+      }
+    }
+  }
+
+  private void computeLayerNodes(int layerIndex) {
+    int layerStart = layerStartIndex[layerIndex];
+    int childLayerStart = layerStartIndex[layerIndex - 1];
+    int layerSize = layerSize(layerIndex);
+    for (int i = 0; i < layerSize; i += ENV_SIZE) {
+      int childStart = childLayerStart + nodeCapacity * i;
+      int childEnd = Math.min(childStart + ENV_SIZE * nodeCapacity, layerStart);
+      for (int childIndex = childStart; childIndex < childEnd; childIndex += ENV_SIZE) {
+        updateNodeBounds(layerStart + i, nodeBounds, childIndex);
+      }
+    }
+  }
+
+  private void updateNodeBounds(int nodeIndex, float[] bounds, int index) {
+    if (bounds[index] < nodeBounds[nodeIndex]) nodeBounds[nodeIndex] = bounds[index];
+    if (bounds[index+1] < nodeBounds[nodeIndex+1]) nodeBounds[nodeIndex+1] = bounds[index+1];
+    if (bounds[index+2] > nodeBounds[nodeIndex+2]) nodeBounds[nodeIndex+2] = bounds[index+2];
+    if (bounds[index+3] > nodeBounds[nodeIndex+3]) nodeBounds[nodeIndex+3] = bounds[index+3];
+  }
+
+  int getNodeCapacity() {
+    return nodeCapacity;
+  }
+  
+  int[] getLayerStartIndex() {
+    return layerStartIndex;
+  }
+  
+  float[] getNodeBounds() {
+    return nodeBounds;
+  }
+  
+  float[] getItemBounds() {
+    return itemBounds;
+  }
+  
+  int[] getItemIds() {
+    return itemIds;
+  }
+  
+  double[] getTotalExtent() {
+    return new double[] { totalMinX, totalMinY, totalMaxX, totalMaxY };
+  }
+
+  /**
+   * Gets the extents of the internal index nodes.
+   * 
+   * @return the internal node extents
+   */
+  public Envelope[] getBounds() {
+    build();
+    if (nodeBounds == null)
+      return new Envelope[0];
+    int numNodes = nodeBounds.length / ENV_SIZE;
+    Envelope[] bounds = new Envelope[numNodes];
+    for (int i = 0; i < numNodes; i++) {
+      int boundIndex = ENV_SIZE * i;
+      bounds[i] = new Envelope( nodeBounds[boundIndex], nodeBounds[boundIndex+2],
+          nodeBounds[boundIndex+1], nodeBounds[boundIndex+3]);
+    }
+    return bounds;
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.index.hprtree;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Writes a {@link FlatHPRtree} to a binary file,
+ * which can be opened without deserializing by {@link MappedHPRtree}.
+ * The tree is built before it is written.
+ * <p>
+ * The file format is a header followed by three sections.
+ * All values are little-endian.
+ * <pre>
+ * int      magic number (0x4A485052, "JHPR")
+ * int      format version
+ * int      node capacity
+ * int      number of items (n)
+ * int      number of layer start indexes (L)
+ * double[4] total extent (minX, minY, maxX, maxY)
+ * int[L]   layer start indexes
+ * float[]  node bounds (length = last layer start index)
+ * float[4n] item bounds (minX, minY, maxX, maxY)
+ * int[n]   item ids
+ * </pre>
+ * Trees with no more than <code>nodeCapacity</code> items have no nodes
+ * (so <code>L</code> is 0 and the node bounds section is empty).
+ * 
+ * @see MappedHPRtree
+ */
+public class FlatHPRtreeWriter {
+  
+  static final int MAGIC = 0x4A485052;
+  
+  static final int VERSION = 1;
+  
+  /**
+   * Size of the fixed part of the header, in bytes.
+   */
+  static final int HEADER_SIZE = 5 * 4 + 4 * 8;
+  
+  private static final int BUFFER_SIZE = 1 << 16;
+  
+  /**
+   * Writes a tree to a file.
+   * 
+   * @param tree the tree to write
+   * @param file the file to write to
+   * @throws IOException if an I/O error occurs
+   */
+  public static void write(FlatHPRtree tree, File file) throws IOException {
+    FileOutputStream out = new FileOutputStream(file);
+    try {
+      write(tree, out.getChannel());
+    }
+    finally {
+      out.close();
+    }
+  }
+  
+  /**
+   * Writes a tree to a channel.
+   * 
+   * @param tree the tree to write
+   * @param channel the channel to write to
+   * @throws IOException if an I/O error occurs
+   */
+  public static void write(FlatHPRtree tree, WritableByteChannel channel) throws IOException {
+    new FlatHPRtreeWriter(channel).write(tree);
+  }
+  
+  private WritableByteChannel channel;
+  private ByteBuffer buf = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+  
+  private FlatHPRtreeWriter(WritableByteChannel channel) {
+    this.channel = channel;
+  }
+  
+  private void write(FlatHPRtree tree) throws IOException {
+    tree.build();
+    int[] layerStartIndex = tree.getLayerStartIndex();
+    float[] nodeBounds = tree.getNodeBounds();
+    int size = tree.size();
+    
+    buf.putInt(MAGIC);
+    buf.putInt(VERSION);
+    buf.putInt(tree.getNodeCapacity());
+    buf.putInt(size);
+    buf.putInt(layerStartIndex == null ? 0 : layerStartIndex.length);
+    for (double ord : tree.getTotalExtent()) {
+      buf.putDouble(ord);
+    }
+    if (layerStartIndex != null) {
+      writeInts(layerStartIndex, layerStartIndex.length);
+    }
+    if (nodeBounds != null) {
+      writeFloats(nodeBounds, nodeBounds.length);
+    }
+    writeFloats(tree.getItemBounds(), 4 * size);
+    writeInts(tree.getItemIds(), size);
+    flush();
+  }
+
+  private void writeInts(int[] values, int len) throws IOException {
+    for (int i = 0; i < len; i++) {
+      if (buf.remaining() < 4) flush();
+      buf.putInt(values[i]);
+    }
+  }
+  
+  private void writeFloats(float[] values, int len) throws IOException {
+    for (int i = 0; i < len; i++) {
+      if (buf.remaining() < 4) flush();
+      buf.putFloat(values[i]);
+    }
+  }
+  
+  private void flush() throws IOException {
+    buf.flip();
+    while (buf.hasRemaining()) {
+      channel.write(buf);
+    }
+    buf.clear();
+  }
+}
@@ -16,11 +16,16 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 
+import org.locationtech.jts.algorithm.distance.LocalLonLatDistance;
 import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.index.ArrayListVisitor;
 import org.locationtech.jts.index.ItemVisitor;
+import org.locationtech.jts.index.ProbeBatch;
+import org.locationtech.jts.index.ProbeItemVisitor;
 import org.locationtech.jts.index.SpatialIndex;
+import org.locationtech.jts.index.strtree.ItemBoundable;
+import org.locationtech.jts.index.strtree.ItemDistance;
 import org.locationtech.jts.index.strtree.STRtree;
 
 /**
@@ -141,6 +146,72 @@ public class HPRtree
     }
   }
 
+  /**
+   * Queries the tree with an array of search envelopes,
+   * processing batches of spatially adjacent envelopes 
+   * in a single traversal of the tree
+   * (see {@link ProbeBatch}).
+   * 
+   * @param searchEnvs the envelopes to query for
+   * @param visitor a visitor to apply to the items found and the indexes of the envelopes which found them
+   */
+  @Override
+  public void query(Envelope[] searchEnvs, ProbeItemVisitor visitor) {
+    build();
+    if (items.isEmpty()) 
+      return;
+    ProbeBatch batch = new ProbeBatch(searchEnvs);
+    while (batch.next()) {
+      int count = batch.filter(0, batch.size(), totalExtent);
+      if (count == 0) continue;
+      if (layerStartIndex == null) {
+        queryItemsBatch(0, batch, 1, count, visitor);
+      }
+      else {
+        int layerIndex = layerStartIndex.length - 2;
+        int layerSize = layerSize(layerIndex);
+        for (int i = 0; i < layerSize; i += ENV_SIZE) {
+          queryNodeBatch(layerIndex, i, batch, 1, count, visitor);
+        }
+      }
+    }
+  }
+
+  private void queryNodeBatch(int layerIndex, int nodeOffset, 
+      ProbeBatch batch, int depth, int count, ProbeItemVisitor visitor) {
+    int layerStart = layerStartIndex[layerIndex];
+    int nodeIndex = layerStart + nodeOffset;
+    int nodeCount = batch.filter(depth, count, nodeBounds[nodeIndex], nodeBounds[nodeIndex+1], 
+        nodeBounds[nodeIndex+2], nodeBounds[nodeIndex+3]);
+    if (nodeCount == 0) return;
+    if (layerIndex == 0) {
+      int childNodesOffset = nodeOffset / ENV_SIZE * nodeCapacity;
+      queryItemsBatch(childNodesOffset, batch, depth + 1, nodeCount, visitor);
+    }
+    else {
+      int childNodesOffset = nodeOffset * nodeCapacity;
+      int childLayerStart = layerStartIndex[layerIndex - 1];
+      for (int i = 0; i < nodeCapacity; i++) {
+        int childOffset = childNodesOffset + ENV_SIZE * i; 
+        // don't query past layer end
+        if (childLayerStart + childOffset >= layerStart) break;
+        queryNodeBatch(layerIndex - 1, childOffset, batch, depth + 1, nodeCount, visitor);
+      }
+    }
+  }
+
+  private void queryItemsBatch(int blockStart, 
+      ProbeBatch batch, int depth, int count, ProbeItemVisitor visitor) {
+    int blockEnd = Math.min(blockStart + nodeCapacity, items.size());
+    for (int itemIndex = blockStart; itemIndex < blockEnd; itemIndex++) {
+      Item item = items.get(itemIndex);
+      int itemCount = batch.filter(depth, count, item.getEnvelope());
+      for (int i = 0; i < itemCount; i++) {
+        visitor.visitItem(batch.probeIndex(depth + 1, i), item.getItem());
+      }
+    }
+  }
+
   private void queryTopLayer(Envelope searchEnv, ItemVisitor visitor) {
     int layerIndex = layerStartIndex.length - 2;
     int layerSize = layerSize(layerIndex);
@@ -222,6 +293,373 @@ public class HPRtree
     return layerEnd - layerStart;
   }
 
+  /**
+   * Finds the item in this tree which is nearest to the given {@link Object}, 
+   * using {@link ItemDistance} as the distance metric.
+   * 
+   * @param env the envelope of the query item
+   * @param item the item to find the nearest neighbour of
+   * @param itemDist a distance metric applicable to the items in this tree and the query item
+   * @return the nearest item in this tree
+   *    or <code>null</code> if the tree is empty
+   *    
+   * @see #nearestNeighbour(Envelope, Object, ItemDistance, int)
+   */
+  public Object nearestNeighbour(Envelope env, Object item, ItemDistance itemDist) {
+    Object[] nearest = nearestNeighbour(env, item, itemDist, 1);
+    if (nearest.length == 0) return null;
+    return nearest[0];
+  }
+  
+  /**
+   * Finds up to k items in this tree which are the nearest neighbours to the given {@code item}, 
+   * using {@code itemDist} as the distance metric.
+   * <p>
+   * A best-first search is used. 
+   * Tree nodes and items are visited in order of the distance from their envelope 
+   * to the query envelope, 
+   * and the search terminates when this exceeds the distance 
+   * of the k-th nearest item found.
+   * The search queue is a heap of primitive values,
+   * so no objects are created for the tree nodes visited.
+   * The items are passed to {@code itemDist} in a single reused {@link ItemBoundable},
+   * so the metric must not retain the boundables it is given.
+   * <p>
+   * The distance between envelopes is used as a lower bound
+   * for the distance between the items they contain,
+   * so the {@code itemDist} metric must never be less than the distance 
+   * between the item envelopes.
+   * When the default {@link GeometryFactory} uses geographic coordinates
+   * the envelope distances are computed in metres,
+   * consistent with the distance functions for geometries.
+   * <p>
+   * The query {@code item} does <b>not</b> have to be 
+   * contained in the tree, but it does 
+   * have to be compatible with the {@code itemDist} 
+   * distance metric. 
+   * <p>
+   * If the tree size is smaller than k fewer items will be returned.
+   * If the tree is empty an array of size 0 is returned.
+   * 
+   * @param env the envelope of the query item
+   * @param item the item to find the nearest neighbours of
+   * @param itemDist a distance metric applicable to the items in this tree and the query item
+   * @param k the maximum number of nearest items to search for
+   * @return an array of the nearest items found, in order of increasing distance
+   */
+  public Object[] nearestNeighbour(Envelope env, Object item, ItemDistance itemDist, int k) {
+    build();
+    if (items.isEmpty() || k <= 0) 
+      return new Object[0];
+    
+    boolean isGeo = GeometryFactory.getDefault().isGeoCoordSys();
+    ItemBoundable queryBnd = new ItemBoundable(env, item);
+    ReusableItemBoundable itemBnd = new ReusableItemBoundable();
+    DistanceQueue queue = new DistanceQueue();
+    // a max-heap of the nearest items found (by negated distance)
+    DistanceQueue nearest = new DistanceQueue(k + 1);
+    double maxNearestDist = Double.POSITIVE_INFINITY;
+    
+    if (layerStartIndex == null) {
+      addItemsToQueue(0, env, isGeo, queue, maxNearestDist);
+    }
+    else {
+      int layerIndex = layerStartIndex.length - 2;
+      int layerStart = layerStartIndex[layerIndex];
+      addNodesToQueue(layerStart, layerStartIndex[layerIndex + 1], env, isGeo, queue, maxNearestDist);
+    }
+    
+    while (! queue.isEmpty()) {
+      double dist = queue.peekPriority();
+      int ref = queue.peekValue();
+      queue.remove();
+      /**
+       * All remaining nodes and items are at least this distance away,
+       * so the nearest items have been found.
+       */
+      if (dist >= maxNearestDist) break;
+      
+      if (ref < 0) {
+        int itemIndex = -ref - 1;
+        Item it = items.get(itemIndex);
+        double itemDistance = itemDist.distance(itemBnd.set(it), queryBnd);
+        if (nearest.size() < k) {
+          nearest.add(-itemDistance, itemIndex);
+        }
+        else if (itemDistance < -nearest.peekPriority()) {
+          nearest.remove();
+          nearest.add(-itemDistance, itemIndex);
+        }
+        if (nearest.size() == k) {
+          maxNearestDist = -nearest.peekPriority();
+        }
+      }
+      else {
+        expandNodeToQueue(ref, env, isGeo, queue, maxNearestDist);
+      }
+    }
+    
+    Object[] result = new Object[nearest.size()];
+    for (int i = result.length - 1; i >= 0; i--) {
+      result[i] = items.get(nearest.peekValue()).getItem();
+      nearest.remove();
+    }
+    return result;
+  }
+
+  /**
+   * Adds the children of a node to the search queue.
+   * Nodes are queued with their bounds index, 
+   * and items with the value <code>-(itemIndex + 1)</code>.
+   */
+  private void expandNodeToQueue(int nodeIndex, Envelope env, boolean isGeo, DistanceQueue queue, double maxDist) {
+    int layerIndex = 0;
+    while (nodeIndex >= layerStartIndex[layerIndex + 1]) {
+      layerIndex++;
+    }
+    int nodeOffset = nodeIndex - layerStartIndex[layerIndex];
+    if (layerIndex == 0) {
+      addItemsToQueue(nodeOffset / ENV_SIZE * nodeCapacity, env, isGeo, queue, maxDist);
+    }
+    else {
+      int childLayerStart = layerStartIndex[layerIndex - 1];
+      int childStart = childLayerStart + nodeOffset * nodeCapacity;
+      int childEnd = Math.min(childStart + ENV_SIZE * nodeCapacity, layerStartIndex[layerIndex]);
+      addNodesToQueue(childStart, childEnd, env, isGeo, queue, maxDist);
+    }
+  }
+
+  private void addNodesToQueue(int start, int end, Envelope env, boolean isGeo, DistanceQueue queue, double maxDist) {
+    for (int nodeIndex = start; nodeIndex < end; nodeIndex += ENV_SIZE) {
+      double dist = distance(nodeBounds[nodeIndex], nodeBounds[nodeIndex+1], 
+          nodeBounds[nodeIndex+2], nodeBounds[nodeIndex+3], env, isGeo);
+      if (dist < maxDist) {
+        queue.add(dist, nodeIndex);
+      }
+    }
+  }
+
+  private void addItemsToQueue(int blockStart, Envelope env, boolean isGeo, DistanceQueue queue, double maxDist) {
+    int blockEnd = Math.min(blockStart + nodeCapacity, items.size());
+    for (int itemIndex = blockStart; itemIndex < blockEnd; itemIndex++) {
+      Envelope itemEnv = items.get(itemIndex).getEnvelope();
+      double dist = distance(itemEnv.getMinX(), itemEnv.getMinY(), 
+          itemEnv.getMaxX(), itemEnv.getMaxY(), env, isGeo);
+      if (dist < maxDist) {
+        queue.add(dist, -itemIndex - 1);
+      }
+    }
+  }
+
+  /**
+   * Queries the tree to find all items 
+   * which are within a given distance of a query item,
+   * using {@code itemDist} as the distance metric.
+   * Tree nodes further than the distance from the query envelope are pruned.
+   * The {@code itemDist} metric must never be less than the distance 
+   * between the item envelopes
+   * (see {@link #nearestNeighbour(Envelope, Object, ItemDistance, int)}),
+   * and must not retain the boundables it is given.
+   * 
+   * @param env the envelope of the query item
+   * @param item the query item
+   * @param itemDist a distance metric applicable to the items in this tree and the query item
+   * @param maxDistance the maximum distance of the items to find
+   * @return a list of the items found
+   */
+  public List queryWithinDistance(Envelope env, Object item, ItemDistance itemDist, double maxDistance) {
+    ArrayListVisitor visitor = new ArrayListVisitor();
+    queryWithinDistance(env, item, itemDist, maxDistance, visitor);
+    return visitor.getItems();
+  }
+
+  /**
+   * Queries the tree to find all items 
+   * which are within a given distance of a query item,
+   * and applies a visitor to them.
+   * 
+   * @param env the envelope of the query item
+   * @param item the query item
+   * @param itemDist a distance metric applicable to the items in this tree and the query item
+   * @param maxDistance the maximum distance of the items to find
+   * @param visitor a visitor to apply to the items found
+   * 
+   * @see #queryWithinDistance(Envelope, Object, ItemDistance, double)
+   */
+  public void queryWithinDistance(Envelope env, Object item, ItemDistance itemDist, 
+      double maxDistance, ItemVisitor visitor) {
+    build();
+    if (items.isEmpty()) 
+      return;
+    WithinDistanceQuery query = new WithinDistanceQuery(env, item, itemDist, maxDistance, visitor);
+    if (layerStartIndex == null) {
+      query.queryItems(0);
+    }
+    else {
+      query.queryNodes(layerStartIndex.length - 2, 0);
+    }
+  }
+  
+  /**
+   * The state of a within-distance query,
+   * to avoid passing it through the tree traversal.
+   */
+  private class WithinDistanceQuery {
+    private Envelope env;
+    private ItemBoundable queryBnd;
+    private ReusableItemBoundable itemBnd = new ReusableItemBoundable();
+    private ItemDistance itemDist;
+    private double maxDistance;
+    private ItemVisitor visitor;
+    private boolean isGeo = GeometryFactory.getDefault().isGeoCoordSys();
+
+    WithinDistanceQuery(Envelope env, Object item, ItemDistance itemDist, 
+        double maxDistance, ItemVisitor visitor) {
+      this.env = env;
+      this.queryBnd = new ItemBoundable(env, item);
+      this.itemDist = itemDist;
+      this.maxDistance = maxDistance;
+      this.visitor = visitor;
+    }
+    
+    /**
+     * Queries the nodes in a block of a layer.
+     * The top layer is queried as a single block.
+     */
+    void queryNodes(int layerIndex, int blockOffset) {
+      int layerStart = layerStartIndex[layerIndex];
+      int layerEnd = layerStartIndex[layerIndex + 1];
+      int blockSize = layerIndex == layerStartIndex.length - 2 ? layerEnd - layerStart : ENV_SIZE * nodeCapacity;
+      int blockEnd = Math.min(layerStart + blockOffset + blockSize, layerEnd);
+      for (int nodeIndex = layerStart + blockOffset; nodeIndex < blockEnd; nodeIndex += ENV_SIZE) {
+        double dist = distance(nodeBounds[nodeIndex], nodeBounds[nodeIndex+1], 
+            nodeBounds[nodeIndex+2], nodeBounds[nodeIndex+3], env, isGeo);
+        if (dist > maxDistance) continue;
+        int nodeOffset = nodeIndex - layerStart;
+        if (layerIndex == 0) {
+          queryItems(nodeOffset / ENV_SIZE * nodeCapacity);
+        }
+        else {
+          queryNodes(layerIndex - 1, nodeOffset * nodeCapacity);
+        }
+      }
+    }
+    
+    void queryItems(int blockStart) {
+      int blockEnd = Math.min(blockStart + nodeCapacity, items.size());
+      for (int itemIndex = blockStart; itemIndex < blockEnd; itemIndex++) {
+        Item it = items.get(itemIndex);
+        Envelope itemEnv = it.getEnvelope();
+        double dist = distance(itemEnv.getMinX(), itemEnv.getMinY(), 
+            itemEnv.getMaxX(), itemEnv.getMaxY(), env, isGeo);
+        if (dist > maxDistance) continue;
+        if (itemDist.distance(itemBnd.set(it), queryBnd) <= maxDistance) {
+          visitor.visitItem(it.getItem());
+        }
+      }
+    }
+  }
+  
+  /**
+   * An {@link ItemBoundable} which is set to each item in turn,
+   * so a distance search does not create an object for every item it evaluates.
+   */
+  private static class ReusableItemBoundable extends ItemBoundable {
+    private Item item;
+
+    ReusableItemBoundable() {
+      super(null, null);
+    }
+
+    ItemBoundable set(Item item) {
+      this.item = item;
+      return this;
+    }
+
+    public Object getBounds() {
+      return item.getEnvelope();
+    }
+
+    public Object getItem() { 
+      return item.getItem(); 
+    }
+  }
+  
+  /**
+   * Computes a lower bound for the distance between 
+   * items contained in a rectangle and an envelope.
+   * <p>
+   * For geographic coordinates the distance is in metres,
+   * using the same local equirectangular approximation 
+   * as the geometry distance functions.
+   * The longitude separation is scaled by the cosine of the 
+   * largest absolute latitude spanned by the two rectangles,
+   * so the result does not exceed the distance between any pair of points in them.
+   */
+  private static double distance(double minX, double minY, double maxX, double maxY, 
+      Envelope env, boolean isGeo) {
+    double dx = 0.0;
+    if (maxX < env.getMinX())
+      dx = env.getMinX() - maxX;
+    else if (minX > env.getMaxX())
+      dx = minX - env.getMaxX();
+
+    double dy = 0.0;
+    if (maxY < env.getMinY())
+      dy = env.getMinY() - maxY;
+    else if (minY > env.getMaxY()) 
+      dy = minY - env.getMaxY();
+    
+    if (dx == 0.0 && dy == 0.0) return 0.0;
+
+    if (isGeo) {
+      double maxAbsLat = Math.max(
+          Math.abs(Math.min(minY, env.getMinY())), 
+          Math.abs(Math.max(maxY, env.getMaxY())));
+      double scaleLon = Math.cos(Math.toRadians(Math.min(maxAbsLat, 90.0)));
+      double dLonRad = Math.toRadians(dx) * scaleLon;
+      double dLatRad = Math.toRadians(dy);
+      return LocalLonLatDistance.distanceToMeters(Math.sqrt(dLonRad * dLonRad + dLatRad * dLatRad));
+    }
+    // if either is zero, the envelopes overlap either vertically or horizontally
+    if (dx == 0.0) return dy;
+    if (dy == 0.0) return dx;
+    return Math.hypot(dx, dy);
+  }
+
+  /**
+   * Creates an envelope expanded by a distance,
+   * which contains every envelope within that distance of the input
+   * (as measured by the within-distance and nearest-neighbour queries).
+   * <p>
+   * For geographic coordinates the distance is in metres.
+   * The latitudes are expanded by the distance in degrees,
+   * and the longitudes by that scaled by the cosine of the 
+   * largest absolute latitude of the expanded envelope
+   * (or to the full longitude range, if that reaches a pole).
+   * 
+   * @param env the envelope to expand
+   * @param distance the distance to expand by
+   * @return a new expanded envelope
+   */
+  public static Envelope expandByDistance(Envelope env, double distance) {
+    Envelope expanded = env.copy();
+    if (env.isNull() || distance <= 0.0)
+      return expanded;
+    if (! GeometryFactory.getDefault().isGeoCoordSys()) {
+      expanded.expandBy(distance);
+      return expanded;
+    }
+    double dLat = Math.toDegrees(LocalLonLatDistance.distanceToRadians(distance));
+    double maxAbsLat = Math.max(Math.abs(env.getMinY()), Math.abs(env.getMaxY())) + dLat;
+    double dLon = 360.0;
+    if (maxAbsLat < 90.0) {
+      dLon = Math.min(dLat / Math.cos(Math.toRadians(maxAbsLat)), dLon);
+    }
+    expanded.expandBy(dLon, dLat);
+    return expanded;
+  }
+
   @Override
   public boolean remove(Envelope itemEnv, Object item) {
     // TODO Auto-generated method stub
@@ -330,7 +768,16 @@ public class HPRtree
     return new Envelope(nodeBounds[i], nodeBounds[i+1], nodeBounds[i+2], nodeBounds[i+3]);
   }
   
-  private static int[] computeLayerIndices(int itemSize, int nodeCapacity) {
+  /**
+   * Computes the offsets of the node layers in a bounds array
+   * with {@link #ENV_SIZE} values per node.
+   * The last offset is the size of the bounds array.
+   * 
+   * @param itemSize the number of items in the tree
+   * @param nodeCapacity the node capacity
+   * @return the layer start offsets
+   */
+  static int[] computeLayerIndices(int itemSize, int nodeCapacity) {
     List<Integer> layerIndexList = new ArrayList<Integer>();
     int layerSize = itemSize;
     int index = 0;
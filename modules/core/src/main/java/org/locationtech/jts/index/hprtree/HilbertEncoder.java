@@ -22,21 +22,52 @@ public class HilbertEncoder {
   private double strideY;
 
   public HilbertEncoder(int level, Envelope extent) {
+    this(level, extent.getMinX(), extent.getMinY(), extent.getMaxX(), extent.getMaxY());
+  }
+
+  /**
+   * Creates an encoder for the extent given by its minimum and maximum ordinates.
+   * <p>
+   * The extent is measured in ordinate units
+   * (rather than with {@link Envelope#getWidth()}, 
+   * which returns ground distances for geographic coordinates),
+   * so that the grid covers the extent exactly.
+   * 
+   * @param level the level of the Hilbert curve
+   * @param minX the minimum X ordinate of the extent
+   * @param minY the minimum Y ordinate of the extent
+   * @param maxX the maximum X ordinate of the extent
+   * @param maxY the maximum Y ordinate of the extent
+   */
+  public HilbertEncoder(int level, double minX, double minY, double maxX, double maxY) {
     this.level = level;
     int hside = (int) Math.pow(2, level) - 1;
     
-    minx = extent.getMinX();
-    strideX = extent.getWidth() / hside;
+    minx = minX;
+    strideX = (maxX - minX) / hside;
     
-    miny = extent.getMinY();
-    strideY = extent.getHeight() / hside;
+    miny = minY;
+    strideY = (maxY - minY) / hside;
   }
 
   public int encode(Envelope env) {
-    double midx = env.getWidth()/2 + env.getMinX();
+    return encode(env.getMinX(), env.getMinY(), env.getMaxX(), env.getMaxY());
+  }
+
+  /**
+   * Computes the Hilbert code of the midpoint of a rectangle.
+   * 
+   * @param minX the minimum X ordinate of the rectangle
+   * @param minY the minimum Y ordinate of the rectangle
+   * @param maxX the maximum X ordinate of the rectangle
+   * @param maxY the maximum Y ordinate of the rectangle
+   * @return the Hilbert code of the rectangle midpoint
+   */
+  public int encode(double minX, double minY, double maxX, double maxY) {
+    double midx = (maxX - minX)/2 + minX;
     int x = (int) ((midx - minx) / strideX);
 
-    double midy = env.getHeight()/2 + env.getMinY();
+    double midy = (maxY - minY)/2 + minY;
     int y = (int) ((midy - miny) / strideY);
       
     return HilbertCode.encode(level, x, y);
@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.index.hprtree;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.IntItemVisitor;
+import org.locationtech.jts.index.ItemVisitor;
+import org.locationtech.jts.util.IntArrayList;
+
+/**
+ * A read-only Hilbert-Packed R-tree which is queried directly 
+ * from a memory-mapped file written by {@link FlatHPRtreeWriter}.
+ * <p>
+ * Opening the index only reads the file header and maps the file,
+ * so it is very fast and uses almost no heap memory, 
+ * however large the index is.
+ * The index pages are loaded by the operating system as they are accessed,
+ * and are shared between all processes which map the same file.
+ * <p>
+ * The query semantics are the same as {@link FlatHPRtree}:
+ * the items are <code>int</code> ids, 
+ * and bounds are stored as (outwards-rounded) <code>float</code> values.
+ * <p>
+ * The index is immutable, and is safe to query from multiple threads.
+ * The file mapping remains valid until the index is garbage-collected.
+ * 
+ * @see FlatHPRtree
+ * @see FlatHPRtreeWriter
+ */
+public class MappedHPRtree {
+  
+  private static final int ENV_SIZE = 4;
+  
+  /**
+   * Opens an index file.
+   * 
+   * @param file the file to open
+   * @return the index
+   * @throws IOException if the file cannot be read or is not a valid index file
+   */
+  public static MappedHPRtree open(File file) throws IOException {
+    RandomAccessFile raf = new RandomAccessFile(file, "r");
+    try {
+      // the mapping stays valid after the channel is closed
+      return new MappedHPRtree(raf.getChannel());
+    }
+    finally {
+      raf.close();
+    }
+  }
+  
+  private int nodeCapacity;
+  private int size;
+  private double totalMinX;
+  private double totalMinY;
+  private double totalMaxX;
+  private double totalMaxY;
+  private int[] layerStartIndex;
+  private MappedSection nodeBounds;
+  private MappedSection itemBounds;
+  private MappedSection itemIds;
+  
+  private MappedHPRtree(FileChannel channel) throws IOException {
+    ByteBuffer header = read(channel, 0, FlatHPRtreeWriter.HEADER_SIZE);
+    if (header.getInt() != FlatHPRtreeWriter.MAGIC)
+      throw new IOException("Not an HPRtree index file");
+    int version = header.getInt();
+    if (version != FlatHPRtreeWriter.VERSION) 
+      throw new IOException("Unsupported HPRtree index file version: " + version);
+    nodeCapacity = header.getInt();
+    size = header.getInt();
+    int numLayerIndices = header.getInt();
+    totalMinX = header.getDouble();
+    totalMinY = header.getDouble();
+    totalMaxX = header.getDouble();
+    totalMaxY = header.getDouble();
+    
+    long offset = FlatHPRtreeWriter.HEADER_SIZE;
+    int numNodeBounds = 0;
+    if (numLayerIndices > 0) {
+      ByteBuffer layerBuf = read(channel, offset, 4 * numLayerIndices);
+      layerStartIndex = new int[numLayerIndices];
+      for (int i = 0; i < numLayerIndices; i++) {
+        layerStartIndex[i] = layerBuf.getInt();
+      }
+      offset += 4 * numLayerIndices;
+      numNodeBounds = layerStartIndex[numLayerIndices - 1];
+    }
+    
+    long expectedSize = offset + 4L * numNodeBounds + 4L * ENV_SIZE * size + 4L * size;
+    if (channel.size() < expectedSize)
+      throw new IOException("HPRtree index file is truncated");
+    
+    nodeBounds = new MappedSection(channel, offset, numNodeBounds);
+    offset += 4L * numNodeBounds;
+    itemBounds = new MappedSection(channel, offset, (long) ENV_SIZE * size);
+    offset += 4L * ENV_SIZE * size;
+    itemIds = new MappedSection(channel, offset, size);
+  }
+  
+  private static ByteBuffer read(FileChannel channel, long position, int len) throws IOException {
+    ByteBuffer buf = ByteBuffer.allocate(len).order(ByteOrder.LITTLE_ENDIAN);
+    while (buf.hasRemaining()) {
+      if (channel.read(buf, position + buf.position()) < 0)
+        throw new IOException("HPRtree index file is truncated");
+    }
+    buf.flip();
+    return buf;
+  }
+  
+  /**
+   * Gets the number of items in the index.
+   * 
+   * @return the number of items
+   */
+  public int size() {
+    return size;
+  }
+  
+  /**
+   * Queries the index for the ids of all items 
+   * whose envelopes intersect the given search envelope.
+   * 
+   * @param searchEnv the envelope to query for
+   * @return an array of the ids of the items found
+   */
+  public int[] query(Envelope searchEnv) {
+    final IntArrayList ids = new IntArrayList();
+    queryIds(searchEnv, new IntItemVisitor() {
+      public void visitItem(int itemId) {
+        ids.add(itemId);
+      }
+    });
+    return ids.toArray();
+  }
+
+  /**
+   * Queries the index for all items 
+   * whose envelopes intersect the given search envelope,
+   * and applies a visitor to them.
+   * The visited items are the item ids, as {@link Integer}s.
+   * 
+   * @param searchEnv the envelope to query for
+   * @param visitor a visitor to apply to the items found
+   */
+  public void query(Envelope searchEnv, final ItemVisitor visitor) {
+    queryIds(searchEnv, new IntItemVisitor() {
+      public void visitItem(int itemId) {
+        visitor.visitItem(itemId);
+      }
+    });
+  }
+
+  /**
+   * Queries the index for all items 
+   * whose envelopes intersect the given search envelope,
+   * and applies a visitor to their ids.
+   * 
+   * @param searchEnv the envelope to query for
+   * @param visitor a visitor to apply to the ids of the items found
+   */
+  public void queryIds(Envelope searchEnv, IntItemVisitor visitor) {
+    if (searchEnv.isNull())
+      return;
+    double minX = searchEnv.getMinX();
+    double minY = searchEnv.getMinY();
+    double maxX = searchEnv.getMaxX();
+    double maxY = searchEnv.getMaxY();
+    if (size == 0)
+      return;
+    if (maxX < totalMinX || maxY < totalMinY || minX > totalMaxX || minY > totalMaxY)
+      return;
+    if (layerStartIndex == null) {
+      queryItems(0, minX, minY, maxX, maxY, visitor);
+    }
+    else {
+      queryTopLayer(minX, minY, maxX, maxY, visitor);
+    }
+  }
+
+  private void queryTopLayer(double minX, double minY, double maxX, double maxY, IntItemVisitor visitor) {
+    int layerIndex = layerStartIndex.length - 2;
+    int layerSize = layerSize(layerIndex);
+    // query each node in layer
+    for (int i = 0; i < layerSize; i += ENV_SIZE) {
+      queryNode(layerIndex, i, minX, minY, maxX, maxY, visitor);
+    }
+  }
+
+  private void queryNode(int layerIndex, int nodeOffset, 
+      double minX, double minY, double maxX, double maxY, IntItemVisitor visitor) {
+    int nodeIndex = layerStartIndex[layerIndex] + nodeOffset;
+    if (! intersects(nodeBounds, nodeIndex, minX, minY, maxX, maxY)) return;
+    if (layerIndex == 0) {
+      int childNodesOffset = nodeOffset / ENV_SIZE * nodeCapacity;
+      queryItems(childNodesOffset, minX, minY, maxX, maxY, visitor);
+    }
+    else {
+      int childNodesOffset = nodeOffset * nodeCapacity;
+      queryNodeChildren(layerIndex - 1, childNodesOffset, minX, minY, maxX, maxY, visitor);
+    }
+  }
+
+  private void queryNodeChildren(int layerIndex, int blockOffset, 
+      double minX, double minY, double maxX, double maxY, IntItemVisitor visitor) {
+    int layerStart = layerStartIndex[layerIndex];
+    int layerEnd = layerStartIndex[layerIndex + 1];
+    for (int i = 0; i < nodeCapacity; i++) {
+      int nodeOffset = blockOffset + ENV_SIZE * i; 
+      // don't query past layer end
+      if (layerStart + nodeOffset >= layerEnd) break;
+      
+      queryNode(layerIndex, nodeOffset, minX, minY, maxX, maxY, visitor);
+    }
+  }
+
+  private void queryItems(int blockStart, 
+      double minX, double minY, double maxX, double maxY, IntItemVisitor visitor) {
+    int blockEnd = Math.min(blockStart + nodeCapacity, size);
+    for (int itemIndex = blockStart; itemIndex < blockEnd; itemIndex++) {
+      if (intersects(itemBounds, (long) ENV_SIZE * itemIndex, minX, minY, maxX, maxY)) {
+        visitor.visitItem(itemIds.getInt(itemIndex));
+      }
+    }    
+  }
+
+  private static boolean intersects(MappedSection bounds, long index, 
+      double minX, double minY, double maxX, double maxY) {
+    boolean isBeyond = (maxX < bounds.getFloat(index)) 
+    || (maxY < bounds.getFloat(index+1)) 
+    || (minX > bounds.getFloat(index+2)) 
+    || (minY > bounds.getFloat(index+3));
+    return ! isBeyond;
+  }
+  
+  private int layerSize(int layerIndex) {
+    int layerStart = layerStartIndex[layerIndex];
+    int layerEnd = layerStartIndex[layerIndex + 1];
+    return layerEnd - layerStart;
+  }
+  
+  /**
+   * A mapped section of 4-byte values.
+   * A single buffer can map at most 2 GB, 
+   * so large sections are mapped in several chunks.
+   * Chunks contain a multiple of 4 values,
+   * so a bounds entry never spans chunks.
+   */
+  private static class MappedSection {
+    private static final int CHUNK_SHIFT = 28;
+    private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+    
+    private ByteBuffer[] chunks;
+
+    MappedSection(FileChannel channel, long offset, long len) throws IOException {
+      int numChunks = (int) ((len + CHUNK_MASK) >>> CHUNK_SHIFT);
+      chunks = new ByteBuffer[numChunks];
+      for (int i = 0; i < numChunks; i++) {
+        long chunkStart = (long) i << CHUNK_SHIFT;
+        long chunkLen = Math.min(len - chunkStart, 1L << CHUNK_SHIFT);
+        chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset + 4 * chunkStart, 4 * chunkLen)
+            .order(ByteOrder.LITTLE_ENDIAN);
+      }
+    }
+    
+    float getFloat(long index) {
+      return chunks[(int) (index >>> CHUNK_SHIFT)].getFloat((int) (index & CHUNK_MASK) << 2);
+    }
+    
+    int getInt(long index) {
+      return chunks[(int) (index >>> CHUNK_SHIFT)].getInt((int) (index & CHUNK_MASK) << 2);
+    }
+  }
+}
@@ -146,7 +146,9 @@ public class SortedPackedIntervalRTree
    */
 	public void query(double min, double max, ItemVisitor visitor)
 	{
-    init();
+    // avoid locking once the tree is built
+    if (root == null)
+      init();
     
     // if root is null tree must be empty
     if (root == null) 
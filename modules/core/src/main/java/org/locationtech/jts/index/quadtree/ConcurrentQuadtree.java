@@ -0,0 +1,522 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.index.quadtree;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.ArrayListVisitor;
+import org.locationtech.jts.index.ItemVisitor;
+import org.locationtech.jts.index.SpatialIndex;
+
+/**
+ * A quadtree spatial index which can be queried and updated
+ * concurrently by any number of threads.
+ * <p>
+ * The tree is <i>persistent</i>: nodes are never modified once created.
+ * An insert or remove creates copies of the nodes on the path 
+ * from the root to the changed node (sharing all other nodes)
+ * and publishes the new root with an atomic compare-and-set.
+ * If another writer has published a root in the meantime 
+ * the update is recomputed against the new root.
+ * This means that:
+ * <ul>
+ * <li>queries take no locks and are never blocked by writers.  
+ * Each query runs against the snapshot of the tree
+ * which was current when it started, 
+ * and sees either all or none of the effects of any update
+ * <li>writers take no locks either, 
+ * but concurrent writers may have to retry.
+ * Each update allocates a number of nodes proportional to the depth of the tree
+ * </ul>
+ * <p>
+ * Unlike {@link Quadtree}, nodes hold at most a fixed number of items
+ * which lie wholly inside one of their quadrants
+ * (a full node is split into quadrants when another item is added),
+ * so point items do not need to be given an artificial extent.
+ * Items which cross the centre lines of a node are kept at that node.
+ * As for {@link Quadtree}, the extent of the items does not
+ * need to be known in advance: 
+ * the four quadrants of the root around the origin 
+ * are expanded as needed to accommodate the items.
+ * <p>
+ * Query results are exact:
+ * only items whose envelope intersects the search envelope are returned.
+ * Item envelopes are retained by the index, 
+ * so they must not be modified after insertion.
+ */
+public class ConcurrentQuadtree
+    implements SpatialIndex
+{
+  private static final int DEFAULT_NODE_CAPACITY = 16;
+
+  /**
+   * The number of binary orders of magnitude a node may be larger
+   * than the extent of its items and still be split
+   * (and also smaller than its ordinate values).
+   * This bounds the depth of the chain of nodes created 
+   * when splitting a node containing many coincident or nearly coincident items.
+   */
+  private static final int MAX_SPLIT_PRECISION = 40;
+
+  private final int nodeCapacity;
+  
+  private final AtomicReference<QuadNode> root = new AtomicReference<QuadNode>(QuadNode.createRoot());
+
+  /**
+   * Constructs an empty tree using the default node capacity.
+   */
+  public ConcurrentQuadtree()
+  {
+    this(DEFAULT_NODE_CAPACITY);
+  }
+
+  /**
+   * Constructs an empty tree using the given node capacity.
+   * 
+   * @param nodeCapacity the number of items a node holds before it is split
+   */
+  public ConcurrentQuadtree(int nodeCapacity)
+  {
+    if (nodeCapacity < 1)
+      throw new IllegalArgumentException("Node capacity must be at least 1");
+    this.nodeCapacity = nodeCapacity;
+  }
+
+  /**
+   * Returns the number of items in the tree.
+   *
+   * @return the number of items in the tree
+   */
+  public int size()
+  {
+    return root.get().count;
+  }
+
+  /**
+   * Tests whether the index contains any items.
+   * 
+   * @return true if the index does not contain any items
+   */
+  public boolean isEmpty()
+  {
+    return size() == 0;
+  }
+
+  /**
+   * Returns the number of levels in the tree.
+   * 
+   * @return the depth of the tree
+   */
+  public int depth()
+  {
+    return root.get().depth();
+  }
+
+  /**
+   * Inserts an item into the tree.
+   * Items with a null envelope are not inserted.
+   * 
+   * @param itemEnv the envelope of the item
+   * @param item the item to insert
+   */
+  public void insert(Envelope itemEnv, Object item)
+  {
+    if (itemEnv.isNull()) return;
+    while (true) {
+      QuadNode current = root.get();
+      QuadNode updated = insert(current, itemEnv, item);
+      if (root.compareAndSet(current, updated)) return;
+    }
+  }
+
+  /**
+   * Removes a single item from the tree.
+   * An item is removed if it is equal to the given item
+   * and is located in a node intersecting the given envelope.
+   *
+   * @param itemEnv the Envelope of the item to be removed
+   * @param item the item to remove
+   * @return <code>true</code> if the item was found (and thus removed)
+   */
+  public boolean remove(Envelope itemEnv, Object item)
+  {
+    if (itemEnv.isNull()) return false;
+    while (true) {
+      QuadNode current = root.get();
+      QuadNode updated = remove(current, itemEnv, item);
+      if (updated == current) return false;
+      if (root.compareAndSet(current, updated)) return true;
+    }
+  }
+
+  /**
+   * Queries the tree and returns the items whose envelopes
+   * intersect the given search envelope.
+   * 
+   * @param searchEnv the envelope of the desired query area.
+   * @return a List of items which intersect the search envelope
+   */
+  public List query(Envelope searchEnv)
+  {
+    ArrayListVisitor visitor = new ArrayListVisitor();
+    query(searchEnv, visitor);
+    return visitor.getItems();
+  }
+
+  /**
+   * Queries the tree and visits the items whose envelopes 
+   * intersect the given search envelope.
+   * The query runs against a snapshot of the tree, 
+   * so it is not affected by concurrent updates.
+   * 
+   * @param searchEnv the envelope of the desired query area.
+   * @param visitor a visitor object which is passed the visited items
+   */
+  public void query(Envelope searchEnv, ItemVisitor visitor)
+  {
+    if (searchEnv == null || searchEnv.isNull()) return;
+    root.get().visit(searchEnv, visitor);
+  }
+
+  /**
+   * Return a list of all items in the tree.
+   * 
+   * @return a list of all items in a snapshot of the tree
+   */
+  public List queryAll()
+  {
+    ArrayListVisitor visitor = new ArrayListVisitor();
+    root.get().visitAll(visitor);
+    return visitor.getItems();
+  }
+
+  private QuadNode insert(QuadNode node, Envelope itemEnv, Object item)
+  {
+    if (node.isLeaf()) {
+      if (node.items.length < nodeCapacity || ! isSplittable(node, itemEnv))
+        return node.addItem(itemEnv, item);
+      return insert(split(node), itemEnv, item);
+    }
+    int index = NodeBase.getSubnodeIndex(itemEnv, node.centreX, node.centreY);
+    if (index == -1)
+      return node.addItem(itemEnv, item);
+    
+    QuadNode subnode = node.subnode[index];
+    if (node.isRoot()) {
+      if (subnode == null)
+        subnode = QuadNode.createQuadrant(index, quadrantLevel(itemEnv, Integer.MIN_VALUE));
+      else if (! subnode.contains(itemEnv))
+        subnode = expand(index, subnode, itemEnv);
+    }
+    else if (subnode == null) {
+      subnode = node.createSubnode(index, true);
+    }
+    return node.setSubnode(index, insert(subnode, itemEnv, item));
+  }
+
+  /**
+   * Splits a full leaf node by redistributing its items
+   * to a new interior node with the same extent.
+   */
+  private QuadNode split(QuadNode leaf)
+  {
+    QuadNode node = leaf.toInterior();
+    for (int i = 0; i < leaf.items.length; i++) {
+      node = insert(node, leaf.itemEnvs[i], leaf.items[i]);
+    }
+    return node;
+  }
+
+  /**
+   * Tests whether splitting a full leaf can separate its items
+   * and an item being added to it.
+   * Splitting stops once the items are coincident 
+   * to the precision of the node size, 
+   * or the node is too small to be represented accurately.
+   */
+  private static boolean isSplittable(QuadNode node, Envelope itemEnv)
+  {
+    double maxOrd = Math.max(
+        Math.max(Math.abs(node.minX), Math.abs(node.maxX)), 
+        Math.max(Math.abs(node.minY), Math.abs(node.maxY)));
+    if (node.level <= DoubleBits.exponent(maxOrd) - MAX_SPLIT_PRECISION)
+      return false;
+    
+    double minX = itemEnv.getMinX();
+    double maxX = itemEnv.getMaxX();
+    double minY = itemEnv.getMinY();
+    double maxY = itemEnv.getMaxY();
+    for (Envelope env : node.itemEnvs) {
+      minX = Math.min(minX, env.getMinX());
+      maxX = Math.max(maxX, env.getMaxX());
+      minY = Math.min(minY, env.getMinY());
+      maxY = Math.max(maxY, env.getMaxY());
+    }
+    double itemsExtent = Math.max(maxX - minX, maxY - minY);
+    return itemsExtent > Math.scalb(node.maxX - node.minX, -MAX_SPLIT_PRECISION);
+  }
+
+  /**
+   * Creates a larger quadrant node containing both an existing quadrant node
+   * and an envelope.  
+   * Quadrant nodes have a corner at the origin, 
+   * so the existing node lies in the quadrant of its ancestors 
+   * nearest to the origin.
+   */
+  private static QuadNode expand(int quadrant, QuadNode node, Envelope itemEnv)
+  {
+    int level = quadrantLevel(itemEnv, node.level + 1);
+    return insertNode(QuadNode.createQuadrant(quadrant, level).toInterior(), node);
+  }
+
+  private static QuadNode insertNode(QuadNode parent, QuadNode node)
+  {
+    int index = parent.quadrantOf(node);
+    if (node.level == parent.level - 1)
+      return parent.setSubnode(index, node);
+    QuadNode child = parent.createSubnode(index, false);
+    return parent.setSubnode(index, insertNode(child, node));
+  }
+
+  /**
+   * Computes the level of the smallest quadrant node
+   * which contains an envelope, and is at least a given level.
+   * Ordinate extents are used (rather than {@link Envelope#getWidth()})
+   * so the computation is correct for geographic envelopes too.
+   */
+  private static int quadrantLevel(Envelope env, int minLevel)
+  {
+    double maxOrd = Math.max(
+        Math.max(Math.abs(env.getMinX()), Math.abs(env.getMaxX())), 
+        Math.max(Math.abs(env.getMinY()), Math.abs(env.getMaxY())));
+    int level = maxOrd == 0.0 ? 0 : DoubleBits.exponent(maxOrd) + 1;
+    return Math.max(level, minLevel);
+  }
+
+  private static QuadNode remove(QuadNode node, Envelope itemEnv, Object item)
+  {
+    for (int i = 0; i < node.items.length; i++) {
+      if (item.equals(node.items[i]))
+        return node.removeItem(i);
+    }
+    if (node.isLeaf()) return node;
+    for (int i = 0; i < 4; i++) {
+      QuadNode subnode = node.subnode[i];
+      if (subnode == null || ! subnode.intersects(itemEnv)) continue;
+      QuadNode updated = remove(subnode, itemEnv, item);
+      if (updated != subnode)
+        return node.setSubnode(i, updated);
+    }
+    return node;
+  }
+
+  /**
+   * An immutable node of a {@link ConcurrentQuadtree}.
+   * Interior nodes have an array of subnodes (some of which may be null), 
+   * and may also hold items which do not fit in a single subnode.
+   * The root is an interior node with no extent,
+   * whose subnodes are the quadrants around the origin.
+   */
+  private static final class QuadNode
+  {
+    private static final Object[] NO_ITEMS = new Object[0];
+    private static final Envelope[] NO_ENVS = new Envelope[0];
+
+    static QuadNode createRoot()
+    {
+      return new QuadNode(true, 0, 0, 0, 0, 0, NO_ITEMS, NO_ENVS, new QuadNode[4], 0);
+    }
+
+    /**
+     * Creates an empty leaf node for one of the quadrants around the origin.
+     */
+    static QuadNode createQuadrant(int quadrant, int level)
+    {
+      double size = DoubleBits.powerOf2(level);
+      double minX = (quadrant & 1) == 0 ? -size : 0;
+      double minY = (quadrant & 2) == 0 ? -size : 0;
+      return new QuadNode(false, minX, minX + size, minY, minY + size, level, 
+          NO_ITEMS, NO_ENVS, null, 0);
+    }
+
+    final boolean isRoot;
+    final double minX;
+    final double maxX;
+    final double minY;
+    final double maxY;
+    final double centreX;
+    final double centreY;
+    final int level;
+    final Object[] items;
+    final Envelope[] itemEnvs;
+    /**
+     * subquads are numbered as for {@link NodeBase}.
+     * Null for a leaf node.
+     */
+    final QuadNode[] subnode;
+    /**
+     * The number of items in this node and all its descendants
+     */
+    final int count;
+
+    private QuadNode(boolean isRoot, double minX, double maxX, double minY, double maxY, int level, 
+        Object[] items, Envelope[] itemEnvs, QuadNode[] subnode, int count)
+    {
+      this.isRoot = isRoot;
+      this.minX = minX;
+      this.maxX = maxX;
+      this.minY = minY;
+      this.maxY = maxY;
+      this.centreX = (minX + maxX) / 2;
+      this.centreY = (minY + maxY) / 2;
+      this.level = level;
+      this.items = items;
+      this.itemEnvs = itemEnvs;
+      this.subnode = subnode;
+      this.count = count;
+    }
+
+    boolean isRoot() { return isRoot; }
+    
+    boolean isLeaf() { return subnode == null; }
+
+    boolean contains(Envelope env)
+    {
+      return env.getMinX() >= minX && env.getMaxX() <= maxX
+          && env.getMinY() >= minY && env.getMaxY() <= maxY;
+    }
+
+    boolean intersects(Envelope env)
+    {
+      return ! (env.getMinX() > maxX || env.getMaxX() < minX
+          || env.getMinY() > maxY || env.getMaxY() < minY);
+    }
+
+    /**
+     * Gets the quadrant of this node which contains a smaller aligned node.
+     */
+    int quadrantOf(QuadNode node)
+    {
+      int index = node.minX >= centreX ? 1 : 0;
+      if (node.minY >= centreY) index += 2;
+      return index;
+    }
+
+    QuadNode createSubnode(int index, boolean isLeaf)
+    {
+      double subMinX = (index & 1) == 0 ? minX : centreX;
+      double subMaxX = (index & 1) == 0 ? centreX : maxX;
+      double subMinY = (index & 2) == 0 ? minY : centreY;
+      double subMaxY = (index & 2) == 0 ? centreY : maxY;
+      return new QuadNode(false, subMinX, subMaxX, subMinY, subMaxY, level - 1, 
+          NO_ITEMS, NO_ENVS, isLeaf ? null : new QuadNode[4], 0);
+    }
+
+    QuadNode toInterior()
+    {
+      return new QuadNode(isRoot, minX, maxX, minY, maxY, level, 
+          NO_ITEMS, NO_ENVS, new QuadNode[4], 0);
+    }
+
+    QuadNode addItem(Envelope itemEnv, Object item)
+    {
+      int n = items.length;
+      Object[] newItems = new Object[n + 1];
+      Envelope[] newEnvs = new Envelope[n + 1];
+      System.arraycopy(items, 0, newItems, 0, n);
+      System.arraycopy(itemEnvs, 0, newEnvs, 0, n);
+      newItems[n] = item;
+      newEnvs[n] = itemEnv;
+      return new QuadNode(isRoot, minX, maxX, minY, maxY, level, 
+          newItems, newEnvs, subnode, count + 1);
+    }
+
+    /**
+     * Removes an item, returning null if the node becomes empty
+     * (unless it is the root).
+     */
+    QuadNode removeItem(int i)
+    {
+      if (count == 1 && ! isRoot) return null;
+      int n = items.length;
+      Object[] newItems = NO_ITEMS;
+      Envelope[] newEnvs = NO_ENVS;
+      if (n > 1) {
+        newItems = new Object[n - 1];
+        newEnvs = new Envelope[n - 1];
+        System.arraycopy(items, 0, newItems, 0, i);
+        System.arraycopy(itemEnvs, 0, newEnvs, 0, i);
+        System.arraycopy(items, i + 1, newItems, i, n - i - 1);
+        System.arraycopy(itemEnvs, i + 1, newEnvs, i, n - i - 1);
+      }
+      return new QuadNode(isRoot, minX, maxX, minY, maxY, level, 
+          newItems, newEnvs, subnode, count - 1);
+    }
+
+    /**
+     * Replaces a subnode, returning null if the node becomes empty
+     * (unless it is the root).
+     */
+    QuadNode setSubnode(int index, QuadNode node)
+    {
+      QuadNode old = subnode[index];
+      int newCount = count 
+          - (old == null ? 0 : old.count) 
+          + (node == null ? 0 : node.count);
+      if (newCount == 0 && ! isRoot) return null;
+      QuadNode[] newSubnode = subnode.clone();
+      newSubnode[index] = node;
+      return new QuadNode(isRoot, minX, maxX, minY, maxY, level, 
+          items, itemEnvs, newSubnode, newCount);
+    }
+
+    void visit(Envelope searchEnv, ItemVisitor visitor)
+    {
+      for (int i = 0; i < items.length; i++) {
+        if (itemEnvs[i].intersects(searchEnv))
+          visitor.visitItem(items[i]);
+      }
+      if (subnode == null) return;
+      for (int i = 0; i < 4; i++) {
+        QuadNode node = subnode[i];
+        if (node != null && node.intersects(searchEnv))
+          node.visit(searchEnv, visitor);
+      }
+    }
+
+    void visitAll(ItemVisitor visitor)
+    {
+      for (int i = 0; i < items.length; i++) {
+        visitor.visitItem(items[i]);
+      }
+      if (subnode == null) return;
+      for (int i = 0; i < 4; i++) {
+        if (subnode[i] != null)
+          subnode[i].visitAll(visitor);
+      }
+    }
+
+    int depth()
+    {
+      int maxSubDepth = 0;
+      if (subnode != null) {
+        for (int i = 0; i < 4; i++) {
+          if (subnode[i] != null)
+            maxSubDepth = Math.max(maxSubDepth, subnode[i].depth());
+        }
+      }
+      return maxSubDepth + 1;
+    }
+  }
+}
@@ -18,6 +18,8 @@ import java.util.List;
 
 import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.index.ItemVisitor;
+import org.locationtech.jts.index.ProbeBatch;
+import org.locationtech.jts.index.ProbeItemVisitor;
 
 
 /**
@@ -187,6 +189,37 @@ public abstract class NodeBase implements Serializable {
     }
   }
 
+  /**
+   * Visits the items in this node and its subnodes 
+   * for the active probes of a batch query.
+   * The probes have already been tested against this node.
+   * 
+   * @param batch the probe batch
+   * @param depth the depth of the active probes
+   * @param count the number of active probes
+   * @param visitor the visitor to apply
+   */
+  void visit(ProbeBatch batch, int depth, int count, ProbeItemVisitor visitor)
+  {
+    synchronized (items) {
+      for (int i = 0; i < items.size(); i++) {
+        Object item = items.get(i);
+        for (int j = 0; j < count; j++) {
+          visitor.visitItem(batch.probeIndex(depth, j), item);
+        }
+      }
+    }
+
+    for (int i = 0; i < 4; i++) {
+      if (subnode[i] != null) {
+        int subCount = batch.filter(depth, count, subnode[i].getEnvelope());
+        if (subCount > 0) {
+          subnode[i].visit(batch, depth + 1, subCount, visitor);
+        }
+      }
+    }
+  }
+
   private void visitItems(Envelope searchEnv, ItemVisitor visitor)
   {
     // would be nice to filter items based on search envelope, but can't until they contain an envelope
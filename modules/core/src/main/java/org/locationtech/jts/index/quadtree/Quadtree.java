@@ -19,6 +19,8 @@ import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.index.ArrayListVisitor;
 import org.locationtech.jts.index.ItemVisitor;
+import org.locationtech.jts.index.ProbeBatch;
+import org.locationtech.jts.index.ProbeItemVisitor;
 import org.locationtech.jts.index.SpatialIndex;
 /**
  * A Quadtree is a spatial index structure for efficient range querying
@@ -217,6 +219,26 @@ public class Quadtree
     root.visit(searchEnv, visitor);
   }
 
+  /**
+   * Queries the tree with an array of search envelopes,
+   * processing batches of spatially adjacent envelopes 
+   * in a single traversal of the tree
+   * (see {@link ProbeBatch}).
+   * As for {@link #query(Envelope, ItemVisitor)}, 
+   * the items visited for each envelope may include items 
+   * whose envelopes do not intersect it.
+   * 
+   * @param searchEnvs the envelopes to query for
+   * @param visitor a visitor to apply to the items found and the indexes of the envelopes which found them
+   */
+  public void query(Envelope[] searchEnvs, ProbeItemVisitor visitor)
+  {
+    ProbeBatch batch = new ProbeBatch(searchEnvs);
+    while (batch.next()) {
+      root.visit(batch, 0, batch.size(), visitor);
+    }
+  }
+
   /**
    * Return a list of all items in the Quadtree
    */
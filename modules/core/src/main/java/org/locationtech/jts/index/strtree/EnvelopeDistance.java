@@ -11,7 +11,9 @@
  */
 package org.locationtech.jts.index.strtree;
 
+import org.locationtech.jts.algorithm.distance.LocalLonLatDistance;
 import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.GeometryFactory;
 
 /**
  * Functions for computing distances between {@link Envelope}s.
@@ -27,6 +29,7 @@ public class EnvelopeDistance
    * the envelope containing both input envelopes.
    * This is a coarse upper bound on the distance between 
    * geometries bounded by the envelopes.
+   * For geographic coordinates the distance is in metres.
    * 
    * @param env1 an envelope
    * @param env2 an envelope
@@ -44,6 +47,16 @@ public class EnvelopeDistance
   private static double distance(double x1, double y1, double x2, double y2) {
     double dx = x2 - x1;
     double dy = y2 - y1;
+    if (GeometryFactory.getDefault().isGeoCoordSys()) {
+      // scale longitude at the latitude nearest the equator,
+      // so the result stays an upper bound
+      double minAbsLat = 0.0;
+      if (y1 * y2 > 0.0)
+        minAbsLat = Math.min(Math.abs(y1), Math.abs(y2));
+      double dLonRad = Math.toRadians(dx) * Math.cos(Math.toRadians(minAbsLat));
+      double dLatRad = Math.toRadians(dy);
+      return LocalLonLatDistance.distanceToMeters(Math.hypot(dLonRad, dLatRad));
+    }
     return Math.hypot(dx, dy);    
   }
   
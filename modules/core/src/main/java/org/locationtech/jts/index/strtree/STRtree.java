@@ -13,14 +13,20 @@ package org.locationtech.jts.index.strtree;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.ItemPairVisitor;
 import org.locationtech.jts.index.ItemVisitor;
+import org.locationtech.jts.index.ProbeBatch;
+import org.locationtech.jts.index.ProbeItemVisitor;
 import org.locationtech.jts.index.SpatialIndex;
 import org.locationtech.jts.util.Assert;
 
@@ -47,6 +53,11 @@ import org.locationtech.jts.util.Assert;
  * Querying a tree is thread-safe.  
  * The building phase is done synchronously, 
  * and querying is stateless.
+ * <p>
+ * Building a large tree can be sped up by
+ * sorting and packing the vertical slices of each level concurrently
+ * (see {@link #setParallelBuild(ForkJoinPool)}).
+ * The tree built is identical to the one built sequentially.
  *
  * @version 1.7
  */
@@ -123,6 +134,9 @@ implements SpatialIndex, Serializable
    */
   protected List createParentBoundables(List childBoundables, int newLevel) {
     Assert.isTrue(!childBoundables.isEmpty());
+    if (buildPool != null && childBoundables.size() >= PARALLEL_BUILD_MIN_SIZE) {
+      return createParentBoundablesParallel(childBoundables, newLevel);
+    }
     int minLeafCount = (int) Math.ceil((childBoundables.size() / (double) getNodeCapacity()));
     ArrayList sortedChildBoundables = new ArrayList(childBoundables);
     Collections.sort(sortedChildBoundables, xComparator);
@@ -131,6 +145,122 @@ implements SpatialIndex, Serializable
     return createParentBoundablesFromVerticalSlices(verticalSlices, newLevel);
   }
 
+  /**
+   * Creates the parent level using the build pool.
+   * The child boundables are sorted with a stable parallel merge sort,
+   * and the vertical slices are sorted and packed concurrently.
+   * Since all sorts are stable the result is the same as
+   * for {@link #createParentBoundables(List, int)}.
+   */
+  private List createParentBoundablesParallel(List childBoundables, int newLevel) {
+    int minLeafCount = (int) Math.ceil((childBoundables.size() / (double) getNodeCapacity()));
+    Object[] sorted = childBoundables.toArray();
+    buildPool.invoke(new MergeSortTask(sorted, new Object[sorted.length], 0, sorted.length, xComparator));
+    List[] verticalSlices = verticalSlices(Arrays.asList(sorted),
+        (int) Math.ceil(Math.sqrt(minLeafCount)));
+    List[] sliceParents = new List[verticalSlices.length];
+    buildPool.invoke(new SliceTask(verticalSlices, sliceParents, newLevel, 0, verticalSlices.length));
+    List parentBoundables = new ArrayList();
+    for (int i = 0; i < sliceParents.length; i++) {
+      parentBoundables.addAll(sliceParents[i]);
+    }
+    return parentBoundables;
+  }
+
+  /**
+   * Creates the parent nodes for a range of vertical slices,
+   * splitting the range across tasks.
+   */
+  private class SliceTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final List[] verticalSlices;
+    private final List[] sliceParents;
+    private final int newLevel;
+    private final int start;
+    private final int end;
+
+    SliceTask(List[] verticalSlices, List[] sliceParents, int newLevel, int start, int end) {
+      this.verticalSlices = verticalSlices;
+      this.sliceParents = sliceParents;
+      this.newLevel = newLevel;
+      this.start = start;
+      this.end = end;
+    }
+
+    protected void compute() {
+      if (end - start == 1) {
+        List parents = createParentBoundablesFromVerticalSlice(verticalSlices[start], newLevel);
+        /**
+         * Node bounds are computed lazily.
+         * Compute them here so that they are not computed concurrently
+         * when the next level is sorted.
+         */
+        for (int i = 0; i < parents.size(); i++) {
+          ((Boundable) parents.get(i)).getBounds();
+        }
+        sliceParents[start] = parents;
+        return;
+      }
+      int mid = (start + end) >>> 1;
+      invokeAll(new SliceTask(verticalSlices, sliceParents, newLevel, start, mid),
+          new SliceTask(verticalSlices, sliceParents, newLevel, mid, end));
+    }
+  }
+
+  /**
+   * A stable parallel merge sort.
+   * Ranges below a threshold size are sorted with {@link Arrays#sort(Object[], int, int, Comparator)}
+   * (which is stable), and merging takes from the left range first on ties.
+   */
+  private static class MergeSortTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private static final int SEQUENTIAL_SIZE = 8192;
+
+    private final Object[] items;
+    private final Object[] buf;
+    private final int start;
+    private final int end;
+    private final Comparator comparator;
+
+    MergeSortTask(Object[] items, Object[] buf, int start, int end, Comparator comparator) {
+      this.items = items;
+      this.buf = buf;
+      this.start = start;
+      this.end = end;
+      this.comparator = comparator;
+    }
+
+    protected void compute() {
+      if (end - start <= SEQUENTIAL_SIZE) {
+        Arrays.sort(items, start, end, comparator);
+        return;
+      }
+      int mid = (start + end) >>> 1;
+      invokeAll(new MergeSortTask(items, buf, start, mid, comparator),
+          new MergeSortTask(items, buf, mid, end, comparator));
+      merge(mid);
+    }
+
+    private void merge(int mid) {
+      System.arraycopy(items, start, buf, start, end - start);
+      int i = start;
+      int j = mid;
+      int k = start;
+      while (i < mid && j < end) {
+        if (comparator.compare(buf[j], buf[i]) < 0) {
+          items[k++] = buf[j++];
+        }
+        else {
+          items[k++] = buf[i++];
+        }
+      }
+      while (i < mid) items[k++] = buf[i++];
+      while (j < end) items[k++] = buf[j++];
+    }
+  }
+
   private List createParentBoundablesFromVerticalSlices(List[] verticalSlices, int newLevel) {
     Assert.isTrue(verticalSlices.length > 0);
     List parentBoundables = new ArrayList();
@@ -165,6 +295,14 @@ implements SpatialIndex, Serializable
   }
 
   private static final int DEFAULT_NODE_CAPACITY = 10;
+
+  /**
+   * Levels with fewer boundables than this are built sequentially,
+   * since the task overhead outweighs the gain.
+   */
+  private static final int PARALLEL_BUILD_MIN_SIZE = 10000;
+
+  private transient ForkJoinPool buildPool = null;
   
   /**
    * Constructs an STRtree with the default node capacity.
@@ -207,6 +345,21 @@ implements SpatialIndex, Serializable
     super(nodeCapacity, itemBoundables);
   }
 
+  /**
+   * Sets the pool used to build the tree in parallel.
+   * When a pool is set, the items of each large level of the tree
+   * are sorted by a parallel merge sort,
+   * and the vertical slices are sorted and packed into nodes concurrently.
+   * The tree built is identical to the one built sequentially.
+   * <p>
+   * This must be called before the tree is built.
+   *
+   * @param pool the pool to build the tree with, or null to build sequentially (the default)
+   */
+  public void setParallelBuild(ForkJoinPool pool) {
+    this.buildPool = pool;
+  }
+
   protected AbstractNode createNode(int level) {
     return new STRtreeNode(level);
   }
@@ -241,6 +394,104 @@ implements SpatialIndex, Serializable
     super.query(searchEnv, visitor);
   }
 
+  /**
+   * Queries the tree with an array of search envelopes,
+   * processing batches of spatially adjacent envelopes 
+   * in a single traversal of the tree
+   * (see {@link ProbeBatch}).
+   * 
+   * @param searchEnvs the envelopes to query for
+   * @param visitor a visitor to apply to the items found and the indexes of the envelopes which found them
+   */
+  public void query(Envelope[] searchEnvs, ProbeItemVisitor visitor) {
+    build();
+    if (isEmpty()) 
+      return;
+    ProbeBatch batch = new ProbeBatch(searchEnvs);
+    while (batch.next()) {
+      int count = batch.filter(0, batch.size(), (Envelope) root.getBounds());
+      if (count > 0) {
+        queryBatch(root, batch, 1, count, visitor);
+      }
+    }
+  }
+
+  private void queryBatch(AbstractNode node, ProbeBatch batch, int depth, int count, ProbeItemVisitor visitor) {
+    List childBoundables = node.getChildBoundables();
+    for (int i = 0; i < childBoundables.size(); i++) {
+      Boundable childBoundable = (Boundable) childBoundables.get(i);
+      int childCount = batch.filter(depth, count, (Envelope) childBoundable.getBounds());
+      if (childCount == 0) {
+        continue;
+      }
+      if (childBoundable instanceof AbstractNode) {
+        queryBatch((AbstractNode) childBoundable, batch, depth + 1, childCount, visitor);
+      }
+      else {
+        Object item = ((ItemBoundable) childBoundable).getItem();
+        for (int j = 0; j < childCount; j++) {
+          visitor.visitItem(batch.probeIndex(depth + 1, j), item);
+        }
+      }
+    }
+  }
+
+  /**
+   * Finds all pairs of items from this tree and another tree
+   * whose envelopes intersect,
+   * and applies a visitor to them.
+   * The pairs are found by a simultaneous traversal of the two trees,
+   * expanding the larger node of each intersecting pair of nodes
+   * (as in {@link #nearestNeighbour(STRtree, ItemDistance)}).
+   * <p>
+   * If the tree is joined with itself 
+   * each pair of distinct items is visited twice (once in each order),
+   * and each item is paired with itself.
+   * 
+   * @param tree another tree
+   * @param visitor a visitor to apply to the pairs of items found, 
+   *   with the item from this tree first
+   */
+  public void join(STRtree tree, ItemPairVisitor visitor) {
+    build();
+    tree.build();
+    if (isEmpty() || tree.isEmpty()) 
+      return;
+    join(root, tree.root, visitor);
+  }
+  
+  private static void join(Boundable bnd1, Boundable bnd2, ItemPairVisitor visitor) {
+    if (! ((Envelope) bnd1.getBounds()).intersects((Envelope) bnd2.getBounds())) 
+      return;
+    boolean isComp1 = BoundablePair.isComposite(bnd1);
+    boolean isComp2 = BoundablePair.isComposite(bnd2);
+    /**
+     * If both boundables are composite, 
+     * expand the one with largest area.
+     * Otherwise, expand whichever is composite.
+     */
+    if (isComp1 && (! isComp2 || area(bnd1) > area(bnd2))) {
+      List children = ((AbstractNode) bnd1).getChildBoundables();
+      for (int i = 0; i < children.size(); i++) {
+        join((Boundable) children.get(i), bnd2, visitor);
+      }
+    }
+    else if (isComp2) {
+      List children = ((AbstractNode) bnd2).getChildBoundables();
+      for (int i = 0; i < children.size(); i++) {
+        join(bnd1, (Boundable) children.get(i), visitor);
+      }
+    }
+    else {
+      visitor.visitItems(((ItemBoundable) bnd1).getItem(), ((ItemBoundable) bnd2).getItem());
+    }
+  }
+  
+  private static double area(Boundable bnd) {
+    Envelope env = (Envelope) bnd.getBounds();
+    return (env.getMaxX() - env.getMinX()) * (env.getMaxY() - env.getMinY());
+  }
+
   /**
    * Removes a single item from the tree.
    *
@@ -66,7 +66,8 @@ public class NodedSegmentString
     }
   }
 
-  private SegmentNodeList nodeList = new SegmentNodeList(this);
+  private SegmentNodeList nodeList = null;
+  private boolean isPackedNodeList;
   private Coordinate[] pts;
   private Object data;
 
@@ -77,9 +78,25 @@ public class NodedSegmentString
    * @param data the user-defined data of this segment string (may be null)
    */
   public NodedSegmentString(Coordinate[] pts, Object data)
+  {
+    this(pts, data, false);
+  }
+
+  /**
+   * Creates a instance from a list of vertices and optional data object,
+   * optionally storing the nodes in a {@link PackedSegmentNodeList}.
+   * A packed node list avoids creating objects for each added node,
+   * which reduces the memory allocated when noding strings with many nodes.
+   *
+   * @param pts the vertices of the segment string
+   * @param data the user-defined data of this segment string (may be null)
+   * @param isPackedNodeList true if the nodes are stored in a packed node list
+   */
+  public NodedSegmentString(Coordinate[] pts, Object data, boolean isPackedNodeList)
   {
     this.pts = pts;
     this.data = data;
+    this.isPackedNodeList = isPackedNodeList;
   }
 
   /**
@@ -89,8 +106,7 @@ public class NodedSegmentString
    */
   public NodedSegmentString(SegmentString ss)
   {
-    this.pts = ss.getCoordinates();
-    this.data = ss.getData();
+    this(ss.getCoordinates(), ss.getData());
   }
 
   /**
@@ -107,7 +123,13 @@ public class NodedSegmentString
    */
   public void setData(Object data) { this.data = data; }
 
-  public SegmentNodeList getNodeList() { return nodeList; }
+  public SegmentNodeList getNodeList() {
+    // created lazily, since noded substrings usually have no nodes added
+    if (nodeList == null) {
+      nodeList = isPackedNodeList ? new PackedSegmentNodeList(this) : new SegmentNodeList(this);
+    }
+    return nodeList;
+  }
   public int size() { return pts.length; }
   public Coordinate getCoordinate(int i) { return pts[i]; }
   public Coordinate[] getCoordinates() { return pts; }
@@ -118,7 +140,7 @@ public class NodedSegmentString
    * @return an array of coordinates include nodes
    */
   public Coordinate[] getNodedCoordinates() {
-    return nodeList.getSplitCoordinates();
+    return getNodeList().getSplitCoordinates();
   }
   
   public boolean isClosed()
@@ -132,7 +154,7 @@ public class NodedSegmentString
    * @return true if the segment string has nodes
    */
   public boolean hasNodes() {
-    return nodeList.size() > 0;
+    return nodeList != null && nodeList.size() > 0;
   }
   /**
    * Gets the octant of the segment starting at vertex {@code index}.
@@ -172,8 +194,8 @@ public class NodedSegmentString
    */
   public void addIntersection(LineIntersector li, int segmentIndex, int geomIndex, int intIndex)
   {
-    Coordinate intPt = li.getIntersection(intIndex).copy();
-    addIntersection(intPt, segmentIndex);
+    // the node list copies the point if it needs to keep it
+    addIntersection(li.getIntersection(intIndex), segmentIndex);
   }
 
   /**
@@ -183,7 +205,7 @@ public class NodedSegmentString
    * @param segmentIndex the index of the segment containing the intersection
    */
   public void  addIntersection(Coordinate intPt, int segmentIndex) {
-  	addIntersectionNode(intPt, segmentIndex);
+    getNodeList().addNode(intPt, normalizedSegmentIndex(intPt, segmentIndex));
   }
   	
   /**
@@ -196,6 +218,19 @@ public class NodedSegmentString
    * @return the intersection node for the point
    */
   public SegmentNode addIntersectionNode(Coordinate intPt, int segmentIndex) {
+		/*
+		  Add the intersection point to edge intersection list.
+		 */
+		SegmentNode ei = getNodeList().add(intPt, normalizedSegmentIndex(intPt, segmentIndex));
+		return ei;
+	}
+
+  /**
+   * Normalizes the segment index of an intersection point.
+   * An intersection that falls exactly on a vertex
+   * uses the higher of the two possible segment indexes.
+   */
+  private int normalizedSegmentIndex(Coordinate intPt, int segmentIndex) {
 		int normalizedSegmentIndex = segmentIndex;
 		//Debug.println("edge intpt: " + intPt + " dist: " + dist);
 		// normalize the intersection point location
@@ -211,11 +246,7 @@ public class NodedSegmentString
 				normalizedSegmentIndex = nextSegIndex;
 			}
 		}
-		/*
-		  Add the intersection point to edge intersection list.
-		 */
-		SegmentNode ei = nodeList.add(intPt, normalizedSegmentIndex);
-		return ei;
+		return normalizedSegmentIndex;
 	}
   
   public String toString()
@@ -0,0 +1,389 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.noding;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateList;
+
+/**
+ * A {@link SegmentNodeList} which stores the nodes
+ * in growable arrays of primitive values
+ * (the segment index and the X, Y and Z ordinates of each node),
+ * rather than as {@link SegmentNode} objects in a sorted map.
+ * This avoids creating objects for each node added,
+ * which is significant when noding large numbers of segment strings.
+ * <p>
+ * Nodes are appended as they are added,
+ * and sorted and merged once when they are read
+ * (usually when the split edges are created).
+ * The order and merging of nodes are the same as in a {@link SegmentNodeList},
+ * so the split edges created are identical.
+ * The node coordinates in the split edges are created
+ * as {@link Coordinate}s with X, Y and Z ordinates.
+ * <p>
+ * {@link SegmentNode}s are only created if they are requested
+ * through {@link #add(Coordinate, int)} or {@link #iterator()}.
+ *
+ * @see NodedSegmentString#NodedSegmentString(Coordinate[], Object, boolean)
+ */
+public class PackedSegmentNodeList
+    extends SegmentNodeList
+{
+  private static final int INIT_CAPACITY = 4;
+
+  private static final int[] EMPTY_INTS = new int[0];
+  private static final double[] EMPTY_DOUBLES = new double[0];
+
+  private NodedSegmentString edge;
+  private int size = 0;
+  private int[] segIndex = EMPTY_INTS;
+  private double[] xs = EMPTY_DOUBLES;
+  private double[] ys = EMPTY_DOUBLES;
+  private double[] zs = EMPTY_DOUBLES;
+  /**
+   * The number of nodes at the start of the arrays
+   * which are sorted and contain no duplicates.
+   */
+  private int numSorted = 0;
+
+  public PackedSegmentNodeList(NodedSegmentString edge)
+  {
+    // the nodes are stored in the arrays, so no node map is needed
+    super(edge, null);
+    this.edge = edge;
+  }
+
+  /**
+   * Gets the number of distinct nodes in the list
+   *
+   * @return the size of the list
+   */
+  public int size() {
+    sort();
+    return size;
+  }
+
+  /**
+   * Adds an intersection into the list, if it isn't already there.
+   * The input segmentIndex is expected to be normalized.
+   * <p>
+   * Since this list does not store node objects,
+   * the node returned is created for the call.
+   *
+   * @return a SegmentNode equal to the node in the list
+   */
+  public SegmentNode add(Coordinate intPt, int segmentIndex)
+  {
+    addNode(intPt, segmentIndex);
+    return new SegmentNode(edge, intPt, segmentIndex, edge.getSegmentOctant(segmentIndex));
+  }
+
+  void addNode(Coordinate intPt, int segmentIndex)
+  {
+    add(intPt.x, intPt.y, intPt.getZ(), segmentIndex);
+  }
+
+  private void add(double x, double y, double z, int index)
+  {
+    if (size == segIndex.length) {
+      grow();
+    }
+    segIndex[size] = index;
+    xs[size] = x;
+    ys[size] = y;
+    zs[size] = z;
+    // a node after the last sorted node keeps the list sorted
+    if (numSorted == size && (size == 0 || compare(size - 1, size) < 0))
+      numSorted++;
+    size++;
+  }
+
+  private void grow()
+  {
+    int capacity = Math.max(INIT_CAPACITY, 2 * segIndex.length);
+    int[] newSegIndex = new int[capacity];
+    double[] newXs = new double[capacity];
+    double[] newYs = new double[capacity];
+    double[] newZs = new double[capacity];
+    System.arraycopy(segIndex, 0, newSegIndex, 0, size);
+    System.arraycopy(xs, 0, newXs, 0, size);
+    System.arraycopy(ys, 0, newYs, 0, size);
+    System.arraycopy(zs, 0, newZs, 0, size);
+    segIndex = newSegIndex;
+    xs = newXs;
+    ys = newYs;
+    zs = newZs;
+  }
+
+  /**
+   * Sorts the nodes along the edge and removes duplicates.
+   * The sort is stable, so the first node added
+   * at a location is the one kept (as in a {@link SegmentNodeList}).
+   */
+  private void sort()
+  {
+    if (numSorted == size) return;
+
+    int[] order = new int[size];
+    for (int i = 0; i < size; i++) {
+      order[i] = i;
+    }
+    mergeSort(order, new int[size], 0, size);
+    permute(order);
+
+    // remove nodes equal to the previous one
+    int n = 1;
+    for (int i = 1; i < size; i++) {
+      if (segIndex[i] == segIndex[n - 1] && xs[i] == xs[n - 1] && ys[i] == ys[n - 1])
+        continue;
+      segIndex[n] = segIndex[i];
+      xs[n] = xs[i];
+      ys[n] = ys[i];
+      zs[n] = zs[i];
+      n++;
+    }
+    size = n;
+    numSorted = n;
+  }
+
+  /**
+   * Rearranges the nodes in place so that node <code>order[i]</code> is at position <code>i</code>.
+   * The order array is used to mark the positions moved.
+   */
+  private void permute(int[] order)
+  {
+    for (int start = 0; start < size; start++) {
+      if (order[start] < 0 || order[start] == start) continue;
+      int segIndexStart = segIndex[start];
+      double xStart = xs[start];
+      double yStart = ys[start];
+      double zStart = zs[start];
+      int i = start;
+      while (true) {
+        int from = order[i];
+        order[i] = -1;
+        if (from == start) {
+          segIndex[i] = segIndexStart;
+          xs[i] = xStart;
+          ys[i] = yStart;
+          zs[i] = zStart;
+          break;
+        }
+        segIndex[i] = segIndex[from];
+        xs[i] = xs[from];
+        ys[i] = ys[from];
+        zs[i] = zs[from];
+        i = from;
+      }
+    }
+  }
+
+  private void mergeSort(int[] order, int[] temp, int start, int end)
+  {
+    if (end - start < 2) return;
+    int mid = (start + end) >>> 1;
+    mergeSort(order, temp, start, mid);
+    mergeSort(order, temp, mid, end);
+    // skip merging if the halves are already in order
+    if (compare(order[mid - 1], order[mid]) <= 0) return;
+
+    System.arraycopy(order, start, temp, start, end - start);
+    int i = start;
+    int j = mid;
+    for (int k = start; k < end; k++) {
+      if (j >= end || (i < mid && compare(temp[i], temp[j]) <= 0))
+        order[k] = temp[i++];
+      else
+        order[k] = temp[j++];
+    }
+  }
+
+  /**
+   * Compares the positions of two nodes along the edge,
+   * in the same way as {@link SegmentNode#compareTo(Object)}.
+   */
+  private int compare(int i, int j)
+  {
+    if (segIndex[i] < segIndex[j]) return -1;
+    if (segIndex[i] > segIndex[j]) return 1;
+
+    if (xs[i] == xs[j] && ys[i] == ys[j]) return 0;
+
+    // an exterior node is the segment start point, so always sorts first
+    // this guards against a robustness problem where the octants are not reliable
+    if (! isInterior(i)) return -1;
+    if (! isInterior(j)) return 1;
+
+    return SegmentPointComparator.compare(edge.getSegmentOctant(segIndex[i]),
+        xs[i], ys[i], xs[j], ys[j]);
+  }
+
+  private boolean isInterior(int i)
+  {
+    Coordinate segStart = edge.getCoordinate(segIndex[i]);
+    return xs[i] != segStart.x || ys[i] != segStart.y;
+  }
+
+  private Coordinate createCoordinate(int i)
+  {
+    return new Coordinate(xs[i], ys[i], zs[i]);
+  }
+
+  /**
+   * returns an iterator of SegmentNodes
+   */
+  public Iterator iterator()
+  {
+    sort();
+    List nodes = new ArrayList(size);
+    for (int i = 0; i < size; i++) {
+      nodes.add(new SegmentNode(edge, createCoordinate(i), segIndex[i],
+          edge.getSegmentOctant(segIndex[i])));
+    }
+    return nodes.iterator();
+  }
+
+  /**
+   * Adds nodes for the first and last points of the edge
+   */
+  private void addEndpoints()
+  {
+    int maxSegIndex = edge.size() - 1;
+    addNode(edge.getCoordinate(0), 0);
+    addNode(edge.getCoordinate(maxSegIndex), maxSegIndex);
+  }
+
+  /**
+   * Adds nodes for any collapsed edge pairs,
+   * both those caused by inserted nodes and pre-existing ones.
+   */
+  private void addCollapsedNodes()
+  {
+    sort();
+    int numNodes = size;
+    // collapses from inserted nodes
+    for (int i = 1; i < numNodes; i++) {
+      int collapseIndex = findCollapseIndex(i - 1, i);
+      if (collapseIndex >= 0)
+        addNode(edge.getCoordinate(collapseIndex), collapseIndex);
+    }
+    // collapses from existing vertices
+    for (int i = 0; i < edge.size() - 2; i++) {
+      Coordinate p0 = edge.getCoordinate(i);
+      Coordinate p2 = edge.getCoordinate(i + 2);
+      if (p0.equals2D(p2)) {
+        // add base of collapse as node
+        addNode(edge.getCoordinate(i + 1), i + 1);
+      }
+    }
+  }
+
+  /**
+   * Finds the vertex between two equal nodes
+   * which have a single vertex between them.
+   *
+   * @return the index of the collapsed vertex, or -1 if there is no collapse
+   */
+  private int findCollapseIndex(int i0, int i1)
+  {
+    // only looking for equal nodes
+    if (xs[i0] != xs[i1] || ys[i0] != ys[i1]) return -1;
+
+    int numVerticesBetween = segIndex[i1] - segIndex[i0];
+    if (! isInterior(i1)) {
+      numVerticesBetween--;
+    }
+
+    // if there is a single vertex between the two equal nodes, this is a collapse
+    if (numVerticesBetween == 1) {
+      return segIndex[i0] + 1;
+    }
+    return -1;
+  }
+
+  /**
+   * Creates new edges for all the edges that the intersections in this
+   * list split the parent edge into.
+   * Adds the edges to the provided argument list
+   * (this is so a single list can be used to accumulate all split edges
+   * for a set of {@link SegmentString}s).
+   */
+  public void addSplitEdges(Collection edgeList)
+  {
+    // ensure that the list has entries for the first and last point of the edge
+    addEndpoints();
+    addCollapsedNodes();
+    sort();
+
+    // there should always be at least two entries in the list, since the endpoints are nodes
+    for (int i = 1; i < size; i++) {
+      Coordinate[] pts = createSplitEdgePts(i - 1, i);
+      edgeList.add(new NodedSegmentString(pts, edge.getData()));
+    }
+  }
+
+  /**
+   * Extracts the points for a split edge running between two nodes.
+   *
+   * @param i0 the index of the start node of the split edge
+   * @param i1 the index of the end node of the split edge
+   * @return the points for the split edge
+   */
+  private Coordinate[] createSplitEdgePts(int i0, int i1)
+  {
+    int npts = segIndex[i1] - segIndex[i0] + 2;
+
+    // if only two points in split edge they must be the node points
+    if (npts == 2) return new Coordinate[] { createCoordinate(i0), createCoordinate(i1) };
+
+    // the check for point equality is 2D only - Z values are ignored
+    boolean useIntPt1 = isInterior(i1);
+    if (! useIntPt1) {
+      npts--;
+    }
+
+    Coordinate[] pts = new Coordinate[npts];
+    int ipt = 0;
+    pts[ipt++] = createCoordinate(i0);
+    for (int i = segIndex[i0] + 1; i <= segIndex[i1]; i++) {
+      pts[ipt++] = edge.getCoordinate(i);
+    }
+    if (useIntPt1) pts[ipt] = createCoordinate(i1);
+    return pts;
+  }
+
+  /**
+   * Gets the list of coordinates for the fully noded segment string,
+   * including all original segment string vertices and vertices
+   * introduced by nodes in this list.
+   * Repeated coordinates are collapsed.
+   *
+   * @return an array of Coordinates
+   */
+  public Coordinate[] getSplitCoordinates()
+  {
+    CoordinateList coordList = new CoordinateList();
+    // ensure that the list has entries for the first and last point of the edge
+    addEndpoints();
+    sort();
+
+    for (int i = 1; i < size; i++) {
+      coordList.add(createSplitEdgePts(i - 1, i), false);
+    }
+    return coordList.toCoordinateArray();
+  }
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.noding;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import org.locationtech.jts.algorithm.LineIntersector;
+import org.locationtech.jts.algorithm.RobustLineIntersector;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.index.ItemVisitor;
+import org.locationtech.jts.index.chain.MonotoneChain;
+import org.locationtech.jts.index.chain.MonotoneChainBuilder;
+import org.locationtech.jts.index.chain.MonotoneChainOverlapAction;
+import org.locationtech.jts.index.strtree.STRtree;
+
+/**
+ * Nodes a set of {@link NodedSegmentString}s
+ * using an index of {@link MonotoneChain}s,
+ * computing the chain overlap tests in parallel
+ * using a {@link ForkJoinPool}.
+ * The nodes computed are the same as those computed by
+ * an {@link MCIndexNoder} using an {@link IntersectionAdder}.
+ * <p>
+ * The monotone chains are partitioned into ranges,
+ * and each range is queried against the shared chain index by a separate task.
+ * Each task records the intersections it finds through its own
+ * {@link SegmentIntersector}, so no state is shared between tasks.
+ * Once all tasks are complete the recorded intersections are added
+ * to the {@link SegmentNodeList}s of the segment strings in chain order,
+ * so the noding is deterministic and does not depend on the task scheduling.
+ * <p>
+ * A {@link PrecisionModel} may be provided,
+ * which is used to round the computed intersection points
+ * (as in a {@link LineIntersector}).
+ * <p>
+ * This class can be supplied as the noder for 
+ * {@link org.locationtech.jts.operation.overlayng.OverlayNG#overlay(org.locationtech.jts.geom.Geometry, org.locationtech.jts.geom.Geometry, int, Noder)},
+ * and is used for buffer noding
+ * when a pool is provided by {@link org.locationtech.jts.operation.buffer.BufferParameters#setParallelNoding(ForkJoinPool)}.
+ *
+ * @see MCIndexNoder
+ */
+public class ParallelMCIndexNoder
+    implements Noder
+{
+  /**
+   * The minimum number of chains queried by a task.
+   */
+  private static final int MIN_TASK_CHAINS = 256;
+
+  /**
+   * The number of tasks per thread of the pool,
+   * which allows balancing tasks which take different times.
+   */
+  private static final int TASKS_PER_THREAD = 4;
+
+  private ForkJoinPool pool;
+  private PrecisionModel precisionModel = null;
+  private double overlapTolerance = 0;
+  private Collection nodedSegStrings;
+
+  /**
+   * Creates a new noder which computes the overlaps in a given pool.
+   *
+   * @param pool the pool to compute the chain overlaps in
+   */
+  public ParallelMCIndexNoder(ForkJoinPool pool)
+  {
+    this.pool = pool;
+  }
+
+  /**
+   * Creates a new noder which computes the overlaps in a given pool,
+   * with an overlap tolerance distance to expand intersection tests with.
+   *
+   * @param pool the pool to compute the chain overlaps in
+   * @param overlapTolerance the expansion distance for overlap tests
+   */
+  public ParallelMCIndexNoder(ForkJoinPool pool, double overlapTolerance)
+  {
+    this.pool = pool;
+    this.overlapTolerance = overlapTolerance;
+  }
+
+  /**
+   * Sets the precision model used to round intersection points.
+   * If none is set the intersection points are not rounded.
+   *
+   * @param precisionModel the precision model to use
+   */
+  public void setPrecisionModel(PrecisionModel precisionModel)
+  {
+    this.precisionModel = precisionModel;
+  }
+
+  public Collection getNodedSubstrings()
+  {
+    return NodedSegmentString.getNodedSubstrings(nodedSegStrings);
+  }
+
+  public void computeNodes(Collection inputSegStrings)
+  {
+    this.nodedSegStrings = inputSegStrings;
+
+    List<MonotoneChain> monoChains = new ArrayList<MonotoneChain>();
+    STRtree index = new STRtree();
+    int idCounter = 0;
+    for (Object ss : inputSegStrings) {
+      SegmentString segStr = (SegmentString) ss;
+      List<MonotoneChain> segChains = MonotoneChainBuilder.getChains(segStr.getCoordinates(), segStr);
+      for (MonotoneChain mc : segChains) {
+        mc.setId(idCounter++);
+        index.insert(mc.getEnvelope(overlapTolerance), mc);
+        monoChains.add(mc);
+      }
+    }
+    if (monoChains.isEmpty()) return;
+    index.setParallelBuild(pool);
+    index.build();
+
+    MonotoneChain[] chains = monoChains.toArray(new MonotoneChain[0]);
+    int numTasks = TASKS_PER_THREAD * pool.getParallelism();
+    int taskSize = Math.max(MIN_TASK_CHAINS, (chains.length + numTasks - 1) / numTasks);
+    List<NodeCollector> collectors = pool.invoke(
+        new OverlapTask(chains, index, 0, chains.length, taskSize));
+
+    //-- add the nodes in chain order, independent of the task scheduling
+    for (NodeCollector collector : collectors) {
+      collector.addNodes();
+    }
+  }
+
+  /**
+   * Computes the overlaps of a range of chains with the chains in the index,
+   * splitting the range into subtasks until it is small enough.
+   */
+  private class OverlapTask extends RecursiveTask<List<NodeCollector>> {
+    private MonotoneChain[] chains;
+    private STRtree index;
+    private int start;
+    private int end;
+    private int taskSize;
+
+    OverlapTask(MonotoneChain[] chains, STRtree index, int start, int end, int taskSize) {
+      this.chains = chains;
+      this.index = index;
+      this.start = start;
+      this.end = end;
+      this.taskSize = taskSize;
+    }
+
+    @Override
+    protected List<NodeCollector> compute() {
+      if (end - start > taskSize) {
+        int mid = (start + end) / 2;
+        OverlapTask low = new OverlapTask(chains, index, start, mid, taskSize);
+        OverlapTask high = new OverlapTask(chains, index, mid, end, taskSize);
+        low.fork();
+        List<NodeCollector> result = new ArrayList<NodeCollector>(high.compute());
+        result.addAll(0, low.join());
+        return result;
+      }
+      NodeCollector collector = new NodeCollector(createLineIntersector());
+      final MonotoneChainOverlapAction overlapAction = new MCIndexNoder.SegmentOverlapAction(collector);
+      for (int i = start; i < end; i++) {
+        final MonotoneChain queryChain = chains[i];
+        index.query(queryChain.getEnvelope(overlapTolerance), new ItemVisitor() {
+          public void visitItem(Object item) {
+            MonotoneChain testChain = (MonotoneChain) item;
+            /**
+             * following test makes sure we only compare each pair of chains once
+             * and that we don't compare a chain to itself
+             */
+            if (testChain.getId() > queryChain.getId()) {
+              queryChain.computeOverlaps(testChain, overlapTolerance, overlapAction);
+            }
+          }
+        });
+      }
+      List<NodeCollector> result = new ArrayList<NodeCollector>();
+      result.add(collector);
+      return result;
+    }
+  }
+
+  private LineIntersector createLineIntersector() {
+    LineIntersector li = new RobustLineIntersector();
+    if (precisionModel != null)
+      li.setPrecisionModel(precisionModel);
+    return li;
+  }
+
+  /**
+   * A {@link SegmentIntersector} which records the nodes
+   * which an {@link IntersectionAdder} would add,
+   * so that they can be added later.
+   */
+  private static class NodeCollector
+      implements SegmentIntersector
+  {
+    private LineIntersector li;
+    private List<NodedSegmentString> nodeSegStrings = new ArrayList<NodedSegmentString>();
+    private List<Coordinate> nodePts = new ArrayList<Coordinate>();
+    private int[] nodeSegIndex = new int[16];
+
+    NodeCollector(LineIntersector li)
+    {
+      this.li = li;
+    }
+
+    public void processIntersections(SegmentString e0, int segIndex0, SegmentString e1, int segIndex1)
+    {
+      if (e0 == e1 && segIndex0 == segIndex1) return;
+      li.computeIntersection(e0.getCoordinate(segIndex0), e0.getCoordinate(segIndex0 + 1),
+          e1.getCoordinate(segIndex1), e1.getCoordinate(segIndex1 + 1));
+      if (! li.hasIntersection()) return;
+      if (isTrivialIntersection(e0, segIndex0, e1, segIndex1)) return;
+      for (int i = 0; i < li.getIntersectionNum(); i++) {
+        addNode((NodedSegmentString) e0, segIndex0, li.getIntersection(i));
+      }
+      for (int i = 0; i < li.getIntersectionNum(); i++) {
+        addNode((NodedSegmentString) e1, segIndex1, li.getIntersection(i));
+      }
+    }
+
+    /**
+     * Tests if an intersection is only the shared endpoint of adjacent segments
+     * (as in {@link IntersectionAdder}).
+     */
+    private boolean isTrivialIntersection(SegmentString e0, int segIndex0, SegmentString e1, int segIndex1)
+    {
+      if (e0 != e1) return false;
+      if (li.getIntersectionNum() != 1) return false;
+      if (IntersectionAdder.isAdjacentSegments(segIndex0, segIndex1))
+        return true;
+      if (e0.isClosed()) {
+        int maxSegIndex = e0.size() - 1;
+        if ((segIndex0 == 0 && segIndex1 == maxSegIndex)
+            || (segIndex1 == 0 && segIndex0 == maxSegIndex)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private void addNode(NodedSegmentString ss, int segIndex, Coordinate intPt)
+    {
+      int n = nodePts.size();
+      if (n == nodeSegIndex.length) {
+        int[] grown = new int[2 * n];
+        System.arraycopy(nodeSegIndex, 0, grown, 0, n);
+        nodeSegIndex = grown;
+      }
+      nodeSegStrings.add(ss);
+      nodePts.add(intPt.copy());
+      nodeSegIndex[n] = segIndex;
+    }
+
+    /**
+     * Adds the recorded nodes to their segment strings.
+     */
+    void addNodes()
+    {
+      for (int i = 0; i < nodePts.size(); i++) {
+        nodeSegStrings.get(i).addIntersection(nodePts.get(i), nodeSegIndex[i]);
+      }
+    }
+
+    public boolean isDone() { return false; }
+  }
+}
@@ -27,16 +27,31 @@ import org.locationtech.jts.util.Assert;
 /**
  * A list of the {@link SegmentNode}s present along a noded {@link SegmentString}.
  *
+ * @see PackedSegmentNodeList
  * @version 1.7
  */
 public class SegmentNodeList
 {
-  private Map nodeMap = new TreeMap();
+  private Map nodeMap;
   private NodedSegmentString edge;  // the parent edge
 
   public SegmentNodeList(NodedSegmentString edge)
+  {
+    this(edge, new TreeMap());
+  }
+
+  /**
+   * Creates a list which stores its nodes in the given map.
+   * The map is <code>null</code> for subclasses which store the nodes themselves
+   * (and so override every method which accesses the map).
+   *
+   * @param edge the parent edge
+   * @param nodeMap the map of nodes, or null
+   */
+  SegmentNodeList(NodedSegmentString edge, Map nodeMap)
   {
     this.edge = edge;
+    this.nodeMap = nodeMap;
   }
 
   /**
@@ -73,6 +88,16 @@ public class SegmentNodeList
     return eiNew;
   }
 
+  /**
+   * Adds an intersection into the list, if it isn't already there.
+   * This is used when the node is not required by the caller,
+   * which allows subclasses to avoid creating it.
+   */
+  void addNode(Coordinate intPt, int segmentIndex)
+  {
+    add(intPt, segmentIndex);
+  }
+
   /**
    * returns an iterator of SegmentNodes
    */
@@ -37,12 +37,26 @@ public class SegmentPointComparator {
    * 1 node1 occurs first
    */
   public static int compare(int octant, Coordinate p0, Coordinate p1)
+  {
+    return compare(octant, p0.x, p0.y, p1.x, p1.y);
+  }
+
+  /**
+   * Compares two points given by their ordinates
+   * for their relative position along a segment
+   * lying in the specified {@link Octant}.
+   *
+   * @return -1 node0 occurs first;
+   * 0 the two nodes are equal;
+   * 1 node1 occurs first
+   */
+  public static int compare(int octant, double x0, double y0, double x1, double y1)
   {
     // nodes can only be equal if their coordinates are equal
-    if (p0.equals2D(p1)) return 0;
+    if (x0 == x1 && y0 == y1) return 0;
 
-    int xSign = relativeSign(p0.x, p1.x);
-    int ySign = relativeSign(p0.y, p1.y);
+    int xSign = relativeSign(x0, x1);
+    int ySign = relativeSign(y0, y1);
 
     switch (octant) {
       case 0: return compareValue(xSign, ySign);
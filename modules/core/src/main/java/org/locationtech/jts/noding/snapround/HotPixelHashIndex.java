@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.noding.snapround;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.PrecisionModel;
+
+/**
+ * A {@link HotPixelIndex} which stores the {@link HotPixel}s
+ * in an open-addressing hash table keyed by the integer grid position
+ * of the pixel centre (the centre ordinates multiplied by the scale factor).
+ * Since hot pixels are centred on the precision model grid,
+ * finding the pixel for a point takes constant time,
+ * and the points do not need to be shuffled as they do for a KD-tree.
+ * <p>
+ * A segment query visits the grid cells along the segment,
+ * expanded by a cell on each side so that all pixels
+ * which may intersect the segment are visited.
+ * If that is more cells than there are pixels in the index
+ * (or the grid positions are too large to enumerate exactly),
+ * all pixels are scanned instead.
+ */
+class HotPixelHashIndex extends HotPixelIndex {
+
+  private static final int INIT_CAPACITY = 64;
+
+  /**
+   * Grid positions larger than this cannot be enumerated reliably
+   * in double precision.
+   */
+  private static final double MAX_GRID_VALUE = 1L << 52;
+
+  private int size = 0;
+  private long[] keyX = new long[INIT_CAPACITY];
+  private long[] keyY = new long[INIT_CAPACITY];
+  private HotPixel[] pixels = new HotPixel[INIT_CAPACITY];
+
+  public HotPixelHashIndex(PrecisionModel pm) {
+    super(pm);
+  }
+
+  /**
+   * Adds a list of points as non-node pixels.
+   * The points are not shuffled, since the hash table does not need balancing.
+   *
+   * @param pts the points to add
+   */
+  @Override
+  public void add(Coordinate[] pts) {
+    for (Coordinate pt : pts) {
+      add(pt);
+    }
+  }
+
+  /**
+   * Adds a point as a Hot Pixel.
+   * If the point has been added already, it is marked as a node.
+   *
+   * @param p the point to add
+   * @return the HotPixel for the point
+   */
+  @Override
+  public HotPixel add(Coordinate p) {
+    Coordinate pRound = round(p);
+    long kx = gridKey(pRound.getX());
+    long ky = gridKey(pRound.getY());
+
+    int mask = pixels.length - 1;
+    int i = hash(kx, ky) & mask;
+    while (pixels[i] != null) {
+      /**
+       * Hot Pixels which are added more than once
+       * must have more than one vertex in them
+       * and thus must be nodes.
+       */
+      if (keyX[i] == kx && keyY[i] == ky
+          && pixels[i].getCoordinate().equals2D(pRound)) {
+        pixels[i].setToNode();
+        return pixels[i];
+      }
+      i = (i + 1) & mask;
+    }
+
+    HotPixel hp = new HotPixel(pRound, scaleFactor);
+    keyX[i] = kx;
+    keyY[i] = ky;
+    pixels[i] = hp;
+    size++;
+    // keep the load factor at most 1/2
+    if (2 * size > pixels.length) {
+      resize();
+    }
+    return hp;
+  }
+
+  private void resize() {
+    long[] oldKeyX = keyX;
+    long[] oldKeyY = keyY;
+    HotPixel[] oldPixels = pixels;
+    int capacity = 2 * oldPixels.length;
+    keyX = new long[capacity];
+    keyY = new long[capacity];
+    pixels = new HotPixel[capacity];
+    int mask = capacity - 1;
+    for (int j = 0; j < oldPixels.length; j++) {
+      if (oldPixels[j] == null) continue;
+      int i = hash(oldKeyX[j], oldKeyY[j]) & mask;
+      while (pixels[i] != null) {
+        i = (i + 1) & mask;
+      }
+      keyX[i] = oldKeyX[j];
+      keyY[i] = oldKeyY[j];
+      pixels[i] = oldPixels[j];
+    }
+  }
+
+  /**
+   * Visits the pixel in a grid cell, if there is one.
+   */
+  private void visitCell(long kx, long ky, HotPixelVisitor visitor) {
+    int mask = pixels.length - 1;
+    int i = hash(kx, ky) & mask;
+    while (pixels[i] != null) {
+      if (keyX[i] == kx && keyY[i] == ky) {
+        visitor.visit(pixels[i]);
+        return;
+      }
+      i = (i + 1) & mask;
+    }
+  }
+
+  /**
+   * Visits all the hot pixels which may intersect a segment (p0-p1).
+   * The visitor must determine whether each hot pixel actually intersects
+   * the segment.
+   *
+   * @param p0 the segment start point
+   * @param p1 the segment end point
+   * @param visitor the visitor to apply
+   */
+  @Override
+  public void query(Coordinate p0, Coordinate p1, HotPixelVisitor visitor) {
+    if (size == 0) return;
+
+    // segment ordinates in grid units
+    double x0 = p0.getX() * scaleFactor;
+    double y0 = p0.getY() * scaleFactor;
+    double x1 = p1.getX() * scaleFactor;
+    double y1 = p1.getY() * scaleFactor;
+
+    double dx = Math.abs(x1 - x0);
+    double dy = Math.abs(y1 - y0);
+    // bound on the number of cells visited along the segment
+    double numCells = 6 * (Math.max(dx, dy) + 4);
+    if (numCells > size || ! isEnumerable(x0, y0) || ! isEnumerable(x1, y1)) {
+      queryAll(x0, y0, x1, y1, visitor);
+      return;
+    }
+    if (dx >= dy) {
+      queryColumns(x0, y0, x1, y1, false, visitor);
+    }
+    else {
+      queryColumns(y0, x0, y1, x1, true, visitor);
+    }
+  }
+
+  /**
+   * Visits the cells along a segment, column by column in the major axis direction.
+   * The ordinates are in grid units, with the major axis ordinate given first.
+   *
+   * @param isSwapped true if the major axis is Y
+   */
+  private void queryColumns(double a0, double b0, double a1, double b1,
+      boolean isSwapped, HotPixelVisitor visitor) {
+    if (a1 < a0) {
+      double t = a0; a0 = a1; a1 = t;
+      t = b0; b0 = b1; b1 = t;
+    }
+    double slope = a1 > a0 ? (b1 - b0) / (a1 - a0) : 0.0;
+    long aMin = (long) Math.floor(a0) - 1;
+    long aMax = (long) Math.ceil(a1) + 1;
+    for (long a = aMin; a <= aMax; a++) {
+      // the minor ordinate range of the segment within a column of the pixel centre
+      double aLo = Math.max(a0, a - 1);
+      double aHi = Math.min(a1, a + 1);
+      if (aLo > aHi) {
+        // column is beyond an end of the segment
+        aLo = aHi = (a < a0) ? a0 : a1;
+      }
+      double bLo = b0 + (aLo - a0) * slope;
+      double bHi = b0 + (aHi - a0) * slope;
+      if (bLo > bHi) {
+        double t = bLo; bLo = bHi; bHi = t;
+      }
+      long bMin = (long) Math.floor(bLo) - 1;
+      long bMax = (long) Math.ceil(bHi) + 1;
+      for (long b = bMin; b <= bMax; b++) {
+        if (isSwapped)
+          visitCell(b, a, visitor);
+        else
+          visitCell(a, b, visitor);
+      }
+    }
+  }
+
+  /**
+   * Visits all pixels whose centres lie within the segment envelope
+   * expanded by one pixel.
+   */
+  private void queryAll(double x0, double y0, double x1, double y1, HotPixelVisitor visitor) {
+    double minX = Math.min(x0, x1) - 1;
+    double maxX = Math.max(x0, x1) + 1;
+    double minY = Math.min(y0, y1) - 1;
+    double maxY = Math.max(y0, y1) + 1;
+    for (int i = 0; i < pixels.length; i++) {
+      HotPixel hp = pixels[i];
+      if (hp == null) continue;
+      double x = hp.getCoordinate().getX() * scaleFactor;
+      double y = hp.getCoordinate().getY() * scaleFactor;
+      if (x < minX || x > maxX || y < minY || y > maxY) continue;
+      visitor.visit(hp);
+    }
+  }
+
+  private static boolean isEnumerable(double x, double y) {
+    return Math.abs(x) < MAX_GRID_VALUE && Math.abs(y) < MAX_GRID_VALUE;
+  }
+
+  private long gridKey(double ord) {
+    return Math.round(ord * scaleFactor);
+  }
+
+  private static int hash(long kx, long ky) {
+    long h = kx * 0x9E3779B97F4A7C15L + ky * 0xC2B2AE3D27D4EB4FL;
+    return (int) (h ^ (h >>> 32));
+  }
+}
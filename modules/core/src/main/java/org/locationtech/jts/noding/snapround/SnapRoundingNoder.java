@@ -18,11 +18,10 @@ import java.util.List;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.CoordinateList;
 import org.locationtech.jts.geom.PrecisionModel;
-import org.locationtech.jts.index.kdtree.KdNode;
-import org.locationtech.jts.index.kdtree.KdNodeVisitor;
 import org.locationtech.jts.noding.MCIndexNoder;
 import org.locationtech.jts.noding.NodedSegmentString;
 import org.locationtech.jts.noding.Noder;
+import org.locationtech.jts.noding.PackedSegmentNodeList;
 import org.locationtech.jts.noding.SegmentString;
 
 /**
@@ -67,10 +66,40 @@ public class SnapRoundingNoder
   private final HotPixelIndex pixelIndex;
   
   private List<NodedSegmentString> snappedResult;
+  private boolean isPackedNodeList = false;
 
   public SnapRoundingNoder(PrecisionModel pm) {
+    this(pm, false);
+  }
+
+  /**
+   * Creates a noder for a precision model,
+   * optionally indexing the hot pixels in a hash table
+   * keyed by their integer grid position
+   * rather than in a KD-tree.
+   * The hash index provides constant-time lookup of pixels
+   * and uses less memory.
+   * The noding computed is the same in either case.
+   *
+   * @param pm the precision model to round to
+   * @param isHashIndex true if the hot pixels are indexed in a hash table
+   */
+  public SnapRoundingNoder(PrecisionModel pm, boolean isHashIndex) {
     this.pm = pm;
-    pixelIndex = new HotPixelIndex(pm);
+    pixelIndex = isHashIndex ? new HotPixelHashIndex(pm) : new HotPixelKdTreeIndex(pm);
+  }
+
+  /**
+   * Sets whether the snapped segment strings store their nodes
+   * in a {@link PackedSegmentNodeList}.
+   * This reduces the objects allocated when snapping creates many nodes.
+   * The noded substrings are the same in either case.
+   * The default is to use a {@link org.locationtech.jts.noding.SegmentNodeList}.
+   *
+   * @param isPackedNodeList true if the snapped segment strings use a packed node list
+   */
+  public void setPackedNodeList(boolean isPackedNodeList) {
+    this.isPackedNodeList = isPackedNodeList;
   }
 
   /**
@@ -217,7 +246,7 @@ public class SnapRoundingNoder
       return null;
     
     // Create new nodedSS to allow adding any hot pixel nodes
-    NodedSegmentString snapSS = new NodedSegmentString(ptsRound, ss.getData());
+    NodedSegmentString snapSS = new NodedSegmentString(ptsRound, ss.getData(), isPackedNodeList);
     
     int snapSSindex = 0;
     for (int i = 0; i < pts.length - 1; i++ ) {
@@ -254,11 +283,10 @@ public class SnapRoundingNoder
    * @param segIndex the index of the segment
    */
   private void snapSegment(Coordinate p0, Coordinate p1, NodedSegmentString ss, int segIndex) {
-    pixelIndex.query(p0, p1, new KdNodeVisitor() {
+    pixelIndex.query(p0, p1, new HotPixelIndex.HotPixelVisitor() {
 
       @Override
-      public void visit(KdNode node) {
-        HotPixel hp = (HotPixel) node.getData();
+      public void visit(HotPixel hp) {
         
         /**
          * If the hot pixel is not a node, and it contains one of the segment vertices,
@@ -301,11 +329,10 @@ public class SnapRoundingNoder
   }
 
   private void snapVertexNode(Coordinate p0, NodedSegmentString ss, int segIndex) {
-    pixelIndex.query(p0, p0, new KdNodeVisitor() {
+    pixelIndex.query(p0, p0, new HotPixelIndex.HotPixelVisitor() {
 
       @Override
-      public void visit(KdNode node) {
-        HotPixel hp = (HotPixel) node.getData();
+      public void visit(HotPixel hp) {
         /**
          * If vertex pixel is a node, add it.
          */
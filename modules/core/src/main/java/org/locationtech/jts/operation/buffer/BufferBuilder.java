@@ -39,6 +39,7 @@ import org.locationtech.jts.noding.FastNodingValidator;
 import org.locationtech.jts.noding.IntersectionAdder;
 import org.locationtech.jts.noding.MCIndexNoder;
 import org.locationtech.jts.noding.Noder;
+import org.locationtech.jts.noding.ParallelMCIndexNoder;
 import org.locationtech.jts.noding.SegmentString;
 import org.locationtech.jts.operation.overlay.OverlayNodeFactory;
 import org.locationtech.jts.operation.overlay.PolygonBuilder;
@@ -188,6 +189,12 @@ class BufferBuilder
   {
     if (workingNoder != null) return workingNoder;
 
+    if (bufParams.getParallelNoding() != null) {
+      ParallelMCIndexNoder noder = new ParallelMCIndexNoder(bufParams.getParallelNoding());
+      noder.setPrecisionModel(precisionModel);
+      return noder;
+    }
+
     // otherwise use a fast (but non-robust) noder
     MCIndexNoder noder = new MCIndexNoder();
     LineIntersector li = new RobustLineIntersector();
@@ -15,12 +15,14 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.locationtech.jts.algorithm.distance.LocalLonLatDistance;
+import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.Polygon;
 import org.locationtech.jts.geom.PrecisionModel;
 import org.locationtech.jts.geom.TopologyException;
+import org.locationtech.jts.geom.util.AffineTransformation;
 import org.locationtech.jts.math.MathUtil;
 import org.locationtech.jts.noding.Noder;
 import org.locationtech.jts.noding.ScaledNoder;
@@ -72,6 +74,11 @@ import org.locationtech.jts.noding.snapround.SnapRoundingNoder;
  * Note that if the buffer distance is zero then so is the computed simplify tolerance, 
  * no matter what the simplify factor.
  * <p>
+ * For geometries with a geographic (lon/lat) factory the buffer distance is in metres.
+ * It is converted to degrees at the maximum latitude of the geometry,
+ * or the geometry is buffered in a local projection
+ * if {@link BufferParameters#setLocalProjection(boolean)} is set.
+ * <p>
  * Buffer results are always valid geometry.
  * Given this, computing a zero-width buffer of an invalid polygonal geometry is
  * an effective way to "validify" the geometry.
@@ -364,6 +371,10 @@ public class BufferOp
    */
   public Geometry getResultGeometry(double distance)
   {
+    if(argGeom.getFactory().isGeoCoordSys() && bufParams.isLocalProjection()
+        && ! argGeom.isEmpty()) {
+      return bufferLocalProjection(distance);
+    }
     if(argGeom.getFactory().isGeoCoordSys()) {
       double distRad = LocalLonLatDistance.distanceToRadians(distance);
       double maxYRad = Math.toRadians(this.argGeom.getEnvelopeInternal().getMaxY());
@@ -377,6 +388,46 @@ public class BufferOp
     return resultGeometry;
   }
 
+  /**
+   * Limits the latitude of the projection centre,
+   * to keep the longitude scale factor away from zero.
+   */
+  private static final double MAX_PROJECTION_LAT = 89.0;
+
+  /**
+   * Buffers a geographic geometry in an equirectangular projection
+   * centred on the geometry, and transforms the result back to lon/lat.
+   * The projected units are degrees of latitude,
+   * so the precision used for robustness is similar to that of the input.
+   * The projection centre is moved to the origin,
+   * where the lon/lat distance functions used in the buffer computation
+   * have the same scale on both axes.
+   *
+   * @param distance the buffer distance in metres
+   * @return the buffer of the input geometry
+   */
+  private Geometry bufferLocalProjection(double distance)
+  {
+    Coordinate centre = argGeom.getEnvelopeInternal().centre();
+    double lon0 = centre.getX();
+    double lat0 = centre.getY();
+    lat0 = Math.max(-MAX_PROJECTION_LAT, Math.min(MAX_PROJECTION_LAT, lat0));
+    double scaleLon = LocalLonLatDistance.scaleLonRAD(Math.toRadians(lat0));
+
+    Geometry geom = argGeom;
+    argGeom = geom.copy();
+    argGeom.apply(new AffineTransformation(scaleLon, 0, -scaleLon * lon0, 0, 1, -lat0));
+    this.distance = Math.toDegrees(LocalLonLatDistance.distanceToRadians(distance));
+    try {
+      computeGeometry();
+    }
+    finally {
+      argGeom = geom;
+    }
+    resultGeometry.apply(new AffineTransformation(1 / scaleLon, 0, lon0, 0, 1, lat0));
+    return resultGeometry;
+  }
+
   private void computeGeometry()
   {
     bufferOriginalPrecision();
@@ -11,6 +11,10 @@
  */
 package org.locationtech.jts.operation.buffer;
 
+import java.util.concurrent.ForkJoinPool;
+
+import org.locationtech.jts.noding.ParallelMCIndexNoder;
+
 /**
  * A value class containing the parameters which 
  * specify how a buffer should be constructed.
@@ -22,6 +26,7 @@ package org.locationtech.jts.operation.buffer;
  * <li>Join style
  * <li>Mitre limit
  * <li>whether the buffer is single-sided
+ * <li>the pool used to node the buffer curves in parallel, if any
  * </ul>
  * 
  * @author Martin Davis
@@ -82,6 +87,8 @@ public class BufferParameters
   private double mitreLimit = DEFAULT_MITRE_LIMIT;
   private boolean isSingleSided = false;
   private double simplifyFactor = DEFAULT_SIMPLIFY_FACTOR;
+  private ForkJoinPool nodingPool = null;
+  private boolean isLocalProjection = false;
   
   /**
    * Creates a default set of parameters
@@ -309,12 +316,71 @@ public class BufferParameters
     this.simplifyFactor = simplifyFactor < 0 ? 0 : simplifyFactor;
   }
   
+  /**
+   * Gets the pool used to node the buffer curves in parallel.
+   * 
+   * @return the noding pool, or null if noding is sequential
+   */
+  public ForkJoinPool getParallelNoding() {
+    return nodingPool;
+  }
+  
+  /**
+   * Sets the pool used to node the buffer curves in parallel
+   * with a {@link ParallelMCIndexNoder}.
+   * This applies when the buffer is computed in floating precision
+   * (i.e. unless a fixed precision is needed to compute a robust result).
+   * If the pool is null (the default) the curves are noded sequentially.
+   * 
+   * @param pool the pool to use, or null
+   */
+  public void setParallelNoding(ForkJoinPool pool)
+  {
+    this.nodingPool = pool;
+  }
+  
+  /**
+   * Tests whether geographic geometries are buffered in a local projection.
+   * 
+   * @return true if geographic geometries are buffered in a local projection
+   */
+  public boolean isLocalProjection() {
+    return isLocalProjection;
+  }
+  
+  /**
+   * Sets whether geometries with a geographic (lon/lat) factory
+   * are buffered in a local equirectangular projection.
+   * <p>
+   * By default the distance (in metres) is converted to a single distance in degrees
+   * of longitude at the maximum latitude of the geometry,
+   * which over-buffers in the north-south direction
+   * (increasingly so at higher latitudes).
+   * In a local projection the longitudes are scaled by the cosine
+   * of the latitude at the centre of the geometry,
+   * so that the buffer distance is the same in all directions.
+   * The error increases with the latitude extent of the geometry,
+   * so large collections are buffered more accurately 
+   * by buffering the components in separate projections
+   * (e.g. with {@link CollectionBufferOp}).
+   * <p>
+   * This has no effect for geometries with a planar factory.
+   * 
+   * @param isLocalProjection true if geographic geometries should be buffered in a local projection
+   */
+  public void setLocalProjection(boolean isLocalProjection)
+  {
+    this.isLocalProjection = isLocalProjection;
+  }
+  
   public BufferParameters copy() {
     BufferParameters bp = new BufferParameters();
     bp.quadrantSegments = quadrantSegments;
     bp.endCapStyle = endCapStyle;
     bp.joinStyle = joinStyle;
     bp.mitreLimit = mitreLimit;
+    bp.nodingPool = nodingPool;
+    bp.isLocalProjection = isLocalProjection;
     return bp;
   }
 }
@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.operation.buffer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.operation.overlayng.OverlayNG;
+import org.locationtech.jts.operation.overlayng.OverlayNGRobust;
+import org.locationtech.jts.operation.union.CascadedPolygonUnion;
+
+/**
+ * Computes the buffer of a collection of geometries
+ * by buffering the components independently
+ * and merging the component buffers incrementally.
+ * This allows buffering very large collections
+ * (or streams of geometries which are never held in memory in full)
+ * with bounded memory, and in parallel using a {@link ForkJoinPool}
+ * (see {@link #setParallelBuffer(ForkJoinPool)}).
+ * <p>
+ * The components are read in batches.
+ * The components of a batch are buffered using {@link BufferOp}
+ * and unioned using {@link CascadedPolygonUnion}.
+ * The batch results are merged as they complete using {@link OverlayNGRobust} union,
+ * in a balanced binary tree of merges,
+ * so that at most a logarithmic number of partial results is held.
+ * The number of batches and merges in progress is bounded,
+ * so the input is read at the rate the results are computed.
+ * The merges are performed in the same order whether or not a pool is used,
+ * so the result does not depend on the parallelism.
+ * <p>
+ * Since each component is buffered by a separate {@link BufferOp},
+ * a distance given for geometries with a geographic factory
+ * is converted to degrees for the latitude of each component
+ * (rather than for the whole collection).
+ * <p>
+ * For positive distances the result is the same as the buffer of the whole collection
+ * (up to the noding of the unions).
+ * For negative distances the components are eroded independently,
+ * which is the same only if their interiors are disjoint and they are not adjacent.
+ *
+ * @see BufferOp
+ */
+public class CollectionBufferOp {
+
+  /**
+   * The default number of components buffered in a batch.
+   */
+  public static final int DEFAULT_BATCH_SIZE = 64;
+
+  /**
+   * Computes the buffer of the components of a geometry.
+   *
+   * @param geom the geometry to buffer
+   * @param distance the buffer distance
+   * @param pool the pool to compute the buffer in, or null to compute it sequentially
+   * @return the buffer of the geometry
+   */
+  public static Geometry buffer(Geometry geom, double distance, ForkJoinPool pool) {
+    CollectionBufferOp op = new CollectionBufferOp(new BufferParameters());
+    op.setParallelBuffer(pool);
+    return op.buffer(geom, distance);
+  }
+
+  private BufferParameters bufParams;
+  private ForkJoinPool pool = null;
+  private int batchSize = DEFAULT_BATCH_SIZE;
+
+  /**
+   * Creates an operation which buffers with the default parameters.
+   */
+  public CollectionBufferOp() {
+    this(new BufferParameters());
+  }
+
+  /**
+   * Creates an operation which buffers with the given parameters.
+   *
+   * @param bufParams the buffer parameters to use
+   */
+  public CollectionBufferOp(BufferParameters bufParams) {
+    this.bufParams = bufParams;
+  }
+
+  /**
+   * Sets the pool used to buffer and merge the batches of components in parallel.
+   * If the pool is null (the default) the buffer is computed sequentially
+   * in the calling thread.
+   *
+   * @param pool the pool to use, or null
+   */
+  public void setParallelBuffer(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  /**
+   * Sets the number of components which are buffered and unioned as a batch.
+   * In parallel mode a batch is the unit of work submitted to the pool.
+   *
+   * @param batchSize the batch size
+   */
+  public void setBatchSize(int batchSize) {
+    if (batchSize <= 0)
+      throw new IllegalArgumentException("Batch size must be positive");
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * Computes the buffer of the components of a geometry.
+   *
+   * @param geom the geometry to buffer
+   * @param distance the buffer distance
+   * @return the buffer of the geometry
+   */
+  public Geometry buffer(final Geometry geom, double distance) {
+    Iterable<Geometry> components = new Iterable<Geometry>() {
+      public Iterator<Geometry> iterator() {
+        return new Iterator<Geometry>() {
+          private int i = 0;
+
+          public boolean hasNext() {
+            return i < geom.getNumGeometries();
+          }
+
+          public Geometry next() {
+            return geom.getGeometryN(i++);
+          }
+
+          public void remove() {
+            throw new UnsupportedOperationException();
+          }
+        };
+      }
+    };
+    return buffer(components, distance, geom.getFactory());
+  }
+
+  /**
+   * Computes the buffer of a set of geometries.
+   * The geometries are read from the iterator as they are needed.
+   *
+   * @param geoms the geometries to buffer
+   * @param distance the buffer distance
+   * @param geomFact the factory used to create an empty result
+   * @return the buffer of the geometries
+   */
+  public Geometry buffer(Iterable<? extends Geometry> geoms, double distance, GeometryFactory geomFact) {
+    // bound the tasks in progress, so the input is consumed
+    // at the rate the pool can compute the buffers
+    int maxPending = pool == null ? 1 : 2 * pool.getParallelism();
+    ArrayDeque<ForkJoinTask<Geometry>> pending = new ArrayDeque<ForkJoinTask<Geometry>>();
+    // the partial results, with the number of batches merged in each
+    List<ForkJoinTask<Geometry>> mergeStack = new ArrayList<ForkJoinTask<Geometry>>();
+    List<Integer> mergeLevel = new ArrayList<Integer>();
+    try {
+      Iterator<? extends Geometry> it = geoms.iterator();
+      while (it.hasNext()) {
+        List<Geometry> batch = new ArrayList<Geometry>(batchSize);
+        while (batch.size() < batchSize && it.hasNext()) {
+          batch.add(it.next());
+        }
+        mergeStack.add(start(new BufferBatch(batch, distance), pending, maxPending));
+        mergeLevel.add(0);
+        // merge partial results of the same level, to keep the merge tree balanced
+        int n = mergeStack.size();
+        while (n >= 2 && mergeLevel.get(n - 1).equals(mergeLevel.get(n - 2))) {
+          int level = mergeLevel.get(n - 1);
+          mergeTop(mergeStack, mergeLevel, level + 1, pending, maxPending);
+          n--;
+        }
+      }
+      while (mergeStack.size() >= 2) {
+        mergeTop(mergeStack, mergeLevel, 0, pending, maxPending);
+      }
+      Geometry result = mergeStack.isEmpty() ? null : mergeStack.get(0).join();
+      if (result == null)
+        return geomFact.createPolygon();
+      return result;
+    }
+    finally {
+      // if the buffer failed, don't leave tasks running
+      for (ForkJoinTask<Geometry> task : pending) {
+        task.cancel(false);
+      }
+    }
+  }
+
+  private void mergeTop(List<ForkJoinTask<Geometry>> mergeStack, List<Integer> mergeLevel, int level,
+      ArrayDeque<ForkJoinTask<Geometry>> pending, int maxPending) {
+    int n = mergeStack.size();
+    ForkJoinTask<Geometry> merge = start(new MergeTask(mergeStack.get(n - 2), mergeStack.get(n - 1)),
+        pending, maxPending);
+    mergeStack.remove(n - 1);
+    mergeLevel.remove(n - 1);
+    mergeStack.set(n - 2, merge);
+    mergeLevel.set(n - 2, level);
+  }
+
+  /**
+   * Starts a task, in the pool if there is one
+   * or otherwise by computing it immediately.
+   */
+  private ForkJoinTask<Geometry> start(ForkJoinTask<Geometry> task,
+      ArrayDeque<ForkJoinTask<Geometry>> pending, int maxPending) {
+    if (pool == null) {
+      task.invoke();
+      return task;
+    }
+    while (! pending.isEmpty() && pending.peekFirst().isDone()) {
+      pending.removeFirst().join();
+    }
+    if (pending.size() >= maxPending) {
+      pending.removeFirst().join();
+    }
+    pending.addLast(pool.submit(task));
+    return task;
+  }
+
+  /**
+   * Buffers a batch of components and unions the buffers.
+   * The result is null if the buffers are all empty.
+   */
+  private class BufferBatch extends RecursiveTask<Geometry> {
+    private List<Geometry> geoms;
+    private double distance;
+
+    BufferBatch(List<Geometry> geoms, double distance) {
+      this.geoms = geoms;
+      this.distance = distance;
+    }
+
+    @Override
+    protected Geometry compute() {
+      List<Geometry> buffers = new ArrayList<Geometry>();
+      for (Geometry geom : geoms) {
+        Geometry buf = BufferOp.bufferOp(geom, distance, bufParams);
+        if (! buf.isEmpty())
+          buffers.add(buf);
+      }
+      // release the input for collection
+      geoms = null;
+      return CascadedPolygonUnion.union(buffers);
+    }
+  }
+
+  /**
+   * Unions two partial results.
+   */
+  private static class MergeTask extends RecursiveTask<Geometry> {
+    private ForkJoinTask<Geometry> task0;
+    private ForkJoinTask<Geometry> task1;
+
+    MergeTask(ForkJoinTask<Geometry> task0, ForkJoinTask<Geometry> task1) {
+      this.task0 = task0;
+      this.task1 = task1;
+    }
+
+    @Override
+    protected Geometry compute() {
+      Geometry geom0 = task0.join();
+      Geometry geom1 = task1.join();
+      // release the partial results for collection
+      task0 = null;
+      task1 = null;
+      if (geom0 == null) return geom1;
+      if (geom1 == null) return geom0;
+      return OverlayNGRobust.overlay(geom0, geom1, OverlayNG.UNION);
+    }
+  }
+}
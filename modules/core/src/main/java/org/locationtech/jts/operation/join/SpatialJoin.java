@@ -0,0 +1,361 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.operation.join;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.index.ItemPairVisitor;
+import org.locationtech.jts.index.ProbeItemVisitor;
+import org.locationtech.jts.index.hprtree.HPRtree;
+
+/**
+ * Computes the pairs of geometries from two sets of geometries
+ * which satisfy a spatial predicate,
+ * and passes them to an {@link ItemPairVisitor}.
+ * The supported predicates are {@link #INTERSECTS}, {@link #CONTAINS},
+ * {@link #WITHIN} and {@link #DWITHIN} (is within a given distance).
+ * <p>
+ * One set of geometries is loaded into an {@link HPRtree}.
+ * The other set is streamed through the index in batches,
+ * so it is never held in memory in full and may be arbitrarily large.
+ * If both sets are {@link Collection}s the smaller one is indexed;
+ * if only one is a Collection it is indexed;
+ * otherwise the second set is indexed.
+ * The indexed geometries are prepared (see {@link PreparedGeometry})
+ * the first time they are a candidate for a streamed geometry,
+ * so geometries which do not match any envelope are never prepared.
+ * <p>
+ * The batches can be evaluated in parallel using a {@link ForkJoinPool}
+ * (see {@link #setParallelJoin(ForkJoinPool)}).
+ * The number of batches submitted to the pool at any time is bounded,
+ * so the streamed set is still not loaded into memory.
+ * In this case the visitor is called concurrently from the pool threads,
+ * and must be thread-safe.
+ * <p>
+ * The pairs are visited in no particular order.
+ * Each pair is visited once, with the geometry from the first set
+ * as the first item.
+ * Empty geometries do not match any other geometry.
+ *
+ * @see PreparedGeometry
+ */
+public class SpatialJoin {
+
+  /**
+   * The predicate code for geometries which intersect.
+   */
+  public static final int INTERSECTS = 1;
+
+  /**
+   * The predicate code for a first geometry which contains the second.
+   */
+  public static final int CONTAINS = 2;
+
+  /**
+   * The predicate code for a first geometry which is within the second.
+   */
+  public static final int WITHIN = 3;
+
+  /**
+   * The predicate code for geometries which are within a given distance.
+   */
+  public static final int DWITHIN = 4;
+
+  /**
+   * The default number of streamed geometries in a batch.
+   */
+  public static final int DEFAULT_BATCH_SIZE = 1024;
+
+  /**
+   * Visits the pairs of geometries from two sets which satisfy a predicate.
+   *
+   * @param geoms1 the first set of geometries
+   * @param geoms2 the second set of geometries
+   * @param predicate the code of the predicate to test (other than {@link #DWITHIN})
+   * @param visitor the visitor for the matching pairs
+   * @param pool the pool to evaluate the join in, or null to evaluate it sequentially
+   */
+  public static void join(Iterable<? extends Geometry> geoms1, Iterable<? extends Geometry> geoms2,
+      int predicate, ItemPairVisitor visitor, ForkJoinPool pool) {
+    SpatialJoin join = new SpatialJoin(predicate);
+    join.setParallelJoin(pool);
+    join.join(geoms1, geoms2, visitor);
+  }
+
+  private int predicate;
+  private double distance = 0.0;
+  private ForkJoinPool pool = null;
+  private int batchSize = DEFAULT_BATCH_SIZE;
+
+  /**
+   * Creates a join for a predicate.
+   * A {@link #DWITHIN} join created this way uses a distance of 0.
+   *
+   * @param predicate the code of the predicate to test
+   */
+  public SpatialJoin(int predicate) {
+    this(predicate, 0.0);
+  }
+
+  /**
+   * Creates a join for a predicate with a distance tolerance.
+   * The distance is used only by the {@link #DWITHIN} predicate.
+   * For geographic coordinates it is in metres
+   * (as for {@link Geometry#isWithinDistance(Geometry, double)}).
+   *
+   * @param predicate the code of the predicate to test
+   * @param distance the distance for the {@link #DWITHIN} predicate
+   */
+  public SpatialJoin(int predicate, double distance) {
+    if (predicate < INTERSECTS || predicate > DWITHIN)
+      throw new IllegalArgumentException("Unknown predicate code: " + predicate);
+    if (distance < 0.0)
+      throw new IllegalArgumentException("Distance must be non-negative");
+    this.predicate = predicate;
+    this.distance = distance;
+  }
+
+  /**
+   * Sets the pool used to evaluate the batches of streamed geometries in parallel.
+   * If the pool is null (the default) the join is evaluated sequentially
+   * in the calling thread.
+   *
+   * @param pool the pool to use, or null
+   */
+  public void setParallelJoin(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  /**
+   * Sets the number of streamed geometries which are
+   * queried against the index as a single batch.
+   * In parallel mode a batch is the unit of work submitted to the pool.
+   *
+   * @param batchSize the batch size
+   */
+  public void setBatchSize(int batchSize) {
+    if (batchSize <= 0)
+      throw new IllegalArgumentException("Batch size must be positive");
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * Visits the pairs of geometries <code>(g1, g2)</code>
+   * with <code>g1</code> from the first set and <code>g2</code> from the second
+   * for which the predicate <code>g1 PRED g2</code> is true.
+   * <p>
+   * If an exception is thrown while evaluating the join in parallel,
+   * it is rethrown in the calling thread.
+   *
+   * @param geoms1 the first set of geometries
+   * @param geoms2 the second set of geometries
+   * @param visitor the visitor for the matching pairs
+   */
+  public void join(Iterable<? extends Geometry> geoms1, Iterable<? extends Geometry> geoms2,
+      ItemPairVisitor visitor) {
+    boolean isIndexFirst = isIndexFirst(geoms1, geoms2);
+    Iterable<? extends Geometry> indexGeoms = isIndexFirst ? geoms1 : geoms2;
+    Iterable<? extends Geometry> streamGeoms = isIndexFirst ? geoms2 : geoms1;
+
+    HPRtree index = buildIndex(indexGeoms);
+    if (index.size() == 0)
+      return;
+
+    Iterator<? extends Geometry> it = streamGeoms.iterator();
+    if (pool == null) {
+      while (it.hasNext()) {
+        Geometry[] batch = nextBatch(it);
+        if (batch != null)
+          new JoinBatch(index, batch, isIndexFirst, visitor).compute();
+      }
+    }
+    else {
+      joinParallel(index, it, isIndexFirst, visitor);
+    }
+  }
+
+  private static boolean isIndexFirst(Iterable<? extends Geometry> geoms1, Iterable<? extends Geometry> geoms2) {
+    if (! (geoms1 instanceof Collection))
+      return false;
+    if (! (geoms2 instanceof Collection))
+      return true;
+    return ((Collection<?>) geoms1).size() < ((Collection<?>) geoms2).size();
+  }
+
+  private static HPRtree buildIndex(Iterable<? extends Geometry> geoms) {
+    HPRtree index = new HPRtree();
+    for (Geometry geom : geoms) {
+      if (geom.isEmpty()) continue;
+      index.insert(geom.getEnvelopeReadOnly(), new IndexedGeometry(geom));
+    }
+    index.build();
+    return index;
+  }
+
+  /**
+   * Reads the next batch of non-empty geometries from the stream.
+   *
+   * @return the batch, or null if the geometries read were all empty
+   */
+  private Geometry[] nextBatch(Iterator<? extends Geometry> it) {
+    Geometry[] batch = new Geometry[batchSize];
+    int n = 0;
+    while (n < batchSize && it.hasNext()) {
+      Geometry geom = it.next();
+      if (geom.isEmpty()) continue;
+      batch[n++] = geom;
+    }
+    if (n == 0) return null;
+    if (n < batchSize) {
+      Geometry[] trimmed = new Geometry[n];
+      System.arraycopy(batch, 0, trimmed, 0, n);
+      return trimmed;
+    }
+    return batch;
+  }
+
+  private void joinParallel(HPRtree index, Iterator<? extends Geometry> it,
+      boolean isIndexFirst, ItemPairVisitor visitor) {
+    // bound the batches in flight, so the stream is consumed
+    // at the rate the pool can evaluate it
+    int maxPending = 2 * pool.getParallelism();
+    ArrayDeque<ForkJoinTask<?>> pending = new ArrayDeque<ForkJoinTask<?>>();
+    try {
+      while (it.hasNext()) {
+        Geometry[] batch = nextBatch(it);
+        if (batch == null) continue;
+        if (pending.size() >= maxPending) {
+          pending.removeFirst().join();
+        }
+        final JoinBatch task = new JoinBatch(index, batch, isIndexFirst, visitor);
+        pending.addLast(pool.submit(new Runnable() {
+          public void run() {
+            task.compute();
+          }
+        }));
+      }
+      while (! pending.isEmpty()) {
+        pending.removeFirst().join();
+      }
+    }
+    finally {
+      // if the join failed, don't leave batches running
+      for (ForkJoinTask<?> task : pending) {
+        task.cancel(false);
+      }
+    }
+  }
+
+  /**
+   * Tests whether the predicate is true for a candidate pair.
+   *
+   * @param indexed the indexed geometry
+   * @param geom the streamed geometry
+   * @param isIndexFirst true if the indexed geometry is from the first set
+   */
+  private boolean isMatch(IndexedGeometry indexed, Geometry geom, boolean isIndexFirst) {
+    Envelope indexEnv = indexed.geom.getEnvelopeReadOnly();
+    Envelope streamEnv = geom.getEnvelopeReadOnly();
+    int pred = predicate;
+    if (! isIndexFirst) {
+      // evaluate the converse predicate
+      if (pred == CONTAINS) pred = WITHIN;
+      else if (pred == WITHIN) pred = CONTAINS;
+    }
+    switch (pred) {
+    case INTERSECTS:
+      return indexed.getPrepared().intersects(geom);
+    case CONTAINS:
+      if (! indexEnv.covers(streamEnv)) return false;
+      return indexed.getPrepared().contains(geom);
+    case WITHIN:
+      if (! streamEnv.covers(indexEnv)) return false;
+      return indexed.getPrepared().within(geom);
+    case DWITHIN:
+      return indexed.getPrepared().isWithinDistance(geom, distance);
+    }
+    return false;
+  }
+
+  /**
+   * Queries a batch of streamed geometries against the index,
+   * and visits the matching pairs.
+   */
+  private class JoinBatch implements ProbeItemVisitor {
+    private HPRtree index;
+    private Geometry[] geoms;
+    private boolean isIndexFirst;
+    private ItemPairVisitor visitor;
+
+    JoinBatch(HPRtree index, Geometry[] geoms, boolean isIndexFirst, ItemPairVisitor visitor) {
+      this.index = index;
+      this.geoms = geoms;
+      this.isIndexFirst = isIndexFirst;
+      this.visitor = visitor;
+    }
+
+    void compute() {
+      Envelope[] envs = new Envelope[geoms.length];
+      for (int i = 0; i < geoms.length; i++) {
+        Envelope env = geoms[i].getEnvelopeReadOnly();
+        if (predicate == DWITHIN && distance > 0.0) {
+          // the distance is in metres for geographic coordinates
+          env = HPRtree.expandByDistance(env, distance);
+        }
+        envs[i] = env;
+      }
+      index.query(envs, this);
+    }
+
+    public void visitItem(int probeIndex, Object item) {
+      IndexedGeometry indexed = (IndexedGeometry) item;
+      Geometry geom = geoms[probeIndex];
+      if (! isMatch(indexed, geom, isIndexFirst))
+        return;
+      if (isIndexFirst)
+        visitor.visitItems(indexed.geom, geom);
+      else
+        visitor.visitItems(geom, indexed.geom);
+    }
+  }
+
+  /**
+   * An indexed geometry, which is prepared when it is first needed.
+   * Concurrent threads may both prepare the geometry,
+   * in which case one of the equivalent prepared geometries is kept.
+   */
+  private static class IndexedGeometry {
+    final Geometry geom;
+    private volatile PreparedGeometry prepGeom;
+
+    IndexedGeometry(Geometry geom) {
+      this.geom = geom;
+    }
+
+    PreparedGeometry getPrepared() {
+      PreparedGeometry prep = prepGeom;
+      if (prep == null) {
+        prep = PreparedGeometryFactory.prepare(geom);
+        prepGeom = prep;
+      }
+      return prep;
+    }
+  }
+}
@@ -134,6 +134,17 @@ class EdgeNodingBuilder {
     limiter = new LineLimiter(clipEnv);
   }
   
+  /**
+   * Adds edges which have been extracted from an input geometry in advance.
+   * The edges must carry an {@link EdgeSourceInfo}
+   * and have no repeated points.
+   * 
+   * @param edges the edges to add
+   */
+  public void addEdges(List<NodedSegmentString> edges) {
+    inputEdges.addAll(edges);
+  }
+  
   /**
    * Reports whether there are noded edges
    * for the given input geometry.
@@ -340,7 +351,7 @@ class EdgeNodingBuilder {
     return CoordinateArrays.removeRepeatedPoints(pts);
   }
   
-  private static int computeDepthDelta(LinearRing ring, boolean isHole) {
+  static int computeDepthDelta(LinearRing ring, boolean isHole) {
     /**
      * Compute the orientation of the ring, to
      * allow assigning side interior/exterior labels correctly.
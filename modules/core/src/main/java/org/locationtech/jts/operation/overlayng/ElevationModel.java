@@ -65,6 +65,21 @@ class ElevationModel {
     return model;
   }
   
+  /**
+   * Creates an elevation model from a geometry,
+   * covering an extent which may be larger than the geometry.
+   * This is used when the other overlay input has no Z values.
+   * 
+   * @param geom an input geometry 
+   * @param extent the extent of the overlay inputs
+   * @return the elevation model computed from the geometry
+   */
+  public static ElevationModel createForExtent(Geometry geom, Envelope extent) {
+    ElevationModel model = new ElevationModel(extent.copy(), DEFAULT_CELL_NUM, DEFAULT_CELL_NUM);
+    model.add(geom);
+    return model;
+  }
+  
   private Envelope extent;
   private int numCellX;
   private int numCellY;
@@ -146,6 +146,23 @@ class InputGeometry {
     } 
   }
 
+  /**
+   * Sets the locator used to determine the location of points
+   * within an area input geometry.
+   * This allows a locator to be reused across overlay operations.
+   * 
+   * @param geomIndex the index of the geometry
+   * @param locator the locator for the geometry
+   */
+  public void setLocator(int geomIndex, PointOnGeometryLocator locator) {
+    if (geomIndex == 0) {
+      ptLocatorA = locator;
+    }
+    else {
+      ptLocatorB = locator;
+    }
+  }
+
   public void setCollapsed(int geomIndex, boolean isGeomCollapsed) {
     isCollapsed[geomIndex] = isGeomCollapsed;
   }
@@ -97,11 +97,25 @@ class OverlayMixedPoints {
     }
   }
   
+  /**
+   * Sets a locator for the non-point input geometry,
+   * to avoid creating one for each overlay.
+   * It is only used if the non-point input is not part of the result
+   * (so it is not rounded and noded).
+   * 
+   * @param locator a locator for the non-point input
+   */
+  void setLocator(PointOnGeometryLocator locator) {
+    this.locator = locator;
+  }
+  
   public Geometry getResult() {
     // reduce precision of non-point input, if required
     geomNonPoint = prepareNonPoint(geomNonPointInput);
     geomNonPointDim = geomNonPoint.getDimension();
-    locator = createLocator(geomNonPoint);
+    if (locator == null || geomNonPoint != geomNonPointInput) {
+      locator = createLocator(geomNonPoint);
+    }
     
     Coordinate[] coords = extractCoordinates(geomPoint, pm);
 
@@ -14,6 +14,7 @@ package org.locationtech.jts.operation.overlayng;
 import java.util.Collection;
 import java.util.List;
 
+import org.locationtech.jts.algorithm.locate.PointOnGeometryLocator;
 import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryFactory;
@@ -25,6 +26,7 @@ import org.locationtech.jts.geom.PrecisionModel;
 import org.locationtech.jts.geom.TopologyException;
 import org.locationtech.jts.geomgraph.Label;
 import org.locationtech.jts.noding.MCIndexNoder;
+import org.locationtech.jts.noding.NodedSegmentString;
 import org.locationtech.jts.noding.Noder;
 import org.locationtech.jts.noding.snap.SnappingNoder;
 import org.locationtech.jts.noding.snapround.SnapRoundingNoder;
@@ -337,6 +339,9 @@ public class OverlayNG
   private boolean isOutputEdges = false;
   private boolean isOutputResultEdges = false;
   private boolean isOutputNodedEdges = false;
+  private List<NodedSegmentString> preparedEdges = null;
+  private PointOnGeometryLocator preparedLocator = null;
+  private double preparedArea;
 
   /**
    * Creates an overlay operation on the given geometries,
@@ -451,6 +456,28 @@ public class OverlayNG
     this.noder = noder;
   }
   
+  /**
+   * Sets a prepared representation of the second input geometry,
+   * which must be polygonal and have no Z values.
+   * The geometry is represented by the sections of its boundary
+   * which intersect the extent of the first input,
+   * together with a point locator and the geometry area.
+   * This is only valid for operations whose result lies within
+   * the first input ({@link #INTERSECTION} and {@link #DIFFERENCE}).
+   * 
+   * @param edges the boundary sections near the first input
+   * @param locator a point locator for the second input
+   * @param area the area of the second input
+   * 
+   * @see PreparedOverlayNG
+   */
+  void setPreparedInput(List<NodedSegmentString> edges, PointOnGeometryLocator locator, double area) {
+    preparedEdges = edges;
+    preparedLocator = locator;
+    preparedArea = area;
+    inputGeom.setLocator(1, locator);
+  }
+  
   /**
    * Gets the result of the overlay operation.
    * 
@@ -471,7 +498,7 @@ public class OverlayNG
     /**
      * The elevation model is only computed if the input geometries have Z values.
      */
-    ElevationModel elevModel = ElevationModel.create(inputGeom.getGeometry(0), inputGeom.getGeometry(1));
+    ElevationModel elevModel = createElevationModel();
     Geometry result;
     if (inputGeom.isAllPoints()) {
       // handle Point-Point inputs
@@ -479,7 +506,11 @@ public class OverlayNG
     }
     else if (! inputGeom.isSingle() &&  inputGeom.hasPoints()) {
       // handle Point-nonPoint inputs 
-      result = OverlayMixedPoints.overlay(opCode, inputGeom.getGeometry(0), inputGeom.getGeometry(1), pm);
+      OverlayMixedPoints overlayPts = new OverlayMixedPoints(opCode, inputGeom.getGeometry(0), inputGeom.getGeometry(1), pm);
+      if (preparedLocator != null) {
+        overlayPts.setLocator(preparedLocator);
+      }
+      result = overlayPts.getResult();
     }
     else {
       // handle case where both inputs are formed of edges (Lines and Polygons)
@@ -492,6 +523,16 @@ public class OverlayNG
     return result;
   }
   
+  private ElevationModel createElevationModel() {
+    if (preparedEdges == null) {
+      return ElevationModel.create(inputGeom.getGeometry(0), inputGeom.getGeometry(1));
+    }
+    //-- a prepared input has no Z values, so it only contributes its extent
+    Envelope extent = inputGeom.getEnvelope(0).copy();
+    extent.expandToInclude(inputGeom.getEnvelope(1));
+    return ElevationModel.createForExtent(inputGeom.getGeometry(0), extent);
+  }
+  
   private Geometry computeEdgeOverlay() 
   {
     
@@ -518,19 +559,30 @@ public class OverlayNG
      * and make topology graph area "invert".
      */
     if (OverlayUtil.isFloating(pm)) {
-      boolean isAreaConsistent = OverlayUtil.isResultAreaConsistent(inputGeom.getGeometry(0), inputGeom.getGeometry(1), opCode, result);
+      boolean isAreaConsistent = isResultAreaConsistent(result);
       if (! isAreaConsistent)
         throw new TopologyException("Result area inconsistent with overlay operation");    
     }
     return result;
   }
 
+  private boolean isResultAreaConsistent(Geometry result) {
+    if (preparedEdges == null) {
+      return OverlayUtil.isResultAreaConsistent(inputGeom.getGeometry(0), inputGeom.getGeometry(1), opCode, result);
+    }
+    return OverlayUtil.isResultAreaConsistent(inputGeom.getGeometry(0).getArea(), preparedArea, opCode, result);
+  }
+
   private List<Edge> nodeEdges() {
     /**
      * Node the edges, using whatever noder is being used
      */
     EdgeNodingBuilder nodingBuilder = new EdgeNodingBuilder(pm, noder);
     
+    if (preparedEdges != null) {
+      return nodePreparedEdges(nodingBuilder);
+    }
+    
     /**
      * Optimize Intersection and Difference by clipping to the 
      * result extent, if enabled.
@@ -556,6 +608,23 @@ public class OverlayNG
     return mergedEdges;
   }
 
+  /**
+   * Nodes the first input with the prepared edges of the second input.
+   * The prepared edges are already limited to the extent of the first input,
+   * so no clipping is needed.
+   */
+  private List<Edge> nodePreparedEdges(EdgeNodingBuilder nodingBuilder) {
+    nodingBuilder.addEdges(preparedEdges);
+    List<Edge> mergedEdges = nodingBuilder.build(inputGeom.getGeometry(0), null);
+    inputGeom.setCollapsed(0, ! nodingBuilder.hasEdgesFor(0) );
+    /**
+     * The prepared input may have no edges near the first input,
+     * but it has not collapsed.
+     */
+    inputGeom.setCollapsed(1, false);
+    return mergedEdges;
+  }
+
   private OverlayGraph buildGraph(Collection<Edge> edges) {
     OverlayGraph graph = new OverlayGraph();
     for (Edge e : edges) {
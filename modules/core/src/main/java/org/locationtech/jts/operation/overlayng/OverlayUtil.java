@@ -119,7 +119,7 @@ class OverlayUtil {
    * @param pm the precision model
    * @return a safe envelope to use for clipping
    */
-  private static Envelope safeEnv(Envelope env, PrecisionModel pm) {
+  static Envelope safeEnv(Envelope env, PrecisionModel pm) {
     double envExpandDist = safeExpandDistance(env, pm);
     Envelope safeEnv = env.copy();
     safeEnv.expandBy(envExpandDist);
@@ -393,9 +393,24 @@ class OverlayUtil {
     if (geom0 == null || geom1 == null) 
       return true;
     
+    return isResultAreaConsistent(geom0.getArea(), geom1.getArea(), opCode, result);
+  }
+
+  /**
+   * A heuristic check for overlay result correctness
+   * comparing the areas of the input and result,
+   * for inputs with known areas.
+   * 
+   * @param areaA the area of input geometry 0
+   * @param areaB the area of input geometry 1
+   * @param opCode the overlay opcode
+   * @param result the overlay result
+   * @return true if the result area is consistent
+   * 
+   * @see #isResultAreaConsistent(Geometry, Geometry, int, Geometry)
+   */
+  static boolean isResultAreaConsistent(double areaA, double areaB, int opCode, Geometry result) {
     double areaResult = result.getArea();
-    double areaA = geom0.getArea();
-    double areaB = geom1.getArea();
     
     boolean isConsistent = true;
     switch (opCode) {
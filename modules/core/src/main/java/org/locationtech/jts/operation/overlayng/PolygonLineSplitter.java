@@ -0,0 +1,393 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.operation.overlayng;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.locationtech.jts.algorithm.Area;
+import org.locationtech.jts.algorithm.PointLocation;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Location;
+import org.locationtech.jts.geom.TopologyException;
+
+/**
+ * Splits polygons along an axis-parallel line
+ * into the polygons lying on each side of the line.
+ * <p>
+ * A polygon is given as an array of rings, with the shell first.
+ * The shell must be oriented clockwise and the holes counter-clockwise,
+ * so that the polygon interior lies to the right of every ring.
+ * The sections of the rings on each side of the line form chains,
+ * which are linked along the line to form the rings of the split polygons
+ * (as in the Weiler-Atherton clipping algorithm).
+ * The intervals of the line lying in the polygon interior are determined
+ * by sorting the points where the rings cross the line.
+ * Unlike clipping each ring separately (as {@link RingClipper} does)
+ * this produces valid polygons, without collapsed edges along the line.
+ * <p>
+ * A segment which crosses the line is split at a single point,
+ * which is shared by the polygons on each side of the line.
+ * Vertices lying exactly on the line are treated as lying just above it,
+ * but the split polygons are simplest if there are no such vertices.
+ * The split polygons have the same orientation as the input.
+ */
+class PolygonLineSplitter {
+
+  private final double lineOrd;
+  private final boolean isVertical;
+
+  /**
+   * Creates a splitter for a line.
+   *
+   * @param lineOrd the ordinate of the line
+   * @param isVertical true if the line is vertical (has constant X)
+   */
+  PolygonLineSplitter(double lineOrd, boolean isVertical) {
+    this.lineOrd = lineOrd;
+    this.isVertical = isVertical;
+  }
+
+  /**
+   * Splits a polygon along the line.
+   *
+   * @param rings the polygon rings, with the shell first
+   * @param low the list to add the polygons below or to the left of the line to, or null
+   * @param high the list to add the polygons above or to the right of the line to, or null
+   * @throws TopologyException if the rings do not form a valid polygon
+   */
+  void split(Coordinate[][] rings, List<Coordinate[][]> low, List<Coordinate[][]> high) {
+    List<Crossing> crossings = new ArrayList<Crossing>();
+    List<Chain> chains = new ArrayList<Chain>();
+    List<Coordinate[]> lowHoles = new ArrayList<Coordinate[]>();
+    List<Coordinate[]> highHoles = new ArrayList<Coordinate[]>();
+    for (int i = 0; i < rings.length; i++) {
+      Coordinate[] ring = rings[i];
+      int crossIndex = findCrossingSegment(ring);
+      if (crossIndex < 0) {
+        boolean isLow = isLow(ring[0]);
+        if (i == 0) {
+          //-- shell does not cross line, so polygon is on one side
+          List<Coordinate[][]> side = isLow ? low : high;
+          if (side != null) side.add(rings);
+          return;
+        }
+        (isLow ? lowHoles : highHoles).add(ring);
+        continue;
+      }
+      addChains(ring, crossIndex, low != null, high != null, crossings, chains);
+    }
+    linkCrossings(crossings);
+    if (low != null) buildPolygons(chains, true, lowHoles, low);
+    if (high != null) buildPolygons(chains, false, highHoles, high);
+  }
+
+  private double ordinate(Coordinate p) {
+    return isVertical ? p.x : p.y;
+  }
+
+  private double lineOrdinate(Coordinate p) {
+    return isVertical ? p.y : p.x;
+  }
+
+  private boolean isLow(Coordinate p) {
+    return ordinate(p) < lineOrd;
+  }
+
+  private int findCrossingSegment(Coordinate[] ring) {
+    for (int i = 0; i < ring.length - 1; i++) {
+      if (isLow(ring[i]) != isLow(ring[i + 1])) return i;
+    }
+    return -1;
+  }
+
+  /**
+   * Adds the chains formed by the sections of a ring on each side of the line,
+   * starting at a segment which crosses the line.
+   */
+  private void addChains(Coordinate[] ring, int crossIndex, boolean isLowRequired, boolean isHighRequired,
+      List<Crossing> crossings, List<Chain> chains) {
+    int n = ring.length - 1;
+    Crossing startCross = createCrossing(ring[crossIndex], ring[crossIndex + 1]);
+    crossings.add(startCross);
+    Chain chain = startChain(startCross, ring, (crossIndex + 1) % n, isLowRequired, isHighRequired, chains);
+    for (int i = 1; i <= n; i++) {
+      int index = (crossIndex + i) % n;
+      chain.numPts++;
+      if (index == crossIndex) {
+        chain.end(startCross);
+        break;
+      }
+      Coordinate p0 = ring[index];
+      Coordinate p1 = ring[index + 1];
+      if (isLow(p0) != isLow(p1)) {
+        Crossing cross = createCrossing(p0, p1);
+        crossings.add(cross);
+        chain.end(cross);
+        chain = startChain(cross, ring, (index + 1) % n, isLowRequired, isHighRequired, chains);
+      }
+    }
+  }
+
+  private static Chain startChain(Crossing cross, Coordinate[] ring, int start,
+      boolean isLowRequired, boolean isHighRequired, List<Chain> chains) {
+    //-- the chain after a low-to-high crossing is on the high side
+    boolean isLow = ! cross.isLowToHigh;
+    Chain chain = new Chain(isLow, cross, ring, start);
+    //-- chains on a side which is not required are not linked into rings
+    chain.isVisited = ! (isLow ? isLowRequired : isHighRequired);
+    chains.add(chain);
+    return chain;
+  }
+
+  /**
+   * Creates the crossing of the line by a segment.
+   * The crossing is ordered along the line as if the line
+   * were displaced infinitesimally to the low side,
+   * so that crossings at the same point (at a vertex lying on the line)
+   * are ordered consistently with the ring topology.
+   */
+  private Crossing createCrossing(Coordinate p0, Coordinate p1) {
+    boolean isLowToHigh = isLow(p0);
+    Coordinate lowPt = isLowToHigh ? p0 : p1;
+    Coordinate highPt = isLowToHigh ? p1 : p0;
+    Coordinate pt;
+    if (ordinate(highPt) == lineOrd) {
+      pt = highPt;
+    }
+    else {
+      pt = crossingPoint(lowPt, highPt);
+    }
+    double dv = ordinate(highPt) - ordinate(lowPt);
+    double slope = (lineOrdinate(lowPt) - lineOrdinate(highPt)) / dv;
+    return new Crossing(pt, lineOrdinate(pt), slope, isLowToHigh);
+  }
+
+  /**
+   * Computes the point where a segment crosses the line,
+   * with the ordinate along the line clamped to the segment range
+   * to avoid round-off producing a point outside the segment.
+   */
+  private Coordinate crossingPoint(Coordinate lowPt, Coordinate highPt) {
+    double frac = (lineOrd - ordinate(lowPt)) / (ordinate(highPt) - ordinate(lowPt));
+    double t0 = lineOrdinate(lowPt);
+    double t1 = lineOrdinate(highPt);
+    double t = t0 + frac * (t1 - t0);
+    double tMin = Math.min(t0, t1);
+    double tMax = Math.max(t0, t1);
+    if (t < tMin) t = tMin;
+    if (t > tMax) t = tMax;
+    return isVertical ? new Coordinate(lineOrd, t) : new Coordinate(t, lineOrd);
+  }
+
+  private static final Comparator<Crossing> CROSSING_ORDER = new Comparator<Crossing>() {
+    @Override
+    public int compare(Crossing c0, Crossing c1) {
+      int comp = Double.compare(c0.lineOrd, c1.lineOrd);
+      if (comp != 0) return comp;
+      return Double.compare(c0.slope, c1.slope);
+    }
+  };
+
+  /**
+   * Pairs the crossings which bound the intervals of the line
+   * lying in the polygon interior.
+   * Since the interior is to the right of the rings,
+   * for a vertical line each interval starts with a high-to-low crossing,
+   * and for a horizontal line with a low-to-high crossing.
+   */
+  private void linkCrossings(List<Crossing> crossings) {
+    Collections.sort(crossings, CROSSING_ORDER);
+    boolean isStartLowToHigh = ! isVertical;
+    for (int i = 0; i < crossings.size(); i += 2) {
+      Crossing start = crossings.get(i);
+      Crossing end = i + 1 < crossings.size() ? crossings.get(i + 1) : null;
+      if (end == null || start.isLowToHigh != isStartLowToHigh || end.isLowToHigh == isStartLowToHigh) {
+        throw new TopologyException("Invalid polygon topology at split line", start.pt);
+      }
+      start.pair = end;
+      end.pair = start;
+    }
+  }
+
+  /**
+   * Builds the polygons on one side of the line
+   * from the chains on that side and the holes not crossing the line.
+   */
+  private static void buildPolygons(List<Chain> chains, boolean isLow, List<Coordinate[]> holes,
+      List<Coordinate[][]> polys) {
+    List<Coordinate[]> shells = new ArrayList<Coordinate[]>();
+    for (Chain chain : chains) {
+      if (chain.isLow != isLow || chain.isVisited) continue;
+      Coordinate[] pts = buildRing(chain);
+      if (pts.length < 4) continue;
+      double area = Area.ofRingSigned(pts);
+      if (area > 0) {
+        shells.add(pts);
+      }
+      else if (area < 0) {
+        holes.add(pts);
+      }
+      //-- zero-area rings are collapsed
+    }
+    if (shells.isEmpty()) return;
+    List<List<Coordinate[]>> polyRings = new ArrayList<List<Coordinate[]>>();
+    for (Coordinate[] shell : shells) {
+      List<Coordinate[]> rings = new ArrayList<Coordinate[]>();
+      rings.add(shell);
+      polyRings.add(rings);
+    }
+    for (Coordinate[] hole : holes) {
+      polyRings.get(findShell(hole, shells)).add(hole);
+    }
+    for (List<Coordinate[]> rings : polyRings) {
+      polys.add(rings.toArray(new Coordinate[rings.size()][]));
+    }
+  }
+
+  /**
+   * Builds a ring by linking chains on one side of the line,
+   * starting at a given chain.
+   */
+  private static Coordinate[] buildRing(Chain start) {
+    List<Chain> ringChains = new ArrayList<Chain>();
+    int size = 1;
+    Chain c = start;
+    do {
+      ringChains.add(c);
+      size += c.numPts + 2;
+      c.isVisited = true;
+      //-- the next chain on this side starts at the other end of the interior interval
+      c = c.endCross.pair.nextChain;
+    } while (c != start);
+
+    Coordinate[] pts = new Coordinate[size];
+    int n = 0;
+    for (Chain chain : ringChains) {
+      n = addPoint(chain.startCross.pt, pts, n);
+      int ringSize = chain.ring.length - 1;
+      int numPts = chain.numPts;
+      if (numPts > 0) {
+        n = addPoint(chain.ring[chain.start], pts, n);
+        //-- copy the remaining points in up to two sections, since the chain may wrap around the ring start
+        int index = (chain.start + 1) % ringSize;
+        int remaining = numPts - 1;
+        while (remaining > 0) {
+          int len = Math.min(remaining, ringSize - index);
+          System.arraycopy(chain.ring, index, pts, n, len);
+          n += len;
+          remaining -= len;
+          index = 0;
+        }
+      }
+      n = addPoint(chain.endCross.pt, pts, n);
+    }
+    if (n > 0 && ! pts[0].equals2D(pts[n - 1])) {
+      pts[n++] = pts[0].copy();
+    }
+    if (n < pts.length) {
+      pts = Arrays.copyOf(pts, n);
+    }
+    return pts;
+  }
+
+  private static int addPoint(Coordinate p, Coordinate[] pts, int n) {
+    if (n > 0 && pts[n - 1].equals2D(p)) return n;
+    pts[n] = p;
+    return n + 1;
+  }
+
+  private static int findShell(Coordinate[] hole, List<Coordinate[]> shells) {
+    if (shells.size() == 1) return 0;
+    Envelope holeEnv = new Envelope();
+    for (Coordinate p : hole) {
+      holeEnv.expandToInclude(p);
+    }
+    for (int i = 0; i < shells.size(); i++) {
+      Coordinate[] shell = shells.get(i);
+      if (! envelope(shell).covers(holeEnv)) continue;
+      //-- a hole may touch the shell at a vertex, so test until a vertex is not on the shell
+      for (Coordinate p : hole) {
+        int loc = PointLocation.locateInRing(p, shell);
+        if (loc == Location.BOUNDARY) continue;
+        if (loc == Location.INTERIOR) return i;
+        break;
+      }
+    }
+    throw new TopologyException("Unable to find shell for hole of split polygon", hole[0]);
+  }
+
+  private static Envelope envelope(Coordinate[] pts) {
+    Envelope env = new Envelope();
+    for (Coordinate p : pts) {
+      env.expandToInclude(p);
+    }
+    return env;
+  }
+
+  /**
+   * A point where a ring crosses the line.
+   */
+  private static class Crossing {
+    final Coordinate pt;
+    final double lineOrd;
+    final double slope;
+    final boolean isLowToHigh;
+    /**
+     * The crossing at the other end of the interior interval of the line
+     */
+    Crossing pair;
+    /**
+     * The chain starting at this crossing
+     */
+    Chain nextChain;
+
+    Crossing(Coordinate pt, double lineOrd, double slope, boolean isLowToHigh) {
+      this.pt = pt;
+      this.lineOrd = lineOrd;
+      this.slope = slope;
+      this.isLowToHigh = isLowToHigh;
+    }
+  }
+
+  /**
+   * A section of a ring lying on one side of the line,
+   * running between two crossings.
+   * The section vertices are a range of the ring points,
+   * which may wrap around the ring start point.
+   */
+  private static class Chain {
+    final boolean isLow;
+    final Crossing startCross;
+    final Coordinate[] ring;
+    final int start;
+    int numPts = 0;
+    Crossing endCross;
+    boolean isVisited = false;
+
+    Chain(boolean isLow, Crossing startCross, Coordinate[] ring, int start) {
+      this.isLow = isLow;
+      this.startCross = startCross;
+      this.ring = ring;
+      this.start = start;
+      startCross.nextChain = this;
+    }
+
+    void end(Crossing cross) {
+      endCross = cross;
+    }
+  }
+}
@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.operation.overlayng;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.locationtech.jts.algorithm.locate.IndexedPointInAreaLocator;
+import org.locationtech.jts.algorithm.locate.PointOnGeometryLocator;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateArrays;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequenceFilter;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Location;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.Polygonal;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.index.chain.MonotoneChain;
+import org.locationtech.jts.index.chain.MonotoneChainBuilder;
+import org.locationtech.jts.index.hprtree.HPRtree;
+import org.locationtech.jts.noding.NodedSegmentString;
+
+/**
+ * Computes overlay operations between many geometries
+ * and a single fixed polygonal geometry,
+ * reusing the edge structure of the fixed geometry.
+ * A typical use is clipping a large number of features
+ * to a complex boundary polygon.
+ * <p>
+ * The prepared geometry is the second argument of the overlay,
+ * so the result of {@link #overlay(Geometry, int)} is
+ * <code>geom op prepared</code>.
+ * When the geometry is prepared its rings are split into monotone chains,
+ * which are indexed in an {@link HPRtree}.
+ * An {@link IndexedPointInAreaLocator}, the envelope and the area
+ * of the geometry are also cached.
+ * For each input only the boundary sections which intersect
+ * the input envelope are noded with it,
+ * so the cost of an overlay depends on the size of the input
+ * (and of the nearby part of the prepared geometry),
+ * not on the size of the entire prepared geometry.
+ * <p>
+ * The following shortcuts are used:
+ * <ul>
+ * <li>{@link FastOverlayFilter} handles inputs whose envelope is disjoint
+ * from the prepared geometry, or covered by a rectangular prepared geometry
+ * <li>if the prepared boundary does not intersect the input envelope,
+ * the input lies wholly inside or outside the prepared geometry,
+ * which is determined using the locator
+ * <li>point inputs are located using the cached locator
+ * </ul>
+ * In these cases (as with {@link FastOverlayFilter}) the result is a copy
+ * of the input, rather than the input noded by {@link OverlayNG}.
+ * Otherwise the result is the same as that of {@link OverlayNG}.
+ * <p>
+ * Only {@link OverlayNG#INTERSECTION} and {@link OverlayNG#DIFFERENCE}
+ * have results which lie within the input,
+ * so only they make use of the prepared geometry.
+ * Other operations are computed by {@link OverlayNG}, as are all operations
+ * if the prepared geometry is not polygonal, or has Z values.
+ * As with {@link OverlayNG} a {@link org.locationtech.jts.geom.TopologyException}
+ * may be thrown in floating precision,
+ * in which case {@link OverlayNGRobust} can be used to compute the overlay.
+ * <p>
+ * Instances are thread-safe, so overlays against the same
+ * prepared geometry can be computed concurrently.
+ *
+ * @see OverlayNG
+ */
+public class PreparedOverlayNG {
+
+  private final Geometry prepGeom;
+  private final boolean isPrepared;
+  private FastOverlayFilter fastFilter;
+  private PointOnGeometryLocator locator;
+  private HPRtree chainIndex;
+  private double area;
+  private int ringCount = 0;
+
+  /**
+   * Creates a new prepared overlay for a geometry.
+   *
+   * @param geom the geometry to prepare (the second argument of overlays)
+   */
+  public PreparedOverlayNG(Geometry geom) {
+    this.prepGeom = geom;
+    isPrepared = geom instanceof Polygonal && ! geom.isEmpty() && ! hasZ(geom);
+    if (isPrepared) {
+      prepare();
+    }
+  }
+
+  /**
+   * Gets the prepared geometry.
+   *
+   * @return the prepared geometry
+   */
+  public Geometry getGeometry() {
+    return prepGeom;
+  }
+
+  /**
+   * Computes the intersection of a geometry with the prepared geometry.
+   *
+   * @param geom the geometry to intersect
+   * @return the intersection of the geometries
+   */
+  public Geometry intersection(Geometry geom) {
+    return overlay(geom, OverlayNG.INTERSECTION);
+  }
+
+  /**
+   * Computes the difference of a geometry and the prepared geometry.
+   *
+   * @param geom the geometry to subtract the prepared geometry from
+   * @return the difference of the geometries
+   */
+  public Geometry difference(Geometry geom) {
+    return overlay(geom, OverlayNG.DIFFERENCE);
+  }
+
+  /**
+   * Computes an overlay operation on a geometry and the prepared geometry,
+   * using the precision model of the geometry.
+   *
+   * @param geom the first argument of the overlay
+   * @param opCode the code for the desired overlay operation
+   * @return the result of the overlay operation
+   * @throws IllegalArgumentException if the input is not supported (e.g. a mixed-dimension geometry)
+   * @throws org.locationtech.jts.geom.TopologyException if a robustness error occurs
+   */
+  public Geometry overlay(Geometry geom, int opCode) {
+    if (! isPrepared || geom.isEmpty()
+        || ! (opCode == OverlayNG.INTERSECTION || opCode == OverlayNG.DIFFERENCE)) {
+      return OverlayNG.overlay(geom, prepGeom, opCode);
+    }
+    PrecisionModel pm = geom.getFactory().getPrecisionModel();
+    boolean isFloating = OverlayUtil.isFloating(pm);
+    if (isFloating && opCode == OverlayNG.INTERSECTION) {
+      Geometry result = fastFilter.overlay(geom, opCode);
+      if (result != null) return result;
+    }
+
+    List<NodedSegmentString> edges = new ArrayList<NodedSegmentString>();
+    //-- points are located directly, so they do not need edges
+    if (geom.getDimension() > 0) {
+      edges = createEdges(geom.getEnvelopeInternal(), pm);
+      if (edges.isEmpty() && isFloating) {
+        return overlayInsideOrOutside(geom, opCode);
+      }
+    }
+    OverlayNG ov = new OverlayNG(geom, prepGeom, opCode);
+    ov.setPreparedInput(edges, locator, area);
+    return ov.getResult();
+  }
+
+  /**
+   * Computes the overlay of a geometry which does not intersect
+   * the boundary of the prepared geometry,
+   * and thus lies wholly inside or outside it.
+   */
+  private Geometry overlayInsideOrOutside(Geometry geom, int opCode) {
+    boolean isInside = locator.locate(geom.getCoordinate()) != Location.EXTERIOR;
+    boolean isResultInput = opCode == OverlayNG.INTERSECTION ? isInside : ! isInside;
+    if (isResultInput) {
+      return geom.copy();
+    }
+    int resultDim = OverlayUtil.resultDimension(opCode, geom.getDimension(), prepGeom.getDimension());
+    return OverlayUtil.createEmptyResult(resultDim, geom.getFactory());
+  }
+
+  private void prepare() {
+    //-- compute cached values, so they are ready for concurrent use
+    prepGeom.getEnvelopeInternal();
+    fastFilter = new FastOverlayFilter(prepGeom);
+    locator = new IndexedPointInAreaLocator(prepGeom);
+    locator.locate(prepGeom.getCoordinate());
+    area = prepGeom.getArea();
+    chainIndex = new HPRtree();
+    for (int i = 0; i < prepGeom.getNumGeometries(); i++) {
+      Polygon poly = (Polygon) prepGeom.getGeometryN(i);
+      addRing(poly.getExteriorRing(), false);
+      for (int j = 0; j < poly.getNumInteriorRing(); j++) {
+        addRing(poly.getInteriorRingN(j), true);
+      }
+    }
+    chainIndex.build();
+  }
+
+  private void addRing(LinearRing ring, boolean isHole) {
+    if (ring.isEmpty()) return;
+    Coordinate[] pts = CoordinateArrays.removeRepeatedPoints(ring.getCoordinates());
+    RingEdge ringEdge = new RingEdge(pts, EdgeNodingBuilder.computeDepthDelta(ring, isHole), isHole);
+    @SuppressWarnings("unchecked")
+    List<MonotoneChain> chains = MonotoneChainBuilder.getChains(pts, ringEdge);
+    for (MonotoneChain mc : chains) {
+      chainIndex.insert(mc.getEnvelope(), mc);
+    }
+  }
+
+  /**
+   * Creates edges for the sections of the prepared rings
+   * which intersect an envelope.
+   * The envelope is expanded to include all segments
+   * which may be affected by rounding in a fixed precision model.
+   * The ends of the sections lie outside the envelope,
+   * since the adjacent chains are disjoint from it.
+   */
+  private List<NodedSegmentString> createEdges(Envelope env, PrecisionModel pm) {
+    Envelope queryEnv = OverlayUtil.isFloating(pm) ? env : OverlayUtil.safeEnv(env, pm);
+    @SuppressWarnings("unchecked")
+    List<MonotoneChain> chains = chainIndex.query(queryEnv);
+    List<NodedSegmentString> edges = new ArrayList<NodedSegmentString>();
+    if (chains.isEmpty()) return edges;
+
+    Collections.sort(chains, CHAIN_ORDER);
+    MonotoneChain first = chains.get(0);
+    int end = first.getEndIndex();
+    int start = first.getStartIndex();
+    RingEdge ringEdge = (RingEdge) first.getContext();
+    for (int i = 1; i < chains.size(); i++) {
+      MonotoneChain mc = chains.get(i);
+      if (mc.getContext() == ringEdge && mc.getStartIndex() == end) {
+        end = mc.getEndIndex();
+        continue;
+      }
+      edges.add(ringEdge.createEdge(start, end));
+      ringEdge = (RingEdge) mc.getContext();
+      start = mc.getStartIndex();
+      end = mc.getEndIndex();
+    }
+    edges.add(ringEdge.createEdge(start, end));
+    return edges;
+  }
+
+  /**
+   * Orders chains by ring and position in the ring,
+   * so that adjacent chains can be merged into sections.
+   */
+  private static final Comparator<MonotoneChain> CHAIN_ORDER = new Comparator<MonotoneChain>() {
+    @Override
+    public int compare(MonotoneChain mc1, MonotoneChain mc2) {
+      RingEdge ring1 = (RingEdge) mc1.getContext();
+      RingEdge ring2 = (RingEdge) mc2.getContext();
+      if (ring1 != ring2) return Integer.compare(ring1.id, ring2.id);
+      return Integer.compare(mc1.getStartIndex(), mc2.getStartIndex());
+    }
+  };
+
+  private static boolean hasZ(Geometry geom) {
+    final boolean[] hasZ = new boolean[1];
+    geom.apply(new CoordinateSequenceFilter() {
+      @Override
+      public void filter(CoordinateSequence seq, int i) {
+        if (seq.hasZ() && ! Double.isNaN(seq.getZ(i))) {
+          hasZ[0] = true;
+        }
+      }
+
+      @Override
+      public boolean isDone() {
+        return hasZ[0];
+      }
+
+      @Override
+      public boolean isGeometryChanged() {
+        return false;
+      }
+    });
+    return hasZ[0];
+  }
+
+  /**
+   * A ring of the prepared geometry, with the topology information
+   * needed to create overlay edges from sections of it.
+   */
+  private class RingEdge {
+    final int id;
+    final Coordinate[] pts;
+    final int depthDelta;
+    final boolean isHole;
+
+    RingEdge(Coordinate[] pts, int depthDelta, boolean isHole) {
+      id = ringCount++;
+      this.pts = pts;
+      this.depthDelta = depthDelta;
+      this.isHole = isHole;
+    }
+
+    NodedSegmentString createEdge(int start, int end) {
+      //-- copy the coordinates, since they may become part of the result
+      Coordinate[] sectionPts = new Coordinate[end - start + 1];
+      CoordinateArrays.copyDeep(pts, start, sectionPts, 0, sectionPts.length);
+      return new NodedSegmentString(sectionPts, new EdgeSourceInfo(1, depthDelta, isHole));
+    }
+  }
+}
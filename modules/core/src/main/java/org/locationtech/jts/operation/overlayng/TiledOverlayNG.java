@@ -0,0 +1,802 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.operation.overlayng;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import org.locationtech.jts.algorithm.Orientation;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateArrays;
+import org.locationtech.jts.geom.CoordinateList;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequenceFilter;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineSegment;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.Polygonal;
+import org.locationtech.jts.geom.TopologyException;
+import org.locationtech.jts.geom.util.PolygonExtracter;
+import org.locationtech.jts.noding.BasicSegmentString;
+import org.locationtech.jts.noding.BoundaryChainNoder;
+import org.locationtech.jts.noding.Noder;
+import org.locationtech.jts.noding.SegmentString;
+
+/**
+ * Computes the overlay of two very large polygonal geometries
+ * by dividing their extent into a grid of tiles,
+ * computing the overlay of each tile with {@link OverlayNG}
+ * (optionally in parallel using a {@link ForkJoinPool}),
+ * and dissolving the tile boundaries to form the final result.
+ * <p>
+ * The inputs are clipped to the result extent,
+ * and then split recursively along the grid lines
+ * into valid polygons by a {@link PolygonLineSplitter}.
+ * Grid lines are moved slightly away from any input vertices lying on them.
+ * Input data which has been split is released,
+ * so the memory used by each overlay is bounded by the size of a tile
+ * rather than the size of the inputs.
+ * Segments which cross a grid line are split at a single point
+ * computed once, so the tiles on either side of the line
+ * have identical boundary vertices.
+ * The polygons in the tile results which touch an interior grid line
+ * are noded along the grid lines and merged by a coverage union
+ * (as in {@link CoverageUnion}) which matches only the segments lying on grid lines.
+ * <p>
+ * Only polygonal inputs are tiled, and only the polygonal part
+ * of the overlay result is computed.
+ * The overlay of non-polygonal inputs is computed by {@link OverlayNG}.
+ * If a tile overlay fails with a {@link TopologyException}
+ * the entire overlay is computed by {@link OverlayNGRobust}.
+ * <p>
+ * The result is equal to the polygonal result of {@link OverlayNG},
+ * up to round-off in the points where segments are split at grid lines.
+ * It may contain extra vertices along the grid lines.
+ *
+ * @see OverlayNG
+ */
+public class TiledOverlayNG {
+
+  /**
+   * The default maximum number of input vertices in a tile,
+   * used to determine the grid size.
+   */
+  public static final int DEFAULT_MAX_TILE_VERTICES = 50000;
+
+  /**
+   * Computes an overlay operation on two polygonal geometries
+   * using a grid of tiles determined by the input size.
+   *
+   * @param geom0 the first geometry argument
+   * @param geom1 the second geometry argument
+   * @param opCode the code for the desired overlay operation
+   * @param pool the pool to compute the tile overlays in, or null to compute them sequentially
+   * @return the result of the overlay operation
+   */
+  public static Geometry overlay(Geometry geom0, Geometry geom1, int opCode, ForkJoinPool pool) {
+    TiledOverlayNG ov = new TiledOverlayNG(geom0, geom1, opCode);
+    ov.setParallelOverlay(pool);
+    return ov.getResult();
+  }
+
+  private Geometry geom0;
+  private Geometry geom1;
+  private int opCode;
+  private GeometryFactory geomFact;
+  private ForkJoinPool pool = null;
+  private int maxTileVertices = DEFAULT_MAX_TILE_VERTICES;
+  private int numTilesX = 0;
+  private int numTilesY = 0;
+
+  private double[] gridX;
+  private double[] gridY;
+
+  /**
+   * Creates an overlay operation on the given geometries.
+   *
+   * @param geom0 the first geometry argument
+   * @param geom1 the second geometry argument
+   * @param opCode the code for the desired overlay operation
+   */
+  public TiledOverlayNG(Geometry geom0, Geometry geom1, int opCode) {
+    this.geom0 = geom0;
+    this.geom1 = geom1;
+    this.opCode = opCode;
+    geomFact = geom0.getFactory();
+  }
+
+  /**
+   * Sets the pool used to compute the tile overlays in parallel.
+   * If the pool is null (the default) the tiles are computed sequentially.
+   *
+   * @param pool the pool to use, or null
+   */
+  public void setParallelOverlay(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  /**
+   * Sets the maximum number of input vertices per tile,
+   * which determines the size of the tile grid
+   * if it is not set explicitly.
+   *
+   * @param maxTileVertices the maximum number of vertices in a tile
+   */
+  public void setMaxTileVertices(int maxTileVertices) {
+    this.maxTileVertices = maxTileVertices;
+  }
+
+  /**
+   * Sets the number of columns and rows of the tile grid.
+   * The grid is uniform over the extent of the result.
+   *
+   * @param numTilesX the number of tile columns
+   * @param numTilesY the number of tile rows
+   */
+  public void setTileGrid(int numTilesX, int numTilesY) {
+    this.numTilesX = numTilesX;
+    this.numTilesY = numTilesY;
+  }
+
+  /**
+   * Gets the result of the overlay operation.
+   *
+   * @return the result of the overlay operation
+   * @throws IllegalArgumentException if the input is not supported (e.g. a mixed-dimension geometry)
+   * @throws TopologyException if a robustness error occurs
+   */
+  public Geometry getResult() {
+    if (! isTileable(geom0) || ! isTileable(geom1)) {
+      return OverlayNG.overlay(geom0, geom1, opCode);
+    }
+    Envelope extent = resultExtent();
+    if (extent.isNull()) {
+      return OverlayNG.overlay(geom0, geom1, opCode);
+    }
+    initGrid(extent);
+    if (gridX.length == 2 && gridY.length == 2) {
+      return overlayArea(geom0, geom1);
+    }
+    try {
+      List<Polygon> tileResults = overlayTiles();
+      return stitch(tileResults);
+    }
+    catch (TopologyException ex) {
+      Geometry result = OverlayNGRobust.overlay(geom0, geom1, opCode);
+      return geomFact.buildGeometry(PolygonExtracter.getPolygons(result));
+    }
+  }
+
+  private static boolean isTileable(Geometry geom) {
+    return geom instanceof Polygonal && ! geom.isEmpty();
+  }
+
+  private Geometry overlayArea(Geometry g0, Geometry g1) {
+    OverlayNG ov = new OverlayNG(g0, g1, opCode);
+    ov.setAreaResultOnly(true);
+    return ov.getResult();
+  }
+
+  /**
+   * Computes the extent containing the result of the overlay.
+   *
+   * @return the result extent (which may be null)
+   */
+  private Envelope resultExtent() {
+    Envelope env0 = geom0.getEnvelopeInternal();
+    Envelope env1 = geom1.getEnvelopeInternal();
+    switch (opCode) {
+    case OverlayNG.INTERSECTION:
+      return env0.intersection(env1);
+    case OverlayNG.DIFFERENCE:
+      return env0.copy();
+    }
+    Envelope env = env0.copy();
+    env.expandToInclude(env1);
+    return env;
+  }
+
+  private void initGrid(Envelope extent) {
+    int nx = numTilesX;
+    int ny = numTilesY;
+    if (nx <= 0 || ny <= 0) {
+      int numPts = geom0.getNumPoints() + geom1.getNumPoints();
+      int numTiles = (numPts + maxTileVertices - 1) / maxTileVertices;
+      nx = ny = (int) Math.ceil(Math.sqrt(numTiles));
+    }
+    //-- avoid zero-width tiles
+    if (extent.getMinX() == extent.getMaxX()) nx = 1;
+    if (extent.getMinY() == extent.getMaxY()) ny = 1;
+    gridX = gridLines(extent.getMinX(), extent.getMaxX(), Math.max(1, nx));
+    gridY = gridLines(extent.getMinY(), extent.getMaxY(), Math.max(1, ny));
+    adjustGridLines();
+  }
+
+  /**
+   * Moves the grid lines slightly away from any input vertices lying on them,
+   * so that polygons are split only at points where segments cross the lines.
+   * The minimum lines are moved down and the others up,
+   * so the grid still covers the result extent.
+   */
+  private void adjustGridLines() {
+    for (int i = 0; i < MAX_GRID_ADJUSTMENTS; i++) {
+      GridLineVertexFilter filter = new GridLineVertexFilter();
+      geom0.apply(filter);
+      geom1.apply(filter);
+      if (! filter.isOnLine) return;
+      moveLines(gridX, filter.isOnLineX);
+      moveLines(gridY, filter.isOnLineY);
+    }
+  }
+
+  private static final int MAX_GRID_ADJUSTMENTS = 10;
+
+  private static final double GRID_ADJUST_FACTOR = 1e-6;
+
+  private static void moveLines(double[] lines, boolean[] isOnLine) {
+    int n = lines.length - 1;
+    double delta = GRID_ADJUST_FACTOR * (lines[n] - lines[0]) / n;
+    for (int i = 0; i <= n; i++) {
+      if (! isOnLine[i]) continue;
+      lines[i] += i == 0 ? -delta : delta;
+    }
+  }
+
+  /**
+   * Finds the grid line with a given ordinate.
+   * The lines are almost uniformly spaced,
+   * so only the lines adjacent to the cell containing the ordinate are checked.
+   *
+   * @return the index of the line, or -1 if no line has the ordinate
+   */
+  private static int findLine(double[] lines, double v) {
+    int n = lines.length - 1;
+    int cell = (int) (n * (v - lines[0]) / (lines[n] - lines[0]));
+    int start = Math.max(0, cell - 1);
+    int end = Math.min(n, cell + 2);
+    for (int i = start; i <= end; i++) {
+      if (lines[i] == v) return i;
+    }
+    return -1;
+  }
+
+  private class GridLineVertexFilter implements CoordinateSequenceFilter {
+    boolean[] isOnLineX = new boolean[gridX.length];
+    boolean[] isOnLineY = new boolean[gridY.length];
+    boolean isOnLine = false;
+
+    @Override
+    public void filter(CoordinateSequence seq, int i) {
+      int ix = findLine(gridX, seq.getX(i));
+      if (ix >= 0) {
+        isOnLineX[ix] = true;
+        isOnLine = true;
+      }
+      int iy = findLine(gridY, seq.getY(i));
+      if (iy >= 0) {
+        isOnLineY[iy] = true;
+        isOnLine = true;
+      }
+    }
+
+    @Override
+    public boolean isDone() {
+      return false;
+    }
+
+    @Override
+    public boolean isGeometryChanged() {
+      return false;
+    }
+  }
+
+  private static double[] gridLines(double min, double max, int n) {
+    double[] lines = new double[n + 1];
+    double size = (max - min) / n;
+    for (int i = 0; i < n; i++) {
+      lines[i] = min + i * size;
+    }
+    lines[n] = max;
+    return lines;
+  }
+
+  private List<Polygon> overlayTiles() {
+    Envelope gridEnv = new Envelope(gridX[0], gridX[gridX.length - 1], gridY[0], gridY[gridY.length - 1]);
+    List<Part> parts0 = clip(toParts(geom0), gridEnv);
+    List<Part> parts1 = clip(toParts(geom1), gridEnv);
+    TileTask task = new TileTask(0, gridX.length - 1, 0, gridY.length - 1, parts0, parts1);
+    if (pool == null) {
+      return task.compute();
+    }
+    return pool.invoke(task);
+  }
+
+  /**
+   * Computes the overlay of the tiles in a range of columns and rows,
+   * by splitting the range along the middle grid line of its longer dimension.
+   */
+  private class TileTask extends RecursiveTask<List<Polygon>> {
+    private static final long serialVersionUID = 1L;
+
+    private int col0;
+    private int col1;
+    private int row0;
+    private int row1;
+    private List<Part> parts0;
+    private List<Part> parts1;
+
+    TileTask(int col0, int col1, int row0, int row1, List<Part> parts0, List<Part> parts1) {
+      this.col0 = col0;
+      this.col1 = col1;
+      this.row0 = row0;
+      this.row1 = row1;
+      this.parts0 = parts0;
+      this.parts1 = parts1;
+    }
+
+    @Override
+    protected List<Polygon> compute() {
+      if (isEmptyResult(parts0, parts1)) {
+        return new ArrayList<Polygon>();
+      }
+      if (col1 - col0 == 1 && row1 - row0 == 1) {
+        return overlayTile(parts0, parts1);
+      }
+      List<Part> low0 = new ArrayList<Part>();
+      List<Part> low1 = new ArrayList<Part>();
+      List<Part> high0 = new ArrayList<Part>();
+      List<Part> high1 = new ArrayList<Part>();
+      TileTask low;
+      TileTask high;
+      boolean isVertical = col1 - col0 >= row1 - row0;
+      double lineOrd;
+      if (isVertical) {
+        int colMid = (col0 + col1) / 2;
+        lineOrd = gridX[colMid];
+        low = new TileTask(col0, colMid, row0, row1, low0, low1);
+        high = new TileTask(colMid, col1, row0, row1, high0, high1);
+      }
+      else {
+        int rowMid = (row0 + row1) / 2;
+        lineOrd = gridY[rowMid];
+        low = new TileTask(col0, col1, row0, rowMid, low0, low1);
+        high = new TileTask(col0, col1, rowMid, row1, high0, high1);
+      }
+      split(parts0, lineOrd, isVertical, low0, high0);
+      split(parts1, lineOrd, isVertical, low1, high1);
+      //-- release the input, since it is now held by the subtasks
+      parts0 = null;
+      parts1 = null;
+
+      List<Polygon> result;
+      if (pool == null) {
+        result = low.compute();
+        result.addAll(high.compute());
+      }
+      else {
+        low.fork();
+        List<Polygon> highResult = high.compute();
+        result = low.join();
+        result.addAll(highResult);
+      }
+      return result;
+    }
+  }
+
+  /**
+   * Tests whether the result in a region is empty
+   * because one of the inputs is empty there.
+   */
+  private boolean isEmptyResult(List<Part> parts0, List<Part> parts1) {
+    switch (opCode) {
+    case OverlayNG.INTERSECTION:
+      return parts0.isEmpty() || parts1.isEmpty();
+    case OverlayNG.DIFFERENCE:
+      return parts0.isEmpty();
+    }
+    return parts0.isEmpty() && parts1.isEmpty();
+  }
+
+  private List<Polygon> overlayTile(List<Part> parts0, List<Part> parts1) {
+    Geometry result = overlayArea(toGeometry(parts0), toGeometry(parts1));
+    List<Polygon> polys = new ArrayList<Polygon>();
+    for (int i = 0; i < result.getNumGeometries(); i++) {
+      Geometry poly = result.getGeometryN(i);
+      if (poly instanceof Polygon && ! poly.isEmpty()) {
+        polys.add((Polygon) poly);
+      }
+    }
+    return polys;
+  }
+
+  //=====================================================
+
+  /**
+   * Merges the tile results along the interior grid lines.
+   * Polygons which do not touch an interior grid line
+   * are part of the result as is.
+   */
+  private Geometry stitch(List<Polygon> tileResults) {
+    List<Polygon> result = new ArrayList<Polygon>();
+    List<Polygon> boundaryPolys = new ArrayList<Polygon>();
+    for (Polygon poly : tileResults) {
+      if (isOnGridLine(poly.getEnvelopeInternal())) {
+        boundaryPolys.add(poly);
+      }
+      else {
+        result.add(poly);
+      }
+    }
+    tileResults.clear();
+    if (! boundaryPolys.isEmpty()) {
+      List<Polygon> noded = nodeGridLines(boundaryPolys);
+      Geometry coverage = geomFact.createMultiPolygon(GeometryFactory.toPolygonArray(noded));
+      Geometry merged = OverlayNG.union(coverage, null, new GridLineChainNoder());
+      PolygonExtracter.getPolygons(merged, result);
+    }
+    if (result.isEmpty()) {
+      return geomFact.createPolygon();
+    }
+    return geomFact.buildGeometry(result);
+  }
+
+  private boolean isOnGridLine(Envelope env) {
+    return hasInteriorLine(gridX, env.getMinX(), env.getMaxX())
+        || hasInteriorLine(gridY, env.getMinY(), env.getMaxY());
+  }
+
+  private static boolean hasInteriorLine(double[] lines, double min, double max) {
+    for (int i = 1; i < lines.length - 1; i++) {
+      if (lines[i] >= min && lines[i] <= max) return true;
+    }
+    return false;
+  }
+
+  private static int interiorLineIndex(double[] lines, double v) {
+    int i = Arrays.binarySearch(lines, 1, lines.length - 1, v);
+    return i >= 0 ? i : -1;
+  }
+
+  /**
+   * Adds the vertices lying on each interior grid line
+   * to the segments of the polygons which lie along the line,
+   * so that the polygon boundaries match exactly
+   * as required to match them in a coverage union.
+   */
+  private List<Polygon> nodeGridLines(List<Polygon> polys) {
+    double[][] nodesX = new double[gridX.length][];
+    double[][] nodesY = new double[gridY.length][];
+    collectGridLineNodes(polys, nodesX, nodesY);
+
+    List<Polygon> noded = new ArrayList<Polygon>();
+    for (Polygon poly : polys) {
+      LinearRing shell = nodeRing(poly.getExteriorRing(), nodesX, nodesY);
+      LinearRing[] holes = new LinearRing[poly.getNumInteriorRing()];
+      for (int i = 0; i < holes.length; i++) {
+        holes[i] = nodeRing(poly.getInteriorRingN(i), nodesX, nodesY);
+      }
+      noded.add(geomFact.createPolygon(shell, holes));
+    }
+    return noded;
+  }
+
+  /**
+   * Collects the sorted ordinates along each interior grid line
+   * of the vertices lying on it.
+   *
+   * @param polys the polygons to scan
+   * @param nodesX the Y ordinates of the vertices on each vertical line
+   * @param nodesY the X ordinates of the vertices on each horizontal line
+   */
+  private void collectGridLineNodes(List<Polygon> polys, double[][] nodesX, double[][] nodesY) {
+    int[] countX = new int[gridX.length];
+    int[] countY = new int[gridY.length];
+    for (Polygon poly : polys) {
+      for (Coordinate p : poly.getCoordinates()) {
+        int ix = interiorLineIndex(gridX, p.x);
+        if (ix >= 0) {
+          nodesX[ix] = addOrdinate(nodesX[ix], countX[ix]++, p.y);
+        }
+        int iy = interiorLineIndex(gridY, p.y);
+        if (iy >= 0) {
+          nodesY[iy] = addOrdinate(nodesY[iy], countY[iy]++, p.x);
+        }
+      }
+    }
+    sortNodes(nodesX, countX);
+    sortNodes(nodesY, countY);
+  }
+
+  private static double[] addOrdinate(double[] ords, int index, double v) {
+    if (ords == null) {
+      ords = new double[16];
+    }
+    else if (index >= ords.length) {
+      ords = Arrays.copyOf(ords, 2 * ords.length);
+    }
+    ords[index] = v;
+    return ords;
+  }
+
+  private static void sortNodes(double[][] nodes, int[] count) {
+    for (int i = 0; i < nodes.length; i++) {
+      if (nodes[i] != null) {
+        nodes[i] = Arrays.copyOf(nodes[i], count[i]);
+        Arrays.sort(nodes[i]);
+      }
+    }
+  }
+
+  private LinearRing nodeRing(LinearRing ring, double[][] nodesX, double[][] nodesY) {
+    Coordinate[] pts = ring.getCoordinates();
+    CoordinateList noded = null;
+    for (int i = 0; i < pts.length - 1; i++) {
+      Coordinate p0 = pts[i];
+      Coordinate p1 = pts[i + 1];
+      double[] lineNodes = null;
+      boolean isVertical = false;
+      if (p0.x == p1.x) {
+        int ix = interiorLineIndex(gridX, p0.x);
+        if (ix >= 0) {
+          lineNodes = nodesX[ix];
+          isVertical = true;
+        }
+      }
+      else if (p0.y == p1.y) {
+        int iy = interiorLineIndex(gridY, p0.y);
+        if (iy >= 0) {
+          lineNodes = nodesY[iy];
+        }
+      }
+      if (lineNodes == null) {
+        if (noded != null) noded.add(p1, false);
+        continue;
+      }
+      if (noded == null) {
+        noded = new CoordinateList(Arrays.copyOf(pts, i + 1), false);
+      }
+      if (isVertical) {
+        addNodes(noded, lineNodes, p0.y, p1.y, p0.x, true);
+      }
+      else {
+        addNodes(noded, lineNodes, p0.x, p1.x, p0.y, false);
+      }
+      noded.add(p1, false);
+    }
+    if (noded == null) return ring;
+    return geomFact.createLinearRing(noded.toCoordinateArray());
+  }
+
+  /**
+   * Adds the nodes lying strictly inside a segment along a grid line,
+   * in the direction of the segment.
+   */
+  private static void addNodes(CoordinateList pts, double[] lineNodes,
+      double v0, double v1, double lineOrd, boolean isVertical) {
+    double min = Math.min(v0, v1);
+    double max = Math.max(v0, v1);
+    int start = Arrays.binarySearch(lineNodes, min);
+    start = start >= 0 ? start + 1 : -start - 1;
+    int end = start;
+    while (end < lineNodes.length && lineNodes[end] < max) end++;
+    if (v0 < v1) {
+      for (int i = start; i < end; i++) {
+        pts.add(nodeCoord(lineNodes[i], lineOrd, isVertical), false);
+      }
+    }
+    else {
+      for (int i = end - 1; i >= start; i--) {
+        pts.add(nodeCoord(lineNodes[i], lineOrd, isVertical), false);
+      }
+    }
+  }
+
+  private static Coordinate nodeCoord(double v, double lineOrd, boolean isVertical) {
+    return isVertical ? new Coordinate(lineOrd, v) : new Coordinate(v, lineOrd);
+  }
+
+  /**
+   * A {@link Noder} for the union of a polygonal coverage
+   * whose polygons can share segments only along the interior grid lines.
+   * Like {@link BoundaryChainNoder} it extracts the chains of segments
+   * which are not shared, but only segments on grid lines need to be matched.
+   */
+  private class GridLineChainNoder implements Noder {
+
+    private List<SegmentString> chains;
+
+    @Override
+    public void computeNodes(Collection segStrings) {
+      List<boolean[]> isSharedList = new ArrayList<boolean[]>();
+      Map<LineSegment, int[]> gridSegs = new HashMap<LineSegment, int[]>();
+      int ssIndex = 0;
+      for (Object obj : segStrings) {
+        SegmentString ss = (SegmentString) obj;
+        boolean[] isShared = new boolean[ss.size() - 1];
+        isSharedList.add(isShared);
+        for (int i = 0; i < ss.size() - 1; i++) {
+          Coordinate p0 = ss.getCoordinate(i);
+          Coordinate p1 = ss.getCoordinate(i + 1);
+          if (! isOnGridLine(p0, p1)) continue;
+          LineSegment seg = new LineSegment(p0, p1);
+          seg.normalize();
+          int[] match = gridSegs.remove(seg);
+          if (match == null) {
+            gridSegs.put(seg, new int[] { ssIndex, i });
+          }
+          else {
+            isShared[i] = true;
+            isSharedList.get(match[0])[match[1]] = true;
+          }
+        }
+        ssIndex++;
+      }
+      chains = new ArrayList<SegmentString>();
+      ssIndex = 0;
+      for (Object obj : segStrings) {
+        addChains((SegmentString) obj, isSharedList.get(ssIndex++), chains);
+      }
+    }
+
+    private boolean isOnGridLine(Coordinate p0, Coordinate p1) {
+      if (p0.x == p1.x && interiorLineIndex(gridX, p0.x) >= 0) return true;
+      return p0.y == p1.y && interiorLineIndex(gridY, p0.y) >= 0;
+    }
+
+    private void addChains(SegmentString ss, boolean[] isShared, List<SegmentString> chains) {
+      int i = 0;
+      while (i < isShared.length) {
+        if (isShared[i]) {
+          i++;
+          continue;
+        }
+        int start = i;
+        while (i < isShared.length && ! isShared[i]) i++;
+        Coordinate[] pts = new Coordinate[i - start + 1];
+        for (int j = start; j <= i; j++) {
+          pts[j - start] = ss.getCoordinate(j).copy();
+        }
+        chains.add(new BasicSegmentString(pts, ss.getData()));
+      }
+    }
+
+    @Override
+    public Collection getNodedSubstrings() {
+      return chains;
+    }
+  }
+
+  //=====================================================
+
+  /**
+   * A polygon being clipped, represented by its ring coordinates.
+   */
+  private static class Part {
+    final Coordinate[][] rings;
+    final Envelope env;
+
+    Part(Coordinate[][] rings) {
+      this.rings = rings;
+      env = new Envelope();
+      for (Coordinate p : rings[0]) {
+        env.expandToInclude(p);
+      }
+    }
+  }
+
+  private static List<Part> toParts(Geometry geom) {
+    List<Part> parts = new ArrayList<Part>();
+    for (int i = 0; i < geom.getNumGeometries(); i++) {
+      Polygon poly = (Polygon) geom.getGeometryN(i);
+      if (poly.isEmpty()) continue;
+      //-- the splitter requires the polygon interior to lie to the right of the rings
+      Coordinate[][] rings = new Coordinate[1 + poly.getNumInteriorRing()][];
+      rings[0] = orient(poly.getExteriorRing().getCoordinates(), false);
+      for (int j = 0; j < poly.getNumInteriorRing(); j++) {
+        rings[j + 1] = orient(poly.getInteriorRingN(j).getCoordinates(), true);
+      }
+      parts.add(new Part(rings));
+    }
+    return parts;
+  }
+
+  private static Coordinate[] orient(Coordinate[] ring, boolean isCCW) {
+    if (Orientation.isCCW(ring) == isCCW) return ring;
+    Coordinate[] reversed = ring.clone();
+    CoordinateArrays.reverse(reversed);
+    return reversed;
+  }
+
+  private Geometry toGeometry(List<Part> parts) {
+    Polygon[] polys = new Polygon[parts.size()];
+    for (int i = 0; i < polys.length; i++) {
+      Coordinate[][] rings = parts.get(i).rings;
+      LinearRing[] holes = new LinearRing[rings.length - 1];
+      for (int j = 0; j < holes.length; j++) {
+        holes[j] = geomFact.createLinearRing(rings[j + 1]);
+      }
+      polys[i] = geomFact.createPolygon(geomFact.createLinearRing(rings[0]), holes);
+    }
+    return geomFact.createMultiPolygon(polys);
+  }
+
+  /**
+   * Clips parts to an envelope.
+   * Parts disjoint from the envelope are dropped,
+   * and parts covered by it are kept unchanged.
+   */
+  private static List<Part> clip(List<Part> parts, Envelope clipEnv) {
+    parts = clipToSide(parts, clipEnv.getMinX(), true, false);
+    parts = clipToSide(parts, clipEnv.getMaxX(), true, true);
+    parts = clipToSide(parts, clipEnv.getMinY(), false, false);
+    return clipToSide(parts, clipEnv.getMaxY(), false, true);
+  }
+
+  private static List<Part> clipToSide(List<Part> parts, double lineOrd, boolean isVertical, boolean isLow) {
+    List<Part> result = new ArrayList<Part>();
+    if (isLow) {
+      split(parts, lineOrd, isVertical, result, null);
+    }
+    else {
+      split(parts, lineOrd, isVertical, null, result);
+    }
+    return result;
+  }
+
+  /**
+   * Splits parts along a grid line into the parts on each side of the line,
+   * using a {@link PolygonLineSplitter}.
+   *
+   * @param parts the parts to split
+   * @param lineOrd the ordinate of the grid line
+   * @param isVertical true if the grid line is vertical
+   * @param low the list to add the parts below or to the left of the line to, or null
+   * @param high the list to add the parts above or to the right of the line to, or null
+   */
+  private static void split(List<Part> parts, double lineOrd, boolean isVertical,
+      List<Part> low, List<Part> high) {
+    PolygonLineSplitter splitter = new PolygonLineSplitter(lineOrd, isVertical);
+    List<Coordinate[][]> lowPolys = low == null ? null : new ArrayList<Coordinate[][]>();
+    List<Coordinate[][]> highPolys = high == null ? null : new ArrayList<Coordinate[][]>();
+    for (Part part : parts) {
+      double min = isVertical ? part.env.getMinX() : part.env.getMinY();
+      double max = isVertical ? part.env.getMaxX() : part.env.getMaxY();
+      if (max < lineOrd) {
+        if (low != null) low.add(part);
+        continue;
+      }
+      if (min >= lineOrd) {
+        if (high != null) high.add(part);
+        continue;
+      }
+      splitter.split(part.rings, lowPolys, highPolys);
+    }
+    addParts(lowPolys, low);
+    addParts(highPolys, high);
+  }
+
+  private static void addParts(List<Coordinate[][]> polys, List<Part> parts) {
+    if (polys == null) return;
+    for (Coordinate[][] rings : polys) {
+      parts.add(new Part(rings));
+    }
+  }
+}
@@ -55,7 +55,7 @@ public class HoleAssigner
   private void buildIndex() {
     shellIndex = new STRtree();
     for (EdgeRing shell : shells) {
-      shellIndex.insert(shell.getRing().getEnvelopeInternal(), shell);
+      shellIndex.insert(shell.getRing().getEnvelopeReadOnly(), shell);
     }
   }
 
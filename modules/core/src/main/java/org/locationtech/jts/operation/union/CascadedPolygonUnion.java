@@ -15,6 +15,9 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryCollection;
@@ -43,6 +46,11 @@ import org.locationtech.jts.util.Debug;
  * This algorithm is faster and more robust than
  * the simple iterated approach of
  * repeatedly unioning each polygon to a result geometry.
+ * <p>
+ * The unions of independent subtrees can be computed concurrently
+ * (see {@link #setParallelUnion(ForkJoinPool)}).
+ * The geometries are unioned in the same order as for a sequential union,
+ * so the result is identical.
  *
  * @author Martin Davis
  *
@@ -94,11 +102,35 @@ public class CascadedPolygonUnion
     return op.union();
   }
 
+  /**
+   * Computes the union of
+   * a collection of {@link Polygonal} {@link Geometry}s,
+   * unioning independent subtrees concurrently using a given pool.
+   *
+   * @param polys a collection of {@link Polygonal} {@link Geometry}s
+   * @param unionFun the union strategy to use (which must be thread-safe)
+   * @param pool the pool to compute the union in
+   */
+  public static Geometry union(Collection polys, UnionStrategy unionFun, ForkJoinPool pool)
+  {
+    CascadedPolygonUnion op = new CascadedPolygonUnion(polys, unionFun);
+    op.setParallelUnion(pool);
+    return op.union();
+  }
+
+  /**
+   * The default minimum number of input geometries 
+   * in a subtree for it to be unioned in parallel.
+   */
+  public static final int DEFAULT_PARALLEL_THRESHOLD = 64;
+
 	private Collection inputPolys;
 	private GeometryFactory geomFactory = null;
   private UnionStrategy unionFun;
+  private ForkJoinPool pool = null;
+  private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
 
-  private int countRemainder = 0;
+  private AtomicInteger countRemainder = new AtomicInteger();
   private int countInput = 0;
 
   /**
@@ -126,7 +158,39 @@ public class CascadedPolygonUnion
     if (inputPolys == null)
       inputPolys = new ArrayList();
     this.countInput = inputPolys.size();
-    this.countRemainder = countInput;
+    this.countRemainder.set(countInput);
+  }
+
+  /**
+   * Sets the pool used to compute the union in parallel.
+   * When a pool is set, the subtrees of the spatial index
+   * containing at least the parallel threshold number of geometries
+   * are unioned as separate tasks,
+   * as are the two halves of each binary union of the subtree results.
+   * The union strategy must be safe to call from multiple threads.
+   * <p>
+   * The result is identical to the result of a sequential union.
+   *
+   * @param pool the pool to compute the union in, or null to compute sequentially (the default)
+   */
+  public void setParallelUnion(ForkJoinPool pool)
+  {
+    this.pool = pool;
+  }
+
+  /**
+   * Sets the minimum number of input geometries
+   * a subtree must contain to be unioned as a separate task
+   * when computing in parallel.
+   * Smaller subtrees are unioned sequentially, 
+   * to avoid the overhead of creating small tasks.
+   * The default is {@link #DEFAULT_PARALLEL_THRESHOLD}.
+   *
+   * @param parallelThreshold the minimum number of geometries in a parallel subtree
+   */
+  public void setParallelThreshold(int parallelThreshold)
+  {
+    this.parallelThreshold = parallelThreshold;
   }
   /**
    * The effectiveness of the index is somewhat sensitive
@@ -167,16 +231,23 @@ public class CascadedPolygonUnion
 		 */
 //    STRtree index = new STRtree();
     STRtree index = new STRtree(STRTREE_NODE_CAPACITY);
+    index.setParallelBuild(pool);
     for (Iterator i = inputPolys.iterator(); i.hasNext(); ) {
       Geometry item = (Geometry) i.next();
-      index.insert(item.getEnvelopeInternal(), item);
+      index.insert(item.getEnvelopeReadOnly(), item);
     }
     // To avoiding holding memory remove references to the input geometries,
     inputPolys = null;
 
     List itemTree = index.itemsTree();
 //    printItemEnvelopes(itemTree);
-    Geometry unionAll = unionTree(itemTree);
+    Geometry unionAll;
+    if (pool == null) {
+      unionAll = unionTree(itemTree);
+    }
+    else {
+      unionAll = pool.invoke(new UnionTreeTask(itemTree));
+    }
     return unionAll;
 	}
 
@@ -196,6 +267,109 @@ public class CascadedPolygonUnion
     return union;
   }
 
+  /**
+   * Unions a subtree, unioning large child subtrees as separate tasks.
+   * This must be run in the pool.
+   */
+  private Geometry unionTreeParallel(List geomTree)
+  {
+    if (countItems(geomTree) < parallelThreshold)
+      return unionTree(geomTree);
+
+    List tasks = new ArrayList();
+    for (Iterator i = geomTree.iterator(); i.hasNext(); ) {
+      Object o = i.next();
+      if (o instanceof List) {
+        UnionTreeTask task = new UnionTreeTask((List) o);
+        task.fork();
+        tasks.add(task);
+      }
+      else {
+        tasks.add(o);
+      }
+    }
+    // join in reverse fork order, so tasks not yet stolen run on this thread
+    List geoms = new ArrayList(tasks);
+    for (int i = tasks.size() - 1; i >= 0; i--) {
+      Object o = tasks.get(i);
+      if (o instanceof UnionTreeTask) {
+        geoms.set(i, ((UnionTreeTask) o).join());
+      }
+    }
+    return binaryUnionParallel(geoms, 0, geoms.size());
+  }
+
+  /**
+   * Unions a section of a list using a binary union,
+   * computing the union of the first half of each section as a separate task.
+   * The geometries are unioned in the same order as in {@link #binaryUnion(List, int, int)}.
+   * This must be run in the pool.
+   */
+  private Geometry binaryUnionParallel(List geoms, int start, int end)
+  {
+    if (end - start <= 2) {
+      return binaryUnion(geoms, start, end);
+    }
+    int mid = (end + start) / 2;
+    BinaryUnionTask task0 = new BinaryUnionTask(geoms, start, mid);
+    task0.fork();
+    Geometry g1 = binaryUnionParallel(geoms, mid, end);
+    Geometry g0 = task0.join();
+    return unionSafe(g0, g1);
+  }
+
+  /**
+   * Counts the input geometries in a subtree.
+   */
+  private static int countItems(List geomTree)
+  {
+    int count = 0;
+    for (Iterator i = geomTree.iterator(); i.hasNext(); ) {
+      Object o = i.next();
+      if (o instanceof List) {
+        count += countItems((List) o);
+      }
+      else {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private class UnionTreeTask extends RecursiveTask<Geometry>
+  {
+    private final List geomTree;
+
+    UnionTreeTask(List geomTree)
+    {
+      this.geomTree = geomTree;
+    }
+
+    protected Geometry compute()
+    {
+      return unionTreeParallel(geomTree);
+    }
+  }
+
+  private class BinaryUnionTask extends RecursiveTask<Geometry>
+  {
+    private final List geoms;
+    private final int start;
+    private final int end;
+
+    BinaryUnionTask(List geoms, int start, int end)
+    {
+      this.geoms = geoms;
+      this.start = start;
+      this.end = end;
+    }
+
+    protected Geometry compute()
+    {
+      return binaryUnionParallel(geoms, start, end);
+    }
+  }
+
   //========================================================
   /*
    * The following methods are for experimentation only
@@ -312,9 +486,9 @@ public class CascadedPolygonUnion
   	if (g1 == null)
   		return g0.copy();
 
-  	countRemainder--;
+  	int remainder = countRemainder.decrementAndGet();
   	if (Debug.isDebugging()) {
-  	  Debug.println("Remainder: " + countRemainder + " out of " + countInput);
+  	  Debug.println("Remainder: " + remainder + " out of " + countInput);
       Debug.print("Union: A: " + g0.getNumPoints() + " / B: " + g1.getNumPoints() + "  ---  "  );
   	}
 
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.operation.union;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.geom.util.PolygonExtracter;
+
+/**
+ * Unions a set of polygonal geometries by partitioning them
+ * into connected sets of polygons.
+ * This works best for a <i>sparse</i> set of polygons.
+ * Sparse means that if the geometries are partioned
+ * into connected sets, the number of sets
+ * is a significant fraction of the total number of geometries.
+ * The algorithm used provides performance and memory advantages
+ * over the {@link CascadedPolygonUnion} algorithm,
+ * since the cost of the union is determined by the size of the 
+ * largest connected set rather than the size of the whole input.
+ * It also has the advantage that it does not alter input geometries
+ * which do not intersect any other input geometry.
+ * <p>
+ * The candidate pairs of intersecting polygons are found using a spatial index
+ * (see {@link SpatialPartition}).
+ * Each polygon is prepared at most once, 
+ * and only if it has candidate neighbours which are not already
+ * known to be in the same set.
+ * <p>
+ * The connected sets can be unioned concurrently 
+ * (see {@link #setParallelUnion(ForkJoinPool)}).
+ * The result is the same as the result of a sequential union.
+ * <p>
+ * Non-sparse sets are computed correctly, but may be slower than using cascaded union.
+ * 
+ * @author Martin Davis
+ *
+ */
+public class PartitionedUnion {
+  
+  /**
+   * Computes the union of the polygonal components of a geometry.
+   * 
+   * @param geoms a geometry containing polygons
+   * @return the union of the polygons, or null if there are none
+   */
+  public static Geometry union(Geometry geoms)
+  {
+    List polys = PolygonExtracter.getPolygons(geoms);
+    PartitionedUnion op = new PartitionedUnion(polys);
+    return op.union();
+  }
+
+  /**
+   * Computes the union of the polygonal components of a geometry,
+   * unioning the connected sets concurrently using a given pool.
+   * 
+   * @param geoms a geometry containing polygons
+   * @param pool the pool to compute the union in
+   * @return the union of the polygons, or null if there are none
+   */
+  public static Geometry union(Geometry geoms, ForkJoinPool pool)
+  {
+    List polys = PolygonExtracter.getPolygons(geoms);
+    PartitionedUnion op = new PartitionedUnion(polys);
+    op.setParallelUnion(pool);
+    return op.union();
+  }
+
+  private Geometry[] inputPolys;
+  private ForkJoinPool pool = null;
+  
+  /**
+   * Creates a new instance to union
+   * the given collection of polygonal geometries.
+   * 
+   * @param polys a collection of {@link org.locationtech.jts.geom.Polygonal} geometries
+   */
+  public PartitionedUnion(Collection<Geometry> polys)
+  {
+    this.inputPolys = toArray(polys);
+  }
+  
+  /**
+   * Sets the pool used to compute the union in parallel.
+   * When a pool is set, each connected set of polygons is unioned
+   * as a separate task, 
+   * and large sets are unioned with a parallel {@link CascadedPolygonUnion}.
+   *
+   * @param pool the pool to compute the union in, or null to compute sequentially (the default)
+   */
+  public void setParallelUnion(ForkJoinPool pool)
+  {
+    this.pool = pool;
+  }
+
+  private static Geometry[] toArray(Collection<Geometry> polys) {
+    return polys.toArray(new Geometry[0]);
+  }
+  
+  /**
+   * Computes the union of the input geometries.
+   * 
+   * @return the union of the input geometries,
+   * or null if no input geometries were provided
+   */
+  public Geometry union()
+  {
+    if (inputPolys.length == 0)
+      return null;
+    
+    SpatialPartition part = new SpatialPartition(inputPolys, new IntersectsRelation(inputPolys));
+    
+    //--- compute union of each set
+    GeometryFactory geomFactory = inputPolys[0].getFactory();
+    Geometry[] unionGeoms = new Geometry[part.getCount()];
+    if (pool == null) {
+      for (int i = 0; i < unionGeoms.length; i++) {
+        unionGeoms[i] = union(part, i);
+      }
+    }
+    else {
+      pool.invoke(new PartitionUnionTask(part, unionGeoms, 0, unionGeoms.length));
+    }
+    List<Geometry> unionList = new ArrayList<Geometry>(unionGeoms.length);
+    for (int i = 0; i < unionGeoms.length; i++) {
+      unionList.add(unionGeoms[i]);
+    }
+    return geomFactory.buildGeometry(unionList);
+  }
+
+  private Geometry union(SpatialPartition part, int s) {
+    //--- one geom in partition, so just copy it
+    if (part.getSize(s) == 1) {
+      return part.getGeometry(s, 0).copy();
+    }
+
+    List<Geometry> setGeoms = new ArrayList<Geometry>();
+    for (int i = 0; i < part.getSize(s); i++) {
+      setGeoms.add( part.getGeometry(s, i) );
+    }
+    CascadedPolygonUnion op = new CascadedPolygonUnion(setGeoms);
+    if (pool != null && setGeoms.size() >= CascadedPolygonUnion.DEFAULT_PARALLEL_THRESHOLD) {
+      op.setParallelUnion(pool);
+    }
+    return op.union();
+  }
+
+  /**
+   * Tests whether polygons intersect.
+   * The partition is computed by querying with each polygon in turn,
+   * so the first polygon of the pair is prepared
+   * and reused for the following pairs with the same first polygon.
+   */
+  private static class IntersectsRelation implements SpatialPartition.EquivalenceRelation {
+    private Geometry[] geoms;
+    private int preparedIndex = -1;
+    private PreparedGeometry prepared;
+
+    IntersectsRelation(Geometry[] geoms) {
+      this.geoms = geoms;
+    }
+
+    @Override
+    public boolean isEquivalent(int i, int j) {
+      if (i != preparedIndex) {
+        prepared = PreparedGeometryFactory.prepare(geoms[i]);
+        preparedIndex = i;
+      }
+      return prepared.intersects(geoms[j]);
+    }
+  }
+
+  /**
+   * Unions a range of the partition sets, splitting large ranges into subtasks.
+   */
+  private class PartitionUnionTask extends RecursiveAction {
+    private static final int MAX_SETS_PER_TASK = 16;
+
+    private SpatialPartition part;
+    private Geometry[] unionGeoms;
+    private int start;
+    private int end;
+
+    PartitionUnionTask(SpatialPartition part, Geometry[] unionGeoms, int start, int end) {
+      this.part = part;
+      this.unionGeoms = unionGeoms;
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    protected void compute() {
+      if (end - start <= MAX_SETS_PER_TASK) {
+        for (int i = start; i < end; i++) {
+          unionGeoms[i] = union(part, i);
+        }
+        return;
+      }
+      int mid = (start + end) / 2;
+      invokeAll(new PartitionUnionTask(part, unionGeoms, start, mid),
+          new PartitionUnionTask(part, unionGeoms, mid, end));
+    }
+  }
+}
@@ -11,8 +11,10 @@
  */
 package org.locationtech.jts.operation.union;
 
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.index.ItemVisitor;
+import org.locationtech.jts.index.hprtree.HPRtree;
 import org.locationtech.jts.index.strtree.STRtree;
 import org.locationtech.jts.operation.union.DisjointSets.Subsets;
 
@@ -20,6 +22,18 @@ import org.locationtech.jts.operation.union.DisjointSets.Subsets;
  * Computes a partition of a set of geometries into disjoint subsets, 
  * based on a provided equivalence {@link EquivalenceRelation}.
  * Uses a spatial index for efficient processing.
+ * <p>
+ * The relation is evaluated only for pairs of geometries 
+ * whose envelopes intersect and which are not already known
+ * to be in the same subset.
+ * For distance-based relations a query distance can be provided,
+ * in which case the pairs evaluated are those whose envelopes
+ * are within that distance
+ * (in the units of the default {@link org.locationtech.jts.geom.GeometryFactory}).
+ * Pairs <code>(i, j)</code> are evaluated with <code>i &lt; j</code>, 
+ * and all the pairs for a given <code>i</code> are evaluated consecutively,
+ * in increasing order of <code>i</code>.
+ * This allows a relation to cache information about geometry <code>i</code>.
  * 
  * @author mdavis
  *
@@ -46,9 +60,29 @@ public class SpatialPartition {
   private Subsets sets;
   private Geometry[] geoms;
 
+  /**
+   * Creates a partition for a relation which holds only
+   * for geometries whose envelopes intersect.
+   * 
+   * @param geoms the geometries to partition
+   * @param rel the equivalence relation
+   */
   public SpatialPartition(Geometry[] geoms, EquivalenceRelation rel) {
+    this(geoms, 0.0, rel);
+  }
+
+  /**
+   * Creates a partition for a relation which holds only
+   * for geometries within a given distance of each other
+   * (such as <code>withinDistance</code>).
+   * 
+   * @param geoms the geometries to partition
+   * @param distance the distance within which the relation may hold
+   * @param rel the equivalence relation
+   */
+  public SpatialPartition(Geometry[] geoms, double distance, EquivalenceRelation rel) {
     this.geoms = geoms;
-    sets = build(geoms, rel);
+    sets = build(geoms, distance, rel);
   }
 
   /**
@@ -89,7 +123,7 @@ public class SpatialPartition {
     return geoms[ getItem(s, i) ];
   }
   
-  private Subsets build(Geometry[] geoms, EquivalenceRelation rel) {
+  private Subsets build(Geometry[] geoms, double distance, EquivalenceRelation rel) {
     STRtree index = createIndex(geoms);
     
     DisjointSets dset = new DisjointSets(geoms.length);
@@ -98,8 +132,11 @@ public class SpatialPartition {
       
       final int queryIndex = i;
       Geometry queryGeom = geoms[i];
-      // TODO: allow expanding query env to account for distance-based relations
-      index.query(queryGeom.getEnvelopeInternal(), new ItemVisitor() {
+      Envelope queryEnv = queryGeom.getEnvelopeReadOnly();
+      if (distance > 0.0) {
+        queryEnv = HPRtree.expandByDistance(queryEnv, distance);
+      }
+      index.query(queryEnv, new ItemVisitor() {
 
         @Override
         public void visitItem(Object item) {
@@ -125,7 +162,7 @@ public class SpatialPartition {
   private STRtree createIndex(Geometry[] geoms) {
     STRtree index = new STRtree();
     for (int i = 0; i < geoms.length; i++) {
-      index.insert(geoms[i].getEnvelopeInternal(), new Integer(i));
+      index.insert(geoms[i].getEnvelopeReadOnly(), Integer.valueOf(i));
     }
     return index;
   }
@@ -14,6 +14,7 @@ package org.locationtech.jts.operation.union;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryCollection;
@@ -111,6 +112,7 @@ public class UnaryUnionOp
 
   private InputExtracter extracter;
   private UnionStrategy unionFunction = CascadedPolygonUnion.CLASSIC_UNION;
+  private ForkJoinPool parallelPool = null;
 
 	/**
 	 * Constructs a unary union operation for a {@link Collection} 
@@ -150,6 +152,17 @@ public class UnaryUnionOp
 	public void setUnionFunction(UnionStrategy unionFun) {
 	  this.unionFunction = unionFun;
 	}
+
+	/**
+	 * Sets the pool used to union polygonal inputs in parallel
+	 * (see {@link CascadedPolygonUnion#setParallelUnion(ForkJoinPool)}).
+	 * The union function must be safe to call from multiple threads.
+	 * 
+	 * @param pool the pool to compute the union in, or null to compute sequentially (the default)
+	 */
+	public void setParallelUnion(ForkJoinPool pool) {
+	  this.parallelPool = pool;
+	}
 	
 	private void extract(Collection geoms)
 	{
@@ -216,7 +229,7 @@ public class UnaryUnionOp
 		
 		Geometry unionPolygons = null;
 		if (polygons.size() > 0) {
-			unionPolygons = CascadedPolygonUnion.union(polygons, unionFunction);
+			unionPolygons = CascadedPolygonUnion.union(polygons, unionFunction, parallelPool);
 		}
 		
     /**
@@ -11,7 +11,12 @@
  */
 package org.locationtech.jts.operation.valid;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryCollection;
 import org.locationtech.jts.geom.LineString;
@@ -25,6 +30,18 @@ import org.locationtech.jts.geom.Polygon;
  * Implements the algorithms required to compute the <code>isValid()</code> method
  * for {@link Geometry}s.
  * See the documentation for the various geometry types for a specification of validity.
+ * <p>
+ * The elements of a {@link MultiPolygon} can be validated in parallel
+ * using a {@link ForkJoinPool} (see {@link #setParallelValidation(ForkJoinPool)}).
+ * In this mode each element polygon is checked concurrently
+ * for valid coordinates, closed rings, ring sizes, 
+ * intersections between its own rings, hole nesting and interior connectivity.
+ * If all elements are valid, the intersections between rings of different elements
+ * and the nesting of element shells are then checked.
+ * The validity computed is the same as in sequential mode,
+ * but if the geometry has several errors the one reported may differ.
+ * If fast-fail is set (see {@link #setFastFail(boolean)}) 
+ * the element checks stop as soon as any of them finds an error.
  *
  * @version 1.7
  */
@@ -44,6 +61,23 @@ public class IsValidOp
     return isValidOp.isValid();
   }
   
+  /**
+   * Tests whether a {@link Geometry} is valid,
+   * validating the elements of a MultiPolygon in parallel.
+   * 
+   * @param geom the Geometry to test
+   * @param pool the pool to validate the elements in
+   * @param isFastFail true if validation stops at the first error found
+   * @return true if the geometry is valid
+   */
+  public static boolean isValid(Geometry geom, ForkJoinPool pool, boolean isFastFail)
+  {
+    IsValidOp isValidOp = new IsValidOp(geom);
+    isValidOp.setParallelValidation(pool);
+    isValidOp.setFastFail(isFastFail);
+    return isValidOp.isValid();
+  }
+  
   /**
    * Checks whether a coordinate is valid for processing.
    * Coordinates are valid if their x and y ordinates are in the
@@ -54,11 +88,7 @@ public class IsValidOp
    */
   public static boolean isValid(Coordinate coord)
   {
-    if (Double.isNaN(coord.x)) return false;
-    if (Double.isInfinite(coord.x)) return false;
-    if (Double.isNaN(coord.y)) return false;
-    if (Double.isInfinite(coord.y)) return false;
-    return true;
+    return isValidOrdinates(coord.x, coord.y);
   }
   
   /**
@@ -71,6 +101,14 @@ public class IsValidOp
    */
   private boolean isInvertedRingValid = false;
   
+  private ForkJoinPool pool = null;
+  private boolean isFastFail = false;
+  /**
+   * Set when validating an element of a MultiPolygon in parallel with fast-fail,
+   * to signal that another element is invalid.
+   */
+  private AtomicBoolean isAborted = null;
+  
   private TopologyValidationError validErr;
 
   /**
@@ -117,6 +155,35 @@ public class IsValidOp
     isInvertedRingValid = isValid;
   }
 
+  /**
+   * Sets the pool used to validate the elements of MultiPolygons in parallel.
+   * If the pool is null (the default) validation is sequential.
+   *
+   * @param pool the pool to use, or null
+   */
+  public void setParallelValidation(ForkJoinPool pool)
+  {
+    this.pool = pool;
+  }
+
+  /**
+   * Sets whether parallel validation stops as soon as an error is found.
+   * In fast-fail mode the element checks which are running stop
+   * at their next step, and checks which have not started are skipped.
+   * The error reported is then the first one found,
+   * which depends on the scheduling of the element checks.
+   * Otherwise all elements are checked, 
+   * and the error reported is the one in the first invalid element.
+   * <p>
+   * Sequential validation always stops at the first error.
+   *
+   * @param isFastFail true if parallel validation stops at the first error
+   */
+  public void setFastFail(boolean isFastFail)
+  {
+    this.isFastFail = isFastFail;
+  }
+
   /**
    * Tests the validity of the input geometry.
    * 
@@ -146,8 +213,8 @@ public class IsValidOp
   }
   
   private boolean hasInvalidError() {
-    return validErr != null;
-    
+    if (validErr != null) return true;
+    return isAborted != null && isAborted.get();
   }
   
   private boolean isValidGeometry(Geometry g)
@@ -174,7 +241,7 @@ public class IsValidOp
    */
   private boolean isValid(Point g)
   {
-    checkCoordinatesValid(g.getCoordinates());
+    checkCoordinatesValid(g.getCoordinateSequence());
     if (hasInvalidError()) return false;
     return true;
   }
@@ -184,8 +251,10 @@ public class IsValidOp
    */
   private boolean isValid(MultiPoint g)
   {
-    checkCoordinatesValid(g.getCoordinates());
-    if (hasInvalidError()) return false;
+    for (int i = 0; i < g.getNumGeometries(); i++) {
+      checkCoordinatesValid(((Point) g.getGeometryN(i)).getCoordinateSequence());
+      if (hasInvalidError()) return false;
+    }
     return true;
   }
 
@@ -195,7 +264,7 @@ public class IsValidOp
    */
   private boolean isValid(LineString g)
   {
-    checkCoordinatesValid(g.getCoordinates());
+    checkCoordinatesValid(g.getCoordinateSequence());
     if (hasInvalidError()) return false;
     checkPointSize(g, MIN_SIZE_LINESTRING);
     if (hasInvalidError()) return false;
@@ -207,7 +276,7 @@ public class IsValidOp
    */
   private boolean isValid(LinearRing g)
   {
-    checkCoordinatesValid(g.getCoordinates());
+    checkCoordinatesValid(g.getCoordinateSequence());
     if (hasInvalidError()) return false;
     
     checkRingClosed(g);
@@ -260,6 +329,9 @@ public class IsValidOp
    */
   private boolean isValid(MultiPolygon g)
   {
+    if (pool != null && g.getNumGeometries() > 1)
+      return isValidParallel(g);
+    
     for (int i = 0; i < g.getNumGeometries(); i++) {
       Polygon p = (Polygon) g.getGeometryN(i);
       checkCoordinatesValid(p);
@@ -295,6 +367,77 @@ public class IsValidOp
     return true;
   }
 
+  /**
+   * Tests validity of a MultiPolygon, 
+   * validating the element polygons in parallel.
+   * 
+   * @param g
+   * @return
+   */
+  private boolean isValidParallel(MultiPolygon g)
+  {
+    TopologyValidationError[] elementErrs = new TopologyValidationError[g.getNumGeometries()];
+    AtomicBoolean isElementInvalid = new AtomicBoolean(false);
+    pool.invoke(new ElementValidTask(g, 0, g.getNumGeometries(), elementErrs, isElementInvalid));
+    for (TopologyValidationError err : elementErrs) {
+      if (err != null) {
+        validErr = err;
+        return false;
+      }
+    }
+    
+    checkElementIntersections(g);
+    if (hasInvalidError()) return false;
+    
+    checkShellsNotNested(g);
+    if (hasInvalidError()) return false;
+    
+    return true;
+  }
+  
+  /**
+   * Validates a range of the elements of a MultiPolygon,
+   * splitting the range into subtasks until it contains a single element.
+   */
+  private class ElementValidTask extends RecursiveAction {
+    private MultiPolygon mp;
+    private int start;
+    private int end;
+    private TopologyValidationError[] elementErrs;
+    private AtomicBoolean isElementInvalid;
+    
+    ElementValidTask(MultiPolygon mp, int start, int end, 
+        TopologyValidationError[] elementErrs, AtomicBoolean isElementInvalid) {
+      this.mp = mp;
+      this.start = start;
+      this.end = end;
+      this.elementErrs = elementErrs;
+      this.isElementInvalid = isElementInvalid;
+    }
+
+    @Override
+    protected void compute() {
+      if (isFastFail && isElementInvalid.get()) 
+        return;
+      if (end - start > 1) {
+        int mid = (start + end) / 2;
+        invokeAll(new ElementValidTask(mp, start, mid, elementErrs, isElementInvalid),
+            new ElementValidTask(mp, mid, end, elementErrs, isElementInvalid));
+        return;
+      }
+      Polygon poly = (Polygon) mp.getGeometryN(start);
+      IsValidOp elementOp = new IsValidOp(poly);
+      elementOp.isInvertedRingValid = isInvertedRingValid;
+      if (isFastFail) {
+        elementOp.isAborted = isElementInvalid;
+      }
+      if (! elementOp.isValidGeometry(poly) && elementOp.validErr != null) {
+        elementErrs[start] = elementOp.validErr;
+        isElementInvalid.set(true);
+      }
+    }
+  }
+
   /**
    * Tests validity of a GeometryCollection.
    * 
@@ -310,22 +453,31 @@ public class IsValidOp
     return true;
   }
 
-  private void checkCoordinatesValid(Coordinate[] coords)
+  private void checkCoordinatesValid(CoordinateSequence seq)
   {
-    for (int i = 0; i < coords.length; i++) {
-      if (! isValid(coords[i])) {
-        logInvalid(TopologyValidationError.INVALID_COORDINATE, coords[i]);
+    for (int i = 0; i < seq.size(); i++) {
+      if (! isValidOrdinates(seq.getX(i), seq.getY(i))) {
+        logInvalid(TopologyValidationError.INVALID_COORDINATE, seq.getCoordinateCopy(i));
         return;
       }
     }
   }
 
+  private static boolean isValidOrdinates(double x, double y)
+  {
+    if (Double.isNaN(x)) return false;
+    if (Double.isInfinite(x)) return false;
+    if (Double.isNaN(y)) return false;
+    if (Double.isInfinite(y)) return false;
+    return true;
+  }
+
   private void checkCoordinatesValid(Polygon poly)
   {
-    checkCoordinatesValid(poly.getExteriorRing().getCoordinates());
+    checkCoordinatesValid(poly.getExteriorRing().getCoordinateSequence());
     if (hasInvalidError()) return;
     for (int i = 0; i < poly.getNumInteriorRing(); i++) {
-      checkCoordinatesValid(poly.getInteriorRingN(i).getCoordinates());
+      checkCoordinatesValid(poly.getInteriorRingN(i).getCoordinateSequence());
       if (hasInvalidError()) return;
     }
   }
@@ -387,18 +539,28 @@ public class IsValidOp
    * @return true if the line has the required number of non-repeated points
    */
   private boolean isNonRepeatedSizeAtLeast(LineString line, int minSize) {
+    CoordinateSequence seq = line.getCoordinateSequence();
     int numPts = 0;
-    Coordinate prevPt = null;
-    for (int i = 0; i < line.getNumPoints(); i++) {
+    for (int i = 0; i < seq.size(); i++) {
       if (numPts >= minSize) return true;
-      Coordinate pt = line.getCoordinateN(i);
-      if (prevPt == null || ! pt.equals2D(prevPt))
+      if (i == 0 || seq.getX(i) != seq.getX(i - 1) || seq.getY(i) != seq.getY(i - 1))
         numPts++;
-      prevPt = pt; 
     }
     return numPts >= minSize;
   }
 
+  /**
+   * Checks the intersections between rings of different element polygons.
+   * The rings of each element are known to be valid.
+   */
+  private void checkElementIntersections(MultiPolygon mp) {
+    PolygonIntersectionAnalyzer intAnalyzer = PolygonTopologyAnalyzer.analyzeElementIntersections(mp, isInvertedRingValid);
+    if (intAnalyzer.isInvalid()) {
+      logInvalid(intAnalyzer.getInvalidCode(),
+                 intAnalyzer.getInvalidLocation());
+    }
+  }
+
   private void checkAreaIntersections(PolygonTopologyAnalyzer areaAnalyzer) {
     if (areaAnalyzer.hasInvalidIntersection()) {
       logInvalid(areaAnalyzer.getInvalidCode(),
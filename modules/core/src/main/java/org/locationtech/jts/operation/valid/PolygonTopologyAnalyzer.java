@@ -24,9 +24,13 @@ import org.locationtech.jts.geom.CoordinateArrays;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.LinearRing;
 import org.locationtech.jts.geom.Location;
+import org.locationtech.jts.geom.MultiPolygon;
 import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.index.ItemVisitor;
+import org.locationtech.jts.index.hprtree.HPRtree;
 import org.locationtech.jts.noding.BasicSegmentString;
 import org.locationtech.jts.noding.MCIndexNoder;
+import org.locationtech.jts.noding.SegmentIntersector;
 import org.locationtech.jts.noding.SegmentString;
 
 /**
@@ -212,6 +216,81 @@ class PolygonTopologyAnalyzer {
     return null;
   }
   
+  /**
+   * Analyzes the intersections between rings of different element polygons
+   * of a {@link MultiPolygon}.
+   * Intersections between the rings of the same polygon are not analyzed,
+   * so this is used when the element polygons are known to be valid.
+   * 
+   * @param mp the MultiPolygon to analyze
+   * @param isInvertedRingValid a flag indicating whether inverted rings are allowed
+   * @return the analyzer containing the intersection result
+   */
+  static PolygonIntersectionAnalyzer analyzeElementIntersections(MultiPolygon mp, boolean isInvertedRingValid) {
+    boolean[] isCandidate = findEnvelopeIntersecting(mp);
+    List<SegmentString> segStrings = new ArrayList<SegmentString>();
+    for (int i = 0; i < mp.getNumGeometries(); i++) {
+      if (! isCandidate[i]) continue;
+      Polygon poly = (Polygon) mp.getGeometryN(i);
+      //-- the rings identify their polygon, but touches between polygons are not recorded
+      PolygonRing shellRing = new PolygonRing(poly.getExteriorRing());
+      segStrings.add( createSegString(poly.getExteriorRing(), shellRing));
+      for (int j = 0 ; j < poly.getNumInteriorRing(); j++) {
+        LinearRing hole = poly.getInteriorRingN(j);
+        if (hole.isEmpty()) continue;
+        segStrings.add( createSegString(hole, new PolygonRing(hole, j, shellRing)));
+      }
+    }
+    final PolygonIntersectionAnalyzer segInt = new PolygonIntersectionAnalyzer(isInvertedRingValid);
+    MCIndexNoder noder = new MCIndexNoder();
+    noder.setSegmentIntersector(new SegmentIntersector() {
+      public void processIntersections(SegmentString ss0, int segIndex0, SegmentString ss1, int segIndex1) {
+        PolygonRing ring0 = (PolygonRing) ss0.getData();
+        PolygonRing ring1 = (PolygonRing) ss1.getData();
+        if (ring0.isSamePolygon(ring1)) return;
+        segInt.processIntersections(ss0, segIndex0, ss1, segIndex1);
+      }
+
+      public boolean isDone() {
+        return segInt.isDone();
+      }
+    });
+    noder.computeNodes(segStrings);
+    return segInt;
+  }
+  
+  /**
+   * Finds the non-empty elements of a MultiPolygon whose envelope
+   * intersects the envelope of another element.
+   * Only these elements can intersect another element.
+   * 
+   * @param mp a MultiPolygon
+   * @return flags indicating the elements which may intersect another element
+   */
+  private static boolean[] findEnvelopeIntersecting(MultiPolygon mp) {
+    final boolean[] isIntersecting = new boolean[mp.getNumGeometries()];
+    HPRtree index = new HPRtree();
+    for (int i = 0; i < mp.getNumGeometries(); i++) {
+      Geometry poly = mp.getGeometryN(i);
+      if (poly.isEmpty()) continue;
+      index.insert(poly.getEnvelopeReadOnly(), i);
+    }
+    for (int i = 0; i < mp.getNumGeometries(); i++) {
+      Geometry poly = mp.getGeometryN(i);
+      if (poly.isEmpty()) continue;
+      final int queryIndex = i;
+      index.query(poly.getEnvelopeInternal(), new ItemVisitor() {
+        public void visitItem(Object item) {
+          int index = (Integer) item;
+          if (index == queryIndex) return;
+          isIntersecting[index] = true;
+          isIntersecting[queryIndex] = true;
+        }
+      });
+    }
+    return isIntersecting;
+  }
+  
   private boolean isInvertedRingValid;
   
   private PolygonIntersectionAnalyzer intFinder;
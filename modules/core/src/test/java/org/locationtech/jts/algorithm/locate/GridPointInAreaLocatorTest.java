@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.algorithm.locate;
+
+import java.util.Random;
+
+import org.locationtech.jts.algorithm.AbstractPointInRingTest;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Location;
+import org.locationtech.jts.geom.util.SineStarFactory;
+import org.locationtech.jts.io.WKTReader;
+
+import junit.textui.TestRunner;
+
+/**
+ * Tests {@link GridPointInAreaLocator}.
+ */
+public class GridPointInAreaLocatorTest extends AbstractPointInRingTest {
+
+  private WKTReader reader = new WKTReader();
+
+  public static void main(String args[]) {
+    TestRunner.run(GridPointInAreaLocatorTest.class);
+  }
+
+  public GridPointInAreaLocatorTest(String name) { super(name); }
+
+  private static final int[] GRID_SIZES = new int[] { 1, 2, 3, 7, 50 };
+
+  protected void runPtInRing(int expectedLoc, Coordinate pt, String wkt)
+      throws Exception
+  {
+    Geometry geom = reader.read(wkt);
+    assertEquals(expectedLoc, new GridPointInAreaLocator(geom).locate(pt));
+    for (int gridSize : GRID_SIZES) {
+      assertEquals(expectedLoc, new GridPointInAreaLocator(geom, gridSize).locate(pt));
+    }
+  }
+
+  public void testEmpty() throws Exception {
+    runPtInRing(Location.EXTERIOR, new Coordinate(0,0), "POLYGON EMPTY");
+  }
+
+  public void testOutsideEnvelope() throws Exception {
+    runPtInRing(Location.EXTERIOR, new Coordinate(20, 5), "POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0))");
+    runPtInRing(Location.EXTERIOR, new Coordinate(Double.NaN, 5), "POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0))");
+  }
+
+  public void testVerticesAndEdges() throws Exception {
+    // grid points lie on the vertices and edges of the polygon
+    checkGridPoints("POLYGON ((0 0, 0 10, 4 10, 4 6, 6 6, 6 10, 10 10, 10 0, 6 0, 6 4, 4 4, 4 0, 0 0), (1 1, 1 3, 3 3, 3 1, 1 1))",
+        0.5);
+  }
+
+  public void testMultiPolygon() throws Exception {
+    checkGridPoints("MULTIPOLYGON (((0 0, 0 4, 4 4, 4 0, 0 0)), ((5 5, 5 9, 9 9, 9 5, 5 5), (6 6, 8 6, 8 8, 6 8, 6 6)))",
+        0.25);
+  }
+
+  public void testDiagonal() throws Exception {
+    checkGridPoints("POLYGON ((0 0, 3 10, 10 7, 7 0, 5 5, 0 0))", 0.5);
+  }
+
+  public void testRandomPoints() throws Exception {
+    //-- shape factories create geometry with the default factory
+    GeometryFactory.setDefaultFactory(new GeometryFactory());
+    Geometry geom;
+    try {
+      SineStarFactory gsf = new SineStarFactory();
+      gsf.setCentre(new Coordinate(50, 50));
+      gsf.setSize(100);
+      gsf.setNumPoints(1000);
+      geom = gsf.createSineStar().buffer(-5);
+    }
+    finally {
+      GeometryFactory.initDefaultFactory();
+    }
+    IndexedPointInAreaLocator expectedLoc = new IndexedPointInAreaLocator(geom);
+    GridPointInAreaLocator[] locators = new GridPointInAreaLocator[] {
+        new GridPointInAreaLocator(geom),
+        new GridPointInAreaLocator(geom, 5),
+        new GridPointInAreaLocator(geom, 500)
+    };
+    Random rand = new Random(13);
+    for (int i = 0; i < 10000; i++) {
+      Coordinate p = new Coordinate(100 * rand.nextDouble(), 100 * rand.nextDouble());
+      int expected = expectedLoc.locate(p);
+      for (GridPointInAreaLocator loc : locators) {
+        assertEquals(expected, loc.locate(p));
+      }
+    }
+    //-- vertices are on the boundary
+    for (Coordinate p : geom.getCoordinates()) {
+      for (GridPointInAreaLocator loc : locators) {
+        assertEquals(Location.BOUNDARY, loc.locate(p));
+      }
+    }
+  }
+
+  private void checkGridPoints(String wkt, double step) throws Exception {
+    Geometry geom = reader.read(wkt);
+    IndexedPointInAreaLocator expectedLoc = new IndexedPointInAreaLocator(geom);
+    Envelope env = geom.getEnvelopeInternal();
+    for (int gridSize : GRID_SIZES) {
+      GridPointInAreaLocator loc = new GridPointInAreaLocator(geom, gridSize);
+      for (double x = env.getMinX() - 1; x <= env.getMaxX() + 1; x += step) {
+        for (double y = env.getMinY() - 1; y <= env.getMaxY() + 1; y += step) {
+          Coordinate p = new Coordinate(x, y);
+          assertEquals("Grid size " + gridSize + " at " + p,
+              expectedLoc.locate(p), loc.locate(p));
+        }
+      }
+    }
+  }
+}
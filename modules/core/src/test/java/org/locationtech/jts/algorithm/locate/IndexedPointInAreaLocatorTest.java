@@ -11,10 +11,17 @@
  */
 package org.locationtech.jts.algorithm.locate;
 
+import java.util.BitSet;
+import java.util.Random;
+
 import org.locationtech.jts.algorithm.AbstractPointInRingTest;
 import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
 import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
 import org.locationtech.jts.geom.Location;
+import org.locationtech.jts.geom.util.SineStarFactory;
 import org.locationtech.jts.io.WKTReader;
 
 import junit.textui.TestRunner;
@@ -42,6 +49,10 @@ public class IndexedPointInAreaLocatorTest extends AbstractPointInRingTest {
     IndexedPointInAreaLocator loc = new IndexedPointInAreaLocator(geom);
     int result = loc.locate(pt);
     assertEquals(expectedLoc, result);
+    
+    int[] bulkResult = new int[1];
+    loc.locate(new double[] { pt.x, pt.y }, bulkResult);
+    assertEquals(expectedLoc, bulkResult[0]);
   }
 
    /**
@@ -53,4 +64,92 @@ public class IndexedPointInAreaLocatorTest extends AbstractPointInRingTest {
    public void testEmpty() throws Exception {
      runPtInRing(Location.EXTERIOR, new Coordinate(0,0), "POLYGON EMPTY");
   }
+
+  public void testBulkGrid() throws Exception {
+    // grid points lie on the vertices and edges of the polygon
+    Geometry geom = reader.read("POLYGON ((0 0, 0 10, 4 10, 4 6, 6 6, 6 10, 10 10, 10 0, 6 0, 6 4, 4 4, 4 0, 0 0), (1 1, 1 3, 3 3, 3 1, 1 1))");
+    double[] xy = new double[2 * 13 * 13];
+    int n = 0;
+    for (int i = -1; i <= 11; i++) {
+      for (int j = 11; j >= -1; j--) {
+        xy[n++] = i;
+        xy[n++] = j;
+      }
+    }
+    checkBulk(geom, xy);
+  }
+  
+  public void testBulkRandom() throws Exception {
+    //-- shape factories create geometry with the default factory
+    GeometryFactory.setDefaultFactory(new GeometryFactory());
+    Geometry geom;
+    try {
+      SineStarFactory gsf = new SineStarFactory();
+      gsf.setCentre(new Coordinate(50, 50));
+      gsf.setSize(100);
+      gsf.setNumPoints(1000);
+      geom = gsf.createSineStar().buffer(-5);
+    }
+    finally {
+      GeometryFactory.initDefaultFactory();
+    }
+    Random rand = new Random(13);
+    double[] xy = new double[2 * 5000];
+    for (int i = 0; i < xy.length; i++) {
+      xy[i] = 100 * rand.nextDouble();
+    }
+    checkBulk(geom, xy);
+  }
+  
+  public void testBulkSequence() throws Exception {
+    Geometry geom = reader.read("POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0), (2 2, 2 8, 8 8, 8 2, 2 2))");
+    CoordinateSequence seq = ((LineString) reader.read("LINESTRING (5 5, 1 5, 0 5, -1 5, 5 1, 2 5)"))
+        .getCoordinateSequence();
+    int[] locations = new int[seq.size()];
+    new IndexedPointInAreaLocator(geom).locate(seq, locations);
+    assertEquals(Location.EXTERIOR, locations[0]);
+    assertEquals(Location.INTERIOR, locations[1]);
+    assertEquals(Location.BOUNDARY, locations[2]);
+    assertEquals(Location.EXTERIOR, locations[3]);
+    assertEquals(Location.INTERIOR, locations[4]);
+    assertEquals(Location.BOUNDARY, locations[5]);
+    
+    BitSet isCovered = new BitSet();
+    isCovered.set(0);
+    new IndexedPointInAreaLocator(geom).covers(seq, isCovered);
+    assertEquals("{1, 2, 4, 5}", isCovered.toString());
+  }
+  
+  public void testBulkEmpty() throws Exception {
+    Geometry geom = reader.read("POLYGON EMPTY");
+    int[] locations = new int[2];
+    new IndexedPointInAreaLocator(geom).locate(new double[] { 0, 0, 1, 1 }, locations);
+    assertEquals(Location.EXTERIOR, locations[0]);
+    assertEquals(Location.EXTERIOR, locations[1]);
+  }
+  
+  public void testBulkLocationsTooShort() throws Exception {
+    Geometry geom = reader.read("POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0))");
+    try {
+      new IndexedPointInAreaLocator(geom).locate(new double[] { 0, 0, 1, 1 }, new int[1]);
+      fail("Expected IllegalArgumentException");
+    }
+    catch (IllegalArgumentException ex) {
+      // expected
+    }
+  }
+  
+  private void checkBulk(Geometry geom, double[] xy) {
+    IndexedPointInAreaLocator loc = new IndexedPointInAreaLocator(geom);
+    int n = xy.length / 2;
+    int[] locations = new int[n];
+    loc.locate(xy, locations);
+    BitSet isCovered = new BitSet();
+    loc.covers(xy, isCovered);
+    for (int i = 0; i < n; i++) {
+      int expected = loc.locate(new Coordinate(xy[2 * i], xy[2 * i + 1]));
+      assertEquals(expected, locations[i]);
+      assertEquals(expected != Location.EXTERIOR, isCovered.get(i));
+    }
+  }
 }
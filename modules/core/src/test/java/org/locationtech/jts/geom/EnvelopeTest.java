@@ -284,6 +284,51 @@ public class EnvelopeTest extends TestCase {
 		assertTrue(isEqual);
 	}
 	
+	public void testGeometryEnvelopeInternalIsModifiable() throws Exception {
+		Geometry g = reader.read("LINESTRING (0 0, 10 20)");
+		Envelope env = g.getEnvelopeInternal();
+		env.expandBy(1);
+		assertEquals(new Envelope(-1, 11, -1, 21), env);
+		env.expandToInclude(50, 50);
+		assertEquals(new Envelope(0, 10, 0, 20), g.getEnvelopeInternal());
+	}
+
+	public void testGeometryEnvelopeReadOnlyIsShared() throws Exception {
+		Geometry g = reader.read("LINESTRING (0 0, 10 20)");
+		Envelope env = g.getEnvelopeReadOnly();
+		assertSame(env, g.getEnvelopeReadOnly());
+		assertEquals(new Envelope(0, 10, 0, 20), env);
+		try {
+			env.expandBy(1);
+			fail("expected UnsupportedOperationException");
+		}
+		catch (UnsupportedOperationException expected) {
+		}
+		assertSame(env, g.copy().getEnvelopeReadOnly());
+	}
+
+	public void testGeometryEnvelopeAfterChange() throws Exception {
+		Geometry g = reader.read("LINESTRING (0 0, 10 20)");
+		Envelope env = g.getEnvelopeReadOnly();
+		g.apply(new CoordinateFilter() {
+			public void filter(Coordinate coord) {
+				coord.x += 5;
+			}
+		});
+		g.geometryChanged();
+		assertEquals(new Envelope(0, 10, 0, 20), env);
+		assertEquals(new Envelope(5, 15, 0, 20), g.getEnvelopeReadOnly());
+	}
+
+	public void testGeographicDistanceIsSymmetric() {
+		GeometryFactory.initDefaultFactory();
+		Envelope below = new Envelope(116.009, 116.011, 60.011, 60.013);
+		Envelope above = new Envelope(116.009, 116.012, 60.014, 60.017);
+		assertEquals(below.distance(above), above.distance(below), 1e-6);
+		// the latitude gap is 0.001 degrees, about 111 m
+		assertEquals(111.2, above.distance(below), 0.1);
+	}
+
 	public void testCompareTo()
 	{
 	  checkCompareTo(0, new Envelope(), new Envelope());
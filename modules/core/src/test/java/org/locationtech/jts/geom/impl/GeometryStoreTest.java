@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.geom.impl;
+
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.Polygon;
+
+import junit.textui.TestRunner;
+import test.jts.GeometryTestCase;
+
+public class GeometryStoreTest extends GeometryTestCase {
+
+  public static void main(String args[]) {
+    TestRunner.run(GeometryStoreTest.class);
+  }
+
+  public GeometryStoreTest(String name) {
+    super(name);
+  }
+
+  public void testLineStringView() {
+    GeometryStore store = new GeometryStore(getGeometryFactory());
+    int i0 = store.addLineString(new double[] { 0, 0, 10, 0 });
+    int i1 = store.addLineString(new double[] { 0, 0, 3, 4, 3, 10 });
+    assertEquals(2, store.size());
+    assertEquals(5, store.getNumCoordinates());
+
+    checkEqual(read("LINESTRING (0 0, 10 0)"), store.getGeometry(i0));
+    LineString line = store.getLineString(i1);
+    Geometry expected = read("LINESTRING (0 0, 3 4, 3 10)");
+    checkEqual(expected, line);
+    assertEquals(expected.getLength(), line.getLength(), 1e-10);
+  }
+
+  public void testPolygonView() {
+    GeometryStore store = new GeometryStore(getGeometryFactory());
+    Polygon poly = (Polygon) read("POLYGON ((0 0, 10 0, 10 10, 0 10, 0 0), (2 2, 2 4, 4 4, 4 2, 2 2))");
+    int i = store.add(poly);
+    Geometry view = store.getGeometry(i);
+    assertTrue(view instanceof Polygon);
+    checkEqual(poly, view);
+    assertEquals(96.0, view.getArea(), 1e-10);
+    assertEquals(poly.getEnvelopeInternal(), store.getEnvelope(i));
+  }
+
+  public void testPolygonFromArrays() {
+    GeometryStore store = new GeometryStore(getGeometryFactory());
+    int i = store.addPolygon(new double[] { 0, 0, 0, 10, 10, 10, 10, 0, 0, 0 }, null);
+    checkEqual(read("POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0))"), store.getPolygon(i));
+  }
+
+  public void testGrowth() {
+    GeometryStore store = new GeometryStore(getGeometryFactory(), 1, 1);
+    for (int i = 0; i < 1000; i++) {
+      store.addLineString(new double[] { i, 0, i, 1, i + 1, 1 });
+    }
+    //-- view created before the buffer is reallocated stays valid
+    LineString line0 = store.getLineString(0);
+    store.addLineString(new double[] { 0, 0, 1, 1 });
+    store.trimToSize();
+    assertEquals(1001, store.size());
+    checkEqual(read("LINESTRING (0 0, 0 1, 1 1)"), line0);
+    checkEqual(read("LINESTRING (999 0, 999 1, 1000 1)"), store.getLineString(999));
+    assertEquals(3, store.getNumPoints(999));
+  }
+
+  public void testAlgorithmsOnViews() {
+    GeometryStore store = new GeometryStore(getGeometryFactory());
+    int iLine = store.addLineString(new double[] { 0, 0, 10, 10 });
+    int iPoly = store.addPolygon(new double[] { 0, 5, 10, 5, 10, 6, 0, 6, 0, 5 }, null);
+    Geometry line = store.getGeometry(iLine);
+    Geometry poly = store.getGeometry(iPoly);
+    assertTrue(line.intersects(poly));
+    checkEqual(read("LINESTRING (5 5, 6 6)"), line.intersection(poly));
+    Geometry buf = line.buffer(1);
+    assertTrue(buf.contains(read("POINT (5 5)")));
+  }
+
+  public void testCopyIsDetached() {
+    GeometryStore store = new GeometryStore(getGeometryFactory());
+    int i = store.addLineString(new double[] { 0, 0, 10, 0 });
+    LineString copy = (LineString) store.getLineString(i).copy();
+    store.getLineString(i).getCoordinateSequence().setOrdinate(0, 0, 5);
+    checkEqual(read("LINESTRING (5 0, 10 0)"), store.getLineString(i));
+    checkEqual(read("LINESTRING (0 0, 10 0)"), copy);
+  }
+
+  public void testWrongType() {
+    GeometryStore store = new GeometryStore(getGeometryFactory());
+    int i = store.addLineString(new double[] { 0, 0, 10, 0 });
+    try {
+      store.getPolygon(i);
+      fail();
+    }
+    catch (IllegalArgumentException expected) {
+    }
+  }
+}
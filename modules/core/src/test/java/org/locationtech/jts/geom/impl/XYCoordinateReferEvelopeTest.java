@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.geom.impl;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.io.WKTReader;
+
+import junit.textui.TestRunner;
+import test.jts.GeometryTestCase;
+
+public class XYCoordinateReferEvelopeTest extends GeometryTestCase {
+
+  public static void main(String args[]) {
+    TestRunner.run(XYCoordinateReferEvelopeTest.class);
+  }
+
+  private WKTReader xyReader = new WKTReader(
+      new GeometryFactory(XYFloatCoordinateSequenceFactory.instance()));
+
+  public XYCoordinateReferEvelopeTest(String name) {
+    super(name);
+  }
+
+  public void testLineString() throws Exception {
+    checkEnvelope("LINESTRING (1 5, 3 -2, -4 1, 2 8)");
+  }
+
+  public void testNegativeOrdinates() throws Exception {
+    checkEnvelope("LINESTRING (-10 -5, -3 -2, -4 -1)");
+  }
+
+  public void testPolygon() throws Exception {
+    checkEnvelope("POLYGON ((0 0, 10 0, 10 10, 0 10, 0 0), (2 2, 2 4, 4 4, 4 2, 2 2))");
+  }
+
+  public void testMultiLineString() throws Exception {
+    checkEnvelope("MULTILINESTRING ((0 0, 1 1), (-5 3, 2 2), (4 -7, 6 0))");
+  }
+
+  public void testMultiPolygon() throws Exception {
+    checkEnvelope("MULTIPOLYGON (((0 0, 1 0, 1 1, 0 1, 0 0)), ((5 5, 9 5, 9 6, 5 6, 5 5)))");
+  }
+
+  public void testPoint() throws Exception {
+    checkEnvelope("POINT (3 -4)");
+  }
+
+  public void testMultiPoint() throws Exception {
+    checkEnvelope("MULTIPOINT ((3 -4), (-1 2), (7 7))");
+  }
+
+  public void testGeometryCollection() throws Exception {
+    checkEnvelope("GEOMETRYCOLLECTION (POINT (20 -3), LINESTRING (0 0, 1 1), POLYGON ((5 5, 9 5, 9 6, 5 6, 5 5)))");
+  }
+
+  public void testEmpty() throws Exception {
+    XYCoordinateReferEvelope env = XYCoordinateReferEvelope.create(xyReader.read("LINESTRING EMPTY"));
+    assertTrue(env.isNull());
+    assertTrue(env.toEnvelope().isNull());
+  }
+
+  public void testNonXYSequence() {
+    assertNull(XYCoordinateReferEvelope.create(read("LINESTRING (0 0, 1 1)")));
+    assertNull(XYCoordinateReferEvelope.create(read("POINT (0 0)")));
+  }
+
+  public void testReinitAfterChange() throws Exception {
+    LineString line = (LineString) xyReader.read("LINESTRING (0 0, 10 10)");
+    XYCoordinateReferEvelope env = XYCoordinateReferEvelope.create(line);
+    line.getCoordinateSequence().setOrdinate(1, 0, 20);
+    env.init();
+    assertEquals(new Envelope(0, 20, 0, 10), env.toEnvelope());
+  }
+
+  public void testGeometryCachedEnvelope() throws Exception {
+    GeometryFactory.getDefault().setIndexReferencingEnvelope(true);
+    try {
+      checkCachedEnvelope("LINESTRING (1 5, 3 -2, -4 1, 2 8)");
+      checkCachedEnvelope("POLYGON ((0 0, 10 0, 10 10, 0 10, 0 0), (2 2, 2 4, 4 4, 4 2, 2 2))");
+      checkCachedEnvelope("MULTILINESTRING ((0 0, 1 1), (-5 3, 2 2), (4 -7, 6 0))");
+      checkCachedEnvelope("MULTIPOLYGON (((0 0, 1 0, 1 1, 0 1, 0 0)), ((5 5, 9 5, 9 6, 5 6, 5 5)))");
+      // geometries not backed by XY sequences cache a standard envelope
+      Geometry geom = read("LINESTRING (0 0, 1 1)");
+      assertSame(geom.getEnvelopeReadOnly(), geom.getEnvelopeReadOnly());
+    }
+    finally {
+      GeometryFactory.getDefault().setIndexReferencingEnvelope(false);
+    }
+  }
+
+  public void testGeometryCachedEnvelopeAfterChange() throws Exception {
+    GeometryFactory.getDefault().setIndexReferencingEnvelope(true);
+    try {
+      LineString line = (LineString) xyReader.read("LINESTRING (0 0, 10 10)");
+      assertEquals(new Envelope(0, 10, 0, 10), line.getEnvelopeReadOnly());
+      Geometry copy = line.copy();
+      line.getCoordinateSequence().setOrdinate(1, 0, 20);
+      line.geometryChanged();
+      assertEquals(new Envelope(0, 20, 0, 10), line.getEnvelopeReadOnly());
+      // the copy has its own sequence, so does not share the envelope
+      assertEquals(new Envelope(0, 10, 0, 10), copy.getEnvelopeReadOnly());
+    }
+    finally {
+      GeometryFactory.getDefault().setIndexReferencingEnvelope(false);
+    }
+  }
+
+  private void checkCachedEnvelope(String wkt) throws Exception {
+    Geometry geom = xyReader.read(wkt);
+    Envelope expected = XYCoordinateReferEvelope.create(geom).toEnvelope();
+    assertEquals(expected, geom.getEnvelopeReadOnly());
+    assertEquals(expected, geom.getEnvelopeInternal());
+    // the cached envelope refers to the sequences, so a new envelope is returned each time
+    assertNotSame(geom.getEnvelopeReadOnly(), geom.getEnvelopeReadOnly());
+  }
+
+  private void checkEnvelope(String wkt) throws Exception {
+    Geometry geom = xyReader.read(wkt);
+    XYCoordinateReferEvelope env = XYCoordinateReferEvelope.create(geom);
+    assertNotNull(env);
+    Envelope expected = geom.getEnvelopeInternal();
+    assertEquals(expected, env.toEnvelope());
+    assertTrue(env.equals(expected));
+    assertEquals(expected.getMinX(), env.getMinX());
+    assertEquals(expected.getMaxY(), env.getMaxY());
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.geom.impl;
+
+import java.util.Random;
+
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequenceFilter;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKBReader;
+import org.locationtech.jts.io.WKBWriter;
+import org.locationtech.jts.io.WKTReader;
+import org.locationtech.jts.operation.overlayng.OverlayNG;
+import org.locationtech.jts.simplify.DouglasPeuckerSimplifier;
+
+import junit.textui.TestRunner;
+import test.jts.GeometryTestCase;
+
+public class XYFloatCoordinateSequenceFactoryTest extends GeometryTestCase {
+
+  public static void main(String args[]) {
+    TestRunner.run(XYFloatCoordinateSequenceFactoryTest.class);
+  }
+
+  private GeometryFactory floatFact = XYFloatCoordinateSequenceFactory.createGeometryFactory(0);
+
+  public XYFloatCoordinateSequenceFactoryTest(String name) {
+    super(name);
+  }
+
+  protected void setUp() {
+    GeometryFactory.setDefaultFactory(floatFact);
+  }
+
+  protected void tearDown() {
+    GeometryFactory.initDefaultFactory();
+  }
+
+  public void testCreateDropsZ() {
+    CoordinateSequence seq = XYFloatCoordinateSequenceFactory.instance().create(3, 3);
+    assertTrue(seq instanceof XYCoordinateSequence.FloatXY);
+    assertEquals(2, seq.getDimension());
+    assertEquals(3, seq.size());
+  }
+
+  public void testWKTReader() throws ParseException {
+    WKTReader reader = new WKTReader(floatFact);
+    checkFloatXY(reader.read("POLYGON ((0 0, 10 0, 10 10, 0 10, 0 0), (2 2, 2 4, 4 4, 4 2, 2 2))"));
+    Geometry lineZ = reader.read("LINESTRING Z (0 0 1, 10 10 2)");
+    checkFloatXY(lineZ);
+    checkEqual(read("LINESTRING (0 0, 10 10)"), lineZ);
+  }
+
+  public void testWKBReader() throws ParseException {
+    Geometry geom = read("MULTILINESTRING ((0 0, 1 1, 2 0), (5 5, 6 6))");
+    byte[] wkb = new WKBWriter().write(geom);
+    Geometry floatGeom = new WKBReader(floatFact).read(wkb);
+    checkFloatXY(floatGeom);
+    checkEqual(geom, floatGeom);
+  }
+
+  public void testConstructiveOps() throws ParseException {
+    WKTReader reader = new WKTReader(floatFact);
+    Geometry a = reader.read("POLYGON ((0 0, 10 0, 10 10, 0 10, 0 0))");
+    Geometry b = reader.read("POLYGON ((5 5, 15 5, 15 15, 5 15, 5 5))");
+    checkFloatXY(OverlayNG.overlay(a, b, OverlayNG.INTERSECTION));
+    checkFloatXY(OverlayNG.overlay(a, b, OverlayNG.UNION));
+    checkFloatXY(a.buffer(1));
+    Geometry line = reader.read("LINESTRING (0 0, 5 0.1, 10 0)");
+    checkFloatXY(DouglasPeuckerSimplifier.simplify(line, 1));
+  }
+
+  public void testLonLatRoundoffBound() {
+    Random rnd = new Random(13);
+    CoordinateSequence seq = XYFloatCoordinateSequenceFactory.instance().create(1, 2);
+    for (int i = 0; i < 100000; i++) {
+      double lon = 360 * rnd.nextDouble() - 180;
+      double lat = 180 * rnd.nextDouble() - 90;
+      seq.setOrdinate(0, 0, lon);
+      seq.setOrdinate(0, 1, lat);
+      assertTrue(Math.abs(seq.getX(0) - lon) <= XYFloatCoordinateSequenceFactory.MAX_LONLAT_ROUNDOFF);
+      assertTrue(Math.abs(seq.getY(0) - lat) <= XYFloatCoordinateSequenceFactory.MAX_LONLAT_ROUNDOFF / 2);
+    }
+  }
+
+  public void testFloatValuesRoundTripExactly() {
+    LineString line = floatFact.createLineString(
+        new XYCoordinateSequence.FloatXY(new float[] { 116.397f, 39.909f, 121.473f, 31.230f }));
+    Geometry copy = floatFact.createGeometry(line);
+    assertTrue(line.equalsExact(copy));
+  }
+
+  private static void checkFloatXY(Geometry geom) {
+    assertFalse(geom.isEmpty());
+    geom.apply(new CoordinateSequenceFilter() {
+      public void filter(CoordinateSequence seq, int i) {
+        assertTrue(seq instanceof XYCoordinateSequence.FloatXY);
+      }
+      public boolean isDone() {
+        return false;
+      }
+      public boolean isGeometryChanged() {
+        return false;
+      }
+    });
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.geom.prep;
+
+import org.locationtech.jts.geom.Geometry;
+
+import junit.textui.TestRunner;
+import test.jts.GeometryTestCase;
+
+public class PreparedGeometryCacheTest extends GeometryTestCase {
+  public static void main(String args[]) {
+    TestRunner.run(PreparedGeometryCacheTest.class);
+  }
+
+  private static final String SQUARE = "POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0))";
+
+  public PreparedGeometryCacheTest(String name) {
+    super(name);
+  }
+
+  public void testHitAndMiss() {
+    PreparedGeometryCache cache = new PreparedGeometryCache(10);
+    Geometry geom = read(SQUARE);
+    PreparedGeometry prep = cache.get(geom);
+    assertSame(geom, prep.getGeometry());
+    assertSame(prep, cache.get(geom));
+    assertEquals(1, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+    assertEquals(1, cache.size());
+  }
+
+  public void testKeyedByIdentity() {
+    PreparedGeometryCache cache = new PreparedGeometryCache(10);
+    Geometry geom1 = read(SQUARE);
+    Geometry geom2 = read(SQUARE);
+    assertNotSame(cache.get(geom1), cache.get(geom2));
+    assertEquals(2, cache.size());
+  }
+
+  public void testEvictLeastRecentlyUsed() {
+    PreparedGeometryCache cache = new PreparedGeometryCache(2);
+    Geometry a = read(SQUARE);
+    Geometry b = read(SQUARE);
+    Geometry c = read(SQUARE);
+    cache.get(a);
+    cache.get(b);
+    // a is now more recently used than b
+    cache.get(a);
+    cache.get(c);
+    assertEquals(2, cache.size());
+    assertEquals(1, cache.getEvictionCount());
+    assertNotNull(cache.getIfPresent(a));
+    assertNull(cache.getIfPresent(b));
+    assertNotNull(cache.getIfPresent(c));
+  }
+
+  public void testEvictBySize() {
+    Geometry a = read(SQUARE);
+    long entryBytes = PreparedGeometryCache.estimateBytes(a);
+    PreparedGeometryCache cache = new PreparedGeometryCache(100, 2 * entryBytes);
+    cache.get(a);
+    cache.get(read(SQUARE));
+    assertEquals(2 * entryBytes, cache.getEstimatedBytes());
+    cache.get(read(SQUARE));
+    assertEquals(2, cache.size());
+    assertEquals(1, cache.getEvictionCount());
+    assertNull(cache.getIfPresent(a));
+  }
+
+  public void testTooLargeNotCached() {
+    Geometry small = read(SQUARE);
+    Geometry large = read("POLYGON ((0 0, 0 10, 5 12, 10 10, 10 5, 12 2, 10 0, 0 0))");
+    PreparedGeometryCache cache = new PreparedGeometryCache(100, PreparedGeometryCache.estimateBytes(small));
+    cache.get(small);
+    PreparedGeometry prep = cache.get(large);
+    assertTrue(prep.intersects(small));
+    assertEquals(1, cache.size());
+    assertNotNull(cache.getIfPresent(small));
+    assertEquals(0, cache.getEvictionCount());
+  }
+
+  public void testRemoveAndClear() {
+    PreparedGeometryCache cache = new PreparedGeometryCache(10);
+    Geometry a = read(SQUARE);
+    Geometry b = read(SQUARE);
+    cache.get(a);
+    cache.get(b);
+    assertTrue(cache.remove(a));
+    assertFalse(cache.remove(a));
+    assertEquals(1, cache.size());
+    cache.clear();
+    assertEquals(0, cache.size());
+    assertEquals(0, cache.getEstimatedBytes());
+    assertEquals(0, cache.getEvictionCount());
+  }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.geom.prep;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.geom.util.SineStarFactory;
+
+import junit.framework.TestCase;
+import junit.textui.TestRunner;
+
+
+/**
+ * Stress tests concurrent use of {@link PreparedGeometry}s
+ * which have not yet created their lazy indexes,
+ * to confirm that the indexes are safely published to all threads.
+ * Results computed concurrently are checked against the
+ * results computed by {@link Geometry}.
+ */
+public class PreparedGeometryConcurrencyStressTest extends TestCase
+{
+  static final int NUM_THREADS = 8;
+  static final int NUM_ROUNDS = 20;
+  static final int NUM_TEST_GEOMS = 50;
+
+  static GeometryFactory fact = new GeometryFactory(new PrecisionModel(), 0);
+
+  public static void main(String args[]) {
+    TestRunner.run(PreparedGeometryConcurrencyStressTest.class);
+  }
+
+  public PreparedGeometryConcurrencyStressTest(String name) {
+    super(name);
+  }
+
+  public void testPolygon()
+  {
+    Geometry target = createSineStar(new Coordinate(0, 0), 100, 1000);
+    run(target);
+  }
+
+  public void testLine()
+  {
+    Geometry target = createSineStar(new Coordinate(0, 0), 100, 1000).getBoundary();
+    run(target);
+  }
+
+  private void run(Geometry target)
+  {
+    List<Geometry> testGeoms = createTestGeometries(target);
+    boolean[][] expected = new boolean[testGeoms.size()][];
+    for (int i = 0; i < testGeoms.size(); i++) {
+      expected[i] = evaluate(target, testGeoms.get(i));
+    }
+    for (int round = 0; round < NUM_ROUNDS; round++) {
+      //-- a new prepared geometry each round, so the indexes are created concurrently
+      PreparedGeometry prep = PreparedGeometryFactory.prepare(target);
+      runConcurrent(prep, testGeoms, expected);
+    }
+  }
+
+  private void runConcurrent(final PreparedGeometry prep,
+      final List<Geometry> testGeoms, final boolean[][] expected)
+  {
+    final CountDownLatch startGate = new CountDownLatch(1);
+    final List<String> failures = new ArrayList<String>();
+    Thread[] threads = new Thread[NUM_THREADS];
+    for (int t = 0; t < NUM_THREADS; t++) {
+      final int offset = t;
+      threads[t] = new Thread(new Runnable() {
+        public void run()
+        {
+          try {
+            startGate.await();
+            //-- each thread starts at a different geometry
+            for (int n = 0; n < testGeoms.size(); n++) {
+              int i = (n + offset) % testGeoms.size();
+              boolean[] actual = evaluate(prep, testGeoms.get(i));
+              if (! Arrays.equals(expected[i], actual)) {
+                addFailure(failures, "Wrong result for " + testGeoms.get(i));
+              }
+            }
+          }
+          catch (Throwable ex) {
+            addFailure(failures, ex.toString());
+          }
+        }
+      });
+      threads[t].start();
+    }
+    startGate.countDown();
+    for (int t = 0; t < NUM_THREADS; t++) {
+      try {
+        threads[t].join();
+      }
+      catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        fail("Interrupted");
+      }
+    }
+    assertTrue(failures.toString(), failures.isEmpty());
+  }
+
+  private static void addFailure(List<String> failures, String msg)
+  {
+    synchronized (failures) {
+      failures.add(msg);
+    }
+  }
+
+  private static boolean[] evaluate(Geometry target, Geometry g)
+  {
+    return new boolean[] {
+      target.intersects(g),
+      target.contains(g),
+      target.covers(g),
+      target.isWithinDistance(g, 1.0)
+    };
+  }
+
+  private static boolean[] evaluate(PreparedGeometry prep, Geometry g)
+  {
+    return new boolean[] {
+      prep.intersects(g),
+      prep.contains(g),
+      prep.covers(g),
+      prep.isWithinDistance(g, 1.0)
+    };
+  }
+
+  private List<Geometry> createTestGeometries(Geometry target)
+  {
+    Random rand = new Random(1);
+    List<Geometry> geoms = new ArrayList<Geometry>();
+    double width = target.getEnvelopeInternal().getWidth();
+    double minX = target.getEnvelopeInternal().getMinX();
+    double minY = target.getEnvelopeInternal().getMinY();
+    for (int i = 0; i < NUM_TEST_GEOMS; i++) {
+      Coordinate centre = new Coordinate(
+          minX + width * rand.nextDouble(),
+          minY + width * rand.nextDouble());
+      if (i % 2 == 0) {
+        geoms.add(fact.createPoint(centre));
+      }
+      else {
+        geoms.add(createSineStar(centre, width / 20, 50));
+      }
+    }
+    return geoms;
+  }
+
+  Geometry createSineStar(Coordinate origin, double size, int nPts) {
+    SineStarFactory gsf = new SineStarFactory(fact);
+    gsf.setCentre(origin);
+    gsf.setSize(size);
+    gsf.setNumPoints(nPts);
+    gsf.setArmLengthRatio(0.1);
+    gsf.setNumArms(20);
+    Geometry poly = gsf.createSineStar();
+    return poly;
+  }
+}
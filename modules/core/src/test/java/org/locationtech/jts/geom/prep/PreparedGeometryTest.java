@@ -22,4 +22,38 @@ public class PreparedGeometryTest extends GeometryTestCase {
     assertTrue( prepA.contains(geomB));
     assertTrue( prepA.intersects(geomB));
   }
+  
+  public void testDistancePolygon() {
+    checkDistance("POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0), (2 2, 2 8, 8 8, 8 2, 2 2))", 
+        "POINT (5 5)");
+    checkDistance("POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0), (2 2, 2 8, 8 8, 8 2, 2 2))", 
+        "POINT (1 5)");
+    checkDistance("POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0))", 
+        "LINESTRING (12 0, 20 10)");
+    checkDistance("POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0))", 
+        "POLYGON ((-5 -5, -5 15, 15 15, 15 -5, -5 -5))");
+  }
+  
+  public void testDistanceLine() {
+    checkDistance("LINESTRING (0 0, 10 10, 20 0)", "POINT (10 0)");
+    checkDistance("LINESTRING (0 0, 10 10, 20 0)", "LINESTRING (0 10, 20 10)");
+  }
+  
+  public void testDistancePoint() {
+    checkDistance("MULTIPOINT ((0 0), (10 10))", "POINT (10 0)");
+  }
+  
+  public void testDistanceEmpty() {
+    checkDistance("POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0))", "POINT EMPTY");
+  }
+  
+  private void checkDistance(String wktA, String wktB) {
+    Geometry geomA = read(wktA);
+    Geometry geomB = read(wktB);
+    PreparedGeometry prepA = PreparedGeometryFactory.prepare(geomA);
+    double expected = geomA.distance(geomB);
+    assertEquals(expected, prepA.distance(geomB), 1e-10);
+    assertEquals(geomA.isWithinDistance(geomB, 1), prepA.isWithinDistance(geomB, 1));
+    assertEquals(geomA.isWithinDistance(geomB, 2.5), prepA.isWithinDistance(geomB, 2.5));
+  }
 }
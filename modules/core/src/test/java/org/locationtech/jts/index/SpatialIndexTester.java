@@ -69,6 +69,57 @@ public class SpatialIndexTester
     doTest(index, QUERY_ENVELOPE_EXTENT_2, sourceData);
   }
 
+  /**
+   * Checks that a batch query with all the query envelopes
+   * finds the same items as querying with each envelope in turn.
+   */
+  public void runBatch()
+  {
+    doBatchTest(index, QUERY_ENVELOPE_EXTENT_1);
+    doBatchTest(index, QUERY_ENVELOPE_EXTENT_2);
+  }
+
+  private void doBatchTest(SpatialIndex index, double queryEnvelopeExtent) {
+    List queryEnvs = new ArrayList();
+    for (int x = 0; x < CELL_EXTENT * CELLS_PER_GRID_SIDE; x+= queryEnvelopeExtent) {
+      for (int y = 0; y < CELL_EXTENT * CELLS_PER_GRID_SIDE; y+= queryEnvelopeExtent) {
+        queryEnvs.add(new Envelope(x, x+queryEnvelopeExtent, y, y+queryEnvelopeExtent));
+      }
+    }
+    Envelope[] probes = (Envelope[]) queryEnvs.toArray(new Envelope[0]);
+    final List[] batchMatches = new List[probes.length];
+    for (int i = 0; i < probes.length; i++) {
+      batchMatches[i] = new ArrayList();
+    }
+    index.query(probes, new ProbeItemVisitor() {
+      public void visitItem(int probeIndex, Object item) {
+        batchMatches[probeIndex].add(item);
+      }
+    });
+    for (int i = 0; i < probes.length; i++) {
+      List expectedMatches = index.query(probes[i]);
+      if (expectedMatches.size() != batchMatches[i].size()) {
+        isSuccess = false;
+        continue;
+      }
+      for (Iterator it = expectedMatches.iterator(); it.hasNext(); ) {
+        Object expected = it.next();
+        if (! removeIdentical(batchMatches[i], expected)) 
+          isSuccess = false;
+      }
+    }
+  }
+
+  private static boolean removeIdentical(List items, Object item) {
+    for (int i = 0; i < items.size(); i++) {
+      if (items.get(i) == item) {
+        items.remove(i);
+        return true;
+      }
+    }
+    return false;
+  }
+
   private void insert(List sourceData, SpatialIndex index) {
     for (Iterator i = sourceData.iterator(); i.hasNext(); ) {
       Envelope envelope = (Envelope) i.next();
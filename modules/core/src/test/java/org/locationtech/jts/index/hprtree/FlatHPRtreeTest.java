@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.index.hprtree;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.IntItemVisitor;
+
+import junit.framework.TestCase;
+
+public class FlatHPRtreeTest extends TestCase {
+
+  public FlatHPRtreeTest(String name) {
+    super(name);
+  }
+
+  public static void main(String[] args) {
+    String[] testCaseName = {FlatHPRtreeTest.class.getName()};
+    junit.textui.TestRunner.main(testCaseName);
+  }
+
+  public void testEmptyTree() {
+    FlatHPRtree tree = new FlatHPRtree();
+    assertEquals(0, tree.query(new Envelope(0, 1, 0, 1)).length);
+    tree.query(new Envelope(0, 1, 0, 1), new IntItemVisitor() {
+      public void visitItem(int itemId) {
+        fail("Should never reach here");
+      }
+    });
+  }
+
+  public void testDisallowedInserts() {
+    FlatHPRtree t = new FlatHPRtree(3);
+    t.insert(new Envelope(0, 0, 0, 0), 0);
+    t.insert(new Envelope(0, 0, 0, 0), 1);
+    t.query(new Envelope());
+    try {
+      t.insert(new Envelope(0, 0, 0, 0), 2);
+      fail();
+    }
+    catch (IllegalStateException e) {
+      // expected
+    }
+  }
+
+  public void testNullEnvelopeIgnored() {
+    FlatHPRtree t = new FlatHPRtree();
+    t.insert(new Envelope(), 0);
+    t.insert(new Envelope(0, 1, 0, 1), 1);
+    assertEquals(1, t.size());
+    checkQuery(t, new Envelope(-10, 10, -10, 10), 1);
+  }
+
+  public void testQuery10() {
+    FlatHPRtree t = new FlatHPRtree();
+    for (int i = 0; i < 10; i++ ) {
+      t.insert(new Envelope(i, i+1, i, i+1), i);
+    }
+    checkQuery(t, new Envelope(5, 6, 5, 6), 4, 5, 6);
+    checkQuery(t, new Envelope(9, 10, 9, 10), 8, 9);
+    checkQuery(t, new Envelope(25, 26, 25, 26));
+    assertEquals(10, t.query(new Envelope(0, 10, 0, 10)).length);
+  }
+
+  public void testQuery100() {
+    queryGrid(100, new FlatHPRtree());
+  }
+
+  public void testQuery100cap8() {
+    queryGrid(100, new FlatHPRtree(8));
+  }
+
+  public void testQuery100cap2() {
+    queryGrid(100, new FlatHPRtree(2));
+  }
+
+  public void testQueryInitialCapacity() {
+    queryGrid(100, new FlatHPRtree(4, 0));
+  }
+
+  public void testRandomSameAsHPRtree() {
+    Random rnd = new Random(7);
+    FlatHPRtree flat = new FlatHPRtree();
+    HPRtree tree = new HPRtree();
+    for (int i = 0; i < 20000; i++) {
+      Envelope env = randomIntEnvelope(rnd, 1000, 10);
+      flat.insert(env, i);
+      tree.insert(env, i);
+    }
+    for (int i = 0; i < 500; i++) {
+      Envelope env = randomIntEnvelope(rnd, 1000, 50);
+      int[] expected = toIntArray(tree.query(env).toArray());
+      int[] actual = flat.query(env);
+      Arrays.sort(expected);
+      Arrays.sort(actual);
+      assertTrue(Arrays.equals(expected, actual));
+    }
+  }
+
+  /**
+   * Bounds which are not representable as floats 
+   * are rounded outwards, so no items are missed.
+   */
+  public void testRoundedBoundsAreConservative() {
+    Random rnd = new Random(11);
+    int n = 5000;
+    Envelope[] envs = new Envelope[n];
+    FlatHPRtree flat = new FlatHPRtree();
+    for (int i = 0; i < n; i++) {
+      double x = 116 + rnd.nextDouble();
+      double y = 39 + rnd.nextDouble();
+      envs[i] = new Envelope(x, x + 1e-4, y, y + 1e-4);
+      flat.insert(envs[i], i);
+    }
+    for (int i = 0; i < n; i++) {
+      // queries which just touch an item envelope
+      Envelope env = envs[i];
+      checkFound(flat, new Envelope(env.getMaxX(), env.getMaxX() + 1e-3, env.getMaxY(), env.getMaxY() + 1e-3), i);
+      checkFound(flat, new Envelope(env.getMinX() - 1e-3, env.getMinX(), env.getMinY() - 1e-3, env.getMinY()), i);
+    }
+  }
+
+  public void testBoundsContainItems() {
+    FlatHPRtree t = new FlatHPRtree(4);
+    for (int i = 0; i < 100; i++ ) {
+      t.insert(new Envelope(i, i+1, i, i+1), i);
+    }
+    Envelope[] bounds = t.getBounds();
+    assertEquals(25 + 7 + 2, bounds.length);
+    Envelope total = new Envelope();
+    // the top layer nodes cover all items
+    total.expandToInclude(bounds[bounds.length - 2]);
+    total.expandToInclude(bounds[bounds.length - 1]);
+    assertEquals(new Envelope(0, 100, 0, 100), total);
+  }
+
+  private static void queryGrid(int size, FlatHPRtree t) {
+    for (int i = 0; i < size; i++ ) {
+      t.insert(new Envelope(i, i+1, i, i+1), i);
+    }
+    assertEquals(size, t.size());
+    checkQuery(t, new Envelope(5, 6, 5, 6), 4, 5, 6);
+    checkQuery(t, new Envelope(9, 10, 9, 10), 8, 9, 10);
+    checkQuery(t, new Envelope(25, 26, 25, 26), 24, 25, 26);
+    assertEquals(11, t.query(new Envelope(0, 10, 0, 10)).length);
+  }
+
+  private static void checkQuery(FlatHPRtree t, Envelope searchEnv, int... expectedIds) {
+    int[] actual = t.query(searchEnv);
+    Arrays.sort(actual);
+    assertTrue(Arrays.toString(actual), Arrays.equals(expectedIds, actual));
+  }
+
+  private static void checkFound(FlatHPRtree t, Envelope searchEnv, int id) {
+    int[] actual = t.query(searchEnv);
+    for (int found : actual) {
+      if (found == id) return;
+    }
+    fail("Item " + id + " not found by query " + searchEnv);
+  }
+
+  private static Envelope randomIntEnvelope(Random rnd, int extent, int maxSize) {
+    int x = rnd.nextInt(extent);
+    int y = rnd.nextInt(extent);
+    return new Envelope(x, x + rnd.nextInt(maxSize), y, y + rnd.nextInt(maxSize));
+  }
+
+  private static int[] toIntArray(Object[] items) {
+    int[] ids = new int[items.length];
+    for (int i = 0; i < items.length; i++) {
+      ids[i] = (Integer) items[i];
+    }
+    return ids;
+  }
+}
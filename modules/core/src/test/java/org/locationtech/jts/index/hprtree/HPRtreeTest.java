@@ -12,8 +12,10 @@
  */
 package org.locationtech.jts.index.hprtree;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
 
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Envelope;
@@ -21,6 +23,7 @@ import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.index.ItemVisitor;
 import org.locationtech.jts.index.SpatialIndexTester;
+import org.locationtech.jts.index.strtree.GeometryItemDistance;
 
 import junit.framework.TestCase;
 
@@ -68,6 +71,16 @@ public class HPRtreeTest extends TestCase {
     assertTrue(tester.isSuccess());
   }
 
+  public void testBatchQuery()
+  throws Exception
+  {
+    SpatialIndexTester tester = new SpatialIndexTester();
+    tester.setSpatialIndex(new HPRtree());
+    tester.init();
+    tester.runBatch();
+    assertTrue(tester.isSuccess());
+  }
+
   public void testDisallowedInserts() {
     HPRtree t = new HPRtree(3);
     t.insert(new Envelope(0, 0, 0, 0), new Object());
@@ -155,4 +168,108 @@ public class HPRtreeTest extends TestCase {
   }
 
 
+  public void testNearestNeighbourEmpty() {
+    HPRtree t = new HPRtree();
+    Geometry p = factory.createPoint(new Coordinate(0, 0));
+    assertNull(t.nearestNeighbour(p.getEnvelopeInternal(), p, new GeometryItemDistance()));
+    assertEquals(0, t.nearestNeighbour(p.getEnvelopeInternal(), p, new GeometryItemDistance(), 3).length);
+  }
+
+  public void testNearestNeighbourSmallTree() {
+    GeometryFactory.setDefaultFactory(factory);
+    try {
+      checkNearestNeighbours(new HPRtree(), randomPoints(10, 0, 100, 1), 3, 10);
+    }
+    finally {
+      GeometryFactory.initDefaultFactory();
+    }
+  }
+
+  public void testNearestNeighbourK() {
+    GeometryFactory.setDefaultFactory(factory);
+    try {
+      checkNearestNeighbours(new HPRtree(), randomPoints(5000, 0, 1000, 2), 1, 100);
+      checkNearestNeighbours(new HPRtree(4), randomPoints(5000, 0, 1000, 3), 10, 100);
+    }
+    finally {
+      GeometryFactory.initDefaultFactory();
+    }
+  }
+
+  /**
+   * In geographic coordinates distances are in metres.
+   */
+  public void testNearestNeighbourKGeographic() {
+    assertTrue(GeometryFactory.getDefault().isGeoCoordSys());
+    checkNearestNeighbours(new HPRtree(), randomPoints(5000, 60, 61, 4), 10, 100);
+  }
+
+  public void testQueryWithinDistance() {
+    GeometryFactory.setDefaultFactory(factory);
+    try {
+      checkWithinDistance(new HPRtree(), randomPoints(5000, 0, 1000, 5), 20, 100);
+    }
+    finally {
+      GeometryFactory.initDefaultFactory();
+    }
+  }
+
+  public void testQueryWithinDistanceGeographic() {
+    checkWithinDistance(new HPRtree(), randomPoints(5000, 60, 61, 6), 2000, 100);
+  }
+
+  private static Geometry[] randomPoints(int n, double min, double max, long seed) {
+    Random rnd = new Random(seed);
+    GeometryFactory fact = new GeometryFactory();
+    Geometry[] pts = new Geometry[n];
+    for (int i = 0; i < n; i++) {
+      pts[i] = fact.createPoint(new Coordinate(
+          min + (max - min) * rnd.nextDouble(), min + (max - min) * rnd.nextDouble()));
+    }
+    return pts;
+  }
+
+  private static void checkNearestNeighbours(HPRtree t, Geometry[] pts, int k, int numQueries) {
+    for (Geometry p : pts) {
+      t.insert(p.getEnvelopeInternal(), p);
+    }
+    for (int i = 0; i < numQueries; i++) {
+      Geometry q = pts[i].getCentroid();
+      Object[] nearest = t.nearestNeighbour(q.getEnvelopeInternal(), q, new GeometryItemDistance(), k);
+      double[] expected = sortedDistances(pts, q);
+      assertEquals(Math.min(k, pts.length), nearest.length);
+      for (int j = 0; j < nearest.length; j++) {
+        assertEquals(expected[j], ((Geometry) nearest[j]).distance(q), 0.0);
+      }
+    }
+  }
+
+  private static void checkWithinDistance(HPRtree t, Geometry[] pts, double distance, int numQueries) {
+    for (Geometry p : pts) {
+      t.insert(p.getEnvelopeInternal(), p);
+    }
+    for (int i = 0; i < numQueries; i++) {
+      Geometry q = pts[i].getCentroid();
+      List result = t.queryWithinDistance(q.getEnvelopeInternal(), q, new GeometryItemDistance(), distance);
+      int expectedCount = 0;
+      for (Geometry p : pts) {
+        if (p.distance(q) <= distance) expectedCount++;
+      }
+      assertTrue(expectedCount > 0);
+      assertEquals(expectedCount, result.size());
+      for (Object item : result) {
+        assertTrue(((Geometry) item).distance(q) <= distance);
+      }
+    }
+  }
+
+  private static double[] sortedDistances(Geometry[] pts, Geometry q) {
+    double[] dist = new double[pts.length];
+    for (int i = 0; i < pts.length; i++) {
+      dist[i] = pts[i].distance(q);
+    }
+    Arrays.sort(dist);
+    return dist;
+  }
+
 }
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.index.hprtree;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.ArrayListVisitor;
+import org.locationtech.jts.index.IntItemVisitor;
+import org.locationtech.jts.util.IntArrayList;
+
+import junit.framework.TestCase;
+
+public class MappedHPRtreeTest extends TestCase {
+
+  public MappedHPRtreeTest(String name) {
+    super(name);
+  }
+
+  public static void main(String[] args) {
+    String[] testCaseName = {MappedHPRtreeTest.class.getName()};
+    junit.textui.TestRunner.main(testCaseName);
+  }
+
+  public void testEmpty() throws IOException {
+    MappedHPRtree mapped = writeAndOpen(new FlatHPRtree());
+    assertEquals(0, mapped.size());
+    assertEquals(0, mapped.query(new Envelope(0, 1, 0, 1)).length);
+  }
+
+  public void testSmall() throws IOException {
+    FlatHPRtree tree = new FlatHPRtree();
+    for (int i = 0; i < 10; i++ ) {
+      tree.insert(new Envelope(i, i+1, i, i+1), i);
+    }
+    checkSameQueries(tree, writeAndOpen(tree), new Random(3), 100);
+  }
+
+  public void testRandom() throws IOException {
+    Random rnd = new Random(5);
+    FlatHPRtree tree = new FlatHPRtree(8);
+    for (int i = 0; i < 50000; i++) {
+      double x = 360 * rnd.nextDouble() - 180;
+      double y = 180 * rnd.nextDouble() - 90;
+      tree.insert(new Envelope(x, x + 0.1 * rnd.nextDouble(), y, y + 0.1 * rnd.nextDouble()), 3 * i);
+    }
+    MappedHPRtree mapped = writeAndOpen(tree);
+    assertEquals(tree.size(), mapped.size());
+    checkSameQueries(tree, mapped, rnd, 1000);
+  }
+
+  public void testItemVisitor() throws IOException {
+    FlatHPRtree tree = new FlatHPRtree();
+    for (int i = 0; i < 100; i++ ) {
+      tree.insert(new Envelope(i, i+1, i, i+1), i);
+    }
+    MappedHPRtree mapped = writeAndOpen(tree);
+    ArrayListVisitor visitor = new ArrayListVisitor();
+    mapped.query(new Envelope(25, 26, 25, 26), visitor);
+    assertEquals(3, visitor.getItems().size());
+    assertTrue(visitor.getItems().contains(Integer.valueOf(25)));
+  }
+
+  public void testQueryIds() throws IOException {
+    FlatHPRtree tree = new FlatHPRtree();
+    for (int i = 0; i < 100; i++ ) {
+      tree.insert(new Envelope(i, i+1, i, i+1), i);
+    }
+    MappedHPRtree mapped = writeAndOpen(tree);
+    final IntArrayList ids = new IntArrayList();
+    mapped.queryIds(new Envelope(25, 26, 25, 26), new IntItemVisitor() {
+      public void visitItem(int itemId) {
+        ids.add(itemId);
+      }
+    });
+    assertEquals(3, ids.size());
+  }
+
+  public void testInvalidFile() throws IOException {
+    File file = createTempFile();
+    FileOutputStream out = new FileOutputStream(file);
+    out.write(new byte[100]);
+    out.close();
+    try {
+      MappedHPRtree.open(file);
+      fail();
+    }
+    catch (IOException e) {
+      // expected
+    }
+  }
+
+  public void testTruncatedFile() throws IOException {
+    FlatHPRtree tree = new FlatHPRtree();
+    for (int i = 0; i < 100; i++ ) {
+      tree.insert(new Envelope(i, i+1, i, i+1), i);
+    }
+    File file = createTempFile();
+    FlatHPRtreeWriter.write(tree, file);
+    FileOutputStream out = new FileOutputStream(file, true);
+    out.getChannel().truncate(file.length() - 4);
+    out.close();
+    try {
+      MappedHPRtree.open(file);
+      fail();
+    }
+    catch (IOException e) {
+      // expected
+    }
+  }
+
+  private static void checkSameQueries(FlatHPRtree tree, MappedHPRtree mapped, Random rnd, int n) {
+    Envelope extent = new Envelope(-180, 180, -90, 90);
+    for (int i = 0; i < n; i++) {
+      double x = extent.getMinX() + (extent.getMaxX() - extent.getMinX()) * rnd.nextDouble();
+      double y = extent.getMinY() + (extent.getMaxY() - extent.getMinY()) * rnd.nextDouble();
+      Envelope env = new Envelope(x, x + 5 * rnd.nextDouble(), y, y + 5 * rnd.nextDouble());
+      int[] expected = tree.query(env);
+      int[] actual = mapped.query(env);
+      Arrays.sort(expected);
+      Arrays.sort(actual);
+      assertTrue(Arrays.equals(expected, actual));
+    }
+  }
+
+  private static MappedHPRtree writeAndOpen(FlatHPRtree tree) throws IOException {
+    File file = createTempFile();
+    FlatHPRtreeWriter.write(tree, file);
+    return MappedHPRtree.open(file);
+  }
+
+  private static File createTempFile() throws IOException {
+    File file = File.createTempFile("hprtree", ".idx");
+    file.deleteOnExit();
+    return file;
+  }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.index.quadtree;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.SpatialIndexTester;
+
+import junit.framework.TestCase;
+import junit.textui.TestRunner;
+
+public class ConcurrentQuadtreeTest extends TestCase {
+  public static void main(String args[]) {
+    TestRunner.run(ConcurrentQuadtreeTest.class);
+  }
+
+  public ConcurrentQuadtreeTest(String name) {
+    super(name);
+  }
+
+  public void testSpatialIndex()
+  throws Exception
+  {
+    SpatialIndexTester tester = new SpatialIndexTester();
+    tester.setSpatialIndex(new ConcurrentQuadtree());
+    tester.init();
+    tester.run();
+    assertTrue(tester.isSuccess());
+  }
+
+  public void testBatchQuery()
+  throws Exception
+  {
+    SpatialIndexTester tester = new SpatialIndexTester();
+    tester.setSpatialIndex(new ConcurrentQuadtree(4));
+    tester.init();
+    tester.runBatch();
+    assertTrue(tester.isSuccess());
+  }
+
+  public void testNullQuery() {
+    ConcurrentQuadtree qt = new ConcurrentQuadtree();
+    assertTrue(qt.query(null).isEmpty());
+    qt.insert(new Envelope(0, 10, 0, 10), "some data");
+    assertTrue(qt.query(null).isEmpty());
+  }
+
+  public void testPointsMatchBruteForce() {
+    Random rnd = new Random(13);
+    ConcurrentQuadtree qt = new ConcurrentQuadtree(8);
+    List<Envelope> envs = new ArrayList<Envelope>();
+    for (int i = 0; i < 5000; i++) {
+      // lon/lat points, including some on the axes and some duplicates
+      double x = i % 50 == 0 ? 0 : 116 + rnd.nextDouble();
+      double y = i % 70 == 0 ? 0 : 39 + rnd.nextDouble();
+      if (i % 100 == 1) x = y = 1.5;
+      Envelope env = new Envelope(x, x, y, y);
+      envs.add(env);
+      qt.insert(env, env);
+    }
+    assertEquals(envs.size(), qt.size());
+    assertEquals(envs.size(), qt.queryAll().size());
+    for (int i = 0; i < 200; i++) {
+      double x = 116 + rnd.nextDouble();
+      double y = 39 + rnd.nextDouble();
+      checkQuery(qt, envs, new Envelope(x, x + 0.1, y, y + 0.1));
+    }
+    checkQuery(qt, envs, new Envelope(-1, 1, -1, 1));
+    checkQuery(qt, envs, new Envelope(1.5, 1.5, 1.5, 1.5));
+  }
+
+  public void testCoincidentPointsAtOrigin() {
+    ConcurrentQuadtree qt = new ConcurrentQuadtree(4);
+    for (int i = 0; i < 20; i++) {
+      qt.insert(new Envelope(0, 0, 0, 0), "item" + i);
+    }
+    assertEquals(20, qt.size());
+    assertEquals(20, qt.query(new Envelope(0, 0, 0, 0)).size());
+    assertTrue(qt.depth() <= 2);
+  }
+
+  public void testRemove() {
+    Random rnd = new Random(7);
+    ConcurrentQuadtree qt = new ConcurrentQuadtree(4);
+    List<Envelope> envs = new ArrayList<Envelope>();
+    for (int i = 0; i < 1000; i++) {
+      double x = 200 * rnd.nextDouble() - 100;
+      double y = 200 * rnd.nextDouble() - 100;
+      Envelope env = new Envelope(x, x + rnd.nextDouble(), y, y + rnd.nextDouble());
+      envs.add(env);
+      qt.insert(env, env);
+    }
+    assertFalse(qt.remove(new Envelope(0, 1, 0, 1), "missing"));
+    for (int i = 0; i < envs.size(); i += 2) {
+      assertTrue(qt.remove(envs.get(i), envs.get(i)));
+    }
+    List<Envelope> remaining = new ArrayList<Envelope>();
+    for (int i = 1; i < envs.size(); i += 2) {
+      remaining.add(envs.get(i));
+    }
+    assertEquals(remaining.size(), qt.size());
+    checkQuery(qt, remaining, new Envelope(-100, 100, -100, 100));
+    checkQuery(qt, remaining, new Envelope(-10, 20, -30, 5));
+    for (Envelope env : remaining) {
+      assertTrue(qt.remove(env, env));
+    }
+    assertTrue(qt.isEmpty());
+    assertEquals(1, qt.depth());
+  }
+
+  public void testConcurrentUpdates() throws Exception {
+    final ConcurrentQuadtree qt = new ConcurrentQuadtree(4);
+    final int numWriters = 4;
+    final int numItems = 2000;
+    final List<Throwable> errors = new ArrayList<Throwable>();
+    Thread[] threads = new Thread[numWriters + 2];
+    for (int t = 0; t < numWriters; t++) {
+      final int writer = t;
+      threads[t] = new Thread() {
+        public void run() {
+          Random rnd = new Random(writer);
+          for (int i = 0; i < numItems; i++) {
+            double x = 10 * rnd.nextDouble();
+            double y = 10 * rnd.nextDouble();
+            Envelope env = new Envelope(x, x, y, y);
+            String item = writer + ":" + i;
+            qt.insert(env, item);
+            // remove every other item again
+            if (i % 2 == 1 && ! qt.remove(env, item))
+              fail("Item not found: " + item);
+          }
+        }
+      };
+    }
+    for (int t = numWriters; t < threads.length; t++) {
+      threads[t] = new Thread() {
+        public void run() {
+          for (int i = 0; i < 500; i++) {
+            List result = qt.query(new Envelope(0, 10, 0, 10));
+            if (result.size() > numWriters * numItems)
+              fail("Too many items found: " + result.size());
+          }
+        }
+      };
+    }
+    for (int t = 0; t < threads.length; t++) {
+      threads[t].setUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
+        public void uncaughtException(Thread th, Throwable e) {
+          synchronized (errors) {
+            errors.add(e);
+          }
+        }
+      });
+      threads[t].start();
+    }
+    for (int t = 0; t < threads.length; t++) {
+      threads[t].join();
+    }
+    assertTrue(errors.toString(), errors.isEmpty());
+    int expectedSize = numWriters * numItems / 2;
+    assertEquals(expectedSize, qt.size());
+    Set items = new HashSet(qt.query(new Envelope(0, 10, 0, 10)));
+    assertEquals(expectedSize, items.size());
+    for (int t = 0; t < numWriters; t++) {
+      assertTrue(items.contains(t + ":0"));
+      assertFalse(items.contains(t + ":1"));
+    }
+  }
+
+  private static void checkQuery(ConcurrentQuadtree qt, List<Envelope> envs, Envelope searchEnv) {
+    int expected = 0;
+    for (Envelope env : envs) {
+      if (env.intersects(searchEnv)) expected++;
+    }
+    List result = qt.query(searchEnv);
+    assertEquals(expected, result.size());
+    for (Object item : result) {
+      assertTrue(((Envelope) item).intersects(searchEnv));
+    }
+  }
+}
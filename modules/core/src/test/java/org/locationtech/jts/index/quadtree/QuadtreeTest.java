@@ -41,6 +41,16 @@ public class QuadtreeTest extends TestCase {
     assertTrue(tester.isSuccess());
   }
   
+  public void testBatchQuery()
+  throws Exception
+  {
+    SpatialIndexTester tester = new SpatialIndexTester();
+    tester.setSpatialIndex(new Quadtree());
+    tester.init();
+    tester.runBatch();
+    assertTrue(tester.isSuccess());
+  }
+
   public void testSerialization()
   throws Exception
   {
@@ -10,7 +10,9 @@
  * http://www.eclipse.org/org/documents/edl-v10.php.
  */
 package org.locationtech.jts.index.strtree;
+import org.locationtech.jts.algorithm.distance.LocalLonLatDistance;
 import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.GeometryFactory;
 
 import junit.framework.TestCase;
 
@@ -28,6 +30,14 @@ public class EnvelopeDistanceTest extends TestCase {
     junit.textui.TestRunner.main(testCaseName);
   }
 
+  protected void setUp() {
+    GeometryFactory.setDefaultFactory(new GeometryFactory());
+  }
+
+  protected void tearDown() {
+    GeometryFactory.initDefaultFactory();
+  }
+
   public void testDisjoint() {
     checkEnvelopeDistance(new Envelope(0, 10, 0, 10), new Envelope(20, 30, 20, 40), 50);
   }
@@ -44,6 +54,20 @@ public class EnvelopeDistanceTest extends TestCase {
     checkEnvelopeDistance(new Envelope(0, 10, 4, 6), new Envelope(4, 6, 0, 10), 14.142135623730951);
   }
 
+  /**
+   * For geographic coordinates the maximum distance is in metres,
+   * and bounds the distance between any points of the envelopes.
+   */
+  public void testGeographic() {
+    GeometryFactory.initDefaultFactory();
+    Envelope env1 = new Envelope(116.0, 116.01, 60.0, 60.01);
+    Envelope env2 = new Envelope(116.02, 116.03, 60.02, 60.03);
+    double maxDist = EnvelopeDistance.maximumDistance(env1, env2);
+    double cornerDist = LocalLonLatDistance.distance(116.0, 60.0, 116.03, 60.03);
+    assertTrue(maxDist >= cornerDist);
+    assertTrue(maxDist < 1.01 * cornerDist);
+  }
+
   private void checkEnvelopeDistance(Envelope env1, Envelope env2, double expected) {
     double result = EnvelopeDistance.maximumDistance(env1, env2);
     assertEquals(expected, result);
@@ -16,6 +16,7 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import junit.framework.TestCase;
 
@@ -24,6 +25,7 @@ import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.index.ItemPairVisitor;
 import org.locationtech.jts.index.ItemVisitor;
 import org.locationtech.jts.index.SpatialIndexTester;
 import org.locationtech.jts.util.AssertionFailedException;
@@ -182,6 +184,121 @@ public class STRtreeTest extends TestCase {
     assertEquals(3, tree.size());
   }
  
+  public void testParallelBuildIdentical() {
+    checkParallelBuild(50000, 10);
+    checkParallelBuild(123457, 4);
+  }
+
+  public void testParallelBuildDuplicateCentres() {
+    //-- many equal sort keys, so ordering depends on sort stability
+    STRtree seq = new STRtree();
+    STRtree par = new STRtree();
+    par.setParallelBuild(new ForkJoinPool(4));
+    for (int i = 0; i < 40000; i++) {
+      Envelope env = new Envelope(i % 7, i % 7 + 1, i % 5, i % 5 + 1);
+      seq.insert(env, i);
+      par.insert(env, i);
+    }
+    checkSameTree(seq.getRoot(), par.getRoot());
+  }
+
+  public void testBatchQuery()
+  throws Exception
+  {
+    SpatialIndexTester tester = new SpatialIndexTester();
+    tester.setSpatialIndex(new STRtree(4));
+    tester.init();
+    tester.runBatch();
+    assertTrue(tester.isSuccess());
+  }
+
+  public void testJoin() {
+    Random rnd = new Random(99);
+    Envelope[] envs1 = randomEnvelopes(rnd, 2000, 1000, 20);
+    Envelope[] envs2 = randomEnvelopes(rnd, 3000, 1000, 10);
+    STRtree tree1 = new STRtree();
+    for (int i = 0; i < envs1.length; i++) {
+      tree1.insert(envs1[i], i);
+    }
+    STRtree tree2 = new STRtree(4);
+    for (int i = 0; i < envs2.length; i++) {
+      tree2.insert(envs2[i], i);
+    }
+    final List pairs = new ArrayList();
+    tree1.join(tree2, new ItemPairVisitor() {
+      public void visitItems(Object item1, Object item2) {
+        pairs.add(item1 + "-" + item2);
+      }
+    });
+    List expected = new ArrayList();
+    for (int i = 0; i < envs1.length; i++) {
+      for (int j = 0; j < envs2.length; j++) {
+        if (envs1[i].intersects(envs2[j])) expected.add(i + "-" + j);
+      }
+    }
+    Collections.sort(pairs);
+    Collections.sort(expected);
+    assertTrue(expected.size() > 0);
+    assertEquals(expected, pairs);
+  }
+
+  public void testJoinEmpty() {
+    STRtree tree1 = new STRtree();
+    STRtree tree2 = new STRtree();
+    tree2.insert(new Envelope(0, 1, 0, 1), "a");
+    tree1.join(tree2, new ItemPairVisitor() {
+      public void visitItems(Object item1, Object item2) {
+        fail("Should never reach here");
+      }
+    });
+  }
+
+  private static Envelope[] randomEnvelopes(Random rnd, int n, double extent, double maxSize) {
+    Envelope[] envs = new Envelope[n];
+    for (int i = 0; i < n; i++) {
+      double x = rnd.nextDouble() * extent;
+      double y = rnd.nextDouble() * extent;
+      envs[i] = new Envelope(x, x + maxSize * rnd.nextDouble(), y, y + maxSize * rnd.nextDouble());
+    }
+    return envs;
+  }
+
+  private void checkParallelBuild(int size, int nodeCapacity) {
+    Random rnd = new Random(1234);
+    STRtree seq = new STRtree(nodeCapacity);
+    STRtree par = new STRtree(nodeCapacity);
+    par.setParallelBuild(new ForkJoinPool(4));
+    for (int i = 0; i < size; i++) {
+      double x = rnd.nextDouble() * 1000;
+      double y = rnd.nextDouble() * 1000;
+      Envelope env = new Envelope(x, x + rnd.nextDouble(), y, y + rnd.nextDouble());
+      seq.insert(env, i);
+      par.insert(env, i);
+    }
+    checkSameTree(seq.getRoot(), par.getRoot());
+    assertEquals(seq.depth(), par.depth());
+    Envelope queryEnv = new Envelope(100, 200, 100, 200);
+    assertEquals(seq.query(queryEnv), par.query(queryEnv));
+  }
+
+  private static void checkSameTree(Boundable expected, Boundable actual) {
+    assertEquals(expected.getBounds(), actual.getBounds());
+    if (expected instanceof ItemBoundable) {
+      assertTrue(actual instanceof ItemBoundable);
+      assertEquals(((ItemBoundable) expected).getItem(), ((ItemBoundable) actual).getItem());
+      return;
+    }
+    AbstractNode expectedNode = (AbstractNode) expected;
+    AbstractNode actualNode = (AbstractNode) actual;
+    assertEquals(expectedNode.getLevel(), actualNode.getLevel());
+    List expectedChildren = expectedNode.getChildBoundables();
+    List actualChildren = actualNode.getChildBoundables();
+    assertEquals(expectedChildren.size(), actualChildren.size());
+    for (int i = 0; i < expectedChildren.size(); i++) {
+      checkSameTree((Boundable) expectedChildren.get(i), (Boundable) actualChildren.get(i));
+    }
+  }
+
   private void doTestCreateParentsFromVerticalSlice(int childCount,
       int nodeCapacity, int expectedChildrenPerParentBoundable,
       int expectedChildrenOfLastParent) {
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.noding;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.locationtech.jts.algorithm.RobustLineIntersector;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.noding.snapround.SnapRoundingNoder;
+
+import junit.textui.TestRunner;
+import test.jts.GeometryTestCase;
+
+public class PackedSegmentNodeListTest extends GeometryTestCase {
+
+  public static void main(String args[]) {
+    TestRunner.run(PackedSegmentNodeListTest.class);
+  }
+
+  public PackedSegmentNodeListTest(String name) {
+    super(name);
+  }
+
+  public void testSnappedNodes() {
+    checkSameAsSegmentNodeList("LINESTRING (655103.6628454948 1794805.456674405, 655016.20226 1794940.10998, 655014.8317182435 1794941.5196832407)",
+        "MULTIPOINT((655016.29615051334 1794939.965427252), (655016.20226531825 1794940.1099718122), (655016.20226 1794940.10998), (655016.20225819293 1794940.1099794197))",
+        new int[] { 0, 0, 1, 1 });
+  }
+
+  public void testDuplicateNodes() {
+    NodedSegmentString nss = checkSameAsSegmentNodeList("LINESTRING (0 0, 10 0, 20 0)",
+        "MULTIPOINT ((5 0), (15 0), (5 0), (10 0), (2 0), (15 0))",
+        new int[] { 0, 1, 0, 0, 0, 1 });
+    // the vertex node is normalized to segment 1,
+    // and the endpoints are added as nodes by splitting
+    assertEquals(6, nss.getNodeList().size());
+  }
+
+  public void testInsertedCollapse() {
+    checkSameAsSegmentNodeList("LINESTRING (0 0, 10 0, 10 10, 20 10)",
+        "MULTIPOINT ((5 0), (5 0))",
+        new int[] { 0, 1 });
+  }
+
+  public void testExistingCollapse() {
+    checkSameAsSegmentNodeList("LINESTRING (0 0, 10 0, 0 0, 0 10)",
+        "MULTIPOINT ((5 0))",
+        new int[] { 1 });
+  }
+
+  public void testNoNodes() {
+    checkSameAsSegmentNodeList("LINESTRING (0 0, 10 0, 10 10)",
+        "MULTIPOINT EMPTY",
+        new int[0]);
+  }
+
+  public void testIterator() {
+    NodedSegmentString nss = new NodedSegmentString(read("LINESTRING (0 0, 10 0, 20 0)").getCoordinates(), null, true);
+    nss.addIntersection(new Coordinate(15, 0), 1);
+    nss.addIntersection(new Coordinate(5, 0), 0);
+    nss.addIntersection(new Coordinate(15, 0), 1);
+    Iterator it = nss.getNodeList().iterator();
+    assertTrue(new Coordinate(5, 0).equals2D(((SegmentNode) it.next()).getCoordinate()));
+    assertTrue(new Coordinate(15, 0).equals2D(((SegmentNode) it.next()).getCoordinate()));
+    assertFalse(it.hasNext());
+  }
+
+  public void testNodeZ() {
+    NodedSegmentString nss = new NodedSegmentString(read("LINESTRING Z (0 0 0, 10 0 10)").getCoordinates(), null, true);
+    nss.addIntersection(new Coordinate(5, 0, 5), 0);
+    nss.addIntersection(new Coordinate(5, 0, 99), 0);
+    Coordinate[] pts = nss.getNodedCoordinates();
+    assertEquals(3, pts.length);
+    // the first node added at a location is kept
+    assertEquals(5.0, pts[1].getZ(), 0.0);
+  }
+
+  public void testMCIndexNoderRandom() {
+    Geometry lines = randomLines(new Random(31), 400, 20, 100);
+    List<NodedSegmentString> expected = toSegmentStrings(lines, false);
+    List<NodedSegmentString> actual = toSegmentStrings(lines, true);
+    new MCIndexNoder(new IntersectionAdder(new RobustLineIntersector())).computeNodes(expected);
+    new MCIndexNoder(new IntersectionAdder(new RobustLineIntersector())).computeNodes(actual);
+    for (int i = 0; i < expected.size(); i++) {
+      checkEqualXY(expected.get(i).getNodedCoordinates(), actual.get(i).getNodedCoordinates());
+    }
+    checkEqualSplitEdges(NodedSegmentString.getNodedSubstrings(expected),
+        NodedSegmentString.getNodedSubstrings(actual));
+  }
+
+  public void testSnapRoundingNoderRandom() {
+    Geometry lines = randomLines(new Random(32), 400, 20, 100);
+    PrecisionModel pm = new PrecisionModel(10);
+    SnapRoundingNoder expectedNoder = new SnapRoundingNoder(pm);
+    expectedNoder.computeNodes(toSegmentStrings(lines, false));
+    SnapRoundingNoder noder = new SnapRoundingNoder(pm);
+    noder.setPackedNodeList(true);
+    noder.computeNodes(toSegmentStrings(lines, true));
+    checkEqualSplitEdges(expectedNoder.getNodedSubstrings(), noder.getNodedSubstrings());
+  }
+
+  private NodedSegmentString checkSameAsSegmentNodeList(String wktLine, String wktNodes, int[] segmentIndex) {
+    Coordinate[] pts = read(wktLine).getCoordinates();
+    Coordinate[] node = read(wktNodes).getCoordinates();
+    NodedSegmentString expected = new NodedSegmentString(pts, null);
+    NodedSegmentString actual = new NodedSegmentString(pts, null, true);
+    for (int i = 0; i < node.length; i++) {
+      expected.addIntersection(node[i], segmentIndex[i]);
+      actual.addIntersection(node[i], segmentIndex[i]);
+    }
+    assertTrue(actual.getNodeList() instanceof PackedSegmentNodeList);
+    assertEquals(expected.getNodeList().size(), actual.getNodeList().size());
+    checkEqualXY(expected.getNodedCoordinates(), actual.getNodedCoordinates());
+    checkEqualSplitEdges(NodingTestUtil.getNodedSubstrings(expected),
+        NodingTestUtil.getNodedSubstrings(actual));
+    return actual;
+  }
+
+  private void checkEqualSplitEdges(Collection expected, Collection actual) {
+    assertEquals(expected.size(), actual.size());
+    Iterator itExpected = expected.iterator();
+    Iterator itActual = actual.iterator();
+    while (itExpected.hasNext()) {
+      checkEqualXY(((SegmentString) itExpected.next()).getCoordinates(),
+          ((SegmentString) itActual.next()).getCoordinates());
+    }
+  }
+
+  private void checkEqualXY(Coordinate[] expected, Coordinate[] actual) {
+    assertEquals(expected.length, actual.length);
+    for (int i = 0; i < expected.length; i++) {
+      assertTrue(expected[i].equals2D(actual[i]));
+    }
+  }
+
+  private static List<NodedSegmentString> toSegmentStrings(Geometry lines, boolean isPacked) {
+    List<NodedSegmentString> segStrings = new ArrayList<NodedSegmentString>();
+    for (int i = 0; i < lines.getNumGeometries(); i++) {
+      segStrings.add(new NodedSegmentString(lines.getGeometryN(i).getCoordinates(), null, isPacked));
+    }
+    return segStrings;
+  }
+
+  private Geometry randomLines(Random rnd, int numLines, int numPts, double size) {
+    Geometry[] lines = new Geometry[numLines];
+    for (int i = 0; i < numLines; i++) {
+      Coordinate[] pts = new Coordinate[numPts];
+      double x = size * rnd.nextDouble();
+      double y = size * rnd.nextDouble();
+      for (int j = 0; j < numPts; j++) {
+        pts[j] = new Coordinate(x, y);
+        x += 10 * rnd.nextDouble() - 5;
+        y += 10 * rnd.nextDouble() - 5;
+      }
+      lines[i] = getGeometryFactory().createLineString(pts);
+    }
+    return getGeometryFactory().createGeometryCollection(lines);
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.noding;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.locationtech.jts.algorithm.LineIntersector;
+import org.locationtech.jts.algorithm.RobustLineIntersector;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.geom.util.SineStarFactory;
+import org.locationtech.jts.operation.buffer.BufferOp;
+import org.locationtech.jts.operation.buffer.BufferParameters;
+import org.locationtech.jts.operation.overlayng.OverlayNG;
+
+import junit.textui.TestRunner;
+import test.jts.GeometryTestCase;
+
+public class ParallelMCIndexNoderTest extends GeometryTestCase {
+
+  public static void main(String args[]) {
+    TestRunner.run(ParallelMCIndexNoderTest.class);
+  }
+
+  private GeometryFactory geomFact = new GeometryFactory();
+  private ForkJoinPool pool;
+
+  public ParallelMCIndexNoderTest(String name) {
+    super(name);
+  }
+
+  protected void setUp() {
+    // shapes and buffers are created using the default factory, so make it planar
+    GeometryFactory.setDefaultFactory(geomFact);
+    pool = new ForkJoinPool(4);
+  }
+
+  protected void tearDown() {
+    pool.shutdown();
+    GeometryFactory.initDefaultFactory();
+  }
+
+  public void testCrossingLines() {
+    checkSameAsMCIndexNoder("MULTILINESTRING ((0 0, 10 10), (0 10, 10 0), (5 0, 5 10))", null);
+  }
+
+  public void testSelfTouchingRing() {
+    checkSameAsMCIndexNoder("LINESTRING (0 0, 10 0, 10 10, 5 0, 0 10, 0 0)", null);
+  }
+
+  public void testCollinear() {
+    checkSameAsMCIndexNoder("MULTILINESTRING ((0 0, 10 0), (5 0, 15 0), (2 0, 2 5, 8 5, 8 0))", null);
+  }
+
+  public void testEmpty() {
+    ParallelMCIndexNoder noder = new ParallelMCIndexNoder(pool);
+    noder.computeNodes(new ArrayList<NodedSegmentString>());
+    assertEquals(0, noder.getNodedSubstrings().size());
+  }
+
+  public void testRandomLines() {
+    checkSameAsMCIndexNoder(randomLines(new Random(21), 500, 20), null);
+  }
+
+  public void testRandomLinesPrecisionModel() {
+    checkSameAsMCIndexNoder(randomLines(new Random(22), 500, 20), new PrecisionModel(10));
+  }
+
+  public void testOverlayNG() {
+    Geometry a = SineStarFactory.create(new Coordinate(0, 0), 100, 5000, 11, 0.3);
+    Geometry b = SineStarFactory.create(new Coordinate(10, 5), 90, 5000, 7, 0.5);
+    Geometry expected = OverlayNG.overlay(a, b, OverlayNG.UNION);
+    Geometry actual = OverlayNG.overlay(a, b, OverlayNG.UNION, new ParallelMCIndexNoder(pool));
+    checkEqual(expected, actual);
+  }
+
+  public void testBuffer() {
+    Geometry lines = randomLines(new Random(23), 100, 50);
+    BufferParameters params = new BufferParameters();
+    Geometry expected = BufferOp.bufferOp(lines, 1.0, params);
+    params.setParallelNoding(pool);
+    checkEqual(expected, BufferOp.bufferOp(lines, 1.0, params));
+  }
+
+  private void checkSameAsMCIndexNoder(String wkt, PrecisionModel pm) {
+    checkSameAsMCIndexNoder(read(wkt), pm);
+  }
+
+  private void checkSameAsMCIndexNoder(Geometry geom, PrecisionModel pm) {
+    LineIntersector li = new RobustLineIntersector();
+    if (pm != null) li.setPrecisionModel(pm);
+    MCIndexNoder mcNoder = new MCIndexNoder(new IntersectionAdder(li));
+    List<Coordinate[]> expected = node(geom, mcNoder);
+
+    ParallelMCIndexNoder noder = new ParallelMCIndexNoder(pool);
+    if (pm != null) noder.setPrecisionModel(pm);
+    List<Coordinate[]> actual = node(geom, noder);
+
+    assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      checkEqualXY(expected.get(i), actual.get(i));
+    }
+  }
+
+  private void checkEqualXY(Coordinate[] expected, Coordinate[] actual) {
+    assertEquals(expected.length, actual.length);
+    for (int i = 0; i < expected.length; i++) {
+      assertTrue(expected[i].equals2D(actual[i]));
+    }
+  }
+
+  private static List<Coordinate[]> node(Geometry geom, Noder noder) {
+    List<NodedSegmentString> segStrings = new ArrayList<NodedSegmentString>();
+    for (int i = 0; i < geom.getNumGeometries(); i++) {
+      segStrings.add(new NodedSegmentString(geom.getGeometryN(i).getCoordinates(), null));
+    }
+    noder.computeNodes(segStrings);
+    Collection<SegmentString> noded = noder.getNodedSubstrings();
+    List<Coordinate[]> result = new ArrayList<Coordinate[]>();
+    for (SegmentString ss : noded) {
+      result.add(ss.getCoordinates());
+    }
+    return result;
+  }
+
+  private Geometry randomLines(Random rnd, int numLines, int numPts) {
+    LineString[] lines = new LineString[numLines];
+    for (int i = 0; i < numLines; i++) {
+      Coordinate[] pts = new Coordinate[numPts];
+      double x = 100 * rnd.nextDouble();
+      double y = 100 * rnd.nextDouble();
+      for (int j = 0; j < numPts; j++) {
+        pts[j] = new Coordinate(x, y);
+        x += 10 * rnd.nextDouble() - 5;
+        y += 10 * rnd.nextDouble() - 5;
+      }
+      lines[i] = geomFact.createLineString(pts);
+    }
+    return geomFact.createMultiLineString(lines);
+  }
+}
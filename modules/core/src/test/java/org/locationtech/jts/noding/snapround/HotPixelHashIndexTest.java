@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.noding.snapround;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.noding.NodedSegmentString;
+import org.locationtech.jts.noding.SegmentString;
+
+import junit.textui.TestRunner;
+import test.jts.GeometryTestCase;
+
+public class HotPixelHashIndexTest extends GeometryTestCase {
+
+  public static void main(String args[]) {
+    TestRunner.run(HotPixelHashIndexTest.class);
+  }
+
+  private GeometryFactory geomFact = new GeometryFactory();
+
+  public HotPixelHashIndexTest(String name) {
+    super(name);
+  }
+
+  protected void setUp() {
+    // the test data is planar
+    GeometryFactory.setDefaultFactory(geomFact);
+  }
+
+  protected void tearDown() {
+    GeometryFactory.initDefaultFactory();
+  }
+
+  public void testAddFindsSamePixel() {
+    HotPixelHashIndex index = new HotPixelHashIndex(new PrecisionModel(10));
+    HotPixel hp = index.add(new Coordinate(1.01, 2.02));
+    assertFalse(hp.isNode());
+    HotPixel hp2 = index.add(new Coordinate(0.99, 1.98));
+    assertSame(hp, hp2);
+    assertTrue(hp.isNode());
+    assertNotSame(hp, index.add(new Coordinate(1.06, 2.02)));
+  }
+
+  public void testQuery() {
+    HotPixelHashIndex index = new HotPixelHashIndex(new PrecisionModel(1));
+    for (int i = -5; i <= 5; i++) {
+      for (int j = -5; j <= 5; j++) {
+        index.add(new Coordinate(i, j));
+      }
+    }
+    final List<Coordinate> found = new ArrayList<Coordinate>();
+    index.query(new Coordinate(-1.2, 0), new Coordinate(1.2, 0.4), new HotPixelIndex.HotPixelVisitor() {
+      public void visit(HotPixel hp) {
+        found.add(hp.getCoordinate());
+      }
+    });
+    assertTrue(found.contains(new Coordinate(-1, 0)));
+    assertTrue(found.contains(new Coordinate(0, 0)));
+    assertTrue(found.contains(new Coordinate(1, 0)));
+    for (Coordinate p : found) {
+      assertTrue(Math.abs(p.getX()) <= 3 && Math.abs(p.getY()) <= 2);
+    }
+  }
+
+  public void testSimple() {
+    checkSameAsKdTree("MULTILINESTRING ((1 1, 9 2), (3 3, 3 0))", 1);
+  }
+
+  public void testSnappedDiagonalLine() {
+    checkSameAsKdTree("LINESTRING (2 3, 3 3, 3 2, 2 3)", 1);
+  }
+
+  public void testRingsWithParallelNarrowSpikes() {
+    checkSameAsKdTree("MULTILINESTRING ((1 3.3, 1.3 1.4, 3.1 1.4, 3.1 0.9, 1.3 0.9, 1 -0.2, 0.8 1.3, 1 3.3), (1 2.9, 2.9 2.9, 2.9 1.3, 1.7 1, 1.3 0.9, 1 0.4, 1 2.9))", 1);
+  }
+
+  public void testSmallScale() {
+    checkSameAsKdTree("LINESTRING (3670939.6336634574 3396937.3777869204, 3670995.4715200397 3396926.0316904164, 3671077.280213823 3396905.4302639295, 3671203.8838707027 3396908.120176068, 3671334.962571111 3396904.8310892633, 3670037.299066126 3396904.8310892633, 3670037.299066126 3398075.9808747065, 3670939.6336634574 3396937.3777869204)",
+        0.0016339869);
+  }
+
+  /**
+   * Long segments with few pixels are queried by scanning all pixels.
+   */
+  public void testLongSegments() {
+    checkSameAsKdTree("MULTILINESTRING ((0 0, 1000 1), (500 -10, 500.5 10), (0 1, 1000 0.3))", 10);
+  }
+
+  /**
+   * Grid positions too large to enumerate are queried by scanning all pixels.
+   */
+  public void testLargeCoordinates() {
+    checkSameAsKdTree("MULTILINESTRING ((1E20 1E20, 1.00000001E20 1.0000002E20), (1.00000001E20 1E20, 1E20 1.0000002E20))", 1);
+  }
+
+  public void testRandomLines() {
+    Random rnd = new Random(23);
+    Geometry lines = randomLines(rnd, 300, 20);
+    checkSameAsKdTree(lines, 1);
+    checkSameAsKdTree(lines, 10);
+    checkSameAsKdTree(lines, 100);
+  }
+
+  private void checkSameAsKdTree(String wkt, double scale) {
+    checkSameAsKdTree(read(wkt), scale);
+  }
+
+  private void checkSameAsKdTree(Geometry geom, double scale) {
+    PrecisionModel pm = new PrecisionModel(scale);
+    Collection expected = node(geom, new SnapRoundingNoder(pm));
+    Collection actual = node(geom, new SnapRoundingNoder(pm, true));
+    assertEquals(expected.size(), actual.size());
+    Iterator itExpected = expected.iterator();
+    Iterator itActual = actual.iterator();
+    while (itExpected.hasNext()) {
+      Coordinate[] ptsExpected = ((SegmentString) itExpected.next()).getCoordinates();
+      Coordinate[] ptsActual = ((SegmentString) itActual.next()).getCoordinates();
+      assertEquals(ptsExpected.length, ptsActual.length);
+      for (int i = 0; i < ptsExpected.length; i++) {
+        assertTrue(ptsExpected[i].equals2D(ptsActual[i]));
+      }
+    }
+  }
+
+  private static Collection node(Geometry geom, SnapRoundingNoder noder) {
+    List<NodedSegmentString> segStrings = new ArrayList<NodedSegmentString>();
+    for (int i = 0; i < geom.getNumGeometries(); i++) {
+      segStrings.add(new NodedSegmentString(geom.getGeometryN(i).getCoordinates(), null));
+    }
+    noder.computeNodes(segStrings);
+    return noder.getNodedSubstrings();
+  }
+
+  private Geometry randomLines(Random rnd, int numLines, int numPts) {
+    Geometry[] lines = new Geometry[numLines];
+    for (int i = 0; i < numLines; i++) {
+      Coordinate[] pts = new Coordinate[numPts];
+      double x = 100 * rnd.nextDouble();
+      double y = 100 * rnd.nextDouble();
+      for (int j = 0; j < numPts; j++) {
+        pts[j] = new Coordinate(x, y);
+        x += 10 * rnd.nextDouble() - 5;
+        y += 10 * rnd.nextDouble() - 5;
+      }
+      lines[i] = geomFact.createLineString(pts);
+    }
+    return geomFact.createGeometryCollection(lines);
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.operation.buffer;
+
+import org.locationtech.jts.algorithm.distance.LocalLonLatDistance;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+
+import junit.textui.TestRunner;
+import test.jts.GeometryTestCase;
+
+/**
+ * Tests buffering geographic geometries in a local projection.
+ * The test data uses the default (lon/lat) factory.
+ */
+public class BufferLocalProjectionTest extends GeometryTestCase {
+
+  public static void main(String args[]) {
+    TestRunner.run(BufferLocalProjectionTest.class);
+  }
+
+  public BufferLocalProjectionTest(String name) {
+    super(name);
+  }
+
+  protected void setUp() {
+    GeometryFactory.initDefaultFactory();
+  }
+
+  protected void tearDown() {
+    GeometryFactory.initDefaultFactory();
+  }
+
+  public void testPointEquator() {
+    checkDistance("POINT (110 0)", 1000, 0.0001);
+  }
+
+  public void testPointHighLatitude() {
+    checkDistance("POINT (10 60)", 1000, 0.001);
+    checkDistance("POINT (10 75)", 1000, 0.001);
+    checkDistance("POINT (-70 -55)", 50000, 0.01);
+  }
+
+  /**
+   * The maximum-latitude conversion over-buffers north-south at high latitudes.
+   */
+  public void testMaxLatitudeConversionError() {
+    Geometry pt = read("POINT (10 60)");
+    double maxDist = maxDistance(pt, BufferOp.bufferOp(pt, 1000));
+    assertTrue(maxDist > 1900);
+  }
+
+  public void testLineNorthSouth() {
+    checkDistance("LINESTRING (116 39.5, 116.1 40, 116 40.5)", 500, 0.02);
+  }
+
+  public void testLineEastWest() {
+    checkDistance("LINESTRING (10 60, 11 60.01, 12 60)", 500, 0.01);
+  }
+
+  public void testPolygon() {
+    checkDistance("POLYGON ((116.3 39.9, 116.4 39.9, 116.4 40, 116.3 40, 116.3 39.9))", 1000, 0.01);
+  }
+
+  public void testPolygonNegative() {
+    Geometry poly = read("POLYGON ((116.3 39.9, 116.4 39.9, 116.4 40, 116.3 40, 116.3 39.9))");
+    Geometry buf = bufferLocal(poly, -1000);
+    assertTrue(buf.isValid());
+    assertTrue(poly.contains(buf));
+    // the inset is 1 km on all sides
+    double insetLat = Math.toDegrees(LocalLonLatDistance.distanceToRadians(1000));
+    assertEquals(39.9 + insetLat, buf.getEnvelopeInternal().getMinY(), 1e-5);
+    assertEquals(40 - insetLat, buf.getEnvelopeInternal().getMaxY(), 1e-5);
+    double insetLon = insetLat / Math.cos(Math.toRadians(39.95));
+    assertEquals(116.3 + insetLon, buf.getEnvelopeInternal().getMinX(), 1e-5);
+  }
+
+  public void testEmpty() {
+    Geometry buf = bufferLocal(read("LINESTRING EMPTY"), 1000);
+    assertTrue(buf.isEmpty());
+    buf = bufferLocal(read("POINT (10 60)"), -1000);
+    assertTrue(buf.isEmpty());
+  }
+
+  /**
+   * The local projection does not apply to planar geometries.
+   */
+  public void testPlanar() {
+    GeometryFactory.setDefaultFactory(new GeometryFactory());
+    Geometry line = read("LINESTRING (0 0, 10 10)");
+    checkEqual(BufferOp.bufferOp(line, 1), bufferLocal(line, 1));
+  }
+
+  public void testCopyParameters() {
+    BufferParameters bufParams = new BufferParameters();
+    bufParams.setLocalProjection(true);
+    assertTrue(bufParams.copy().isLocalProjection());
+  }
+
+  private void checkDistance(String wkt, double distance, double tolerance) {
+    Geometry geom = read(wkt);
+    Geometry buf = bufferLocal(geom, distance);
+    assertTrue(buf.isValid());
+    assertEquals(distance, minDistance(geom, buf), tolerance * distance);
+    assertEquals(distance, maxDistance(geom, buf), tolerance * distance);
+  }
+
+  private static Geometry bufferLocal(Geometry geom, double distance) {
+    BufferParameters bufParams = new BufferParameters();
+    bufParams.setLocalProjection(true);
+    return BufferOp.bufferOp(geom, distance, bufParams);
+  }
+
+  private static double minDistance(Geometry geom, Geometry buf) {
+    double min = Double.MAX_VALUE;
+    for (Coordinate p : buf.getCoordinates()) {
+      min = Math.min(min, distance(p, geom));
+    }
+    return min;
+  }
+
+  private static double maxDistance(Geometry geom, Geometry buf) {
+    double max = 0;
+    for (Coordinate p : buf.getCoordinates()) {
+      max = Math.max(max, distance(p, geom));
+    }
+    return max;
+  }
+
+  /**
+   * Computes the distance in metres from a point to the linework of a geometry,
+   * by densifying the segments.
+   */
+  private static double distance(Coordinate p, Geometry geom) {
+    Coordinate[] pts = geom.getCoordinates();
+    if (pts.length == 1)
+      return LocalLonLatDistance.distance(p.x, p.y, pts[0].x, pts[0].y);
+    double min = Double.MAX_VALUE;
+    int numSteps = 2000;
+    for (int i = 0; i < pts.length - 1; i++) {
+      for (int j = 0; j <= numSteps; j++) {
+        double frac = j / (double) numSteps;
+        double x = pts[i].x + frac * (pts[i + 1].x - pts[i].x);
+        double y = pts[i].y + frac * (pts[i + 1].y - pts[i].y);
+        min = Math.min(min, LocalLonLatDistance.distance(p.x, p.y, x, y));
+      }
+    }
+    return min;
+  }
+}
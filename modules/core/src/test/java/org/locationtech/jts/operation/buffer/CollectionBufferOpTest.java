@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.operation.buffer;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.operation.union.CascadedPolygonUnion;
+
+import junit.textui.TestRunner;
+import test.jts.GeometryTestCase;
+
+public class CollectionBufferOpTest extends GeometryTestCase {
+
+  public static void main(String args[]) {
+    TestRunner.run(CollectionBufferOpTest.class);
+  }
+
+  private GeometryFactory geomFact = new GeometryFactory();
+
+  public CollectionBufferOpTest(String name) {
+    super(name);
+  }
+
+  protected void setUp() {
+    // the test data is planar
+    GeometryFactory.setDefaultFactory(geomFact);
+  }
+
+  protected void tearDown() {
+    GeometryFactory.initDefaultFactory();
+  }
+
+  public void testSameAsBufferOp() {
+    Geometry lines = randomLines(new Random(41), 300);
+    checkSameAsBufferOp(lines, 2.0);
+  }
+
+  public void testSameAsBufferOpPolygons() {
+    Geometry polys = read("MULTIPOLYGON (((0 0, 10 0, 10 10, 0 10, 0 0)), ((12 0, 20 0, 20 10, 12 10, 12 0)), ((40 40, 50 40, 45 50, 40 40)))");
+    checkSameAsBufferOp(polys, 1.5);
+    checkSameAsBufferOp(polys, -1.0);
+  }
+
+  public void testParallelSameAsSequential() {
+    Geometry lines = randomLines(new Random(42), 500);
+    CollectionBufferOp op = new CollectionBufferOp();
+    op.setBatchSize(7);
+    Geometry expected = op.buffer(lines, 2.0);
+    for (int parallelism : new int[] { 1, 4 }) {
+      ForkJoinPool pool = new ForkJoinPool(parallelism);
+      try {
+        op.setParallelBuffer(pool);
+        checkEqualExact(expected, op.buffer(lines, 2.0));
+      }
+      finally {
+        pool.shutdown();
+      }
+    }
+  }
+
+  public void testStream() {
+    final Geometry lines = randomLines(new Random(43), 100);
+    Iterable<Geometry> stream = new Iterable<Geometry>() {
+      public Iterator<Geometry> iterator() {
+        List<Geometry> list = new ArrayList<Geometry>();
+        for (int i = 0; i < lines.getNumGeometries(); i++) {
+          list.add(lines.getGeometryN(i));
+        }
+        return list.iterator();
+      }
+    };
+    CollectionBufferOp op = new CollectionBufferOp();
+    op.setBatchSize(10);
+    checkEqualExact(op.buffer(lines, 1.0), op.buffer(stream, 1.0, geomFact));
+  }
+
+  public void testEmpty() {
+    Geometry result = CollectionBufferOp.buffer(read("MULTILINESTRING EMPTY"), 1.0, null);
+    assertTrue(result.isEmpty());
+    result = CollectionBufferOp.buffer(read("MULTILINESTRING ((0 0, 1 1), (2 2, 3 3))"), -1.0, null);
+    assertTrue(result.isEmpty());
+  }
+
+  public void testSingleGeometry() {
+    Geometry poly = read("POLYGON ((0 0, 10 0, 10 10, 0 10, 0 0))");
+    checkSameAsBufferOp(poly, 1.0);
+  }
+
+  /**
+   * For a geographic factory each component is buffered
+   * using the distance converted for its own latitude.
+   */
+  public void testGeographic() {
+    GeometryFactory geoFact = GeometryFactory.getDefault();
+    GeometryFactory.initDefaultFactory();
+    try {
+      GeometryFactory lonLatFact = GeometryFactory.getDefault();
+      assertTrue(lonLatFact.isGeoCoordSys());
+      Geometry lines = lonLatFact.createMultiLineString(new LineString[] {
+          lonLatFact.createLineString(new Coordinate[] { new Coordinate(10, 0), new Coordinate(10.1, 0.1) }),
+          lonLatFact.createLineString(new Coordinate[] { new Coordinate(10, 60), new Coordinate(10.1, 60.1) })
+      });
+      List<Geometry> expectedParts = new ArrayList<Geometry>();
+      for (int i = 0; i < lines.getNumGeometries(); i++) {
+        expectedParts.add(BufferOp.bufferOp(lines.getGeometryN(i), 1000));
+      }
+      Geometry expected = CascadedPolygonUnion.union(expectedParts);
+      Geometry actual = CollectionBufferOp.buffer(lines, 1000, null);
+      checkEqual(expected, actual);
+      // the distance in degrees is wider at the higher latitude
+      assertEquals(2, actual.getNumGeometries());
+      Geometry low = actual.getGeometryN(0);
+      Geometry high = actual.getGeometryN(1);
+      if (low.getEnvelopeInternal().getMinY() > high.getEnvelopeInternal().getMinY()) {
+        Geometry temp = low;
+        low = high;
+        high = temp;
+      }
+      // (Envelope.getWidth is in metres for a geographic factory)
+      assertTrue(widthDegrees(high) > widthDegrees(low));
+    }
+    finally {
+      GeometryFactory.setDefaultFactory(geoFact);
+    }
+  }
+
+  private static double widthDegrees(Geometry geom) {
+    return geom.getEnvelopeInternal().getMaxX() - geom.getEnvelopeInternal().getMinX();
+  }
+
+  private void checkSameAsBufferOp(Geometry geom, double distance) {
+    Geometry expected = BufferOp.bufferOp(geom, distance);
+    Geometry actual = CollectionBufferOp.buffer(geom, distance, null);
+    assertEquals(expected.getArea(), actual.getArea(), 1e-6 * expected.getArea());
+    // the results may differ in the noding of the union
+    assertTrue(expected.symDifference(actual).getArea() < 1e-6 * expected.getArea() + 1e-9);
+    assertTrue(actual.isValid());
+  }
+
+  private Geometry randomLines(Random rnd, int numLines) {
+    LineString[] lines = new LineString[numLines];
+    for (int i = 0; i < numLines; i++) {
+      Coordinate[] pts = new Coordinate[10];
+      double x = 100 * rnd.nextDouble();
+      double y = 100 * rnd.nextDouble();
+      for (int j = 0; j < pts.length; j++) {
+        pts[j] = new Coordinate(x, y);
+        x += 10 * rnd.nextDouble() - 5;
+        y += 10 * rnd.nextDouble() - 5;
+      }
+      lines[i] = geomFact.createLineString(pts);
+    }
+    return geomFact.createMultiLineString(lines);
+  }
+}
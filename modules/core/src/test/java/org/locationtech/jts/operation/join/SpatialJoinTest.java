@@ -0,0 +1,316 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.operation.join;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.util.AffineTransformation;
+import org.locationtech.jts.index.ItemPairVisitor;
+import org.locationtech.jts.index.hprtree.HPRtree;
+
+import junit.textui.TestRunner;
+import test.jts.GeometryTestCase;
+
+public class SpatialJoinTest extends GeometryTestCase {
+
+  public static void main(String args[]) {
+    TestRunner.run(SpatialJoinTest.class);
+  }
+
+  private GeometryFactory geomFact = new GeometryFactory();
+
+  public SpatialJoinTest(String name) {
+    super(name);
+  }
+
+  protected void setUp() {
+    // the test data lies in the planar range, so don't treat it as geographic
+    GeometryFactory.setDefaultFactory(geomFact);
+  }
+
+  protected void tearDown() {
+    GeometryFactory.initDefaultFactory();
+  }
+
+  public void testIntersects() {
+    checkRandom(SpatialJoin.INTERSECTS, 0.0);
+  }
+
+  public void testContains() {
+    checkRandom(SpatialJoin.CONTAINS, 0.0);
+  }
+
+  public void testWithin() {
+    checkRandom(SpatialJoin.WITHIN, 0.0);
+  }
+
+  public void testDWithin() {
+    checkRandom(SpatialJoin.DWITHIN, 2.0);
+  }
+
+  public void testDWithinZero() {
+    checkRandom(SpatialJoin.DWITHIN, 0.0);
+  }
+
+  /**
+   * For geographic coordinates the distance is in metres.
+   * The join must agree with {@link Geometry#isWithinDistance(Geometry, double)}.
+   */
+  public void testDWithinGeographic() {
+    GeometryFactory.initDefaultFactory();
+    Random rnd = new Random(5);
+    // about 100 m units, at high latitude
+    AffineTransformation toLonLat = AffineTransformation.scaleInstance(0.001, 0.001)
+        .translate(116, 60);
+    List<Geometry> polys = transform(randomPolygons(rnd, 200), toLonLat);
+    List<Geometry> lines = transform(randomLines(rnd, 1000), toLonLat);
+    checkJoin(SpatialJoin.DWITHIN, 250, polys, lines);
+    checkJoin(SpatialJoin.DWITHIN, 250, lines, polys);
+  }
+
+  /**
+   * The query envelopes of a geographic join are expanded by the distance in degrees,
+   * not by the distance in metres.
+   */
+  public void testDWithinGeographicEnvelope() {
+    GeometryFactory.initDefaultFactory();
+    Envelope env = new Envelope(116, 116.01, 60, 60.01);
+    Envelope expanded = HPRtree.expandByDistance(env, 50);
+    assertTrue(expanded.getMaxY() - env.getMaxY() < 0.001);
+    assertTrue(expanded.getMaxX() - env.getMaxX() < 0.002);
+    assertTrue(expanded.getMaxX() - env.getMaxX() > expanded.getMaxY() - env.getMaxY());
+  }
+
+  public void testPairOrder() {
+    final Geometry poly = read("POLYGON ((0 0, 10 0, 10 10, 0 10, 0 0))");
+    final Geometry line = read("LINESTRING (1 1, 2 2)");
+    List<Geometry> polys = new ArrayList<Geometry>();
+    polys.add(poly);
+    List<Geometry> lines = new ArrayList<Geometry>();
+    lines.add(line);
+    lines.add(read("LINESTRING (11 11, 12 12)"));
+    final List<Geometry[]> pairs = new ArrayList<Geometry[]>();
+    SpatialJoin.join(polys, lines, SpatialJoin.CONTAINS, new ItemPairVisitor() {
+      public void visitItems(Object item1, Object item2) {
+        pairs.add(new Geometry[] { (Geometry) item1, (Geometry) item2 });
+      }
+    }, null);
+    assertEquals(1, pairs.size());
+    assertSame(poly, pairs.get(0)[0]);
+    assertSame(line, pairs.get(0)[1]);
+  }
+
+  public void testEmpty() {
+    List<Geometry> geoms1 = new ArrayList<Geometry>();
+    geoms1.add(read("POLYGON EMPTY"));
+    geoms1.add(read("POLYGON ((0 0, 10 0, 10 10, 0 10, 0 0))"));
+    List<Geometry> geoms2 = new ArrayList<Geometry>();
+    geoms2.add(read("LINESTRING EMPTY"));
+    geoms2.add(read("POINT EMPTY"));
+    assertEquals(0, join(new SpatialJoin(SpatialJoin.INTERSECTS), geoms1, geoms2).size());
+    assertEquals(0, join(new SpatialJoin(SpatialJoin.DWITHIN, 1.0), geoms2, geoms1).size());
+    assertEquals(0, join(new SpatialJoin(SpatialJoin.INTERSECTS), new ArrayList<Geometry>(), geoms1).size());
+  }
+
+  public void testInvalidArguments() {
+    try {
+      new SpatialJoin(0);
+      fail();
+    }
+    catch (IllegalArgumentException expected) {}
+    try {
+      new SpatialJoin(SpatialJoin.DWITHIN, -1.0);
+      fail();
+    }
+    catch (IllegalArgumentException expected) {}
+  }
+
+  public void testParallelVisitorException() {
+    List<Geometry> polys = randomPolygons(new Random(13), 50);
+    List<Geometry> lines = randomLines(new Random(14), 500);
+    SpatialJoin join = new SpatialJoin(SpatialJoin.INTERSECTS);
+    join.setBatchSize(10);
+    ForkJoinPool pool = new ForkJoinPool(2);
+    join.setParallelJoin(pool);
+    try {
+      join.join(polys, lines, new ItemPairVisitor() {
+        public void visitItems(Object item1, Object item2) {
+          throw new IllegalStateException("visitor failure");
+        }
+      });
+      fail();
+    }
+    catch (IllegalStateException expected) {}
+    finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Checks a join between random polygons and lines against a brute force join,
+   * with each set indexed, sequentially and in parallel.
+   */
+  private void checkRandom(int predicate, double distance) {
+    Random rnd = new Random(predicate);
+    List<Geometry> polys = randomPolygons(rnd, 200);
+    List<Geometry> lines = randomLines(rnd, 1000);
+
+    checkJoin(predicate, distance, polys, lines);
+    checkJoin(predicate, distance, lines, polys);
+    // polygons joined to polygons include equal and containing pairs
+    checkJoin(predicate, distance, polys, polys.subList(0, 100));
+  }
+
+  private void checkJoin(int predicate, double distance, List<Geometry> geoms1, List<Geometry> geoms2) {
+    Set<String> expected = joinBruteForce(predicate, distance, geoms1, geoms2);
+    SpatialJoin join = new SpatialJoin(predicate, distance);
+    join.setBatchSize(37);
+    // index the first set, then the second
+    assertEquals(expected, join(join, geoms1, geoms2, geoms1, geoms2));
+    assertEquals(expected, join(join, geoms1, stream(geoms2), geoms1, geoms2));
+    assertEquals(expected, join(join, stream(geoms1), geoms2, geoms1, geoms2));
+
+    ForkJoinPool pool = new ForkJoinPool(2);
+    join.setParallelJoin(pool);
+    try {
+      assertEquals(expected, join(join, geoms1, geoms2, geoms1, geoms2));
+      assertEquals(expected, join(join, stream(geoms1), geoms2, geoms1, geoms2));
+    }
+    finally {
+      pool.shutdown();
+    }
+  }
+
+  private static Set<String> join(SpatialJoin join, List<Geometry> geoms1, List<Geometry> geoms2) {
+    return join(join, geoms1, geoms2, geoms1, geoms2);
+  }
+
+  /**
+   * Computes a join, with the pairs identified by the positions of their geometries
+   * in the lists.
+   */
+  private static Set<String> join(SpatialJoin join,
+      Iterable<Geometry> input1, Iterable<Geometry> input2,
+      List<Geometry> geoms1, List<Geometry> geoms2) {
+    final IdentityHashMap<Object, Integer> index1 = indexMap(geoms1);
+    final IdentityHashMap<Object, Integer> index2 = indexMap(geoms2);
+    final Set<String> pairs = new HashSet<String>();
+    final int[] count = new int[1];
+    join.join(input1, input2, new ItemPairVisitor() {
+      public synchronized void visitItems(Object item1, Object item2) {
+        pairs.add(index1.get(item1) + ":" + index2.get(item2));
+        count[0]++;
+      }
+    });
+    // each pair must be visited once
+    assertEquals(pairs.size(), count[0]);
+    return pairs;
+  }
+
+  private static Set<String> joinBruteForce(int predicate, double distance,
+      List<Geometry> geoms1, List<Geometry> geoms2) {
+    Set<String> pairs = new HashSet<String>();
+    for (int i = 0; i < geoms1.size(); i++) {
+      for (int j = 0; j < geoms2.size(); j++) {
+        Geometry g1 = geoms1.get(i);
+        Geometry g2 = geoms2.get(j);
+        boolean isMatch = false;
+        switch (predicate) {
+        case SpatialJoin.INTERSECTS: isMatch = g1.intersects(g2); break;
+        case SpatialJoin.CONTAINS: isMatch = g1.contains(g2); break;
+        case SpatialJoin.WITHIN: isMatch = g1.within(g2); break;
+        case SpatialJoin.DWITHIN: isMatch = g1.isWithinDistance(g2, distance); break;
+        }
+        if (isMatch)
+          pairs.add(i + ":" + j);
+      }
+    }
+    return pairs;
+  }
+
+  private static IdentityHashMap<Object, Integer> indexMap(List<Geometry> geoms) {
+    IdentityHashMap<Object, Integer> map = new IdentityHashMap<Object, Integer>();
+    for (int i = 0; i < geoms.size(); i++) {
+      if (! map.containsKey(geoms.get(i)))
+        map.put(geoms.get(i), i);
+    }
+    return map;
+  }
+
+  /**
+   * Wraps a list as an iterable which is not a collection,
+   * so the join streams it.
+   */
+  private static Iterable<Geometry> stream(final List<Geometry> geoms) {
+    return new Iterable<Geometry>() {
+      public Iterator<Geometry> iterator() {
+        return geoms.iterator();
+      }
+    };
+  }
+
+  private static List<Geometry> transform(List<Geometry> geoms, AffineTransformation trans) {
+    List<Geometry> result = new ArrayList<Geometry>();
+    for (Geometry geom : geoms) {
+      result.add(trans.transform(geom));
+    }
+    return result;
+  }
+
+  private List<Geometry> randomPolygons(Random rnd, int n) {
+    List<Geometry> polys = new ArrayList<Geometry>();
+    for (int i = 0; i < n; i++) {
+      double x = rnd.nextInt(100);
+      double y = rnd.nextInt(100);
+      double size = 1 + rnd.nextInt(15);
+      polys.add(geomFact.createPolygon(new Coordinate[] {
+          new Coordinate(x, y), new Coordinate(x + size, y),
+          new Coordinate(x + size / 2, y + size), new Coordinate(x, y)
+      }));
+    }
+    return polys;
+  }
+
+  private List<Geometry> randomLines(Random rnd, int n) {
+    List<Geometry> lines = new ArrayList<Geometry>();
+    for (int i = 0; i < n; i++) {
+      double x = rnd.nextInt(100);
+      double y = rnd.nextInt(100);
+      int numPts = 2 + rnd.nextInt(4);
+      Coordinate[] pts = new Coordinate[numPts];
+      for (int j = 0; j < numPts; j++) {
+        pts[j] = new Coordinate(x, y);
+        // avoid zero-length segments, which make the line invalid
+        int dx = 0, dy = 0;
+        while (dx == 0 && dy == 0) {
+          dx = rnd.nextInt(7) - 3;
+          dy = rnd.nextInt(7) - 3;
+        }
+        x += dx;
+        y += dy;
+      }
+      lines.add(geomFact.createLineString(pts));
+    }
+    return lines;
+  }
+}
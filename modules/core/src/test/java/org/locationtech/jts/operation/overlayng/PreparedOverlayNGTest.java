@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.operation.overlayng;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.geom.util.SineStarFactory;
+
+import junit.textui.TestRunner;
+import test.jts.GeometryTestCase;
+
+public class PreparedOverlayNGTest extends GeometryTestCase {
+
+  public static void main(String args[]) {
+    TestRunner.run(PreparedOverlayNGTest.class);
+  }
+
+  private static final String CLIP = "POLYGON ((0 0, 0 100, 100 100, 100 60, 40 60, 40 40, 100 40, 100 0, 0 0), (10 10, 10 30, 30 30, 30 10, 10 10))";
+
+  public PreparedOverlayNGTest(String name) {
+    super(name);
+  }
+
+  public void testPolygonCrossingBoundary() {
+    checkOverlay(CLIP, "POLYGON ((20 50, 60 50, 60 70, 20 70, 20 50))");
+  }
+
+  public void testPolygonCrossingHole() {
+    checkOverlay(CLIP, "POLYGON ((5 5, 5 20, 20 20, 20 5, 5 5))");
+  }
+
+  public void testPolygonInside() {
+    checkOverlay(CLIP, "POLYGON ((50 70, 50 90, 90 90, 90 70, 50 70))");
+  }
+
+  public void testPolygonInHole() {
+    checkOverlay(CLIP, "POLYGON ((15 15, 15 25, 25 25, 25 15, 15 15))");
+  }
+
+  public void testPolygonInNotch() {
+    checkOverlay(CLIP, "POLYGON ((60 45, 60 55, 90 55, 90 45, 60 45))");
+  }
+
+  public void testPolygonDisjoint() {
+    checkOverlay(CLIP, "POLYGON ((200 200, 200 210, 210 210, 210 200, 200 200))");
+  }
+
+  public void testPolygonCoveringClip() {
+    checkOverlay(CLIP, "POLYGON ((-10 -10, -10 110, 110 110, 110 -10, -10 -10))");
+  }
+
+  public void testLine() {
+    checkOverlay(CLIP, "LINESTRING (-10 50, 110 50, 110 20, 20 20)");
+  }
+
+  public void testLineInside() {
+    checkOverlay(CLIP, "LINESTRING (50 70, 90 90)");
+  }
+
+  public void testPoints() {
+    checkOverlay(CLIP, "MULTIPOINT ((20 20), (5 5), (50 50), (50 80), (0 50))");
+  }
+
+  public void testRectangleClip() {
+    checkOverlay("POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0))", "POLYGON ((2 2, 2 4, 4 4, 4 2, 2 2))");
+    checkOverlay("POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0))", "POLYGON ((5 5, 5 15, 15 15, 15 5, 5 5))");
+  }
+
+  public void testNonPolygonalPrepared() {
+    checkOverlay("LINESTRING (0 0, 10 10)", "POLYGON ((5 0, 5 10, 15 10, 15 0, 5 0))");
+  }
+
+  public void testUnion() {
+    Geometry clip = read(CLIP);
+    Geometry a = read("POLYGON ((20 50, 60 50, 60 70, 20 70, 20 50))");
+    PreparedOverlayNG prep = new PreparedOverlayNG(clip);
+    checkEqual(OverlayNG.overlay(a, clip, OverlayNG.UNION), prep.overlay(a, OverlayNG.UNION));
+  }
+
+  public void testFixedPrecision() {
+    GeometryFactory fixedFact = new GeometryFactory(new PrecisionModel(1));
+    Geometry clip = read(CLIP);
+    Geometry a = fixedFact.createGeometry(read("POLYGON ((20.3 50.2, 60.6 50.1, 60.1 70.7, 20.4 70.2, 20.3 50.2))"));
+    PreparedOverlayNG prep = new PreparedOverlayNG(clip);
+    checkEqual(OverlayNG.overlay(a, clip, OverlayNG.INTERSECTION), prep.intersection(a));
+  }
+
+  public void testManyFeatures() {
+    GeometryFactory.setDefaultFactory(new GeometryFactory());
+    try {
+      Geometry clip = SineStarFactory.create(new Coordinate(100, 100), 100, 5000, 9, 0.4);
+      PreparedOverlayNG prep = new PreparedOverlayNG(clip);
+      for (int i = 0; i < 20; i++) {
+        for (int j = 0; j < 20; j++) {
+          Geometry a = SineStarFactory.create(new Coordinate(10 * i, 10 * j), 8, 30, 3, 0.3);
+          checkOverlay(prep, a, OverlayNG.INTERSECTION);
+          checkOverlay(prep, a, OverlayNG.DIFFERENCE);
+        }
+      }
+    }
+    finally {
+      GeometryFactory.initDefaultFactory();
+    }
+  }
+
+  private void checkOverlay(String wktClip, String wktA) {
+    PreparedOverlayNG prep = new PreparedOverlayNG(read(wktClip));
+    Geometry a = read(wktA);
+    checkOverlay(prep, a, OverlayNG.INTERSECTION);
+    checkOverlay(prep, a, OverlayNG.DIFFERENCE);
+  }
+
+  private void checkOverlay(PreparedOverlayNG prep, Geometry a, int opCode) {
+    Geometry expected = OverlayNG.overlay(a, prep.getGeometry(), opCode);
+    Geometry actual = prep.overlay(a, opCode);
+    checkEqual(expected, actual);
+  }
+}
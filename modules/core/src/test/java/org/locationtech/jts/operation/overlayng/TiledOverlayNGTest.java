@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.operation.overlayng;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.util.SineStarFactory;
+
+import junit.textui.TestRunner;
+import test.jts.GeometryTestCase;
+import test.jts.perf.operation.overlayng.RandomPolygonBuilder;
+
+public class TiledOverlayNGTest extends GeometryTestCase {
+
+  public static void main(String args[]) {
+    TestRunner.run(TiledOverlayNGTest.class);
+  }
+
+  private static final int[] OP_CODES = {
+      OverlayNG.INTERSECTION, OverlayNG.UNION, OverlayNG.DIFFERENCE, OverlayNG.SYMDIFFERENCE };
+
+  private static final double AREA_TOLERANCE = 1e-12;
+
+  public TiledOverlayNGTest(String name) {
+    super(name);
+  }
+
+  protected void setUp() {
+    //-- shape factories create geometry with the default factory
+    GeometryFactory.setDefaultFactory(new GeometryFactory());
+  }
+
+  protected void tearDown() {
+    GeometryFactory.initDefaultFactory();
+  }
+
+  public void testBoxesOnGridLines() {
+    checkAllOps("POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0))",
+        "POLYGON ((5 5, 5 15, 15 15, 15 5, 5 5))", 3, 3);
+  }
+
+  public void testPolygonWithHole() {
+    checkAllOps("POLYGON ((0 0, 0 100, 100 100, 100 0, 0 0), (20 20, 80 20, 80 80, 20 80, 20 20))",
+        "POLYGON ((10 50, 50 95, 90 50, 50 5, 10 50))", 4, 3);
+  }
+
+  public void testMultiPolygon() {
+    checkAllOps("MULTIPOLYGON (((0 0, 0 40, 40 40, 40 0, 0 0)), ((60 60, 60 100, 100 100, 100 60, 60 60)))",
+        "POLYGON ((30 10, 10 70, 70 90, 90 30, 30 10))", 5, 5);
+  }
+
+  public void testDisjoint() {
+    checkAllOps("POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0))",
+        "POLYGON ((20 20, 20 30, 30 30, 30 20, 20 20))", 4, 4);
+  }
+
+  public void testSineStars() {
+    Geometry a = SineStarFactory.create(new Coordinate(100, 100), 200, 2000, 6, 0.3);
+    Geometry b = SineStarFactory.create(new Coordinate(120, 90), 150, 1500, 11, 0.5);
+    for (int opCode : OP_CODES) {
+      checkOverlay(a, b, opCode, 4, 3, null);
+      checkOverlay(a, b, opCode, 7, 7, null);
+    }
+  }
+
+  /**
+   * Random polygonal coverages have many vertices and edges
+   * close to the grid lines.
+   */
+  public void testRandomPolygons() {
+    for (int i = 0; i < 5; i++) {
+      Geometry a = RandomPolygonBuilder.build(200 + 50 * i);
+      Geometry b = RandomPolygonBuilder.build(150 + 30 * i);
+      for (int opCode : OP_CODES) {
+        checkOverlay(a, b, opCode, 3 + i, 5 - i, null);
+      }
+    }
+  }
+
+  public void testParallel() {
+    Geometry a = SineStarFactory.create(new Coordinate(100, 100), 200, 2000, 6, 0.3);
+    Geometry b = SineStarFactory.create(new Coordinate(80, 110), 150, 1500, 9, 0.4);
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      for (int opCode : OP_CODES) {
+        Geometry seq = tiledOverlay(a, b, opCode, 5, 5, null);
+        Geometry par = tiledOverlay(a, b, opCode, 5, 5, pool);
+        checkEqual(seq.norm(), par.norm());
+      }
+    }
+    finally {
+      pool.shutdown();
+    }
+  }
+
+  public void testDefaultGrid() {
+    Geometry a = SineStarFactory.create(new Coordinate(100, 100), 200, 2000, 6, 0.3);
+    Geometry b = SineStarFactory.create(new Coordinate(120, 90), 150, 1500, 11, 0.5);
+    TiledOverlayNG ov = new TiledOverlayNG(a, b, OverlayNG.UNION);
+    ov.setMaxTileVertices(500);
+    checkSame(OverlayNG.overlay(a, b, OverlayNG.UNION), ov.getResult());
+  }
+
+  public void testNonPolygonal() {
+    Geometry a = read("LINESTRING (0 0, 10 10)");
+    Geometry b = read("POLYGON ((5 0, 5 10, 15 10, 15 0, 5 0))");
+    Geometry expected = OverlayNG.overlay(a, b, OverlayNG.INTERSECTION);
+    checkEqual(expected, TiledOverlayNG.overlay(a, b, OverlayNG.INTERSECTION, null));
+  }
+
+  public void testEmpty() {
+    Geometry a = read("POLYGON EMPTY");
+    Geometry b = read("POLYGON ((5 0, 5 10, 15 10, 15 0, 5 0))");
+    Geometry result = TiledOverlayNG.overlay(a, b, OverlayNG.INTERSECTION, null);
+    assertTrue(result.isEmpty());
+  }
+
+  private void checkAllOps(String wktA, String wktB, int nx, int ny) {
+    Geometry a = read(wktA);
+    Geometry b = read(wktB);
+    for (int opCode : OP_CODES) {
+      checkOverlay(a, b, opCode, nx, ny, null);
+    }
+  }
+
+  private void checkOverlay(Geometry a, Geometry b, int opCode, int nx, int ny, ForkJoinPool pool) {
+    Geometry expected = OverlayNGRobust.overlay(a, b, opCode);
+    Geometry result = tiledOverlay(a, b, opCode, nx, ny, pool);
+    checkSame(expected, result);
+  }
+
+  private void checkSame(Geometry expected, Geometry result) {
+    assertTrue(result.isValid());
+    if (expected.isEmpty()) {
+      assertTrue(result.isEmpty());
+      return;
+    }
+    //-- tile boundaries are dissolved
+    assertEquals(expected.getNumGeometries(), result.getNumGeometries());
+    //-- split points on grid lines may differ from the input segments by round-off
+    double diffArea = OverlayNGRobust.overlay(expected, result, OverlayNG.SYMDIFFERENCE).getArea();
+    assertEquals(0.0, diffArea, AREA_TOLERANCE * expected.getArea());
+  }
+
+  private static Geometry tiledOverlay(Geometry a, Geometry b, int opCode, int nx, int ny, ForkJoinPool pool) {
+    TiledOverlayNG ov = new TiledOverlayNG(a, b, opCode);
+    ov.setTileGrid(nx, ny);
+    ov.setParallelOverlay(pool);
+    return ov.getResult();
+  }
+}
@@ -15,6 +15,7 @@ package org.locationtech.jts.operation.union;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Geometry;
@@ -78,6 +79,41 @@ public class CascadedPolygonUnionTest extends TestCase
   }
 
   
+  public void testParallelSameAsSequential()
+  throws Exception
+  {
+    // discs are buffered using the default factory, so make it planar
+    GeometryFactory.setDefaultFactory(geomFact);
+    try {
+      checkParallel(createDiscs(20, 0.7), 4);
+      checkParallel(createDiscs(20, 0.4), 16);
+      // threshold larger than input unions sequentially
+      checkParallel(createDiscs(5, 0.7), 1000);
+    }
+    finally {
+      GeometryFactory.initDefaultFactory();
+    }
+  }
+
+  public void testParallelUnaryUnion()
+  throws Exception
+  {
+    GeometryFactory.setDefaultFactory(geomFact);
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      Collection geoms = createDiscs(12, 0.6);
+      Geometry expected = UnaryUnionOp.union(geoms);
+      UnaryUnionOp op = new UnaryUnionOp(geoms);
+      op.setParallelUnion(pool);
+      assertTrue(expected.equalsExact(op.union()));
+      assertEquals(1, expected.getNumGeometries());
+    }
+    finally {
+      pool.shutdown();
+      GeometryFactory.initDefaultFactory();
+    }
+  }
+
   // TODO: add some synthetic tests
   
   private static CascadedPolygonUnionTester tester = new CascadedPolygonUnionTester();
@@ -87,6 +123,22 @@ public class CascadedPolygonUnionTest extends TestCase
   	assertTrue(tester.test(geoms, minimumMeasure));
   }
   
+  private void checkParallel(Collection geoms, int threshold)
+  {
+    Geometry expected = CascadedPolygonUnion.union(geoms);
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      CascadedPolygonUnion op = new CascadedPolygonUnion(geoms);
+      op.setParallelUnion(pool);
+      op.setParallelThreshold(threshold);
+      Geometry actual = op.union();
+      assertTrue(expected.equalsExact(actual));
+    }
+    finally {
+      pool.shutdown();
+    }
+  }
+
   private Collection createDiscs(int num, double radius)
   {
   	List geoms = new ArrayList();
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.operation.union;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+
+import junit.textui.TestRunner;
+import test.jts.GeometryTestCase;
+
+public class PartitionedUnionTest extends GeometryTestCase {
+
+  public static void main(String args[]) {
+    TestRunner.run(PartitionedUnionTest.class);
+  }
+
+  private GeometryFactory geomFact = new GeometryFactory();
+
+  public PartitionedUnionTest(String name) {
+    super(name);
+  }
+
+  protected void setUp() {
+    // discs are buffered using the default factory, so make it planar
+    GeometryFactory.setDefaultFactory(geomFact);
+  }
+
+  protected void tearDown() {
+    GeometryFactory.initDefaultFactory();
+  }
+
+  public void testDisjoint() {
+    checkUnion("MULTIPOLYGON (((0 0, 1 0, 1 1, 0 1, 0 0)), ((5 5, 6 5, 6 6, 5 6, 5 5)))",
+        "MULTIPOLYGON (((0 0, 1 0, 1 1, 0 1, 0 0)), ((5 5, 6 5, 6 6, 5 6, 5 5)))");
+  }
+
+  public void testChain() {
+    checkUnion("MULTIPOLYGON (((0 0, 2 0, 2 1, 0 1, 0 0)), ((1 0, 3 0, 3 1, 1 1, 1 0)), ((2 0, 4 0, 4 1, 2 1, 2 0)), ((10 0, 11 0, 11 1, 10 1, 10 0)))",
+        "MULTIPOLYGON (((0 0, 4 0, 4 1, 0 1, 0 0)), ((10 0, 11 0, 11 1, 10 1, 10 0)))");
+  }
+
+  public void testEmpty() {
+    assertNull(PartitionedUnion.union(read("MULTIPOLYGON EMPTY")));
+  }
+
+  public void testSparseSameAsCascaded() {
+    List<Geometry> geoms = createClusters(15, 5);
+    Geometry expected = CascadedPolygonUnion.union(geoms);
+    Geometry actual = new PartitionedUnion(geoms).union();
+    checkEqual(expected, actual.union());
+    assertEquals(15 * 15, actual.getNumGeometries());
+  }
+
+  public void testParallelSameAsSequential() {
+    List<Geometry> geoms = createClusters(20, 6);
+    Geometry expected = new PartitionedUnion(geoms).union();
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      PartitionedUnion op = new PartitionedUnion(geoms);
+      op.setParallelUnion(pool);
+      assertTrue(expected.equalsExact(op.union()));
+    }
+    finally {
+      pool.shutdown();
+    }
+  }
+
+  private void checkUnion(String wkt, String wktExpected) {
+    Geometry result = PartitionedUnion.union(read(wkt));
+    assertTrue(read(wktExpected).equalsTopo(result));
+  }
+
+  /**
+   * Creates a grid of separated clusters,
+   * each containing a row of overlapping discs.
+   */
+  private List<Geometry> createClusters(int numClusters, int clusterSize) {
+    List<Geometry> geoms = new ArrayList<Geometry>();
+    for (int i = 0; i < numClusters; i++) {
+      for (int j = 0; j < numClusters; j++) {
+        for (int k = 0; k < clusterSize; k++) {
+          Coordinate pt = new Coordinate(10 * i + k, 10 * j);
+          geoms.add(geomFact.createPoint(pt).buffer(0.7));
+        }
+      }
+    }
+    return geoms;
+  }
+}
@@ -0,0 +1,60 @@
+package org.locationtech.jts.operation.union;
+
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+
+import junit.textui.TestRunner;
+import test.jts.GeometryTestCase;
+
+public class SpatialPartitionTest extends GeometryTestCase {
+  public static void main(String args[]) {
+    TestRunner.run(SpatialPartitionTest.class);
+  }
+
+  public SpatialPartitionTest(String name) {
+    super(name);
+  }
+
+  @Override
+  protected void setUp() {
+    GeometryFactory.setDefaultFactory(new GeometryFactory());
+  }
+
+  @Override
+  protected void tearDown() {
+    GeometryFactory.initDefaultFactory();
+  }
+
+  public void testIntersects() {
+    checkPartition(new String[] {
+        "LINESTRING (0 0, 10 0)", "LINESTRING (5 0, 5 10)", "LINESTRING (11 0, 20 0)"
+    }, 0.0, 2);
+  }
+
+  public void testWithinDistance() {
+    checkPartition(new String[] {
+        "POINT (0 0)", "POINT (2 0)", "POINT (4 0)", "POINT (10 0)"
+    }, 2.5, 2);
+  }
+
+  public void testWithinDistanceChained() {
+    checkPartition(new String[] {
+        "POINT (0 0)", "POINT (2 0)", "POINT (4 0)", "POINT (6 0)"
+    }, 2.5, 1);
+  }
+
+  private void checkPartition(String[] wkt, double distance, int countExpected) {
+    final Geometry[] geoms = new Geometry[wkt.length];
+    for (int i = 0; i < wkt.length; i++) {
+      geoms[i] = read(wkt[i]);
+    }
+    SpatialPartition part = new SpatialPartition(geoms, distance,
+        new SpatialPartition.EquivalenceRelation() {
+          @Override
+          public boolean isEquivalent(int i, int j) {
+            return geoms[i].isWithinDistance(geoms[j], distance);
+          }
+        });
+    assertEquals(countExpected, part.getCount());
+  }
+}
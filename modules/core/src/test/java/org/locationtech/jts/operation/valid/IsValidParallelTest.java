@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.operation.valid;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Polygon;
+
+import junit.textui.TestRunner;
+import test.jts.GeometryTestCase;
+
+public class IsValidParallelTest extends GeometryTestCase {
+
+  public static void main(String args[]) {
+    TestRunner.run(IsValidParallelTest.class);
+  }
+
+  private ForkJoinPool pool;
+
+  public IsValidParallelTest(String name) {
+    super(name);
+  }
+
+  protected void setUp() {
+    pool = new ForkJoinPool(4);
+  }
+
+  protected void tearDown() {
+    pool.shutdown();
+  }
+
+  public void testValidTouchAtVertices() {
+    checkSameAsSequential(
+        "MULTIPOLYGON (((10 10, 10 90, 90 90, 90 10, 80 80, 50 20, 20 80, 10 10)), ((90 10, 10 10, 50 20, 90 10)))");
+  }
+
+  public void testValidHoleTouchVertices()  {
+    checkSameAsSequential(
+        "MULTIPOLYGON (((20 380, 420 380, 420 20, 20 20, 20 380), (220 340, 80 320, 60 200, 140 100, 340 60, 300 240, 220 340)), ((60 200, 340 60, 220 340, 60 200)))");
+  }
+
+  public void testInvalidHoleOverlapCrossing() {
+    checkSameAsSequential(
+        "MULTIPOLYGON (((20 380, 420 380, 420 20, 20 20, 20 380), (220 340, 180 240, 60 200, 140 100, 340 60, 300 240, 220 340)), ((60 200, 340 60, 220 340, 60 200)))");
+  }
+
+  public void testInvalidNestedAllTouchAtVertices() {
+    checkSameAsSequential(
+        "MULTIPOLYGON (((10 10, 20 30, 10 90, 90 90, 80 30, 90 10, 50 20, 10 10)), ((80 30, 20 30, 50 20, 80 30)))");
+  }
+
+  public void testInvalidOverlappingEdges() {
+    checkSameAsSequential(
+        "MULTIPOLYGON (((0 0, 0 10, 10 10, 10 0, 0 0)), ((10 0, 10 10, 20 10, 20 0, 10 0)))");
+  }
+
+  public void testInvalidElementSelfIntersection() {
+    checkSameAsSequential(
+        "MULTIPOLYGON (((0 0, 0 10, 10 10, 10 0, 0 0)), ((20 0, 30 10, 30 0, 20 10, 20 0)))");
+  }
+
+  public void testInvalidElementHoleOutsideShell() {
+    checkSameAsSequential(
+        "MULTIPOLYGON (((0 0, 0 10, 10 10, 10 0, 0 0)), ((20 0, 20 10, 30 10, 30 0, 20 0), (40 1, 40 2, 41 2, 41 1, 40 1)))");
+  }
+
+  public void testInvalidElementDisconnectedInterior() {
+    checkSameAsSequential(
+        "MULTIPOLYGON (((100 0, 100 10, 110 10, 110 0, 100 0)), ((10 90, 90 90, 90 10, 10 10, 10 90), (20 80, 30 80, 20 20, 20 80), (80 30, 20 20, 80 20, 80 30), (80 80, 30 80, 80 30, 80 80)))");
+  }
+
+  public void testInvalidElementCoordinate() {
+    Geometry geom = read("MULTIPOLYGON (((0 0, 0 10, 10 10, 10 0, 0 0)), ((20 0, 20 10, 30 10, 30 0, 20 0)))");
+    ((Polygon) geom.getGeometryN(1)).getExteriorRing().getCoordinateSequence().setOrdinate(2, 1, Double.NaN);
+    geom.geometryChanged();
+    checkSameAsSequential(geom);
+  }
+
+  public void testGridValid() {
+    assertNull(checkSameAsSequential(read(grid(20, null))));
+  }
+
+  public void testGridOverlap() {
+    checkSameAsSequential(grid(20, "((55 55, 55 65, 65 65, 65 55, 55 55))"),
+        TopologyValidationError.SELF_INTERSECTION);
+  }
+
+  public void testGridNested() {
+    checkSameAsSequential(grid(20, "((48.2 50, 48.2 56, 48.8 56, 48.8 50, 48.2 50))"),
+        TopologyValidationError.NESTED_SHELLS);
+  }
+
+  public void testGridElementInvalid() {
+    checkSameAsSequential(grid(20, "((1000 0, 1010 10, 1010 0, 1000 10, 1000 0))"),
+        TopologyValidationError.SELF_INTERSECTION);
+  }
+
+  public void testFirstInvalidElementReported() {
+    Geometry geom = read("MULTIPOLYGON (((0 0, 0 10, 10 10, 10 0, 0 0)), ((20 0, 30 10, 30 0, 20 10, 20 0)), ((40 0, 50 10, 50 0, 40 10, 40 0)))");
+    IsValidOp op = new IsValidOp(geom);
+    op.setParallelValidation(pool);
+    TopologyValidationError err = op.getValidationError();
+    assertEquals(new Coordinate(25, 5), err.getCoordinate());
+  }
+
+  public void testFastFailManyInvalid() {
+    StringBuilder wkt = new StringBuilder("MULTIPOLYGON (");
+    for (int i = 0; i < 200; i++) {
+      if (i > 0) wkt.append(", ");
+      int x = 20 * i;
+      wkt.append("((" + x + " 0, " + (x + 10) + " 10, " + (x + 10) + " 0, " + x + " 10, " + x + " 0))");
+    }
+    wkt.append(")");
+    Geometry geom = read(wkt.toString());
+    assertFalse(IsValidOp.isValid(geom, pool, true));
+    IsValidOp op = new IsValidOp(geom);
+    op.setParallelValidation(pool);
+    op.setFastFail(true);
+    assertEquals(TopologyValidationError.SELF_INTERSECTION, op.getValidationError().getErrorType());
+  }
+
+  /**
+   * Creates a MultiPolygon WKT for a grid of separated squares with holes,
+   * with an optional extra element.
+   */
+  private String grid(int size, String extraElement) {
+    StringBuilder wkt = new StringBuilder("MULTIPOLYGON (");
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++) {
+        if (i > 0 || j > 0) wkt.append(", ");
+        int x = 12 * i;
+        int y = 12 * j;
+        wkt.append("((" + x + " " + y + ", " + x + " " + (y + 10) + ", " + (x + 10) + " " + (y + 10) + ", "
+            + (x + 10) + " " + y + ", " + x + " " + y + "), ("
+            + (x + 1) + " " + (y + 1) + ", " + (x + 9) + " " + (y + 1) + ", " + (x + 9) + " " + (y + 9) + ", "
+            + (x + 1) + " " + (y + 9) + ", " + (x + 1) + " " + (y + 1) + "))");
+      }
+    }
+    if (extraElement != null) {
+      wkt.append(", " + extraElement);
+    }
+    wkt.append(")");
+    return wkt.toString();
+  }
+
+  private void checkSameAsSequential(String wkt) {
+    checkSameAsSequential(read(wkt));
+  }
+
+  private void checkSameAsSequential(String wkt, int expectedErrType) {
+    TopologyValidationError expected = checkSameAsSequential(read(wkt));
+    assertEquals(expectedErrType, expected.getErrorType());
+  }
+
+  private TopologyValidationError checkSameAsSequential(Geometry geom) {
+    TopologyValidationError expected = new IsValidOp(geom).getValidationError();
+    checkSameAsSequential(geom, expected, false);
+    checkSameAsSequential(geom, expected, true);
+    return expected;
+  }
+
+  private void checkSameAsSequential(Geometry geom, TopologyValidationError expected, boolean isFastFail) {
+    IsValidOp op = new IsValidOp(geom);
+    op.setParallelValidation(pool);
+    op.setFastFail(isFastFail);
+    assertEquals(expected == null, op.isValid());
+    TopologyValidationError err = op.getValidationError();
+    if (expected == null) {
+      assertNull(err);
+      return;
+    }
+    assertEquals(expected.getErrorType(), err.getErrorType());
+  }
+}
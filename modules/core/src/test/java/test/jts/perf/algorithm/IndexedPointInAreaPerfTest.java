@@ -4,10 +4,15 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
+import org.locationtech.jts.algorithm.locate.GridPointInAreaLocator;
 import org.locationtech.jts.algorithm.locate.IndexedPointInAreaLocator;
+import org.locationtech.jts.algorithm.locate.PointOnGeometryLocator;
 import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.Location;
 import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.util.SineStarFactory;
 import org.locationtech.jts.util.GeometricShapeFactory;
 
 import test.jts.perf.PerformanceTestCase;
@@ -26,20 +31,43 @@ public class IndexedPointInAreaPerfTest extends PerformanceTestCase {
   }
   
   List<Coordinate> coords;
+  double[] xy;
   Polygon polygon;
+  Geometry sineStar;
+  
+  static final int SINE_STAR_SIZE = 100_000;
   
   public void startRun(int num)
   {
     System.out.println("Running with size " + num);
-    GeometricShapeFactory factory = new GeometricShapeFactory();
-    factory.setSize(100);
-    polygon = factory.createCircle();
+    //-- shape factories create geometry with the default factory
+    GeometryFactory.setDefaultFactory(new GeometryFactory());
+    try {
+      GeometricShapeFactory factory = new GeometricShapeFactory();
+      factory.setSize(100);
+      polygon = factory.createCircle();
+      
+      SineStarFactory starFactory = new SineStarFactory();
+      starFactory.setSize(100);
+      starFactory.setCentre(new Coordinate(50, 50));
+      starFactory.setNumPoints(SINE_STAR_SIZE);
+      starFactory.setNumArms(20);
+      sineStar = starFactory.createSineStar();
+    }
+    finally {
+      GeometryFactory.initDefaultFactory();
+    }
     
     coords = new ArrayList<>();
     Random rand = new Random(1324);
     for (int i = 0; i < num; i++) {
       coords.add(new Coordinate(rand.nextDouble()*100, rand.nextDouble()*100));
     }
+    xy = new double[2 * num];
+    for (int i = 0; i < num; i++) {
+      xy[2 * i] = coords.get(i).x;
+      xy[2 * i + 1] = coords.get(i).y;
+    }
   }
   
   public void runParallel() {
@@ -49,7 +77,60 @@ public class IndexedPointInAreaPerfTest extends PerformanceTestCase {
     }
   }
       
-  private boolean isInside(IndexedPointInAreaLocator locator, Coordinate coord) {
+  public void runSerial() {
+    for (int i = 0; i < 100; i++) {
+      IndexedPointInAreaLocator locator = new IndexedPointInAreaLocator(polygon);
+      for (Coordinate c : coords) {
+        isInside(locator, c);
+      }
+    }
+  }
+  
+  public void runBulk() {
+    int[] locations = new int[coords.size()];
+    for (int i = 0; i < 100; i++) {
+      IndexedPointInAreaLocator locator = new IndexedPointInAreaLocator(polygon);
+      locator.locate(xy, locations);
+    }
+  }
+      
+  public void runGridSerial() {
+    for (int i = 0; i < 100; i++) {
+      GridPointInAreaLocator locator = new GridPointInAreaLocator(polygon);
+      for (Coordinate c : coords) {
+        isInside(locator, c);
+      }
+    }
+  }
+  
+  public void runSineStarIndexed() {
+    PointOnGeometryLocator locator = new IndexedPointInAreaLocator(sineStar);
+    for (int i = 0; i < 20; i++) {
+      for (Coordinate c : coords) {
+        isInside(locator, c);
+      }
+    }
+  }
+  
+  public void runSineStarGrid() {
+    PointOnGeometryLocator locator = new GridPointInAreaLocator(sineStar);
+    for (int i = 0; i < 20; i++) {
+      for (Coordinate c : coords) {
+        isInside(locator, c);
+      }
+    }
+  }
+  
+  public void runSineStarGridFine() {
+    PointOnGeometryLocator locator = new GridPointInAreaLocator(sineStar, 2048);
+    for (int i = 0; i < 20; i++) {
+      for (Coordinate c : coords) {
+        isInside(locator, c);
+      }
+    }
+  }
+  
+  private boolean isInside(PointOnGeometryLocator locator, Coordinate coord) {
     return locator.locate(coord) == Location.INTERIOR;
   }
 }
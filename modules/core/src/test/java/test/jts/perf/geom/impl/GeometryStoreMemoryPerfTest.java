@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package test.jts.perf.geom.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.locationtech.jts.algorithm.Length;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.impl.GeometryStore;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
+import org.locationtech.jts.geom.impl.XYCoordinateSequence;
+
+import test.jts.perf.PerformanceTestCase;
+import test.jts.perf.PerformanceTestRunner;
+
+/**
+ * Reports the heap used per geometry for short linestrings
+ * held as individual {@link LineString}s
+ * (using {@link PackedCoordinateSequence.Double} and {@link XYCoordinateSequence.DoubleXY})
+ * and in a {@link GeometryStore}.
+ * <p>
+ * Memory is measured as the change in used heap after a GC,
+ * so results are approximate.
+ * Run with a fixed heap (e.g. <code>-Xms4g -Xmx4g</code>) for stable numbers.
+ */
+public class GeometryStoreMemoryPerfTest extends PerformanceTestCase
+{
+  private static final int LINE_SIZE = 4;
+
+  public static void main(String args[]) {
+    PerformanceTestRunner.run(GeometryStoreMemoryPerfTest.class);
+  }
+
+  private GeometryFactory geomFact = new GeometryFactory();
+  private int numLines;
+
+  public GeometryStoreMemoryPerfTest(String name) {
+    super(name);
+    setRunSize(new int[] { 100000, 1000000 });
+    setRunIterations(1);
+  }
+
+  public void startRun(int size)
+  {
+    numLines = size;
+    System.out.println("----- # lines: " + size + "  points per line: " + LINE_SIZE);
+  }
+
+  public void runPackedDouble() {
+    long base = usedMemory();
+    List<LineString> lines = new ArrayList<LineString>(numLines);
+    for (int i = 0; i < numLines; i++) {
+      CoordinateSequence seq = new PackedCoordinateSequence.Double(createLineXY(i), 2, 0);
+      LineString line = geomFact.createLineString(seq);
+      line.getEnvelopeInternal();
+      lines.add(line);
+    }
+    report("PackedCoordinateSequence.Double", base, lines.size());
+    checkLength(lines);
+  }
+
+  public void runXYDouble() {
+    long base = usedMemory();
+    List<LineString> lines = new ArrayList<LineString>(numLines);
+    for (int i = 0; i < numLines; i++) {
+      CoordinateSequence seq = new XYCoordinateSequence.DoubleXY(createLineXY(i));
+      LineString line = geomFact.createLineString(seq);
+      line.getEnvelopeInternal();
+      lines.add(line);
+    }
+    report("XYCoordinateSequence.DoubleXY", base, lines.size());
+    checkLength(lines);
+  }
+
+  public void runGeometryStore() {
+    long base = usedMemory();
+    GeometryStore store = new GeometryStore(geomFact, numLines, numLines * LINE_SIZE);
+    for (int i = 0; i < numLines; i++) {
+      store.addLineString(createLineXY(i));
+    }
+    store.trimToSize();
+    report("GeometryStore", base, store.size());
+    double len = 0;
+    for (int i = 0; i < store.size(); i++) {
+      len += Length.ofLine(store.getLineString(i).getCoordinateSequence());
+    }
+    System.out.println("  total length = " + len);
+  }
+
+  private static double[] createLineXY(int i) {
+    double[] xy = new double[2 * LINE_SIZE];
+    double x0 = 129.344381 + 1e-6 * (i % 1000);
+    double y0 = 33.938316 + 1e-6 * (i / 1000);
+    for (int j = 0; j < LINE_SIZE; j++) {
+      xy[2 * j] = x0 + 0.0001 * j;
+      xy[2 * j + 1] = y0 + 0.0001 * j;
+    }
+    return xy;
+  }
+
+  private static void checkLength(List<LineString> lines) {
+    double len = 0;
+    for (LineString line : lines) {
+      len += Length.ofLine(line.getCoordinateSequence());
+    }
+    System.out.println("  total length = " + len);
+  }
+
+  private static void report(String name, long base, int count) {
+    long used = usedMemory() - base;
+    System.out.println(name + " : " + (used / count) + " bytes/geometry");
+  }
+
+  private static long usedMemory() {
+    Runtime rt = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return rt.totalMemory() - rt.freeMemory();
+  }
+}
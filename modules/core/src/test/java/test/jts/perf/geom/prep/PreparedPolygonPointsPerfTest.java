@@ -49,11 +49,11 @@ public class PreparedPolygonPointsPerfTest extends PerformanceTestCase
     PerformanceTestRunner.run(PreparedPolygonPointsPerfTest.class);
   }
 
-  private PreparedGeometry prepGeom;
+  PreparedGeometry prepGeom;
 
-  private List<Point> testPoints;
+  List<Point> testPoints;
 
-  private Geometry sinePoly;
+  Geometry sinePoly;
 
   private IndexedPointInAreaLocator ipa;
 
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package test.jts.perf.geom.prep;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.locationtech.jts.geom.Point;
+
+import test.jts.perf.PerformanceTestRunner;
+
+/**
+ * Times point predicates against a single {@link org.locationtech.jts.geom.prep.PreparedGeometry}
+ * shared by several threads.
+ * Each run uses a newly prepared geometry, so the timings include
+ * the threads contending to create the lazy indexes.
+ */
+public class PreparedPolygonPointsThreadedPerfTest extends PreparedPolygonPointsPerfTest
+{
+  static final int NUM_THREADS = 4;
+
+  public static void main(String[] args) {
+    PerformanceTestRunner.run(PreparedPolygonPointsThreadedPerfTest.class);
+  }
+
+  private ExecutorService executor;
+
+  public PreparedPolygonPointsThreadedPerfTest(String name) {
+    super(name);
+    setRunSize(new int[] { 1000, 10000, 100000 });
+  }
+
+  public void setUp()
+  {
+    executor = Executors.newFixedThreadPool(NUM_THREADS);
+  }
+
+  public void tearDown()
+  {
+    executor.shutdown();
+  }
+
+  public void runCoversNonPrepThreaded() throws Exception {
+    computeThreaded(new PointTest() {
+      public boolean test(Point pt) { return sinePoly.covers(pt); }
+    });
+  }
+
+  public void runCoversPreparedThreaded() throws Exception {
+    computeThreaded(new PointTest() {
+      public boolean test(Point pt) { return prepGeom.covers(pt); }
+    });
+  }
+
+  public void runIntersectsPreparedThreaded() throws Exception {
+    computeThreaded(new PointTest() {
+      public boolean test(Point pt) { return prepGeom.intersects(pt); }
+    });
+  }
+
+  public void runWithinDistancePreparedThreaded() throws Exception {
+    computeThreaded(new PointTest() {
+      public boolean test(Point pt) { return prepGeom.isWithinDistance(pt, 1.0); }
+    });
+  }
+
+  /**
+   * Runs a test over all test points,
+   * with the points split evenly between the threads.
+   */
+  private void computeThreaded(final PointTest pointTest)
+      throws InterruptedException, ExecutionException
+  {
+    List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+    int chunkSize = (testPoints.size() + NUM_THREADS - 1) / NUM_THREADS;
+    for (int i = 0; i < testPoints.size(); i += chunkSize) {
+      final List<Point> chunk = testPoints.subList(i, Math.min(i + chunkSize, testPoints.size()));
+      results.add(executor.submit(new Callable<Integer>() {
+        public Integer call() {
+          int count = 0;
+          for (Point pt : chunk) {
+            if (pointTest.test(pt)) count++;
+          }
+          return count;
+        }
+      }));
+    }
+    for (Future<Integer> result : results) {
+      result.get();
+    }
+  }
+
+  private interface PointTest {
+    boolean test(Point pt);
+  }
+}
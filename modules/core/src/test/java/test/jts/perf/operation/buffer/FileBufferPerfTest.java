@@ -12,14 +12,20 @@
 
 package test.jts.perf.operation.buffer;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.PrecisionModel;
 import org.locationtech.jts.io.WKTFileReader;
 import org.locationtech.jts.io.WKTReader;
+import org.locationtech.jts.operation.buffer.BufferOp;
+import org.locationtech.jts.operation.buffer.CollectionBufferOp;
 import org.locationtech.jts.util.Stopwatch;
 
 import test.jts.TestFiles;
@@ -70,6 +76,11 @@ public class FileBufferPerfTest
     runAll(polys, 10.0);
     runAll(polys, 100.0);
     runAll(polys, 1000.0);
+
+    Geometry coll = fact.buildGeometry(polys);
+    runCollection(coll, 0.1);
+    runCollection(coll, 1.0);
+    runCollection(coll, 10.0);
   }
 
   void runAll(List polys, double distance)
@@ -84,4 +95,59 @@ public class FileBufferPerfTest
     System.out.println();
     System.out.println("   Time = " + sw.getTimeString());
   }
+
+  /**
+   * Compares buffering a collection in a single pass
+   * with buffering the components and merging them incrementally,
+   * sequentially and in parallel.
+   */
+  void runCollection(Geometry coll, double distance)
+  {
+    System.out.println("Collection buffer: geom count = " + coll.getNumGeometries() + "   distance = " + distance);
+
+    resetPeakMemory();
+    Stopwatch sw = new Stopwatch();
+    Geometry single = BufferOp.bufferOp(coll, distance);
+    System.out.println("   Single-pass:      Time = " + sw.getTimeString()
+        + "   Peak heap = " + peakMemoryMB() + " MB");
+
+    resetPeakMemory();
+    sw.reset();
+    Geometry seq = CollectionBufferOp.buffer(coll, distance, null);
+    System.out.println("   Incremental:      Time = " + sw.getTimeString()
+        + "   Peak heap = " + peakMemoryMB() + " MB");
+
+    ForkJoinPool pool = new ForkJoinPool();
+    try {
+      resetPeakMemory();
+      sw.reset();
+      Geometry par = CollectionBufferOp.buffer(coll, distance, pool);
+      System.out.println("   Parallel (" + pool.getParallelism() + "):     Time = " + sw.getTimeString()
+          + "   Peak heap = " + peakMemoryMB() + " MB");
+      System.out.println("   Area: single-pass = " + single.getArea()
+          + "   incremental = " + seq.getArea() + "   parallel = " + par.getArea());
+    }
+    finally {
+      pool.shutdown();
+    }
+  }
+
+  private static void resetPeakMemory()
+  {
+    System.gc();
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP)
+        pool.resetPeakUsage();
+    }
+  }
+
+  private static long peakMemoryMB()
+  {
+    long peak = 0;
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP)
+        peak += pool.getPeakUsage().getUsed();
+    }
+    return peak / (1024 * 1024);
+  }
 }
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+
+package test.jts.perf.operation.buffer;
+
+import java.util.Random;
+
+import org.locationtech.jts.algorithm.distance.LocalLonLatDistance;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.operation.buffer.BufferOp;
+import org.locationtech.jts.operation.buffer.BufferParameters;
+import org.locationtech.jts.util.Stopwatch;
+
+/**
+ * Reports the accuracy and time of buffering lon/lat lines by a distance in metres,
+ * using the maximum-latitude distance conversion
+ * and a local projection.
+ * The accuracy is the range of the distances from the buffer vertices to the line,
+ * relative to the buffer distance.
+ */
+public class GeographicBufferPerfTest
+{
+  static final int NUM_LINES = 200;
+  static final double DISTANCE = 500;
+
+  public static void main(String[] args) {
+    GeographicBufferPerfTest test = new GeographicBufferPerfTest();
+    test.run();
+  }
+
+  public GeographicBufferPerfTest() {
+  }
+
+  public void run()
+  {
+    GeometryFactory.initDefaultFactory();
+    for (double lat = 0; lat <= 80; lat += 20) {
+      Geometry[] lines = createLines(lat, new Random(17));
+      System.out.println("Latitude = " + lat + "   line count = " + lines.length
+          + "   distance = " + DISTANCE);
+      run("Max latitude", lines, false);
+      run("Local projection", lines, true);
+    }
+  }
+
+  private void run(String name, Geometry[] lines, boolean isLocalProjection)
+  {
+    BufferParameters bufParams = new BufferParameters();
+    bufParams.setLocalProjection(isLocalProjection);
+    Geometry[] bufs = new Geometry[lines.length];
+    Stopwatch sw = new Stopwatch();
+    for (int i = 0; i < lines.length; i++) {
+      bufs[i] = BufferOp.bufferOp(lines[i], DISTANCE, bufParams);
+    }
+    String time = sw.getTimeString();
+
+    double minErr = Double.MAX_VALUE;
+    double maxErr = -Double.MAX_VALUE;
+    for (int i = 0; i < lines.length; i++) {
+      for (Coordinate p : bufs[i].getCoordinates()) {
+        double err = (distance(p, lines[i]) - DISTANCE) / DISTANCE;
+        minErr = Math.min(minErr, err);
+        maxErr = Math.max(maxErr, err);
+      }
+    }
+    System.out.println("   " + name + ":   Time = " + time
+        + "   Error = " + percent(minErr) + " to " + percent(maxErr));
+  }
+
+  private static String percent(double frac)
+  {
+    return String.format("%.3f%%", 100 * frac);
+  }
+
+  private static Geometry[] createLines(double lat, Random rnd)
+  {
+    GeometryFactory fact = GeometryFactory.getDefault();
+    Geometry[] lines = new Geometry[NUM_LINES];
+    for (int i = 0; i < lines.length; i++) {
+      Coordinate[] pts = new Coordinate[10];
+      double x = 116 + rnd.nextDouble();
+      double y = lat + rnd.nextDouble();
+      for (int j = 0; j < pts.length; j++) {
+        pts[j] = new Coordinate(x, y);
+        x += 0.02 * rnd.nextDouble() - 0.01;
+        y += 0.02 * rnd.nextDouble() - 0.01;
+      }
+      lines[i] = fact.createLineString(pts);
+    }
+    return lines;
+  }
+
+  /**
+   * Computes the distance in metres from a point to a line,
+   * by densifying the line segments.
+   */
+  private static double distance(Coordinate p, Geometry line)
+  {
+    Coordinate[] pts = line.getCoordinates();
+    double min = Double.MAX_VALUE;
+    int numSteps = 200;
+    for (int i = 0; i < pts.length - 1; i++) {
+      for (int j = 0; j <= numSteps; j++) {
+        double frac = j / (double) numSteps;
+        double x = pts[i].x + frac * (pts[i + 1].x - pts[i].x);
+        double y = pts[i].y + frac * (pts[i + 1].y - pts[i].y);
+        min = Math.min(min, LocalLonLatDistance.distance(p.x, p.y, x, y));
+      }
+    }
+    return min;
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+
+package test.jts.perf.operation.union;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.operation.union.CascadedPolygonUnion;
+import org.locationtech.jts.util.Stopwatch;
+
+/**
+ * Measures how {@link CascadedPolygonUnion} scales
+ * when unioning in parallel with pools of increasing size,
+ * using the grid of overlapping circles from {@link PolygonUnionPerfTest}.
+ * Each parallel result is checked to be identical to the sequential result.
+ */
+public class ParallelPolygonUnionPerfTest 
+extends PolygonUnionPerfTest
+{
+  public static void main(String[] args) {
+    // the circles are built using the default factory, so make it planar
+    GeometryFactory.setDefaultFactory(new GeometryFactory());
+    ParallelPolygonUnionPerfTest test = new ParallelPolygonUnionPerfTest();
+    test.testScaling();
+  }
+
+  public ParallelPolygonUnionPerfTest() {
+  }
+
+  public void testScaling()
+  {
+    int nPts = 100;
+    testScaling(2500, nPts);
+    testScaling(10000, nPts);
+    testScaling(40000, nPts);
+  }
+
+  public void testScaling(int nItems, int nPts)
+  {
+    System.out.println("---------------------------------------------------------");
+    System.out.println("# items: " + nItems + "   # pts/item: " + nPts);
+
+    List polys = createPolys(nItems, 10.0, nPts);
+
+    Stopwatch sw = new Stopwatch();
+    Geometry expected = CascadedPolygonUnion.union(polys);
+    long seqTime = sw.getTime();
+    System.out.println("Sequential: " + seqTime + " ms");
+
+    int maxParallelism = Runtime.getRuntime().availableProcessors();
+    for (int parallelism = 1; parallelism <= maxParallelism; parallelism *= 2) {
+      ForkJoinPool pool = new ForkJoinPool(parallelism);
+      try {
+        sw.reset();
+        CascadedPolygonUnion op = new CascadedPolygonUnion(polys);
+        op.setParallelUnion(pool);
+        Geometry union = op.union();
+        long time = sw.getTime();
+        System.out.println("Parallelism " + parallelism + ": " + time + " ms"
+            + "  speedup " + Math.round(100.0 * seqTime / time) / 100.0
+            + (union.equalsExact(expected) ? "" : "  *** RESULT DIFFERS ***"));
+      }
+      finally {
+        pool.shutdown();
+      }
+    }
+  }
+}
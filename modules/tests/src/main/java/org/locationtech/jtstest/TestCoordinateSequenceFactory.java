@@ -20,11 +20,24 @@ import org.locationtech.jts.geom.impl.CoordinateArraySequenceFactory;
  */
 public class TestCoordinateSequenceFactory {
 
+  private static CoordinateSequenceFactory csFactory = CoordinateArraySequenceFactory.instance();
+//    new PackedCoordinateSequenceFactory();
+//    new PackedCoordinateSequenceFactory(PackedCoordinateSequenceFactory.FLOAT, 2);
+
   public static CoordinateSequenceFactory instance()
   {
-    return CoordinateArraySequenceFactory.instance();
-//    return new PackedCoordinateSequenceFactory();
-//    return new PackedCoordinateSequenceFactory(PackedCoordinateSequenceFactory.FLOAT, 2);
+    return csFactory;
+  }
+
+  /**
+   * Sets the factory used to create the sequences of test input geometries.
+   * This allows running the test suite against other sequence implementations.
+   *
+   * @param factory the factory to use, or null to reset to the default
+   */
+  public static void setInstance(CoordinateSequenceFactory factory)
+  {
+    csFactory = factory != null ? factory : CoordinateArraySequenceFactory.instance();
   }
 
   private TestCoordinateSequenceFactory() {
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2016 Vivid Solutions.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jtstest;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.impl.XYFloatCoordinateSequenceFactory;
+import org.locationtech.jts.util.Assert;
+import org.locationtech.jtstest.testrunner.SimpleReportWriter;
+import org.locationtech.jtstest.testrunner.TestEngine;
+import org.locationtech.jtstest.testrunner.TestRun;
+
+import junit.framework.TestCase;
+
+/**
+ * Runs the XML conformance tests with input geometries
+ * and constructive results using {@link XYFloatCoordinateSequenceFactory}.
+ * <p>
+ * The factory is planar (SRID 0), as in {@link CoreGeometryXMLTest},
+ * since the expected results of the conformance tests are planar.
+ * <p>
+ * Rounding ordinates to single precision can legitimately change
+ * the result of tests of nearly degenerate geometry.
+ * The tests known to diverge for that reason are listed in {@link #ALLOWED_DIVERGENT};
+ * the run fails if any other test fails or throws an exception.
+ */
+public class FloatXYGeometryXMLTest extends TestCase {
+
+    /**
+     * The tests whose results change when ordinates are rounded to single precision,
+     * identified by file, case index, operation and arguments.
+     */
+    private static final String[] ALLOWED_DIVERGENT = {
+        // almost collinear points
+        "TestConvexHull.xml#13 convexhull",
+        // almost degenerate polygons
+        "TestCentroid.xml#37 getCentroid",
+        "TestCentroid.xml#38 getCentroid",
+        // almost parallel segments
+        "TestBuffer.xml#5 buffer 10.0",
+        "TestBuffer.xml#5 buffer 15.0",
+        "TestBuffer.xml#9 buffer 1.0",
+        "TestBuffer.xml#9 buffer 4.0",
+        // expected results with double-precision vertices
+        "TestUnaryUnionFloating.xml#1 union",
+        "TestUnaryUnionFloating.xml#2 union",
+        "TestPolygonize.xml#6 polygonize",
+        // very close vertices and almost collinear segments
+        "TestBufferMitredJoin.xml#1 bufferMitredJoin -5.0",
+        "TestBufferMitredJoin.xml#2 bufferMitredJoin -5.0",
+        "TestBufferMitredJoin.xml#3 bufferMitredJoin -5.0",
+        "TestBufferMitredJoin.xml#4 bufferMitredJoin -5.0",
+        "TestBufferMitredJoin.xml#5 bufferMitredJoin -5.0",
+    };
+
+    public FloatXYGeometryXMLTest(String name) {
+        super(name);
+    }
+
+    public void testUnit() {
+        testFiles("src/test/resources/testxml/general", "src/test/resources/testxml/validate");
+    }
+
+    private void testFiles(String... directoryName) {
+        GeometryFactory gf = XYFloatCoordinateSequenceFactory.createGeometryFactory(0);
+        GeometryFactory.setDefaultFactory(gf);
+        TestCoordinateSequenceFactory.setInstance(XYFloatCoordinateSequenceFactory.instance());
+        try {
+            TestEngine engine = new TestEngine();
+            List<File> testFiles = new ArrayList<File>();
+            for (String dirName : directoryName) {
+              testFiles.addAll( filenames(new File(dirName)) );
+            }
+            engine.setTestFiles(testFiles);
+            engine.run();
+            SimpleReportWriter reportWriter = new SimpleReportWriter(false);
+            System.out.println(reportWriter.writeReport(engine));
+            System.out.println("FloatXY divergent tests: " + engine.getFailedCount()
+                + " of " + engine.getTestCount()
+                + ", exceptions: " + engine.getExceptionCount());
+
+            assertEquals(0, engine.getParseExceptionCount());
+            assertEquals(0, engine.getExceptionCount());
+            assertEquals(new HashSet<String>(Arrays.asList(ALLOWED_DIVERGENT)), failedTests(engine));
+        }
+        finally {
+            TestCoordinateSequenceFactory.setInstance(null);
+            GeometryFactory.initDefaultFactory();
+        }
+    }
+
+    /**
+     * Gets the ids of the tests which failed,
+     * in the form used in {@link #ALLOWED_DIVERGENT}.
+     */
+    private static Set<String> failedTests(TestEngine engine) {
+        Set<String> failed = new HashSet<String>();
+        for (TestRun testRun : engine.getTestRuns()) {
+            for (org.locationtech.jtstest.testrunner.TestCase testCase : testRun.getTestCases()) {
+                for (org.locationtech.jtstest.testrunner.Test test : testCase.getTests()) {
+                    if (test.isPassed()) continue;
+                    String id = testRun.getTestFileName() + "#" + testCase.getCaseIndex()
+                        + " " + test.getOperation();
+                    for (int i = 0; i < test.getArgumentCount(); i++) {
+                        id += " " + test.getArgument(i);
+                    }
+                    failed.add(id);
+                }
+            }
+        }
+        return failed;
+    }
+
+    static FilenameFilter XML_FILTER = new FilenameFilter() {
+      @Override
+      public boolean accept(File dir, String name) {
+        return name.endsWith(".xml");
+      }
+    };
+
+    private static List<File> filenames(File directory) {
+        Assert.isTrue(directory.isDirectory());
+        File[] files = directory.listFiles(XML_FILTER);
+
+        return Arrays.asList(files);
+    }
+}